@@ -0,0 +1,302 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.ancompiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.base.rule.constraint.BetaConstraint;
+import org.drools.core.common.BetaConstraints;
+import org.drools.core.common.DefaultBetaConstraints;
+import org.drools.core.common.DoubleBetaConstraints;
+import org.drools.core.common.MultipleBetaConstraint;
+import org.drools.core.common.QuadroupleBetaConstraints;
+import org.drools.core.common.SingleBetaConstraints;
+import org.drools.core.common.TripleBetaConstraints;
+import org.drools.core.phreak.PhreakJoinNode;
+import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.JoinNode;
+import org.drools.core.reteoo.LeftTupleSource;
+import org.drools.core.reteoo.Rete;
+import org.drools.core.reteoo.RightInputAdapterNode;
+import org.drools.core.reteoo.TerminalNode;
+import org.kie.memorycompiler.KieMemoryCompiler;
+
+/**
+ * Generates, for each join node of the network, a subclass of PhreakJoinNode whose insert loops evaluate the
+ * constraints of that node through dedicated fields, instead of going through the shared BetaConstraints
+ * implementation and its loop over the constraints array. This way each call site only ever sees the
+ * constraints of a single node and the indexed constraints are statically skipped.
+ */
+public class JoinNodeCompiler {
+
+    private static final String NEWLINE = "\n";
+
+    private static final String CLASS_NAME_PREFIX = "CompiledJoinNode";
+
+    private final JoinNode joinNode;
+
+    private final String generatedClassSimpleName;
+
+    private final StringBuilder builder = new StringBuilder();
+
+    public JoinNodeCompiler(JoinNode joinNode) {
+        this.joinNode = joinNode;
+        this.generatedClassSimpleName = CLASS_NAME_PREFIX + joinNode.getId();
+    }
+
+    public String getName() {
+        return ObjectTypeNodeCompiler.PACKAGE_NAME + "." + generatedClassSimpleName;
+    }
+
+    public JoinNode getJoinNode() {
+        return joinNode;
+    }
+
+    /**
+     * Compiles the join nodes of the given network that haven't been compiled yet and sets the generated
+     * PhreakJoinNode on each of them
+     */
+    public static void compileAndSet(Rete rete, ClassLoader rootClassLoader) {
+        List<JoinNodeCompiler> compilers = new ArrayList<>();
+        for (JoinNode joinNode : joinNodes(rete)) {
+            if (joinNode.getCompiledPhreakNode() == null && isCompilable(joinNode.getRawConstraints())) {
+                compilers.add(new JoinNodeCompiler(joinNode));
+            }
+        }
+        if (compilers.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> sources = new HashMap<>();
+        for (JoinNodeCompiler compiler : compilers) {
+            sources.put(compiler.getName(), compiler.generateSource());
+        }
+        Map<String, Class<?>> compiledClasses = KieMemoryCompiler.compile(sources, rootClassLoader);
+        for (JoinNodeCompiler compiler : compilers) {
+            compiler.createInstanceAndSet(compiledClasses.get(compiler.getName()));
+        }
+    }
+
+    public static List<JoinNode> joinNodes(Rete rete) {
+        Set<LeftTupleSource> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<JoinNode> joinNodes = new ArrayList<>();
+        for (TerminalNode[] terminalNodes : rete.getRuleBase().getReteooBuilder().getTerminalNodes().values()) {
+            for (TerminalNode terminalNode : terminalNodes) {
+                collectJoinNodes(terminalNode.getLeftTupleSource(), visited, joinNodes);
+            }
+        }
+        return joinNodes;
+    }
+
+    private static void collectJoinNodes(LeftTupleSource node, Set<LeftTupleSource> visited, List<JoinNode> joinNodes) {
+        for (; node != null && visited.add(node); node = node.getLeftTupleSource()) {
+            if (node instanceof JoinNode) {
+                joinNodes.add((JoinNode) node);
+            }
+            if (node instanceof BetaNode && ((BetaNode) node).isRightInputIsRiaNode()) {
+                collectJoinNodes(((RightInputAdapterNode) ((BetaNode) node).getRightInput()).getLeftTupleSource(), visited, joinNodes);
+            }
+        }
+    }
+
+    /**
+     * Only the plain BetaConstraints implementations are compiled, nodes using any other implementation
+     * (i.e. the ones not skipping the indexed constraints) keep using the generic PhreakJoinNode
+     */
+    static boolean isCompilable(BetaConstraints constraints) {
+        Class<?> constraintsClass = constraints.getClass();
+        return constraintsClass == SingleBetaConstraints.class ||
+               constraintsClass == DoubleBetaConstraints.class ||
+               constraintsClass == TripleBetaConstraints.class ||
+               constraintsClass == QuadroupleBetaConstraints.class ||
+               constraintsClass == DefaultBetaConstraints.class;
+    }
+
+    void createInstanceAndSet(Class<?> compiledClass) {
+        try {
+            BetaConstraint[] constraints = joinNode.getRawConstraints().getConstraints();
+            PhreakJoinNode compiledNode = (PhreakJoinNode) compiledClass.getConstructor(BetaConstraint[].class).newInstance((Object) constraints);
+            joinNode.setCompiledPhreakNode(compiledNode);
+        } catch (ReflectiveOperationException e) {
+            throw new CouldNotCreateAlphaNetworkCompilerException(e);
+        }
+    }
+
+    public String generateSource() {
+        BetaConstraints constraints = joinNode.getRawConstraints();
+        BetaConstraint[] betaConstraints = constraints.getConstraints();
+        boolean single = constraints instanceof SingleBetaConstraints;
+        String contextType = single ? "ContextEntry" : "ContextEntry[]";
+
+        builder.append("package ").append(ObjectTypeNodeCompiler.PACKAGE_NAME).append(";").append(NEWLINE).append(NEWLINE);
+        appendImports();
+        builder.append("public class ").append(generatedClassSimpleName).append(" extends PhreakJoinNode {").append(NEWLINE).append(NEWLINE);
+
+        for (int i = 0; i < betaConstraints.length; i++) {
+            builder.append("    private final BetaConstraint constraint").append(i).append(";").append(NEWLINE);
+        }
+        builder.append(NEWLINE);
+        builder.append("    public ").append(generatedClassSimpleName).append("(BetaConstraint[] constraints) {").append(NEWLINE);
+        for (int i = 0; i < betaConstraints.length; i++) {
+            builder.append("        this.constraint").append(i).append(" = constraints[").append(i).append("];").append(NEWLINE);
+        }
+        builder.append("    }").append(NEWLINE).append(NEWLINE);
+
+        appendLeftInserts(contextType, leftCondition(constraints, betaConstraints.length, single));
+        appendRightInserts(contextType, rightCondition(constraints, betaConstraints.length, single));
+
+        builder.append("}").append(NEWLINE);
+        return builder.toString();
+    }
+
+    private void appendImports() {
+        builder.append("import org.drools.base.rule.ContextEntry;").append(NEWLINE)
+                .append("import org.drools.base.rule.constraint.BetaConstraint;").append(NEWLINE)
+                .append("import org.drools.core.common.BetaConstraints;").append(NEWLINE)
+                .append("import org.drools.core.common.ReteEvaluator;").append(NEWLINE)
+                .append("import org.drools.core.common.TupleSets;").append(NEWLINE)
+                .append("import org.drools.core.phreak.PhreakJoinNode;").append(NEWLINE)
+                .append("import org.drools.core.phreak.RuleNetworkEvaluator;").append(NEWLINE)
+                .append("import org.drools.core.reteoo.BetaMemory;").append(NEWLINE)
+                .append("import org.drools.core.reteoo.JoinNode;").append(NEWLINE)
+                .append("import org.drools.core.reteoo.LeftTuple;").append(NEWLINE)
+                .append("import org.drools.core.reteoo.LeftTupleSink;").append(NEWLINE)
+                .append("import org.drools.core.reteoo.TupleImpl;").append(NEWLINE)
+                .append("import org.drools.core.reteoo.TupleMemory;").append(NEWLINE)
+                .append("import org.drools.core.util.AbstractHashTable;").append(NEWLINE)
+                .append("import org.drools.core.util.FastIterator;").append(NEWLINE)
+                .append(NEWLINE);
+    }
+
+    private static String leftCondition(BetaConstraints constraints, int size, boolean single) {
+        List<String> checks = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (!isIndexed(constraints, i)) {
+                checks.add("constraint" + i + ".isAllowedCachedLeft(" + contextEntry(i, single) + ", rightTuple.getFactHandle())");
+            }
+        }
+        return checks.isEmpty() ? null : String.join(" &&\n                    ", checks);
+    }
+
+    private static String rightCondition(BetaConstraints constraints, int size, boolean single) {
+        // only DefaultBetaConstraints skips the indexed constraints also when evaluating from the right
+        boolean skipIndexed = constraints instanceof DefaultBetaConstraints;
+        List<String> checks = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (!skipIndexed || !isIndexed(constraints, i)) {
+                checks.add("constraint" + i + ".isAllowedCachedRight(leftTuple, " + contextEntry(i, single) + ")");
+            }
+        }
+        return checks.isEmpty() ? null : String.join(" &&\n                         ", checks);
+    }
+
+    private static boolean isIndexed(BetaConstraints constraints, int position) {
+        if (constraints instanceof SingleBetaConstraints) {
+            return constraints.isIndexed();
+        }
+        if (constraints instanceof MultipleBetaConstraint) {
+            return ((MultipleBetaConstraint) constraints).isIndexed(position);
+        }
+        return position < constraints.getIndexCount();
+    }
+
+    private static String contextEntry(int position, boolean single) {
+        return single ? "contextEntry" : "contextEntry[" + position + "]";
+    }
+
+    private void appendLeftInserts(String contextType, String condition) {
+        builder.append("    @Override").append(NEWLINE)
+                .append("    public void doLeftInserts(JoinNode joinNode, LeftTupleSink sink, BetaMemory<?> bm, ReteEvaluator reteEvaluator,").append(NEWLINE)
+                .append("                              TupleSets srcLeftTuples, TupleSets trgLeftTuples) {").append(NEWLINE)
+                .append("        TupleMemory ltm = bm.getLeftTupleMemory();").append(NEWLINE)
+                .append("        TupleMemory rtm = bm.getRightTupleMemory();").append(NEWLINE)
+                .append("        ").append(contextType).append(" contextEntry = (").append(contextType).append(") bm.getContext();").append(NEWLINE)
+                .append("        BetaConstraints constraints = joinNode.getRawConstraints();").append(NEWLINE).append(NEWLINE)
+                .append("        for (TupleImpl leftTuple = srcLeftTuples.getInsertFirst(); leftTuple != null; ) {").append(NEWLINE)
+                .append("            TupleImpl next = leftTuple.getStagedNext();").append(NEWLINE)
+                .append("            boolean useLeftMemory = RuleNetworkEvaluator.useLeftMemory(joinNode, leftTuple);").append(NEWLINE)
+                .append("            if (useLeftMemory) {").append(NEWLINE)
+                .append("                ltm.add(leftTuple);").append(NEWLINE)
+                .append("            }").append(NEWLINE)
+                .append("            FastIterator<TupleImpl> it = joinNode.getRightIterator(rtm);").append(NEWLINE)
+                .append("            constraints.updateFromTuple(contextEntry, reteEvaluator, leftTuple);").append(NEWLINE)
+                .append("            for (TupleImpl rightTuple = joinNode.getFirstRightTuple(leftTuple, rtm, it); rightTuple != null; rightTuple = it.next(rightTuple)) {").append(NEWLINE);
+        String indent = "                ";
+        if (condition != null) {
+            builder.append("                if (").append(condition).append(") {").append(NEWLINE);
+            indent = "                    ";
+        }
+        builder.append(indent).append("insertChildLeftTuple(trgLeftTuples, leftTuple, rightTuple, null, null, sink, useLeftMemory);").append(NEWLINE);
+        if (condition != null) {
+            builder.append("                }").append(NEWLINE);
+        }
+        builder.append("            }").append(NEWLINE)
+                .append("            leftTuple.clearStaged();").append(NEWLINE)
+                .append("            leftTuple = next;").append(NEWLINE)
+                .append("        }").append(NEWLINE)
+                .append("        constraints.resetTuple(contextEntry);").append(NEWLINE)
+                .append("    }").append(NEWLINE).append(NEWLINE);
+    }
+
+    private void appendRightInserts(String contextType, String condition) {
+        builder.append("    @Override").append(NEWLINE)
+                .append("    public void doRightInserts(JoinNode joinNode, LeftTupleSink sink, BetaMemory<?> bm, ReteEvaluator reteEvaluator,").append(NEWLINE)
+                .append("                               TupleSets srcRightTuples, TupleSets trgLeftTuples) {").append(NEWLINE)
+                .append("        TupleMemory ltm = bm.getLeftTupleMemory();").append(NEWLINE)
+                .append("        TupleMemory rtm = bm.getRightTupleMemory();").append(NEWLINE)
+                .append("        ").append(contextType).append(" contextEntry = (").append(contextType).append(") bm.getContext();").append(NEWLINE)
+                .append("        BetaConstraints constraints = joinNode.getRawConstraints();").append(NEWLINE).append(NEWLINE)
+                .append("        if (srcRightTuples.getInsertSize() > 32 && rtm instanceof AbstractHashTable) {").append(NEWLINE)
+                .append("            ((AbstractHashTable) rtm).ensureCapacity(srcRightTuples.getInsertSize());").append(NEWLINE)
+                .append("        }").append(NEWLINE).append(NEWLINE)
+                .append("        for (TupleImpl rightTuple = srcRightTuples.getInsertFirst(); rightTuple != null; ) {").append(NEWLINE)
+                .append("            TupleImpl next = rightTuple.getStagedNext();").append(NEWLINE)
+                .append("            rtm.add(rightTuple);").append(NEWLINE)
+                .append("            if (ltm != null && ltm.size() > 0) {").append(NEWLINE)
+                .append("                FastIterator<TupleImpl> it = joinNode.getLeftIterator(ltm);").append(NEWLINE)
+                .append("                constraints.updateFromFactHandle(contextEntry, reteEvaluator, rightTuple.getFactHandleForEvaluation());").append(NEWLINE)
+                .append("                for (TupleImpl leftTuple = joinNode.getFirstLeftTuple(rightTuple, ltm, it); leftTuple != null; leftTuple = it.next(leftTuple)) {").append(NEWLINE)
+                .append("                    if (leftTuple.getStagedType() == LeftTuple.UPDATE) {").append(NEWLINE)
+                .append("                        // ignore, as it will get processed via left iteration. Children cannot be processed twice").append(NEWLINE)
+                .append("                        continue;").append(NEWLINE)
+                .append("                    }").append(NEWLINE);
+        String indent = "                    ";
+        if (condition != null) {
+            builder.append("                    if (").append(condition).append(") {").append(NEWLINE);
+            indent = "                        ";
+        }
+        builder.append(indent).append("insertChildLeftTuple(trgLeftTuples, leftTuple, rightTuple, null, null, sink, true);").append(NEWLINE);
+        if (condition != null) {
+            builder.append("                    }").append(NEWLINE);
+        }
+        builder.append("                }").append(NEWLINE)
+                .append("            }").append(NEWLINE)
+                .append("            rightTuple.clearStaged();").append(NEWLINE)
+                .append("            rightTuple = next;").append(NEWLINE)
+                .append("        }").append(NEWLINE)
+                .append("        constraints.resetFactHandle(contextEntry);").append(NEWLINE)
+                .append("    }").append(NEWLINE);
+    }
+}
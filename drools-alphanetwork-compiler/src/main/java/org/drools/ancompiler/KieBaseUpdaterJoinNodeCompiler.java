@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.ancompiler;
+
+import org.drools.compiler.kie.builder.impl.KieBaseUpdater;
+import org.drools.compiler.kie.builder.impl.KieBaseUpdatersContext;
+import org.drools.core.reteoo.Rete;
+import org.drools.kiesession.rulebase.InternalKnowledgeBase;
+import org.kie.api.KieBase;
+
+/**
+ * Generates and compiles in memory the node specific join loops when the kbase is configured with
+ * drools.betaNetworkCompiler = true. Join nodes already compiled by a previous run are left untouched,
+ * so after an incremental update only the newly created nodes get compiled.
+ */
+public class KieBaseUpdaterJoinNodeCompiler implements KieBaseUpdater {
+
+    private final KieBaseUpdatersContext ctx;
+
+    public KieBaseUpdaterJoinNodeCompiler(KieBaseUpdatersContext ctx) {
+        this.ctx = ctx;
+    }
+
+    public void run() {
+        Rete rete = ctx.getRete();
+        if (rete.getRuleBase().getRuleBaseConfiguration().isBetaNetworkCompiler()) {
+            JoinNodeCompiler.compileAndSet(rete, ctx.getClassLoader());
+        }
+    }
+
+    public static void generateAndSetInMemoryJoinNodes(KieBase kbase) {
+        InternalKnowledgeBase internalKieBase = (InternalKnowledgeBase) kbase;
+        JoinNodeCompiler.compileAndSet(internalKieBase.getRete(), internalKieBase.getRootClassLoader());
+    }
+}
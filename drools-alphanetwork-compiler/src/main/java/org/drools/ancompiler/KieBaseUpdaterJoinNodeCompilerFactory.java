@@ -16,21 +16,16 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.drools.tms.util;
+package org.drools.ancompiler;
 
-import java.util.HashMap;
-import java.util.function.Function;
+import org.drools.compiler.kie.builder.impl.KieBaseUpdater;
+import org.drools.compiler.kie.builder.impl.KieBaseUpdaterFactory;
+import org.drools.compiler.kie.builder.impl.KieBaseUpdatersContext;
 
-public class CustomKeyTransformerHashMap<K, V> extends HashMap<K, V> {
-
-    private final Function<Object, Object> keyTransformer;
-
-    public CustomKeyTransformerHashMap(Function<Object, Object> keyTransformer) {
-        this.keyTransformer = keyTransformer;
-    }
+public class KieBaseUpdaterJoinNodeCompilerFactory implements KieBaseUpdaterFactory {
 
     @Override
-    public V get(Object key) {
-        return super.get(keyTransformer.apply(key));
+    public KieBaseUpdater create(KieBaseUpdatersContext ctx) {
+        return new KieBaseUpdaterJoinNodeCompiler(ctx);
     }
 }
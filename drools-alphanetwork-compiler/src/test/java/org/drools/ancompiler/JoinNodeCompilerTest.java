@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.ancompiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.drools.core.reteoo.JoinNode;
+import org.drools.kiesession.rulebase.InternalKnowledgeBase;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.conf.BetaNetworkCompilerOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JoinNodeCompilerTest extends BaseModelTest {
+
+    public static Stream<RUN_TYPE> parameters() {
+        return Stream.of(RUN_TYPE.STANDARD_FROM_DRL, RUN_TYPE.PATTERN_DSL);
+    }
+
+    private static final String RULES =
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "global java.util.List results;\n" +
+            "rule SameAge when\n" +
+            "    $p1 : Person( name == \"parent\", $age : age )\n" +
+            "    $p2 : Person( name != \"parent\", age == $age )\n" +
+            "then\n" +
+            "    results.add(\"SameAge:\" + $p2.getName());\n" +
+            "end\n" +
+            "rule Younger when\n" +
+            "    $p1 : Person( name == \"parent\", $age : age )\n" +
+            "    $p2 : Person( name != \"parent\", age < $age )\n" +
+            "then\n" +
+            "    results.add(\"Younger:\" + $p2.getName());\n" +
+            "end\n" +
+            "rule SameAgeAndLikes when\n" +
+            "    $p1 : Person( name == \"parent\", $age : age, $likes : likes, $id : id )\n" +
+            "    $p2 : Person( name != \"parent\", age == $age, likes == $likes, id > $id )\n" +
+            "then\n" +
+            "    results.add(\"SameAgeAndLikes:\" + $p2.getName());\n" +
+            "end\n" +
+            "rule NotYounger when\n" +
+            "    $p1 : Person( name == \"parent\", $age : age )\n" +
+            "    not( Person( age < $age ) and Person( age > $age ) )\n" +
+            "then\n" +
+            "    results.add(\"NotYounger:\" + $p1.getName());\n" +
+            "end\n";
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("parameters")
+    public void testCompiledJoinNodes(RUN_TYPE testRunType) {
+        List<String> expected = runRules(testRunType, false);
+        List<String> actual = runRules(testRunType, true);
+
+        assertThat(expected).isNotEmpty();
+        assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("parameters")
+    public void testGenerateAndSetInMemoryJoinNodes(RUN_TYPE testRunType) {
+        KieSession ksession = getKieSession(testRunType, RULES);
+        InternalKnowledgeBase kbase = (InternalKnowledgeBase) ksession.getKieBase();
+        assertThat(JoinNodeCompiler.joinNodes(kbase.getRete())).allMatch(joinNode -> joinNode.getCompiledPhreakNode() == null);
+
+        KieBaseUpdaterJoinNodeCompiler.generateAndSetInMemoryJoinNodes(kbase);
+        // calling it twice doesn't recompile the nodes
+        List<Object> compiledNodes = new ArrayList<>();
+        JoinNodeCompiler.joinNodes(kbase.getRete()).forEach(joinNode -> compiledNodes.add(joinNode.getCompiledPhreakNode()));
+        KieBaseUpdaterJoinNodeCompiler.generateAndSetInMemoryJoinNodes(kbase);
+        List<Object> recompiledNodes = new ArrayList<>();
+        JoinNodeCompiler.joinNodes(kbase.getRete()).forEach(joinNode -> recompiledNodes.add(joinNode.getCompiledPhreakNode()));
+        assertThat(recompiledNodes).containsExactlyElementsOf(compiledNodes);
+
+        List<String> results = new ArrayList<>();
+        ksession.setGlobal("results", results);
+        ksession.insert(new Person("parent", 40));
+        ksession.insert(new Person("Mario", 40));
+        ksession.fireAllRules();
+        assertThat(results).containsExactlyInAnyOrder("SameAge:Mario", "NotYounger:parent");
+        ksession.dispose();
+    }
+
+    private List<String> runRules(RUN_TYPE testRunType, boolean compileJoinNodes) {
+        // the kmodule configuration properties only reach the builder configuration, so the kbase option is set as a system property
+        KieSession ksession;
+        System.setProperty(BetaNetworkCompilerOption.PROPERTY_NAME, Boolean.toString(compileJoinNodes));
+        try {
+            ksession = getKieSession(testRunType, RULES);
+        } finally {
+            System.clearProperty(BetaNetworkCompilerOption.PROPERTY_NAME);
+        }
+        InternalKnowledgeBase kbase = (InternalKnowledgeBase) ksession.getKieBase();
+        List<JoinNode> joinNodes = JoinNodeCompiler.joinNodes(kbase.getRete());
+        assertThat(joinNodes).isNotEmpty();
+        assertThat(joinNodes).allMatch(joinNode -> (joinNode.getCompiledPhreakNode() != null) == compileJoinNodes);
+
+        List<String> results = new ArrayList<>();
+        ksession.setGlobal("results", results);
+
+        // the parents are inserted first and then the children, so that both the left and the right inserts are exercised
+        ksession.insert(new Person("parent", 40).setLikes("chess"));
+        ksession.fireAllRules();
+
+        Person mario = new Person("Mario", 40).setLikes("chess");
+        mario.setId(1);
+        ksession.insert(mario);
+        ksession.insert(new Person("Luigi", 38).setLikes("chess"));
+        ksession.insert(new Person("Toad", 40).setLikes("golf"));
+        ksession.fireAllRules();
+
+        Person peach = new Person("parent", 38).setLikes("chess");
+        peach.setId(-1);
+        ksession.insert(peach);
+        ksession.insert(new Person("Yoshi", 50).setLikes("chess"));
+        ksession.fireAllRules();
+
+        ksession.dispose();
+        return results;
+    }
+}
@@ -28,6 +28,7 @@ public class AccumulateContextEntry {
     private Object functionContext;
     private boolean toPropagate;
     private boolean empty = true;
+    private boolean reaccumulationPending;
 
     public AccumulateContextEntry(Object key) {
         this.key = key;
@@ -84,4 +85,12 @@ public class AccumulateContextEntry {
     public void setEmpty(boolean empty) {
         this.empty = empty;
     }
+
+    public boolean isReaccumulationPending() {
+        return reaccumulationPending;
+    }
+
+    public void setReaccumulationPending(boolean reaccumulationPending) {
+        this.reaccumulationPending = reaccumulationPending;
+    }
 }
@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.base.rule;
+
+import org.drools.base.base.ValueResolver;
+import org.drools.base.reteoo.BaseTuple;
+import org.kie.api.runtime.rule.FactHandle;
+
+/**
+ * A groupBy whose groups can be accumulated in parallel, sharding its matches by their group key
+ */
+public interface ParallelGroupByAccumulate {
+
+    /**
+     * Tells if the parallel accumulation of the groups has been requested for this groupBy
+     */
+    boolean isParallel();
+
+    /**
+     * Returns the key of the group the given match belongs to
+     */
+    Object getGroupKey(BaseTuple match, FactHandle handle, ValueResolver valueResolver);
+
+    /**
+     * Returns the accumulate used for each single group
+     */
+    Accumulate getInnerAccumulate();
+
+    static boolean isParallelGroupBy(Accumulate accumulate) {
+        return accumulate instanceof ParallelGroupByAccumulate && ((ParallelGroupByAccumulate) accumulate).isParallel();
+    }
+}
@@ -82,8 +82,6 @@ public class InsertElementsCommand
 
     public Collection<FactHandle> execute(Context context) {
         KieSession ksession = ((RegistryContext) context).lookup( KieSession.class );
-        List<FactHandle> handles = new ArrayList<>();
-        
         EntryPoint wmep;
         if ( StringUtils.isEmpty( this.entryPoint ) ) {
             wmep = ksession;
@@ -91,9 +89,7 @@ public class InsertElementsCommand
             wmep = ksession.getEntryPoint( this.entryPoint );
         }
 
-        for ( Object object : objects ) {
-            handles.add( wmep.insert( object ) );
-        }
+        List<FactHandle> handles = new ArrayList<>( wmep.insertAll( objects ) );
 
         if ( outIdentifier != null ) {
             if ( this.returnObject ) {
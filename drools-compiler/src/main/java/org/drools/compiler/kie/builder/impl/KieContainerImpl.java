@@ -19,6 +19,7 @@
 package org.drools.compiler.kie.builder.impl;
 
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -29,6 +30,8 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import javax.management.ObjectName;
 
@@ -97,6 +100,10 @@ public class KieContainerImpl
 
     private final Map<String, KieBase> kBases = new ConcurrentHashMap<>();
 
+    // the previous snapshots of the kbases updated in copy-on-write mode, weakly kept so that they keep receiving
+    // the updates as long as they are referenced by a session, a stateless session or the user code
+    private final Map<String, List<WeakReference<InternalKnowledgeBase>>> kBaseSnapshots = new ConcurrentHashMap<>();
+
     private final Map<String, KieSession> kSessions = new ConcurrentHashMap<>();
     private final Map<String, StatelessKieSession> statelessKSessions = new ConcurrentHashMap<>();
 
@@ -267,44 +274,37 @@ public class KieContainerImpl
             } else {
                 final InternalKnowledgeBase kBase = (InternalKnowledgeBase) kBaseEntry.getValue();
 
-                // share Knowledge Builder among updater as it's computationally expensive to create this
-                KnowledgeBuilderConfigurationImpl builderConfiguration =
-                        (KnowledgeBuilderConfigurationImpl) newKM.createBuilderConfiguration(newKieBaseModel, kBase.getRootClassLoader());
-                InternalKnowledgeBuilder kbuilder =
-                        (InternalKnowledgeBuilder) KnowledgeBuilderFactory.newKnowledgeBuilder(kBase, builderConfiguration);
-
-                KieBaseUpdaterImplContext context = new KieBaseUpdaterImplContext(kProject, kBase, currentKM, newKM,
-                                                                                  cs, modifiedClasses, modifyingUsedClass, unchangedResources,
-                                                                                  results, newKieBaseModel, currentKieBaseModel, kbuilder);
-
-                // Multiple updaters are required to be merged together in a single Runnable
-                // to avoid a deadlock while using .fireUntilHalt()
-                // see IncrementalCompilationTest.testMultipleIncrementalCompilationsWithFireUntilHalt
-                // with multiple updaters (such as Alpha NetworkCompilerUpdater)
-                CompositeRunnable compositeUpdater = new CompositeRunnable();
-                KieBaseUpdater kieBaseUpdater = currentKM.createKieBaseUpdater(context);
-
-                compositeUpdater.add(kieBaseUpdater);
-
-                KieBaseUpdaterOptions kieBaseUpdaterOptions = new KieBaseUpdaterOptions(new KieBaseUpdaterOptions.OptionEntry(
-                        AlphaNetworkCompilerOption.class, builderConfiguration.getOption(AlphaNetworkCompilerOption.KEY)));
-
-                KieBaseUpdaters updaters = KieService.load(KieBaseUpdaters.class);
-                updaters.getChildren()
-                        .stream()
-                        .map(kbu -> kbu.create(new KieBaseUpdatersContext(kieBaseUpdaterOptions,
-                                                                          context.kBase.getRete(),
-                                                                          context.kBase.getRootClassLoader()
-                                                                          )))
-                        .forEach(compositeUpdater::add);
+                // the previous snapshots still referenced keep receiving the updates: the ones without running sessions
+                // are patched immediately, the others at the next safe point of their sessions
+                List<WeakReference<InternalKnowledgeBase>> previousSnapshots = kBaseSnapshots.getOrDefault(kbaseName, Collections.emptyList());
+                previousSnapshots.removeIf(ref -> ref.get() == null);
+                for (WeakReference<InternalKnowledgeBase> ref : previousSnapshots) {
+                    InternalKnowledgeBase previous = ref.get();
+                    if (previous != null) {
+                        // the errors, if any, are the same of the current kbase, so they are reported only once
+                        previous.enqueueModification(createKieBaseUpdater(currentKM, newKM, cs, modifiedClasses, modifyingUsedClass, unchangedResources,
+                                                                          new ResultsImpl(), previous, newKieBaseModel, currentKieBaseModel));
+                    }
+                }
 
-                kBase.enqueueModification(compositeUpdater);
+                // a new snapshot is only worth building when the update would otherwise have to wait for live sessions
+                if (kBase.getRuleBaseConfiguration().isCopyOnWriteUpdate() && !kBase.getKieSessions().isEmpty()) {
+                    InternalKnowledgeBase snapshot = (InternalKnowledgeBase) createKieBase(newKieBaseModel, kProject, new BuildContext(), null);
+                    if (snapshot != null) {
+                        kBaseEntry.setValue(snapshot);
+                        kBaseSnapshots.computeIfAbsent(kbaseName, k -> new CopyOnWriteArrayList<>()).add(new WeakReference<>(kBase));
+                    }
+                    // if the new snapshot cannot be built, the kbase is still updated so that the errors get reported as usual
+                }
 
+                kBase.enqueueModification(createKieBaseUpdater(currentKM, newKM, cs, modifiedClasses, modifyingUsedClass, unchangedResources,
+                                                               results, kBase, newKieBaseModel, currentKieBaseModel));
             }
         }
 
         for (String kbaseToRemove : kbasesToRemove) {
             kBases.remove(kbaseToRemove);
+            kBaseSnapshots.remove(kbaseToRemove);
         }
 
         // remove sessions that no longer exist
@@ -314,6 +314,44 @@ public class KieContainerImpl
         return results;
     }
 
+    private CompositeRunnable createKieBaseUpdater(InternalKieModule currentKM, InternalKieModule newKM, KieJarChangeSet cs,
+                                                   Collection<Class<?>> modifiedClasses, boolean modifyingUsedClass,
+                                                   Collection<String> unchangedResources, ResultsImpl results, InternalKnowledgeBase kBase,
+                                                   KieBaseModelImpl newKieBaseModel, KieBaseModelImpl currentKieBaseModel) {
+        // share Knowledge Builder among updater as it's computationally expensive to create this
+        KnowledgeBuilderConfigurationImpl builderConfiguration =
+                (KnowledgeBuilderConfigurationImpl) newKM.createBuilderConfiguration(newKieBaseModel, kBase.getRootClassLoader());
+        InternalKnowledgeBuilder kbuilder =
+                (InternalKnowledgeBuilder) KnowledgeBuilderFactory.newKnowledgeBuilder(kBase, builderConfiguration);
+
+        KieBaseUpdaterImplContext context = new KieBaseUpdaterImplContext(kProject, kBase, currentKM, newKM,
+                                                                          cs, modifiedClasses, modifyingUsedClass, unchangedResources,
+                                                                          results, newKieBaseModel, currentKieBaseModel, kbuilder);
+
+        // Multiple updaters are required to be merged together in a single Runnable
+        // to avoid a deadlock while using .fireUntilHalt()
+        // see IncrementalCompilationTest.testMultipleIncrementalCompilationsWithFireUntilHalt
+        // with multiple updaters (such as Alpha NetworkCompilerUpdater)
+        CompositeRunnable compositeUpdater = new CompositeRunnable();
+        KieBaseUpdater kieBaseUpdater = currentKM.createKieBaseUpdater(context);
+
+        compositeUpdater.add(kieBaseUpdater);
+
+        KieBaseUpdaterOptions kieBaseUpdaterOptions = new KieBaseUpdaterOptions(new KieBaseUpdaterOptions.OptionEntry(
+                AlphaNetworkCompilerOption.class, builderConfiguration.getOption(AlphaNetworkCompilerOption.KEY)));
+
+        KieBaseUpdaters updaters = KieService.load(KieBaseUpdaters.class);
+        updaters.getChildren()
+                .stream()
+                .map(kbu -> kbu.create(new KieBaseUpdatersContext(kieBaseUpdaterOptions,
+                                                                  context.kBase.getRete(),
+                                                                  context.kBase.getRootClassLoader()
+                                                                  )))
+                .forEach(compositeUpdater::add);
+
+        return compositeUpdater;
+    }
+
     public static class CompositeRunnable implements Runnable {
 
         private final List<Runnable> runnables = new ArrayList<>();
@@ -537,7 +575,8 @@ public class KieContainerImpl
         return new KieContainerSessionsPoolImpl(this, initialSize);
     }
 
-    StatefulSessionPool createKieSessionsPool(String kSessionName, KieSessionConfiguration conf, Environment env, int initialSize, boolean stateless) {
+    StatefulSessionPool createKieSessionsPool(String kSessionName, KieSessionConfiguration conf, Environment env, int initialSize, boolean stateless,
+                                              Consumer<? super StatefulKnowledgeSessionImpl> initializer) {
         KieSessionModel kSessionModel = kSessionName != null ? getKieSessionModel(kSessionName) : findKieSessionModel(false);
         if ( kSessionModel == null ) {
             log.error("Unknown KieSession name: " + kSessionName);
@@ -551,7 +590,7 @@ public class KieContainerImpl
                     (StatefulKnowledgeSessionImpl) kBase.newKieSession( sessConf, env );
             registerNewKieSession( kSessionModel, kBase, kSession );
             return kSession;
-        });
+        }, initializer);
     }
 
     private KieSessionModel findKieSessionModel(boolean stateless) {
@@ -667,6 +706,13 @@ public class KieContainerImpl
         }
     }
 
+    /**
+     * Returns false if the given kbase has been replaced by a newer snapshot in copy-on-write mode
+     */
+    boolean isCurrentKieBase(InternalKnowledgeBase kBase) {
+        return !kBase.getRuleBaseConfiguration().isCopyOnWriteUpdate() || kBases.get(kBase.getId()) == kBase;
+    }
+
     public StatelessKieSession newStatelessKieSession(String kSessionName) {
         return newStatelessKieSession(kSessionName, null);
     }
@@ -747,6 +793,7 @@ public class KieContainerImpl
         }
         kSessions.clear();
         statelessKSessions.clear();
+        kBaseSnapshots.clear();
 
         if ( isMBeanOptionEnabled() ) {
             for (CBSKey c : cbskeys) {
@@ -77,7 +77,12 @@ public class KieContainerSessionsPoolImpl extends AbstractKieSessionsPool implem
 
     @Override
     protected StatefulSessionPool createStatefulSessionPool( String kSessionName, KieSessionConfiguration conf, boolean stateless ) {
-        return kContainer.createKieSessionsPool(kSessionName, conf, environment, initialSize, stateless);
+        return kContainer.createKieSessionsPool(kSessionName, conf, environment, initialSize, stateless, this::initSession);
+    }
+
+    @Override
+    protected boolean isStale( StatefulSessionPool pool ) {
+        return !kContainer.isCurrentKieBase( pool.getKieBase() );
     }
 
     @Override
@@ -43,6 +43,7 @@ import org.kie.api.conf.SequentialOption;
 import org.kie.api.conf.SessionsPoolOption;
 import org.kie.api.conf.SingleValueKieBaseOption;
 import org.kie.api.runtime.rule.ConsequenceExceptionHandler;
+import org.kie.internal.conf.AgendaGroupQueueOption;
 import org.kie.internal.conf.AlphaRangeIndexThresholdOption;
 import org.kie.internal.conf.AlphaThresholdOption;
 import org.kie.internal.conf.CompositeConfiguration;
@@ -57,6 +58,11 @@ import org.kie.internal.conf.ParallelExecutionOption;
 import org.kie.internal.conf.SequentialAgendaOption;
 import org.kie.internal.conf.ShareAlphaNodesOption;
 import org.kie.internal.conf.ShareBetaNodesOption;
+import org.kie.internal.conf.BetaNetworkCompilerOption;
+import org.kie.internal.conf.CopyOnWriteUpdateOption;
+import org.kie.internal.conf.LazyAccumulateOption;
+import org.kie.internal.conf.CompactFactHandlesOption;
+import org.kie.internal.conf.SessionsPoolWarmUpOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,9 +87,15 @@ import org.slf4j.LoggerFactory;
  * drools.maintainTms = &lt;true|false&gt;
  * drools.sequential = &lt;true|false&gt;
  * drools.sequential.agenda = &lt;sequential|dynamic&gt;
+ * drools.agendaGroupQueue = &lt;priority|salienceFifo|salienceLifo&gt;
  * drools.removeIdentities = &lt;true|false&gt;
  * drools.shareAlphaNodes  = &lt;true|false&gt;
  * drools.shareBetaNodes = &lt;true|false&gt;
+ * drools.betaNetworkCompiler = &lt;true|false&gt;
+ * drools.copyOnWriteUpdate = &lt;true|false&gt;
+ * drools.lazyAccumulate = &lt;true|false&gt;
+ * drools.compactFactHandles = &lt;true|false&gt;
+ * drools.sessionPool.warmUp = &lt;true|false&gt;
  * drools.alphaNodeHashingThreshold = &lt;1...n&gt;
  * drools.alphaNodeRangeIndexThreshold = &lt;1...n&gt;
  * drools.betaNodeRangeIndexEnabled = &lt;true|false&gt;
@@ -126,6 +138,11 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
     private boolean         removeIdentities;
     private boolean         shareAlphaNodes;
     private boolean         shareBetaNodes;
+    private boolean         betaNetworkCompiler;
+    private boolean         copyOnWriteUpdate;
+    private boolean         lazyAccumulate;
+    private boolean         compactFactHandles;
+    private boolean         sessionsPoolWarmUp;
     private int             permGenThreshold;
     private int             jittingThreshold;
     private int             alphaNodeHashingThreshold;
@@ -146,6 +163,8 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
 
     private IndexPrecedenceOption indexPrecedenceOption;
 
+    private AgendaGroupQueueOption agendaGroupQueueOption;
+
     // if parallelism is enabled, rulebase builder will try to split
     // the rulebase into multiple partitions that can be evaluated
     // in parallel by using multiple internal threads
@@ -177,6 +196,13 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
 
         setShareBetaNodes(Boolean.parseBoolean(getPropertyValue(ShareBetaNodesOption.PROPERTY_NAME, "true")));
 
+        setBetaNetworkCompiler(Boolean.parseBoolean(getPropertyValue(BetaNetworkCompilerOption.PROPERTY_NAME, "false")));
+
+        setCopyOnWriteUpdate(Boolean.parseBoolean(getPropertyValue(CopyOnWriteUpdateOption.PROPERTY_NAME, "false")));
+        setLazyAccumulate(Boolean.parseBoolean(getPropertyValue(LazyAccumulateOption.PROPERTY_NAME, "false")));
+        setCompactFactHandles(Boolean.parseBoolean(getPropertyValue(CompactFactHandlesOption.PROPERTY_NAME, "false")));
+        setSessionsPoolWarmUp(Boolean.parseBoolean(getPropertyValue(SessionsPoolWarmUpOption.PROPERTY_NAME, "false")));
+
         setJittingThreshold( Integer.parseInt( getPropertyValue( ConstraintJittingThresholdOption.PROPERTY_NAME, "" + ConstraintJittingThresholdOption.DEFAULT_VALUE)));
 
         setAlphaNodeHashingThreshold(Integer.parseInt(getPropertyValue(AlphaThresholdOption.PROPERTY_NAME, "3")));
@@ -194,6 +220,7 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
         setIndexRightBetaMemory(Boolean.parseBoolean(getPropertyValue(IndexRightBetaMemoryOption.PROPERTY_NAME, "true")));
 
         setIndexPrecedenceOption(IndexPrecedenceOption.determineIndexPrecedence(getPropertyValue(IndexPrecedenceOption.PROPERTY_NAME, "equality")));
+        setAgendaGroupQueueOption(AgendaGroupQueueOption.determineAgendaGroupQueue(getPropertyValue(AgendaGroupQueueOption.PROPERTY_NAME, "priority")));
 
         setAssertBehaviour(AssertBehaviour.determineAssertBehaviour(getPropertyValue(EqualityBehaviorOption.PROPERTY_NAME, "identity")));
 
@@ -224,6 +251,11 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
         out.writeBoolean(removeIdentities);
         out.writeBoolean(shareAlphaNodes);
         out.writeBoolean(shareBetaNodes);
+        out.writeBoolean(betaNetworkCompiler);
+        out.writeBoolean(copyOnWriteUpdate);
+        out.writeBoolean(lazyAccumulate);
+        out.writeBoolean(compactFactHandles);
+        out.writeBoolean(sessionsPoolWarmUp);
         out.writeInt(permGenThreshold);
         out.writeInt(jittingThreshold);
         out.writeInt(alphaNodeHashingThreshold);
@@ -233,6 +265,7 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
         out.writeBoolean(indexLeftBetaMemory);
         out.writeBoolean(indexRightBetaMemory);
         out.writeObject(indexPrecedenceOption);
+        out.writeObject(agendaGroupQueueOption);
         out.writeObject(assertBehaviour);
         out.writeObject(consequenceExceptionHandler);
         out.writeObject(ruleBaseUpdateHandler);
@@ -253,6 +286,11 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
         removeIdentities = in.readBoolean();
         shareAlphaNodes = in.readBoolean();
         shareBetaNodes = in.readBoolean();
+        betaNetworkCompiler = in.readBoolean();
+        copyOnWriteUpdate = in.readBoolean();
+        lazyAccumulate = in.readBoolean();
+        compactFactHandles = in.readBoolean();
+        sessionsPoolWarmUp = in.readBoolean();
         permGenThreshold = in.readInt();
         jittingThreshold = in.readInt();
         alphaNodeHashingThreshold = in.readInt();
@@ -262,6 +300,7 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
         indexLeftBetaMemory = in.readBoolean();
         indexRightBetaMemory = in.readBoolean();
         indexPrecedenceOption = (IndexPrecedenceOption) in.readObject();
+        agendaGroupQueueOption = (AgendaGroupQueueOption) in.readObject();
         assertBehaviour = (AssertBehaviour) in.readObject();
         consequenceExceptionHandler = (String) in.readObject();
         ruleBaseUpdateHandler = (String) in.readObject();
@@ -288,6 +327,21 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
             case ShareBetaNodesOption.PROPERTY_NAME: {
                 return (T) (this.shareBetaNodes ? ShareBetaNodesOption.YES : ShareBetaNodesOption.NO);
             }
+            case BetaNetworkCompilerOption.PROPERTY_NAME: {
+                return (T) (this.betaNetworkCompiler ? BetaNetworkCompilerOption.YES : BetaNetworkCompilerOption.NO);
+            }
+            case CopyOnWriteUpdateOption.PROPERTY_NAME: {
+                return (T) (this.copyOnWriteUpdate ? CopyOnWriteUpdateOption.YES : CopyOnWriteUpdateOption.NO);
+            }
+            case LazyAccumulateOption.PROPERTY_NAME: {
+                return (T) (this.lazyAccumulate ? LazyAccumulateOption.YES : LazyAccumulateOption.NO);
+            }
+            case CompactFactHandlesOption.PROPERTY_NAME: {
+                return (T) (this.compactFactHandles ? CompactFactHandlesOption.YES : CompactFactHandlesOption.NO);
+            }
+            case SessionsPoolWarmUpOption.PROPERTY_NAME: {
+                return (T) (this.sessionsPoolWarmUp ? SessionsPoolWarmUpOption.YES : SessionsPoolWarmUpOption.NO);
+            }
             case IndexRightBetaMemoryOption.PROPERTY_NAME: {
                 return (T) (this.indexRightBetaMemory ? IndexRightBetaMemoryOption.YES : IndexRightBetaMemoryOption.NO);
             }
@@ -297,6 +351,9 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
             case IndexPrecedenceOption.PROPERTY_NAME: {
                 return (T) getIndexPrecedenceOption();
             }
+            case AgendaGroupQueueOption.PROPERTY_NAME: {
+                return (T) getAgendaGroupQueueOption();
+            }
             case EqualityBehaviorOption.PROPERTY_NAME: {
                 return (T) ((this.assertBehaviour == AssertBehaviour.IDENTITY) ? EqualityBehaviorOption.IDENTITY : EqualityBehaviorOption.EQUALITY);
             }
@@ -369,6 +426,26 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
                 setShareBetaNodes(((ShareBetaNodesOption) option).isShareBetaNodes());
                 break;
             }
+            case BetaNetworkCompilerOption.PROPERTY_NAME: {
+                setBetaNetworkCompiler(((BetaNetworkCompilerOption) option).isBetaNetworkCompilerEnabled());
+                break;
+            }
+            case CopyOnWriteUpdateOption.PROPERTY_NAME: {
+                setCopyOnWriteUpdate(((CopyOnWriteUpdateOption) option).isCopyOnWriteUpdate());
+                break;
+            }
+            case LazyAccumulateOption.PROPERTY_NAME: {
+                setLazyAccumulate(((LazyAccumulateOption) option).isLazyAccumulate());
+                break;
+            }
+            case CompactFactHandlesOption.PROPERTY_NAME: {
+                setCompactFactHandles(((CompactFactHandlesOption) option).isCompactFactHandles());
+                break;
+            }
+            case SessionsPoolWarmUpOption.PROPERTY_NAME: {
+                setSessionsPoolWarmUp(((SessionsPoolWarmUpOption) option).isSessionsPoolWarmUp());
+                break;
+            }
             case IndexLeftBetaMemoryOption.PROPERTY_NAME: {
                 setIndexLeftBetaMemory(((IndexLeftBetaMemoryOption) option).isIndexLeftBetaMemory());
                 break;
@@ -381,6 +458,10 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
                 setIndexPrecedenceOption((IndexPrecedenceOption) option);
                 break;
             }
+            case AgendaGroupQueueOption.PROPERTY_NAME: {
+                setAgendaGroupQueueOption((AgendaGroupQueueOption) option);
+                break;
+            }
             case EqualityBehaviorOption.PROPERTY_NAME: {
                 setAssertBehaviour((option == EqualityBehaviorOption.IDENTITY) ? AssertBehaviour.IDENTITY : AssertBehaviour.EQUALITY);
                 break;
@@ -464,6 +545,26 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
                 setShareBetaNodes(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
                 break;
             }
+            case BetaNetworkCompilerOption.PROPERTY_NAME: {
+                setBetaNetworkCompiler(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+                break;
+            }
+            case CopyOnWriteUpdateOption.PROPERTY_NAME: {
+                setCopyOnWriteUpdate(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+                break;
+            }
+            case LazyAccumulateOption.PROPERTY_NAME: {
+                setLazyAccumulate(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+                break;
+            }
+            case CompactFactHandlesOption.PROPERTY_NAME: {
+                setCompactFactHandles(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+                break;
+            }
+            case SessionsPoolWarmUpOption.PROPERTY_NAME: {
+                setSessionsPoolWarmUp(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+                break;
+            }
             case ConstraintJittingThresholdOption.PROPERTY_NAME: {
                 setJittingThreshold(StringUtils.isEmpty(value) ? ConstraintJittingThresholdOption.DEFAULT_VALUE : Integer.parseInt(value));
                 break;
@@ -500,6 +601,10 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
                 setIndexPrecedenceOption(StringUtils.isEmpty(value) ? IndexPrecedenceOption.EQUALITY_PRIORITY : IndexPrecedenceOption.determineIndexPrecedence(value));
                 break;
             }
+            case AgendaGroupQueueOption.PROPERTY_NAME: {
+                setAgendaGroupQueueOption(StringUtils.isEmpty(value) ? AgendaGroupQueueOption.PRIORITY : AgendaGroupQueueOption.determineAgendaGroupQueue(value));
+                break;
+            }
             case EqualityBehaviorOption.PROPERTY_NAME: {
                 setAssertBehaviour(AssertBehaviour.determineAssertBehaviour(StringUtils.isEmpty(value) ? "identity" : value));
                 break;
@@ -553,6 +658,21 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
             case ShareBetaNodesOption.PROPERTY_NAME: {
                 return Boolean.toString(isShareBetaNodes());
             }
+            case BetaNetworkCompilerOption.PROPERTY_NAME: {
+                return Boolean.toString(isBetaNetworkCompiler());
+            }
+            case CopyOnWriteUpdateOption.PROPERTY_NAME: {
+                return Boolean.toString(isCopyOnWriteUpdate());
+            }
+            case LazyAccumulateOption.PROPERTY_NAME: {
+                return Boolean.toString(isLazyAccumulate());
+            }
+            case CompactFactHandlesOption.PROPERTY_NAME: {
+                return Boolean.toString(isCompactFactHandles());
+            }
+            case SessionsPoolWarmUpOption.PROPERTY_NAME: {
+                return Boolean.toString(isSessionsPoolWarmUp());
+            }
             case ConstraintJittingThresholdOption.PROPERTY_NAME: {
                 return Integer.toString(getJittingThreshold());
             }
@@ -580,6 +700,9 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
             case IndexPrecedenceOption.PROPERTY_NAME: {
                 return getIndexPrecedenceOption().getValue();
             }
+            case AgendaGroupQueueOption.PROPERTY_NAME: {
+                return getAgendaGroupQueueOption().getValue();
+            }
             case EqualityBehaviorOption.PROPERTY_NAME: {
                 return getAssertBehaviour().toExternalForm();
             }
@@ -650,6 +773,51 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
         this.shareBetaNodes = shareBetaNodes;
     }
 
+    public boolean isBetaNetworkCompiler() {
+        return this.betaNetworkCompiler;
+    }
+
+    public void setBetaNetworkCompiler(final boolean betaNetworkCompiler) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.betaNetworkCompiler = betaNetworkCompiler;
+    }
+
+    public boolean isCopyOnWriteUpdate() {
+        return this.copyOnWriteUpdate;
+    }
+
+    public void setCopyOnWriteUpdate(final boolean copyOnWriteUpdate) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.copyOnWriteUpdate = copyOnWriteUpdate;
+    }
+
+    public boolean isLazyAccumulate() {
+        return this.lazyAccumulate;
+    }
+
+    public void setLazyAccumulate(final boolean lazyAccumulate) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.lazyAccumulate = lazyAccumulate;
+    }
+
+    public boolean isCompactFactHandles() {
+        return this.compactFactHandles;
+    }
+
+    public void setCompactFactHandles(final boolean compactFactHandles) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.compactFactHandles = compactFactHandles;
+    }
+
+    public boolean isSessionsPoolWarmUp() {
+        return this.sessionsPoolWarmUp;
+    }
+
+    public void setSessionsPoolWarmUp(final boolean sessionsPoolWarmUp) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.sessionsPoolWarmUp = sessionsPoolWarmUp;
+    }
+
     public int getJittingThreshold() {
         return jittingThreshold;
     }
@@ -761,6 +929,15 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
         this.indexPrecedenceOption = precedence;
     }
 
+    public AgendaGroupQueueOption getAgendaGroupQueueOption() {
+        return this.agendaGroupQueueOption;
+    }
+
+    public void setAgendaGroupQueueOption(final AgendaGroupQueueOption agendaGroupQueue) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.agendaGroupQueueOption = agendaGroupQueue;
+    }
+
     public String getConsequenceExceptionHandler() {
         return consequenceExceptionHandler;
     }
@@ -811,6 +988,13 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
         return this.parallelExecution == ParallelExecutionOption.FULLY_PARALLEL;
     }
 
+    /**
+     * Returns true if rules of the same partition, not sharing any segment, can be evaluated in parallel.
+     */
+    public boolean isParallelSegmentEvaluation() {
+        return this.parallelExecution == ParallelExecutionOption.PARALLEL_SEGMENT_EVALUATION;
+    }
+
     /**
      * If multi-thread evaluation is enabled, this parameter configures the 
      * maximum number of threads each session can use for concurrent Rete
@@ -40,8 +40,12 @@ import org.kie.api.runtime.conf.TimedRuleExecutionFilter;
 import org.kie.api.runtime.conf.TimedRuleExecutionOption;
 import org.kie.internal.conf.CompositeConfiguration;
 import org.kie.internal.conf.InternalPropertiesConfiguration;
+import org.kie.internal.runtime.conf.ConcurrentObjectStoreOption;
+import org.kie.internal.runtime.conf.PropagationListWaitStrategyOption;
 import org.kie.internal.runtime.conf.ForceEagerActivationFilter;
 import org.kie.internal.runtime.conf.ForceEagerActivationOption;
+import org.kie.internal.runtime.conf.TimingWheelOption;
+import org.kie.internal.runtime.conf.VirtualThreadsOption;
 
 public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption, SingleValueKieSessionOption, MultiValueKieSessionOption> implements KieSessionConfiguration, InternalPropertiesConfiguration, Externalizable {
 
@@ -55,6 +59,14 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
 
     private boolean                        accumulateNullPropagation;
 
+    private boolean                        virtualThreads;
+
+    private boolean                        concurrentObjectStore;
+
+    private PropagationListWaitStrategyOption propagationListWaitStrategy;
+
+    private int                            timingWheelTick;
+
     private ForceEagerActivationFilter     forceEagerActivationFilter;
     private TimedRuleExecutionFilter       timedRuleExecutionFilter;
 
@@ -92,6 +104,14 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
 
         setAccumulateNullPropagation(Boolean.parseBoolean(getPropertyValue(AccumulateNullPropagationOption.PROPERTY_NAME, "false")));
 
+        setVirtualThreads(Boolean.parseBoolean(getPropertyValue(VirtualThreadsOption.PROPERTY_NAME, "false")));
+
+        setConcurrentObjectStore(Boolean.parseBoolean(getPropertyValue(ConcurrentObjectStoreOption.PROPERTY_NAME, "false")));
+
+        setPropagationListWaitStrategy(PropagationListWaitStrategyOption.determineWaitStrategy(getPropertyValue(PropagationListWaitStrategyOption.PROPERTY_NAME, PropagationListWaitStrategyOption.MONITOR.getAsString())));
+
+        setTimingWheelTick(Integer.parseInt(getPropertyValue(TimingWheelOption.PROPERTY_NAME, "" + TimingWheelOption.DEFAULT_VALUE)));
+
         setForceEagerActivationFilter(ForceEagerActivationOption.resolve( getPropertyValue( ForceEagerActivationOption.PROPERTY_NAME, "false" ) ).getFilter());
 
         setTimedRuleExecutionFilter(TimedRuleExecutionOption.resolve( getPropertyValue( TimedRuleExecutionOption.PROPERTY_NAME, "false" ) ).getFilter());
@@ -128,6 +148,42 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
         return this.accumulateNullPropagation;
     }
 
+    public void setVirtualThreads(boolean virtualThreads) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.virtualThreads = virtualThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return this.virtualThreads;
+    }
+
+    public void setConcurrentObjectStore(boolean concurrentObjectStore) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.concurrentObjectStore = concurrentObjectStore;
+    }
+
+    public boolean isConcurrentObjectStore() {
+        return this.concurrentObjectStore;
+    }
+
+    public void setPropagationListWaitStrategy(PropagationListWaitStrategyOption propagationListWaitStrategy) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.propagationListWaitStrategy = propagationListWaitStrategy;
+    }
+
+    public PropagationListWaitStrategyOption getPropagationListWaitStrategy() {
+        return this.propagationListWaitStrategy;
+    }
+
+    public void setTimingWheelTick(int timingWheelTick) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.timingWheelTick = timingWheelTick;
+    }
+
+    public int getTimingWheelTick() {
+        return this.timingWheelTick;
+    }
+
     public void setForceEagerActivationFilter(ForceEagerActivationFilter forceEagerActivationFilter) {
         checkCanChange(); // throws an exception if a change isn't possible;
         this.forceEagerActivationFilter = forceEagerActivationFilter;
@@ -179,6 +235,22 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
                 setAccumulateNullPropagation(((AccumulateNullPropagationOption) option).isAccumulateNullPropagation());
                 break;
             }
+            case VirtualThreadsOption.PROPERTY_NAME: {
+                setVirtualThreads(((VirtualThreadsOption) option).isVirtualThreads());
+                break;
+            }
+            case ConcurrentObjectStoreOption.PROPERTY_NAME: {
+                setConcurrentObjectStore(((ConcurrentObjectStoreOption) option).isConcurrentObjectStore());
+                break;
+            }
+            case PropagationListWaitStrategyOption.PROPERTY_NAME: {
+                setPropagationListWaitStrategy((PropagationListWaitStrategyOption) option);
+                break;
+            }
+            case TimingWheelOption.PROPERTY_NAME: {
+                setTimingWheelTick(((TimingWheelOption) option).getTick());
+                break;
+            }
             case ForceEagerActivationOption.PROPERTY_NAME: {
                 setForceEagerActivationFilter(((ForceEagerActivationOption) option).getFilter());
                 break;
@@ -212,6 +284,18 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
             case AccumulateNullPropagationOption.PROPERTY_NAME: {
                 return (T) (isAccumulateNullPropagation() ? AccumulateNullPropagationOption.YES : AccumulateNullPropagationOption.NO);
             }
+            case VirtualThreadsOption.PROPERTY_NAME: {
+                return (T) (isVirtualThreads() ? VirtualThreadsOption.YES : VirtualThreadsOption.NO);
+            }
+            case ConcurrentObjectStoreOption.PROPERTY_NAME: {
+                return (T) (isConcurrentObjectStore() ? ConcurrentObjectStoreOption.YES : ConcurrentObjectStoreOption.NO);
+            }
+            case PropagationListWaitStrategyOption.PROPERTY_NAME: {
+                return (T) getPropagationListWaitStrategy();
+            }
+            case TimingWheelOption.PROPERTY_NAME: {
+                return (T) TimingWheelOption.get(getTimingWheelTick());
+            }
             case QueryListenerOption.PROPERTY_NAME: {
                 return (T) getQueryListenerOption();
             }
@@ -247,6 +331,23 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
                 setAccumulateNullPropagation(!StringUtils.isEmpty(value) && Boolean.parseBoolean(value));
                 break;
             }
+            case VirtualThreadsOption.PROPERTY_NAME: {
+                setVirtualThreads(!StringUtils.isEmpty(value) && Boolean.parseBoolean(value));
+                break;
+            }
+            case ConcurrentObjectStoreOption.PROPERTY_NAME: {
+                setConcurrentObjectStore(!StringUtils.isEmpty(value) && Boolean.parseBoolean(value));
+                break;
+            }
+            case PropagationListWaitStrategyOption.PROPERTY_NAME: {
+                String property = StringUtils.isEmpty(value) ? PropagationListWaitStrategyOption.MONITOR.getAsString() : value;
+                setPropagationListWaitStrategy(PropagationListWaitStrategyOption.determineWaitStrategy(property));
+                break;
+            }
+            case TimingWheelOption.PROPERTY_NAME: {
+                setTimingWheelTick(StringUtils.isEmpty(value) ? TimingWheelOption.DEFAULT_VALUE : Integer.parseInt(value));
+                break;
+            }
             case ForceEagerActivationOption.PROPERTY_NAME: {
                 setForceEagerActivationFilter(ForceEagerActivationOption.resolve(StringUtils.isEmpty(value) ? "false" : value).getFilter());
                 break;
@@ -280,6 +381,14 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
                 return Boolean.toString(isThreadSafe());
             } case AccumulateNullPropagationOption.PROPERTY_NAME: {
                 return Boolean.toString(isAccumulateNullPropagation());
+            } case VirtualThreadsOption.PROPERTY_NAME: {
+                return Boolean.toString(isVirtualThreads());
+            } case ConcurrentObjectStoreOption.PROPERTY_NAME: {
+                return Boolean.toString(isConcurrentObjectStore());
+            } case PropagationListWaitStrategyOption.PROPERTY_NAME: {
+                return getPropagationListWaitStrategy().getAsString();
+            } case TimingWheelOption.PROPERTY_NAME: {
+                return Integer.toString(getTimingWheelTick());
             } case QueryListenerOption.PROPERTY_NAME: {
                 return getQueryListenerOption().getAsString();
             } case BeliefSystemTypeOption.PROPERTY_NAME: {
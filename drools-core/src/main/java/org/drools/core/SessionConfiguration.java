@@ -25,9 +25,13 @@ import java.io.ObjectOutput;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ThreadFactory;
 
+import org.drools.core.concurrent.VirtualThreads;
 import org.drools.core.time.TimerService;
+import org.drools.core.time.impl.JDKTimerService;
 import org.drools.core.time.impl.TimerJobFactoryManager;
+import org.drools.core.time.impl.TimingWheelTimerService;
 import org.drools.util.StringUtils;
 import org.kie.api.KieBase;
 import org.kie.api.conf.ConfigurationKey;
@@ -276,11 +280,21 @@ public class SessionConfiguration extends BaseConfiguration<KieSessionOption, Si
     }
 
     public TimerService createTimerService() {
-        TimerService service = getClockType().createInstance();
+        TimerService service = getClockType() == ClockType.REALTIME_CLOCK ? createRealtimeTimerService() : getClockType().createInstance();
         service.setTimerJobFactoryManager(getTimerJobFactoryManager());
         return service;
     }
 
+    private TimerService createRealtimeTimerService() {
+        RuleSessionConfiguration ruleSessionConfiguration = as(RuleSessionConfiguration.KEY);
+        ThreadFactory threadFactory = VirtualThreads.isEnabled(ruleSessionConfiguration) ? VirtualThreads.newThreadFactory("drools-timer-") : null;
+        int timingWheelTick = ruleSessionConfiguration.getTimingWheelTick();
+        if (timingWheelTick > 0) {
+            return new TimingWheelTimerService(timingWheelTick, threadFactory);
+        }
+        return threadFactory != null ? new JDKTimerService(1, threadFactory) : getClockType().createInstance();
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) {
@@ -105,4 +105,12 @@ public interface ActivationsManager {
     default ActivationsManager getPartitionedAgendaForNode(NetworkNode node) {
         return this;
     }
+
+    /**
+     * Gives the chance of postponing the agenda changes caused by linking or unlinking a rule, when they happen
+     * while the network is evaluated by more threads. Returns true if the change has been deferred.
+     */
+    default boolean deferRuleLinking(PathMemory pmem, boolean link) {
+        return false;
+    }
 }
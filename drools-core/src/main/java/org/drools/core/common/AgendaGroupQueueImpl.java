@@ -32,6 +32,8 @@ import org.drools.core.phreak.RuleAgendaItem;
 import org.drools.core.util.ArrayQueue;
 import org.drools.core.util.Queue;
 import org.drools.core.util.QueueFactory;
+import org.drools.core.util.SalienceBucketQueue;
+import org.kie.internal.conf.AgendaGroupQueueOption;
 
 /**
  * <code>AgendaGroup</code> implementation that uses a <code>PriorityQueue</code> to prioritise the evaluation of added
@@ -65,11 +67,14 @@ public class AgendaGroupQueueImpl
 
     private RuleAgendaItem        lastRemoved;
     private final boolean         sequential;
+    private final AgendaGroupQueueOption queueOption;
 
     public AgendaGroupQueueImpl(final String name,
                                 final InternalRuleBase kBase) {
         this.name = name;
         this.sequential = kBase.getRuleBaseConfiguration().isSequential();
+        // the sequential mode relies on the load order to skip the rules that have already been fired
+        this.queueOption = sequential ? AgendaGroupQueueOption.PRIORITY : kBase.getRuleBaseConfiguration().getAgendaGroupQueueOption();
 
         this.clearedForRecency = -1;
     }
@@ -93,6 +98,9 @@ public class AgendaGroupQueueImpl
         // workingMemory can be null during deserialization
         if (reteEvaluator != null && reteEvaluator.getRuleSessionConfiguration().isDirectFiring()) {
             this.priorityQueue = new ArrayQueue<>();
+        } else if (queueOption.isSalienceBuckets()) {
+            this.priorityQueue = new SalienceBucketQueue<>(RuleAgendaItem::getSalience, item -> item.getRule().isSalienceDynamic(),
+                                                           RuleAgendaConflictResolver.INSTANCE, queueOption == AgendaGroupQueueOption.SALIENCE_LIFO);
         } else {
             this.priorityQueue = QueueFactory.createQueue(RuleAgendaConflictResolver.INSTANCE);
         }
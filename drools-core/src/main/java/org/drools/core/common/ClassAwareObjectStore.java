@@ -33,6 +33,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 
 import org.drools.base.factmodel.traits.CoreWrapper;
+import org.drools.core.util.EqualityIndex;
 import org.kie.api.runtime.ClassObjectFilter;
 import org.kie.api.runtime.ObjectFilter;
 
@@ -166,6 +167,24 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         }
     }
 
+    @Override
+    public void addHandles(Collection<InternalFactHandle> handles) {
+        // consecutive handles of the same class, as the restored ones usually are, share the lookup of their store
+        Class<?> storedClass = null;
+        ConcreteClassStore store = null;
+        for (InternalFactHandle handle : handles) {
+            Object object = handle.getObject();
+            Class<?> actualClass = getActualClass(object);
+            if (actualClass != storedClass) {
+                store = getOrCreateConcreteClassStore(actualClass);
+                storedClass = actualClass;
+            }
+            if ( store.addHandle(handle, object) ) {
+                size++;
+            }
+        }
+    }
+
     @Override
     public void removeHandle(InternalFactHandle handle) {
         if ( getOrCreateConcreteClassStore(handle.getObject()).removeHandle(handle) != null ) {
@@ -606,7 +625,7 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         public FactHandleMap() { }
 
         public FactHandleMap(boolean identity) {
-            facts = identity ? new IdentityHashMap<>() : new HashMap<>();
+            facts = identity ? new IdentityHashMap<>() : new EqualityIndex<>();
         }
 
         @Override
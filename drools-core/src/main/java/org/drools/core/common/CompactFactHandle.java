@@ -0,0 +1,392 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.common;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.drools.base.common.RuleBasePartitionId;
+import org.drools.base.rule.EntryPointId;
+import org.drools.core.WorkingMemoryEntryPoint;
+import org.drools.core.reteoo.ObjectTypeNodeId;
+import org.drools.core.reteoo.TupleImpl;
+
+/**
+ * Fact handle keeping the heads and tails of its linked tuples in its own fields, instead of referencing a separate
+ * SingleLinkedTuples, so that each fact costs one object less. It is only used by non partitioned kbases, since the
+ * partitioned ones need a CompositeLinkedTuples for each handle. The rarely used LinkedTuples view returned by
+ * getLinkedTuples() is allocated on demand and operates directly on the fields of the handle.
+ */
+public class CompactFactHandle extends DefaultFactHandle {
+
+    private static final long serialVersionUID = 510l;
+
+    private TupleImpl firstLeftTuple;
+    private TupleImpl lastLeftTuple;
+
+    private TupleImpl firstRightTuple;
+    private TupleImpl lastRightTuple;
+
+    public CompactFactHandle() { }
+
+    public CompactFactHandle(long id, Object object, long recency, WorkingMemoryEntryPoint wmEntryPoint) {
+        this(id, 0, object, recency, wmEntryPoint);
+    }
+
+    public CompactFactHandle(long id, int identityHashCode, Object object, long recency, WorkingMemoryEntryPoint wmEntryPoint) {
+        super(id, identityHashCode, object, recency, wmEntryPoint == null ? null : wmEntryPoint.getEntryPoint());
+        this.wmEntryPoint = wmEntryPoint;
+    }
+
+    private CompactFactHandle(long id, int identityHashCode, Object object, long recency, EntryPointId entryPointId) {
+        super(id, identityHashCode, object, recency, entryPointId);
+    }
+
+    @Override
+    public void disconnect() {
+        super.disconnect();
+        clearLeftTuples();
+        clearRightTuples();
+    }
+
+    @Override
+    public boolean hasMatches() {
+        return firstLeftTuple != null || firstRightTuple != null;
+    }
+
+    @Override
+    public void addFirstLeftTuple(TupleImpl leftTuple) {
+        TupleImpl previous = firstLeftTuple;
+        leftTuple.setHandlePrevious(null);
+        if (previous == null) {
+            leftTuple.setHandleNext(null);
+            lastLeftTuple = leftTuple;
+        } else {
+            leftTuple.setHandleNext(previous);
+            previous.setHandlePrevious(leftTuple);
+        }
+        firstLeftTuple = leftTuple;
+    }
+
+    @Override
+    public void addLastLeftTuple(TupleImpl leftTuple) {
+        TupleImpl previous = lastLeftTuple;
+        leftTuple.setHandlePrevious(previous);
+        leftTuple.setHandleNext(null);
+        if (previous == null) {
+            firstLeftTuple = leftTuple;
+        } else {
+            previous.setHandleNext(leftTuple);
+        }
+        lastLeftTuple = leftTuple;
+    }
+
+    @Override
+    public void removeLeftTuple(TupleImpl leftTuple) {
+        TupleImpl previous = leftTuple.getHandlePrevious();
+        TupleImpl next = leftTuple.getHandleNext();
+        if (previous != null) {
+            previous.setHandleNext(next);
+        } else {
+            firstLeftTuple = next;
+        }
+        if (next != null) {
+            next.setHandlePrevious(previous);
+        } else {
+            lastLeftTuple = previous;
+        }
+        leftTuple.setHandlePrevious(null);
+        leftTuple.setHandleNext(null);
+    }
+
+    void addFirstRightTuple(TupleImpl rightTuple) {
+        TupleImpl previous = firstRightTuple;
+        rightTuple.setHandlePrevious(null);
+        if (previous == null) {
+            rightTuple.setHandleNext(null);
+            lastRightTuple = rightTuple;
+        } else {
+            rightTuple.setHandleNext(previous);
+            previous.setHandlePrevious(rightTuple);
+        }
+        firstRightTuple = rightTuple;
+    }
+
+    @Override
+    public void addLastRightTuple(TupleImpl rightTuple) {
+        TupleImpl previous = lastRightTuple;
+        rightTuple.setHandlePrevious(previous);
+        rightTuple.setHandleNext(null);
+        if (previous == null) {
+            firstRightTuple = rightTuple;
+        } else {
+            previous.setHandleNext(rightTuple);
+        }
+        lastRightTuple = rightTuple;
+    }
+
+    @Override
+    public void removeRightTuple(TupleImpl rightTuple) {
+        TupleImpl previous = rightTuple.getHandlePrevious();
+        TupleImpl next = rightTuple.getHandleNext();
+        if (previous != null) {
+            previous.setHandleNext(next);
+        } else {
+            firstRightTuple = next;
+        }
+        if (next != null) {
+            next.setHandlePrevious(previous);
+        } else {
+            lastRightTuple = previous;
+        }
+        rightTuple.setHandlePrevious(null);
+        rightTuple.setHandleNext(null);
+    }
+
+    @Override
+    public void clearLeftTuples() {
+        firstLeftTuple = null;
+        lastLeftTuple = null;
+    }
+
+    @Override
+    public void clearRightTuples() {
+        firstRightTuple = null;
+        lastRightTuple = null;
+    }
+
+    @Override
+    public void forEachRightTuple(Consumer<TupleImpl> rightTupleConsumer) {
+        for (TupleImpl rightTuple = firstRightTuple; rightTuple != null; ) {
+            TupleImpl nextRightTuple = rightTuple.getHandleNext();
+            rightTupleConsumer.accept(rightTuple);
+            rightTuple = nextRightTuple;
+        }
+    }
+
+    @Override
+    public void forEachLeftTuple(Consumer<TupleImpl> leftTupleConsumer) {
+        for (TupleImpl leftTuple = firstLeftTuple; leftTuple != null; ) {
+            TupleImpl nextLeftTuple = leftTuple.getHandleNext();
+            leftTupleConsumer.accept(leftTuple);
+            leftTuple = nextLeftTuple;
+        }
+    }
+
+    @Override
+    public TupleImpl findFirstLeftTuple(Predicate<TupleImpl> leftTuplePredicate) {
+        for (TupleImpl leftTuple = firstLeftTuple; leftTuple != null; leftTuple = leftTuple.getHandleNext()) {
+            if (leftTuplePredicate.test(leftTuple)) {
+                return leftTuple;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public TupleImpl getFirstLeftTuple() {
+        return firstLeftTuple;
+    }
+
+    @Override
+    public TupleImpl getFirstRightTuple() {
+        return firstRightTuple;
+    }
+
+    @Override
+    public LinkedTuples getLinkedTuples() {
+        return new LinkedTuplesView();
+    }
+
+    @Override
+    public LinkedTuples detachLinkedTuples() {
+        LinkedTuples detached = new SingleLinkedTuples(firstLeftTuple, lastLeftTuple, firstRightTuple, lastRightTuple);
+        clearLeftTuples();
+        clearRightTuples();
+        return detached;
+    }
+
+    @Override
+    public LinkedTuples detachLinkedTuplesForPartition(int i) {
+        throw new UnsupportedOperationException("CompactFactHandle cannot be used in a partitioned kbase");
+    }
+
+    @Override
+    public CompactFactHandle clone() {
+        CompactFactHandle clone = new CompactFactHandle(this.id, this.identityHashCode, this.object, this.recency, this.entryPointId);
+        clone.setEqualityKey(getEqualityKey());
+        clone.firstLeftTuple = this.firstLeftTuple;
+        clone.lastLeftTuple = this.lastLeftTuple;
+        clone.firstRightTuple = this.firstRightTuple;
+        clone.lastRightTuple = this.lastRightTuple;
+
+        clone.objectHashCode = this.objectHashCode;
+        clone.setDisconnected(isDisconnected());
+        clone.setNegated(isNegated());
+        clone.wmEntryPoint = this.wmEntryPoint;
+        return clone;
+    }
+
+    private TupleImpl detachTupleAfter(TupleImpl last, ObjectTypeNodeId otnId) {
+        TupleImpl detached = null;
+        // Find the first Tuple that comes after the current ID, so it can be detached.
+        for (TupleImpl tuple = last; tuple != null && otnId.before(tuple.getInputOtnId()); tuple = tuple.getHandlePrevious()) {
+            detached = tuple;
+        }
+        return detached;
+    }
+
+    /**
+     * LinkedTuples operating on the fields of the enclosing handle
+     */
+    private class LinkedTuplesView implements LinkedTuples {
+
+        @Override
+        public LinkedTuples clone() {
+            return new SingleLinkedTuples(firstLeftTuple, lastLeftTuple, firstRightTuple, lastRightTuple);
+        }
+
+        @Override
+        public LinkedTuples cloneEmpty() {
+            return new SingleLinkedTuples();
+        }
+
+        @Override
+        public boolean hasTuples() {
+            return hasMatches();
+        }
+
+        @Override
+        public void addFirstLeftTuple(TupleImpl leftTuple) {
+            CompactFactHandle.this.addFirstLeftTuple(leftTuple);
+        }
+
+        @Override
+        public void addLastLeftTuple(TupleImpl leftTuple) {
+            CompactFactHandle.this.addLastLeftTuple(leftTuple);
+        }
+
+        @Override
+        public void removeLeftTuple(TupleImpl leftTuple) {
+            CompactFactHandle.this.removeLeftTuple(leftTuple);
+        }
+
+        @Override
+        public void addFirstRightTuple(TupleImpl rightTuple) {
+            CompactFactHandle.this.addFirstRightTuple(rightTuple);
+        }
+
+        @Override
+        public void addLastRightTuple(TupleImpl rightTuple) {
+            CompactFactHandle.this.addLastRightTuple(rightTuple);
+        }
+
+        @Override
+        public void removeRightTuple(TupleImpl rightTuple) {
+            CompactFactHandle.this.removeRightTuple(rightTuple);
+        }
+
+        @Override
+        public void clearLeftTuples() {
+            CompactFactHandle.this.clearLeftTuples();
+        }
+
+        @Override
+        public void clearRightTuples() {
+            CompactFactHandle.this.clearRightTuples();
+        }
+
+        @Override
+        public void forEachRightTuple(Consumer<TupleImpl> rightTupleConsumer) {
+            CompactFactHandle.this.forEachRightTuple(rightTupleConsumer);
+        }
+
+        @Override
+        public void forEachLeftTuple(Consumer<TupleImpl> leftTupleConsumer) {
+            CompactFactHandle.this.forEachLeftTuple(leftTupleConsumer);
+        }
+
+        @Override
+        public TupleImpl findFirstLeftTuple(Predicate<TupleImpl> leftTuplePredicate) {
+            return CompactFactHandle.this.findFirstLeftTuple(leftTuplePredicate);
+        }
+
+        @Override
+        public TupleImpl getFirstLeftTuple(int partition) {
+            return firstLeftTuple;
+        }
+
+        @Override
+        public TupleImpl getFirstRightTuple(int partition) {
+            return firstRightTuple;
+        }
+
+        @Override
+        public TupleImpl detachLeftTupleAfter(RuleBasePartitionId partitionId, ObjectTypeNodeId otnId) {
+            TupleImpl detached = detachTupleAfter(lastLeftTuple, otnId);
+            if (detached != null) {
+                lastLeftTuple = detached.getHandlePrevious();
+                if (lastLeftTuple == null) {
+                    firstLeftTuple = null;
+                } else {
+                    detached.setHandlePrevious(null);
+                    lastLeftTuple.setHandleNext(null);
+                }
+            }
+            return detached;
+        }
+
+        @Override
+        public TupleImpl detachRightTupleAfter(RuleBasePartitionId partitionId, ObjectTypeNodeId otnId) {
+            TupleImpl detached = detachTupleAfter(lastRightTuple, otnId);
+            if (detached != null) {
+                lastRightTuple = detached.getHandlePrevious();
+                if (lastRightTuple == null) {
+                    firstRightTuple = null;
+                } else {
+                    detached.setHandlePrevious(null);
+                    lastRightTuple.setHandleNext(null);
+                }
+            }
+            return detached;
+        }
+
+        @Override
+        public void reattachToLeft(TupleImpl tuple) {
+            if (lastLeftTuple == null) {
+                lastLeftTuple = tuple;
+            } else {
+                lastLeftTuple.setHandleNext(tuple);
+                tuple.setHandlePrevious(lastLeftTuple);
+                lastLeftTuple = tuple;
+            }
+        }
+
+        @Override
+        public void reattachToRight(TupleImpl tuple) {
+            if (lastRightTuple == null) {
+                lastRightTuple = tuple;
+            } else {
+                lastRightTuple.setHandleNext(tuple);
+                tuple.setHandlePrevious(lastRightTuple);
+                lastRightTuple = tuple;
+            }
+        }
+    }
+}
@@ -0,0 +1,340 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.common;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.kie.api.runtime.ClassObjectFilter;
+import org.kie.api.runtime.ObjectFilter;
+
+import static org.drools.core.common.ClassAwareObjectStore.getActualClass;
+
+/**
+ * Object store allowing many threads to insert into the same entry point at the same time. The handles of each concrete
+ * class are kept in a separate ConcurrentHashMap indexed by their id, while the handle of an object is looked up in
+ * identity maps partitioned in lock stripes by the identity hash code of the object, or in a ConcurrentHashMap when
+ * the kbase uses equality behaviour. Differently from the other stores the iterators never fail when the store is
+ * concurrently modified, but they are only weakly consistent.
+ */
+public class ConcurrentObjectStore implements ObjectStore {
+
+    private static final int STRIPES = 32;
+
+    private final boolean isEqualityBehaviour;
+
+    private final Map<Class<?>, ConcurrentFactHandleClassStore> classStores = new ConcurrentHashMap<>();
+
+    private final IdentityStripe[] identityStripes;
+
+    private final Map<Object, InternalFactHandle> equalityMap;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    public ConcurrentObjectStore( boolean isEqualityBehaviour ) {
+        this.isEqualityBehaviour = isEqualityBehaviour;
+        this.equalityMap = isEqualityBehaviour ? new ConcurrentHashMap<>() : null;
+        this.identityStripes = isEqualityBehaviour ? null : new IdentityStripe[STRIPES];
+        if (identityStripes != null) {
+            for (int i = 0; i < STRIPES; i++) {
+                identityStripes[i] = new IdentityStripe();
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    @Override
+    public void clear() {
+        classStores.clear();
+        if (isEqualityBehaviour) {
+            equalityMap.clear();
+        } else {
+            for (IdentityStripe stripe : identityStripes) {
+                stripe.clear();
+            }
+        }
+        size.set(0);
+    }
+
+    @Override
+    public Object getObjectForHandle(InternalFactHandle handle) {
+        InternalFactHandle reconnectedHandle = reconnect(handle);
+        return reconnectedHandle != null ? reconnectedHandle.getObject() : null;
+    }
+
+    @Override
+    public InternalFactHandle reconnect(InternalFactHandle handle) {
+        if (handle == null) {
+            return null;
+        }
+
+        Object object = handle.getObject();
+        if (object != null && !handle.isDisconnected()) {
+            ConcurrentFactHandleClassStore store = classStores.get(getActualClass(object));
+            return store != null ? store.get(handle) : null;
+        }
+
+        String className = handle.getObjectClassName();
+        for (ConcurrentFactHandleClassStore store : classStores.values()) {
+            if (className == null || className.equals(store.getStoredClass().getName())) {
+                InternalFactHandle reconnectedHandle = store.get(handle);
+                if (reconnectedHandle != null) {
+                    return reconnectedHandle;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public InternalFactHandle getHandleForObject(Object object) {
+        if ( object == null ) {
+            return null;
+        }
+        return isEqualityBehaviour ? equalityMap.get(object) : identityStripeOf(object).get(object);
+    }
+
+    @Override
+    public void updateHandle(InternalFactHandle handle, Object object) {
+        removeHandle(handle);
+        handle.setObject(object);
+        addHandle(handle, object);
+    }
+
+    @Override
+    public void addHandle(InternalFactHandle handle, Object object) {
+        if (isEqualityBehaviour) {
+            equalityMap.put(object, handle);
+        } else if (!handle.isNegated()) {
+            identityStripeOf(object).put(object, handle);
+        }
+        addToClassStore(handle, object);
+    }
+
+    /**
+     * Atomically adds the given handle unless the object is already stored. It returns the existing handle
+     * of the object if any, otherwise null, meaning that the given handle has been added.
+     */
+    public InternalFactHandle addHandleIfAbsent(InternalFactHandle handle, Object object) {
+        InternalFactHandle existing = isEqualityBehaviour ?
+                equalityMap.putIfAbsent(object, handle) :
+                identityStripeOf(object).putIfAbsent(object, handle);
+        if (existing != null) {
+            return existing;
+        }
+        addToClassStore(handle, object);
+        return null;
+    }
+
+    private void addToClassStore(InternalFactHandle handle, Object object) {
+        if ( getOrCreateClassStore(getActualClass(object)).add(handle) ) {
+            size.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void removeHandle(InternalFactHandle handle) {
+        Object object = handle.getObject();
+        removeFromLookupMaps(handle);
+        ConcurrentFactHandleClassStore store = classStores.get(getActualClass(object));
+        if ( store != null && store.remove(handle) ) {
+            size.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Iterator<Object> iterateObjects() {
+        return handles(true).map(InternalFactHandle::getObject).iterator();
+    }
+
+    @Override
+    public Iterator<Object> iterateObjects(ObjectFilter filter) {
+        return handles(true, filter).map(InternalFactHandle::getObject).iterator();
+    }
+
+    @Override
+    public Iterator<InternalFactHandle> iterateFactHandles() {
+        return handles(true).iterator();
+    }
+
+    @Override
+    public Iterator<InternalFactHandle> iterateFactHandles(ObjectFilter filter) {
+        return handles(true, filter).iterator();
+    }
+
+    @Override
+    public Iterator<Object> iterateNegObjects(ObjectFilter filter) {
+        return handles(false, filter).map(InternalFactHandle::getObject).iterator();
+    }
+
+    @Override
+    public Iterator<InternalFactHandle> iterateNegFactHandles(ObjectFilter filter) {
+        return handles(false, filter).iterator();
+    }
+
+    private Stream<InternalFactHandle> handles(boolean assrt) {
+        return classStores.values().stream().flatMap(store -> store.handles(assrt));
+    }
+
+    private Stream<InternalFactHandle> handles(boolean assrt, ObjectFilter filter) {
+        if (filter instanceof ClassObjectFilter) {
+            return handles(((ClassObjectFilter) filter).getFilteredClass(), assrt);
+        }
+        return handles(assrt).filter(fh -> filter == null || filter.accept(fh.getObject()));
+    }
+
+    private Stream<InternalFactHandle> handles(Class<?> clazz, boolean assrt) {
+        return classStores.values().stream()
+                .filter(store -> clazz.isAssignableFrom(store.getStoredClass()))
+                .flatMap(store -> store.handles(assrt));
+    }
+
+    @Override
+    public FactHandleClassStore getStoreForClass(Class<?> clazz) {
+        return () -> handles(clazz, true).iterator();
+    }
+
+    @Override
+    public boolean clearClassStore(Class<?> clazz) {
+        boolean removed = false;
+        for (ConcurrentFactHandleClassStore store : classStores.values()) {
+            if (store.getStoredClass().getName().equals(clazz.getName()) && classStores.remove(store.getStoredClass(), store)) {
+                store.handles(true).forEach(this::removeFromLookupMaps);
+                store.handles(false).forEach(this::removeFromLookupMaps);
+                size.addAndGet(-store.size());
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    private void removeFromLookupMaps(InternalFactHandle handle) {
+        Object object = handle.getObject();
+        if (isEqualityBehaviour) {
+            equalityMap.remove(object, handle);
+        } else if (!handle.isNegated()) {
+            identityStripeOf(object).remove(object, handle);
+        }
+    }
+
+    private ConcurrentFactHandleClassStore getOrCreateClassStore(Class<?> clazz) {
+        ConcurrentFactHandleClassStore store = classStores.get(clazz);
+        return store != null ? store : classStores.computeIfAbsent(clazz, ConcurrentFactHandleClassStore::new);
+    }
+
+    private IdentityStripe identityStripeOf(Object object) {
+        return identityStripes[System.identityHashCode(object) & (STRIPES - 1)];
+    }
+
+    /**
+     * The handles of the facts of a single concrete class, indexed by their id
+     */
+    public static class ConcurrentFactHandleClassStore implements FactHandleClassStore {
+
+        private final Class<?> storedClass;
+
+        private final Map<Long, InternalFactHandle> handles = new ConcurrentHashMap<>();
+
+        private final Map<Long, InternalFactHandle> negHandles = new ConcurrentHashMap<>();
+
+        ConcurrentFactHandleClassStore(Class<?> storedClass) {
+            this.storedClass = storedClass;
+        }
+
+        public Class<?> getStoredClass() {
+            return storedClass;
+        }
+
+        public int size() {
+            return handles.size();
+        }
+
+        InternalFactHandle get(InternalFactHandle handle) {
+            return (handle.isNegated() ? negHandles : handles).get(handle.getId());
+        }
+
+        boolean add(InternalFactHandle handle) {
+            if (handle.isNegated()) {
+                negHandles.put(handle.getId(), handle);
+                return false;
+            }
+            return handles.put(handle.getId(), handle) == null;
+        }
+
+        boolean remove(InternalFactHandle handle) {
+            if (handle.isNegated()) {
+                negHandles.remove(handle.getId());
+                return false;
+            }
+            return handles.remove(handle.getId()) != null;
+        }
+
+        Stream<InternalFactHandle> handles(boolean assrt) {
+            return (assrt ? handles : negHandles).values().stream();
+        }
+
+        @Override
+        public Iterator<InternalFactHandle> iterator() {
+            return handles.values().iterator();
+        }
+
+        @Override
+        public String toString() {
+            return "Concurrent object store for class: " + storedClass;
+        }
+    }
+
+    private static class IdentityStripe {
+
+        private final Map<Object, InternalFactHandle> map = new IdentityHashMap<>();
+
+        synchronized InternalFactHandle get(Object object) {
+            return map.get(object);
+        }
+
+        synchronized void put(Object object, InternalFactHandle handle) {
+            map.put(object, handle);
+        }
+
+        synchronized InternalFactHandle putIfAbsent(Object object, InternalFactHandle handle) {
+            return map.putIfAbsent(object, handle);
+        }
+
+        synchronized void remove(Object object, InternalFactHandle handle) {
+            map.remove(object, handle);
+        }
+
+        synchronized void clear() {
+            map.clear();
+        }
+    }
+}
@@ -456,6 +456,15 @@ public class DefaultFactHandle extends AbstractLinkedListNode<DefaultFactHandle>
         private TupleImpl  firstLeftTuple;
         private TupleImpl  lastLeftTuple;
 
+        public SingleLinkedTuples() { }
+
+        SingleLinkedTuples(TupleImpl firstLeftTuple, TupleImpl lastLeftTuple, TupleImpl firstRightTuple, TupleImpl lastRightTuple) {
+            this.firstLeftTuple = firstLeftTuple;
+            this.lastLeftTuple = lastLeftTuple;
+            this.firstRightTuple = firstRightTuple;
+            this.lastRightTuple = lastRightTuple;
+        }
+
         public SingleLinkedTuples clone() {
             SingleLinkedTuples clone = new SingleLinkedTuples();
             clone.firstLeftTuple = this.firstLeftTuple;
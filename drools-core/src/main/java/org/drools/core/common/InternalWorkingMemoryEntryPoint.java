@@ -54,6 +54,10 @@ public interface InternalWorkingMemoryEntryPoint extends WorkingMemoryEntryPoint
 
     FactHandle insertAsync(Object object);
 
+    void lock();
+
+    void unlock();
+
     InternalFactHandle update(InternalFactHandle handle,
                               Object object,
                               BitMask mask,
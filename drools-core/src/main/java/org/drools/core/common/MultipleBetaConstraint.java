@@ -94,6 +94,10 @@ public abstract class MultipleBetaConstraint implements BetaConstraints<ContextE
         return indexed[0];
     }
 
+    public final boolean isIndexed(int position) {
+        return indexed[position];
+    }
+
     public final int getIndexCount() {
         int count = 0;
         for (boolean i : indexed) {
@@ -18,6 +18,7 @@
  */
 package org.drools.core.common;
 
+import java.util.Collection;
 import java.util.Iterator;
 
 import org.kie.api.internal.utils.KieService;
@@ -41,6 +42,15 @@ public interface ObjectStore extends KieService {
 
     void addHandle(InternalFactHandle handle, Object object);
 
+    /**
+     * Adds a batch of handles, each one with the object it currently holds, i.e. when a session is being restored
+     */
+    default void addHandles(Collection<InternalFactHandle> handles) {
+        for (InternalFactHandle handle : handles) {
+            addHandle(handle, handle.getObject());
+        }
+    }
+
     void removeHandle(final InternalFactHandle handle);
 
     /**
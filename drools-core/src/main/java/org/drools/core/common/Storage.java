@@ -40,6 +40,12 @@ public interface Storage<K, V> {
 
     V remove(K key);
 
+    default void removeAll(Collection<? extends K> keys) {
+        for (K key : keys) {
+            remove(key);
+        }
+    }
+
     Set<K> keySet();
 
     Collection<V> values();
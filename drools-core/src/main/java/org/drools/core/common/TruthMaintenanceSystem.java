@@ -53,6 +53,12 @@ public interface TruthMaintenanceSystem {
     InternalFactHandle insertOnTms(Object object, ObjectTypeConf typeConf, PropagationContext propagationContext,
                                    InternalFactHandle handle, BiFunction<Object, ObjectTypeConf, InternalFactHandle> fhFactory);
 
+    /**
+     * Gives an equality key to a stated handle which has been added to the object store without going through the TMS,
+     * unless it already has one.
+     */
+    void addStatedHandle(InternalFactHandle handle);
+
     void updateOnTms(InternalFactHandle handle, Object object, InternalMatch internalMatch);
 
     void deleteFromTms(InternalFactHandle handle, EqualityKey key, PropagationContext propagationContext );
@@ -19,6 +19,7 @@
 package org.drools.core.concurrent;
 
 import org.drools.core.common.InternalAgendaGroup;
+import org.drools.core.reteoo.PathMemory;
 import org.drools.core.rule.consequence.KnowledgeHelper;
 import org.kie.api.runtime.rule.AgendaFilter;
 
@@ -30,4 +31,8 @@ public interface GroupEvaluator {
     void resetKnowledgeHelper();
 
     void haltEvaluation();
+
+    default boolean deferRuleLinking(PathMemory pmem, boolean link) {
+        return false;
+    }
 }
@@ -18,23 +18,46 @@
  */
 package org.drools.core.concurrent;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import org.drools.base.common.RuleBasePartitionId;
+import org.drools.base.reteoo.NodeTypeEnums;
 import org.drools.core.common.ActivationsManager;
 import org.drools.core.common.InternalAgendaGroup;
+import org.drools.core.common.Memory;
 import org.drools.core.phreak.RuleAgendaItem;
+import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.PathMemory;
+import org.drools.core.reteoo.RightInputAdapterNode.RiaPathMemory;
+import org.drools.core.reteoo.SegmentMemory;
 
 import static org.drools.base.common.PartitionsManager.MIN_PARALLEL_THRESHOLD;
 import static org.drools.base.common.PartitionsManager.doOnForkJoinPool;
 
 public class ParallelGroupEvaluator extends AbstractGroupEvaluator {
 
+    private static final int MIN_SEGMENT_GROUPS = 2;
+
+    private final boolean segmentEvaluation;
+
+    private final boolean virtualThreads;
+
+    private volatile Queue<LinkChange> deferredLinkChanges;
+
     public ParallelGroupEvaluator(ActivationsManager activationsManager ) {
         super(activationsManager);
+        this.segmentEvaluation = activationsManager.getReteEvaluator().getKnowledgeBase().getRuleBaseConfiguration().isParallelSegmentEvaluation();
+        this.virtualThreads = VirtualThreads.isEnabled(activationsManager.getReteEvaluator().getRuleSessionConfiguration());
     }
 
     protected void startEvaluation(InternalAgendaGroup group) {
@@ -49,19 +72,203 @@ public class ParallelGroupEvaluator extends AbstractGroupEvaluator {
             return;
         }
 
-        Map<RuleBasePartitionId, List<RuleAgendaItem>> partitionedActivations = activations.stream().collect(Collectors.groupingBy(RuleAgendaItem::getPartition));
-        if (partitionedActivations.size() < MIN_PARALLEL_THRESHOLD) {
-            // ... or partitions
-            return;
+        Collection<List<RuleAgendaItem>> independentActivations;
+        if (segmentEvaluation) {
+            independentActivations = groupBySharedSegments(activations);
+            if (independentActivations.size() < MIN_SEGMENT_GROUPS) {
+                // ... or independent groups of segments
+                return;
+            }
+        } else {
+            independentActivations = activations.stream().collect(Collectors.groupingBy(RuleAgendaItem::getPartition)).values();
+            if (independentActivations.size() < MIN_PARALLEL_THRESHOLD) {
+                // ... or partitions
+                return;
+            }
         }
 
-        // This will evaluate all the RuleAgendaItem (grouped by partitions) in parallel, also resetting
+        // This will evaluate all the RuleAgendaItem (grouped by partitions or segments) in parallel, also resetting
         // their dirty flag. After this AbstractGroupEvaluator#evaluateAndFire loop will attempt re-evaluating
         // those items again, but finding them not dirty it won't have any performance impact allowing a direct firing.
-        doOnForkJoinPool(() ->
-                partitionedActivations.values().parallelStream()
-                        .forEach( items -> items
-                                .forEach( item -> item.getRuleExecutor().evaluateNetworkIfDirty(activationsManager) ) )
-        );
+        // The firing order is still the one of the agenda, since only the network evaluation happens in parallel.
+        // All the segment groups share the same agenda, so in that case the terminal nodes, which create the matches
+        // and notify the agenda listeners, are left to the firing thread.
+        Consumer<RuleAgendaItem> evaluator = segmentEvaluation ?
+                item -> item.getRuleExecutor().evaluateNetworkUpToTerminalNode(activationsManager) :
+                item -> item.getRuleExecutor().evaluateNetworkIfDirty(activationsManager);
+
+        // The not and exists nodes can link or unlink a rule while being evaluated: since the agenda isn't thread safe
+        // the resulting agenda changes are queued and applied by the firing thread once all the groups have been evaluated.
+        Queue<LinkChange> linkChanges = new ConcurrentLinkedQueue<>();
+        deferredLinkChanges = linkChanges;
+        try {
+            if (virtualThreads) {
+                VirtualThreads.runAll(independentActivations, items -> items.forEach(evaluator));
+            } else {
+                doOnForkJoinPool(() ->
+                        independentActivations.parallelStream()
+                                .forEach( items -> items.forEach(evaluator) )
+                );
+            }
+        } finally {
+            deferredLinkChanges = null;
+            for (LinkChange change : linkChanges) {
+                change.apply(activationsManager);
+            }
+        }
+    }
+
+    @Override
+    public boolean deferRuleLinking(PathMemory pmem, boolean link) {
+        Queue<LinkChange> linkChanges = deferredLinkChanges;
+        if (linkChanges == null) {
+            return false;
+        }
+        linkChanges.add(new LinkChange(pmem, link));
+        return true;
+    }
+
+    /**
+     * Groups the dirty activations so that 2 rules sharing a segment, even through a subnetwork, always end up in the same group
+     * and then are evaluated by the same thread. The segments of the other rules passing through those segments are also
+     * taken into account, since linking or unlinking a segment updates the state of all its rules. Rules whose network
+     * cannot be safely evaluated out of the main loop are left out of all the groups and will be evaluated sequentially.
+     */
+    private static Collection<List<RuleAgendaItem>> groupBySharedSegments(Collection<RuleAgendaItem> activations) {
+        Map<SegmentMemory, SegmentGroup> groupsBySegment = new IdentityHashMap<>();
+        Set<SegmentGroup> groups = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<SegmentMemory> expandedSegments = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<SegmentMemory> segments = new ArrayList<>();
+
+        for (RuleAgendaItem item : activations) {
+            segments.clear();
+            if (!item.getRuleExecutor().isDirty() || !collectSegments(item.getRuleExecutor().getPathMemory(), segments)) {
+                continue;
+            }
+
+            addSharingPathsSegments(segments, expandedSegments);
+
+            SegmentGroup group = null;
+            for (SegmentMemory smem : segments) {
+                SegmentGroup other = groupsBySegment.get(smem);
+                if (other == null || other == group) {
+                    continue;
+                }
+                if (group == null) {
+                    group = other;
+                } else {
+                    group = merge(group, other, groupsBySegment, groups);
+                }
+            }
+
+            if (group == null) {
+                group = new SegmentGroup();
+                groups.add(group);
+            }
+            group.items.add(item);
+            for (SegmentMemory smem : segments) {
+                if (groupsBySegment.putIfAbsent(smem, group) == null) {
+                    group.segments.add(smem);
+                }
+            }
+        }
+
+        List<List<RuleAgendaItem>> result = new ArrayList<>(groups.size());
+        for (SegmentGroup group : groups) {
+            result.add(group.items);
+        }
+        return result;
+    }
+
+    private static SegmentGroup merge(SegmentGroup group1, SegmentGroup group2, Map<SegmentMemory, SegmentGroup> groupsBySegment, Set<SegmentGroup> groups) {
+        // always move the smaller group into the bigger one
+        SegmentGroup target = group1.segments.size() >= group2.segments.size() ? group1 : group2;
+        SegmentGroup source = target == group1 ? group2 : group1;
+        target.items.addAll(source.items);
+        for (SegmentMemory smem : source.segments) {
+            groupsBySegment.put(smem, target);
+        }
+        target.segments.addAll(source.segments);
+        groups.remove(source);
+        return target;
+    }
+
+    private static boolean collectSegments(PathMemory pmem, List<SegmentMemory> segments) {
+        boolean subnetwork = pmem instanceof RiaPathMemory;
+        for (SegmentMemory smem : pmem.getSegmentMemories()) {
+            if (smem == null) {
+                // the segments of a subnetwork in the parent chain are null, otherwise the path is not fully initialized
+                if (subnetwork) {
+                    continue;
+                }
+                return false;
+            }
+            segments.add(smem);
+            for (Memory nodeMem : smem.getNodeMemories()) {
+                if (!isParallelizable(nodeMem)) {
+                    return false;
+                }
+                BetaMemory bm = nodeMem instanceof AccumulateMemory ? ((AccumulateMemory) nodeMem).getBetaMemory() :
+                                nodeMem instanceof BetaMemory ? (BetaMemory) nodeMem : null;
+                if (bm != null && bm.getRiaRuleMemory() != null && !collectSegments(bm.getRiaRuleMemory(), segments)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void addSharingPathsSegments(List<SegmentMemory> segments, Set<SegmentMemory> expandedSegments) {
+        for (int i = 0, length = segments.size(); i < length; i++) {
+            SegmentMemory evaluated = segments.get(i);
+            if (!expandedSegments.add(evaluated)) {
+                // already grouped together with all the segments of its rules
+                continue;
+            }
+            for (PathMemory pmem : evaluated.getPathMemories()) {
+                for (SegmentMemory smem : pmem.getSegmentMemories()) {
+                    if (smem != null && smem != evaluated) {
+                        segments.add(smem);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isParallelizable(Memory nodeMem) {
+        // these nodes interact with session wide services (timers, queries, channels) while being evaluated
+        switch (nodeMem.getNodeType()) {
+            case NodeTypeEnums.TimerConditionNode:
+            case NodeTypeEnums.QueryElementNode:
+            case NodeTypeEnums.AsyncSendNode:
+            case NodeTypeEnums.AsyncReceiveNode:
+            case NodeTypeEnums.ReactiveFromNode:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private static class LinkChange {
+        private final PathMemory pmem;
+        private final boolean link;
+
+        private LinkChange(PathMemory pmem, boolean link) {
+            this.pmem = pmem;
+            this.link = link;
+        }
+
+        private void apply(ActivationsManager activationsManager) {
+            if (link) {
+                pmem.doLinkRule(activationsManager);
+            } else {
+                pmem.doUnlinkRule(activationsManager);
+            }
+        }
+    }
+
+    private static class SegmentGroup {
+        private final List<RuleAgendaItem> items = new ArrayList<>();
+        private final List<SegmentMemory> segments = new ArrayList<>();
     }
 }
@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+import org.drools.core.RuleSessionConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.drools.util.Config.getConfig;
+
+/**
+ * Access to the virtual threads of the JVM, looked up reflectively since the engine is still compiled against
+ * a Java release not providing them. The CPU bound tasks are submitted through a shared executor bounding
+ * how many of them can run at the same time, while the tasks mostly waiting (like timers or fireUntilHalt)
+ * get an unbounded virtual thread each.
+ */
+public final class VirtualThreads {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+
+    public static final String MAX_CONCURRENCY_PROPERTY = "drools.virtualThreads.maxConcurrency";
+
+    private static final AtomicBoolean unavailableWarned = new AtomicBoolean();
+
+    private VirtualThreads() { }
+
+    private static class Support {
+        private static final Method OF_VIRTUAL;
+        private static final Method NAME;
+        private static final Method FACTORY;
+        private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+        static {
+            Method ofVirtual = null, name = null, factory = null, newThreadPerTaskExecutor = null;
+            try {
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                ofVirtual = Thread.class.getMethod("ofVirtual");
+                name = builderClass.getMethod("name", String.class, long.class);
+                factory = builderClass.getMethod("factory");
+                newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            } catch (ReflectiveOperationException e) {
+                ofVirtual = null;
+            }
+            OF_VIRTUAL = ofVirtual;
+            NAME = name;
+            FACTORY = factory;
+            NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+        }
+    }
+
+    private static class BoundedExecutorHolder {
+        private static final Executor EXECUTOR = new BoundedExecutor(newThreadPerTaskExecutor("drools-virtual-worker-"), maxConcurrency());
+    }
+
+    public static boolean isAvailable() {
+        return Support.OF_VIRTUAL != null;
+    }
+
+    /**
+     * Returns true if the given session has been configured to use virtual threads and they are supported by the JVM.
+     */
+    public static boolean isEnabled(RuleSessionConfiguration conf) {
+        if (!conf.isVirtualThreads()) {
+            return false;
+        }
+        if (!isAvailable()) {
+            if (unavailableWarned.compareAndSet(false, true)) {
+                log.warn("Virtual threads are not supported by this JVM: using platform threads");
+            }
+            return false;
+        }
+        return true;
+    }
+
+    public static ThreadFactory newThreadFactory(String namePrefix) {
+        try {
+            Object builder = Support.NAME.invoke(Support.OF_VIRTUAL.invoke(null), namePrefix, 0L);
+            return (ThreadFactory) Support.FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create a virtual thread factory", e);
+        }
+    }
+
+    /**
+     * Returns an executor starting a new virtual thread for each task, without any bound on their number.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        try {
+            return (ExecutorService) Support.NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, newThreadFactory(namePrefix));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create a virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Returns the shared executor running at most drools.virtualThreads.maxConcurrency tasks at the same time.
+     */
+    public static Executor boundedExecutor() {
+        return BoundedExecutorHolder.EXECUTOR;
+    }
+
+    public static <T> void runAll(Collection<T> items, Consumer<T> action) {
+        CompletableFuture<?>[] futures = new CompletableFuture[items.size()];
+        int i = 0;
+        for (T item : items) {
+            futures[i++] = CompletableFuture.runAsync(() -> action.accept(item), boundedExecutor());
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    public static <T> int sumAll(T[] items, ToIntFunction<T> action) {
+        CompletableFuture<Integer>[] futures = new CompletableFuture[items.length];
+        for (int i = 0; i < items.length; i++) {
+            T item = items[i];
+            futures[i] = CompletableFuture.supplyAsync(() -> action.applyAsInt(item), boundedExecutor());
+        }
+        int sum = 0;
+        for (CompletableFuture<Integer> future : futures) {
+            sum += future.join();
+        }
+        return sum;
+    }
+
+    private static int maxConcurrency() {
+        String maxConcurrency = getConfig(MAX_CONCURRENCY_PROPERTY);
+        return maxConcurrency != null ? Integer.parseInt(maxConcurrency) : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Each submitted task gets its own thread, but it waits on a semaphore before running, so only a bounded
+     * number of tasks can be executed at the same time. Waiting is cheap for a virtual thread and the submitter
+     * is never blocked.
+     */
+    static class BoundedExecutor implements Executor {
+        private final Executor delegate;
+        private final Semaphore permits;
+
+        BoundedExecutor(Executor delegate, int maxConcurrency) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(maxConcurrency);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                // an interrupted task must still run, otherwise whoever is joining it would wait forever
+                permits.acquireUninterruptibly();
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+}
@@ -462,7 +462,10 @@ public class KnowledgeBaseImpl implements InternalRuleBase {
 
     private void setupParallelEvaluation() {
         if (!partitionsManager.hasParallelEvaluation()) {
-            disableParallelEvaluation("The rete network cannot be partitioned: disabling multithread evaluation");
+            if (!ruleBaseConfig.isParallelSegmentEvaluation()) {
+                disableParallelEvaluation("The rete network cannot be partitioned: disabling multithread evaluation");
+            }
+            // otherwise the independent segments inside each partition can still be evaluated in parallel
             return;
         }
         partitionsManager.init();
@@ -506,7 +509,8 @@ public class KnowledgeBaseImpl implements InternalRuleBase {
         if (ruleBaseConfig.isParallelEvaluation()) {
             if (!rule.isMainAgendaGroup()) {
                 disableParallelEvaluation( "Agenda-groups are not supported with parallel execution: disabling it" );
-            } else if (rule.getActivationGroup() != null) {
+            } else if (rule.getActivationGroup() != null && !ruleBaseConfig.isParallelSegmentEvaluation()) {
+                // the parallel segment evaluation supports them, since it leaves the terminal nodes to the firing thread
                 disableParallelEvaluation( "Activation-groups are not supported with parallel execution: disabling it" );
             } else if (!rule.getSalience().isDefault() && ruleBaseConfig.isParallelExecution()) {
                 disableParallelEvaluation( "Salience is not supported with parallel execution: disabling it" );
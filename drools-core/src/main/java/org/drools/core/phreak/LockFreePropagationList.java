@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.phreak;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.drools.core.common.ReteEvaluator;
+
+/**
+ * Multi-producer/single-consumer propagation list that never takes a lock. Producers push their entries on a
+ * lock-free stack with a single CAS, while the engine thread detaches the whole stack at once in takeAll()
+ * and reverses it, so the entries are still flushed in insertion order and the cost of the reversal is
+ * amortized on the entire batch.
+ * When firing until halt, the engine thread waits for new entries either parking immediately or, with the
+ * SPIN_PARK strategy, spinning for a short while before parking, which avoids the cost of parking and
+ * unparking the thread under a steady flow of inserts.
+ */
+public class LockFreePropagationList extends SynchronizedPropagationList {
+
+    static final int DEFAULT_SPINS = 1 << 10;
+
+    // parking is bounded, so a missed wake up can only delay the firing thread and never block it
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicReference<PropagationEntry> stack = new AtomicReference<>();
+
+    private final int spins;
+
+    private volatile Thread waiter;
+
+    private volatile boolean wakeUpRequested;
+
+    public LockFreePropagationList(ReteEvaluator reteEvaluator, boolean spinBeforeParking) {
+        super(reteEvaluator);
+        this.spins = spinBeforeParking ? DEFAULT_SPINS : 0;
+    }
+
+    @Override
+    void internalAddEntry(PropagationEntry entry) {
+        PropagationEntry current;
+        do {
+            current = stack.get();
+            entry.setNext(current);
+        } while (!stack.compareAndSet(current, entry));
+
+        if (entry.defersExpiration()) {
+            hasEntriesDeferringExpiration = true;
+        }
+        if (current == null && firingUntilHalt) {
+            notifyWaitOnRest();
+        }
+    }
+
+    @Override
+    public PropagationEntry takeAll() {
+        hasEntriesDeferringExpiration = false;
+        PropagationEntry top = stack.getAndSet(null);
+
+        // the stack has the last added entry on top, reverse it to flush the entries in insertion order
+        PropagationEntry head = null;
+        while (top != null) {
+            PropagationEntry next = top.getNext();
+            top.setNext(head);
+            head = top;
+            top = next;
+        }
+        return head;
+    }
+
+    @Override
+    public void reset() {
+        stack.set(null);
+        disposed = false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return stack.get() == null;
+    }
+
+    @Override
+    public void waitOnRest() {
+        for (int i = 0; i < spins; i++) {
+            if (wakeUpRequested || stack.get() != null) {
+                wakeUpRequested = false;
+                return;
+            }
+            Thread.onSpinWait();
+        }
+
+        waiter = Thread.currentThread();
+        try {
+            // check again after publishing the waiter, a notification could have been sent in the meanwhile
+            if (!wakeUpRequested && stack.get() == null) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+        } finally {
+            waiter = null;
+            wakeUpRequested = false;
+        }
+    }
+
+    @Override
+    public void notifyWaitOnRest() {
+        wakeUpRequested = true;
+        Thread parked = waiter;
+        if (parked != null) {
+            LockSupport.unpark(parked);
+        }
+    }
+
+    @Override
+    public Iterator<PropagationEntry> iterator() {
+        // iterates a snapshot of the entries in insertion order without detaching them
+        List<PropagationEntry> entries = new ArrayList<>();
+        for (PropagationEntry entry = stack.get(); entry != null; entry = entry.getNext()) {
+            entries.add(entry);
+        }
+        return new Iterator<>() {
+            private int i = entries.size();
+
+            @Override
+            public boolean hasNext() {
+                return i > 0;
+            }
+
+            @Override
+            public PropagationEntry next() {
+                return entries.get(--i);
+            }
+        };
+    }
+}
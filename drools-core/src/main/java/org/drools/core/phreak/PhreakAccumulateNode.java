@@ -18,6 +18,11 @@
  */
 package org.drools.core.phreak;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.drools.base.reteoo.AccumulateContextEntry;
 import org.drools.base.reteoo.BaseTuple;
 import org.drools.base.rule.Accumulate;
@@ -43,6 +48,7 @@ import org.drools.core.util.AbstractHashTable;
 import org.drools.core.util.FastIterator;
 import org.kie.api.runtime.rule.FactHandle;
 
+import static org.drools.base.rule.ParallelGroupByAccumulate.isParallelGroupBy;
 import static org.drools.core.phreak.RuleNetworkEvaluator.normalizeStagedTuples;
 
 public class PhreakAccumulateNode {
@@ -145,6 +151,7 @@ public class PhreakAccumulateNode {
         BetaConstraints constraints = accNode.getRawConstraints();
 
         boolean leftTupleMemoryEnabled = accNode.isLeftTupleMemoryEnabled();
+        boolean parallelGroupBy = isParallelGroupBy(accumulate) && !accNode.isRightInputIsRiaNode();
 
         for (TupleImpl leftTuple = srcLeftTuples.getInsertFirst(); leftTuple != null; ) {
             TupleImpl next = leftTuple.getStagedNext();
@@ -174,18 +181,30 @@ public class PhreakAccumulateNode {
 
             FastIterator rightIt = accNode.getRightIterator(rtm);
 
-            for (RightTuple rightTuple = accNode.getFirstRightTuple(leftTuple, rtm, rightIt); rightTuple != null; ) {
-                RightTuple nextRightTuple = (RightTuple) rightIt.next(rightTuple);
-
-                if (constraints.isAllowedCachedLeft(contextEntry,
-                                                    rightTuple.getFactHandleForEvaluation())) {
-                    // add a match
-                    addMatch(accNode, accumulate, leftTuple, rightTuple,
-                             null, null, reteEvaluator, am,
-                             accresult, useLeftMemory, true);
+            if (parallelGroupBy && useLeftMemory) {
+                // collect all the matches first, so that they can be accumulated at once
+                List<TupleImpl> rightTuples = new ArrayList<>();
+                for (RightTuple rightTuple = accNode.getFirstRightTuple(leftTuple, rtm, rightIt); rightTuple != null; rightTuple = (RightTuple) rightIt.next(rightTuple)) {
+                    if (constraints.isAllowedCachedLeft(contextEntry, rightTuple.getFactHandleForEvaluation()) &&
+                        !rightTuple.getFactHandle().isExpired()) {
+                        rightTuples.add(rightTuple);
+                    }
                 }
+                addMatches(accNode, accumulate, leftTuple, rightTuples, reteEvaluator, am, accresult);
+            } else {
+                for (RightTuple rightTuple = accNode.getFirstRightTuple(leftTuple, rtm, rightIt); rightTuple != null; ) {
+                    RightTuple nextRightTuple = (RightTuple) rightIt.next(rightTuple);
 
-                rightTuple = nextRightTuple;
+                    if (constraints.isAllowedCachedLeft(contextEntry,
+                                                        rightTuple.getFactHandleForEvaluation())) {
+                        // add a match
+                        addMatch(accNode, accumulate, leftTuple, rightTuple,
+                                 null, null, reteEvaluator, am,
+                                 accresult, useLeftMemory, true);
+                    }
+
+                    rightTuple = nextRightTuple;
+                }
             }
 
             leftTuple.clearStaged();
@@ -232,6 +251,11 @@ public class PhreakAccumulateNode {
 
         boolean tupleMemoryEnabled = accNode.isLeftTupleMemoryEnabled();
 
+        // with a parallel groupBy the matches of each left tuple are collected first, so that they can be accumulated at once
+        boolean parallelGroupBy = isParallelGroupBy(accumulate) && !accNode.isRightInputIsRiaNode();
+        List<TupleImpl> matchedLeftTuples = parallelGroupBy ? new ArrayList<>() : null;
+        Map<TupleImpl, List<TupleImpl>> matchesByLeftTuple = parallelGroupBy ? new IdentityHashMap<>() : null;
+
         for (TupleImpl rightTuple = srcRightTuples.getInsertFirst(); rightTuple != null; ) {
             TupleImpl next = rightTuple.getStagedNext();
             boolean useTupleMemory = tupleMemoryEnabled || RuleNetworkEvaluator.useLeftMemory(accNode, rightTuple);
@@ -250,10 +274,20 @@ public class PhreakAccumulateNode {
 
                 for ( TupleImpl leftTuple = accNode.getFirstLeftTuple( rightTuple, ltm, leftIt ); leftTuple != null; leftTuple = (LeftTuple) leftIt.next( leftTuple ) ) {
                     if ( constraints.isAllowedCachedRight(leftTuple, contextEntry) ) {
-                        final BaseAccumulation accctx = (BaseAccumulation) leftTuple.getContextObject();
-                        addMatch( accNode, accumulate, leftTuple, rightTuple,
-                                  null, null, reteEvaluator, am,
-                                  accctx, true, false );
+                        if (parallelGroupBy) {
+                            List<TupleImpl> rightTuples = matchesByLeftTuple.get(leftTuple);
+                            if (rightTuples == null) {
+                                rightTuples = new ArrayList<>();
+                                matchesByLeftTuple.put(leftTuple, rightTuples);
+                                matchedLeftTuples.add(leftTuple);
+                            }
+                            rightTuples.add(rightTuple);
+                        } else {
+                            final BaseAccumulation accctx = (BaseAccumulation) leftTuple.getContextObject();
+                            addMatch( accNode, accumulate, leftTuple, rightTuple,
+                                      null, null, reteEvaluator, am,
+                                      accctx, true, false );
+                        }
 
                         // right inserts and updates are done first
                         // so any existing leftTuples we know are updates, but only add if not already added
@@ -267,6 +301,13 @@ public class PhreakAccumulateNode {
             rightTuple = next;
         }
         constraints.resetFactHandle( contextEntry );
+
+        if (parallelGroupBy) {
+            for (TupleImpl leftTuple : matchedLeftTuples) {
+                addMatches(accNode, accumulate, leftTuple, matchesByLeftTuple.get(leftTuple),
+                           reteEvaluator, am, (BaseAccumulation) leftTuple.getContextObject());
+            }
+        }
     }
 
     private void doLeftUpdates(AccumulateNode accNode,
@@ -590,6 +631,10 @@ public class PhreakAccumulateNode {
         TupleMemory rtm = am.getBetaMemory().getRightTupleMemory();
         Accumulate accumulate = accNode.getAccumulate();
 
+        // left tuples whose accumulation couldn't be reversed: they are re-accumulated only once after all the
+        // deletes have been processed, e.g. when many events expire together from a sliding window
+        List<TupleImpl> toReaccumulate = null;
+
         for (TupleImpl rightTuple = srcRightTuples.getDeleteFirst(); rightTuple != null; ) {
             TupleImpl next = rightTuple.getStagedNext();
             if (rightTuple.getMemory() != null) {
@@ -604,8 +649,22 @@ public class PhreakAccumulateNode {
 
                         TupleImpl leftTuple = match.getLeftParent();
                         final BaseAccumulation accctx = (BaseAccumulation) leftTuple.getContextObject();
-                        // FIXME This will be really slow, if it re-accumulates on the same LeftTuple (MDP)
-                        removeMatch(accNode, accumulate, rightTuple, match, reteEvaluator, am, accctx, true);
+                        if (accctx instanceof AccumulateContext && !am.lazyAccumulate) {
+                            AccumulateContext accumulateContext = (AccumulateContext) accctx;
+                            if (accumulateContext.isReaccumulationPending()) {
+                                // the whole result will be recalculated, so there is no need to reverse this match
+                                match.unlinkFromLeftParent();
+                                match.unlinkFromRightParent();
+                            } else if (!removeMatch(accNode, accumulate, rightTuple, match, reteEvaluator, am, accctx, false)) {
+                                accumulateContext.setReaccumulationPending(true);
+                                if (toReaccumulate == null) {
+                                    toReaccumulate = new ArrayList<>();
+                                }
+                                toReaccumulate.add(leftTuple);
+                            }
+                        } else {
+                            removeMatch(accNode, accumulate, rightTuple, match, reteEvaluator, am, accctx, true);
+                        }
 
                         if (leftTuple.getStagedType() == LeftTuple.NONE) {
                             trgLeftTuples.addUpdate(leftTuple);
@@ -618,6 +677,14 @@ public class PhreakAccumulateNode {
             rightTuple.clearStaged();
             rightTuple = next;
         }
+
+        if (toReaccumulate != null) {
+            for (TupleImpl leftTuple : toReaccumulate) {
+                AccumulateContext accctx = (AccumulateContext) leftTuple.getContextObject();
+                accctx.setReaccumulationPending(false);
+                reaccumulateForLeftTuple(accNode, accumulate, leftTuple, null, null, reteEvaluator, am, accctx, true);
+            }
+        }
     }
 
     protected void evaluateResultConstraints(final AccumulateNode accNode,
@@ -634,6 +701,11 @@ public class PhreakAccumulateNode {
         PropagationContext propagationContext = accctx.getPropagationContext();
         accctx.setPropagationContext( null );
 
+        if (isReaccumulationPending(memory, accctx)) {
+            ((AccumulateContext) accctx).setReaccumulationPending(false);
+            reaccumulateAll(accNode, accumulate, leftTuple, reteEvaluator, memory, accctx);
+        }
+
         Object result = accumulate.getResult(memory.workingMemoryContext, accctx, leftTuple, reteEvaluator);
         propagateResult( accNode, sink, leftTuple, context, reteEvaluator, memory, trgLeftTuples, stagedLeftTuples,
                          null, result, (AccumulateContextEntry) accctx, propagationContext, reteEvaluator.getRuleSessionConfiguration().isAccumulateNullPropagation());
@@ -730,7 +802,10 @@ public class PhreakAccumulateNode {
 
         accctx.setPropagationContext(rightTuple.getPropagationContext());
 
-        Object value = accumulate.accumulate(am.workingMemoryContext,
+        // no need to accumulate a match on a context that will be entirely recalculated, as long as the match is recorded
+        Object value = useLeftMemory && isReaccumulationPending(am, accctx) ?
+                       null :
+                       accumulate.accumulate(am.workingMemoryContext,
                                              accctx, tuple,
                                              handle, reteEvaluator);
 
@@ -747,6 +822,24 @@ public class PhreakAccumulateNode {
         }
     }
 
+    /**
+     * Adds the matches between the given left tuple and all the given right tuples, that have already been checked
+     * against the constraints of the node
+     */
+    void addMatches(final AccumulateNode accNode,
+                    final Accumulate accumulate,
+                    final TupleImpl leftTuple,
+                    final List<TupleImpl> rightTuples,
+                    final ReteEvaluator reteEvaluator,
+                    final AccumulateMemory am,
+                    final BaseAccumulation accctx) {
+        for (TupleImpl rightTuple : rightTuples) {
+            addMatch(accNode, accumulate, leftTuple, rightTuple,
+                     null, null, reteEvaluator, am,
+                     accctx, true, false);
+        }
+    }
+
     void postAccumulate(AccumulateNode accNode, Object accctx, TupleImpl match) {
         // this is only implemented by GroupBy
     }
@@ -778,8 +871,9 @@ public class PhreakAccumulateNode {
             handle = rightTuple.getFactHandleForEvaluation();
         }
 
-        // just reverse this single match
-        boolean reversed = accumulate.tryReverse(am.workingMemoryContext,
+        // just reverse this single match, unless the accumulation is already going to be recalculated
+        boolean reversed = !isReaccumulationPending(am, accctx, match) &&
+                           accumulate.tryReverse(am.workingMemoryContext,
                                                  accctx,
                                                  tuple,
                                                  handle,
@@ -811,25 +905,50 @@ public class PhreakAccumulateNode {
                                             final BaseAccumulation accctx,
                                             final boolean reaccumulate) {
         if (reaccumulate) {
-            reinit(accumulate, leftParent, reteEvaluator, am, accctx);
-
-            for (TupleImpl childMatch = leftParent.getFirstChild(); childMatch != null; childMatch = childMatch.getHandleNext()) {
-                TupleImpl         rightTuple  = childMatch.getRightParent();
-                FactHandle childHandle = rightTuple.getFactHandle();
-                TupleImpl          tuple       = leftParent;
-                if (accNode.isRightInputIsRiaNode()) {
-                    // if there is a subnetwork, handle must be unwrapped
-                    tuple = rightTuple;
-                    childHandle = rightTuple.getFactHandleForEvaluation();
-                }
+            if (am.lazyAccumulate && accctx instanceof AccumulateContext) {
+                // the result will be recalculated only once, right before being propagated
+                ((AccumulateContext) accctx).setReaccumulationPending(true);
+                return;
+            }
+            reaccumulateAll(accNode, accumulate, leftParent, reteEvaluator, am, accctx);
+        }
+    }
 
-                Object value = accumulate.accumulate(am.workingMemoryContext, accctx, tuple, childHandle, reteEvaluator);
-                postAccumulate(accNode, accctx, childMatch);
-                childMatch.setContextObject(value);
+    private void reaccumulateAll(final AccumulateNode accNode,
+                                 final Accumulate accumulate,
+                                 final TupleImpl leftParent,
+                                 final ReteEvaluator reteEvaluator,
+                                 final AccumulateMemory am,
+                                 final BaseAccumulation accctx) {
+        reinit(accumulate, leftParent, reteEvaluator, am, accctx);
+
+        for (TupleImpl childMatch = leftParent.getFirstChild(); childMatch != null; childMatch = childMatch.getHandleNext()) {
+            TupleImpl         rightTuple  = childMatch.getRightParent();
+            FactHandle childHandle = rightTuple.getFactHandle();
+            TupleImpl          tuple       = leftParent;
+            if (accNode.isRightInputIsRiaNode()) {
+                // if there is a subnetwork, handle must be unwrapped
+                tuple = rightTuple;
+                childHandle = rightTuple.getFactHandleForEvaluation();
             }
+
+            Object value = accumulate.accumulate(am.workingMemoryContext, accctx, tuple, childHandle, reteEvaluator);
+            postAccumulate(accNode, accctx, childMatch);
+            childMatch.setContextObject(value);
         }
     }
 
+    /**
+     * In lazy mode, tells if the accumulation the given match belongs to has been marked to be entirely recalculated
+     */
+    protected boolean isReaccumulationPending(AccumulateMemory am, BaseAccumulation accctx, TupleImpl match) {
+        return isReaccumulationPending(am, accctx);
+    }
+
+    private static boolean isReaccumulationPending(AccumulateMemory am, BaseAccumulation accctx) {
+        return am.lazyAccumulate && accctx instanceof AccumulateContext && ((AccumulateContext) accctx).isReaccumulationPending();
+    }
+
     private void removePreviousMatchesForRightTuple(final AccumulateNode accNode,
                                                     final Accumulate accumulate,
                                                     final TupleImpl rightTuple,
@@ -873,7 +992,11 @@ public class PhreakAccumulateNode {
         }
 
         if (reInit) {
-            reinit(accumulate, leftTuple, reteEvaluator, memory, accctx);
+            if (memory.lazyAccumulate && accctx instanceof AccumulateContext) {
+                ((AccumulateContext) accctx).setReaccumulationPending(true);
+            } else {
+                reinit(accumulate, leftTuple, reteEvaluator, memory, accctx);
+            }
         }
     }
 
@@ -29,6 +29,7 @@ import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.PropagationContext;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.TupleSets;
+import org.drools.core.concurrent.VirtualThreads;
 import org.drools.core.reteoo.AsyncMessage;
 import org.drools.core.reteoo.AsyncMessagesCoordinator;
 import org.drools.core.reteoo.AsyncSendNode;
@@ -40,8 +41,10 @@ import org.kie.internal.concurrent.ExecutorProviderFactory;
 
 public class PhreakAsyncSendNode {
 
-    private Executor executor() {
-        return ExecutorProviderFactory.getExecutorProvider().getExecutor();
+    private Executor executor(ReteEvaluator reteEvaluator) {
+        return VirtualThreads.isEnabled(reteEvaluator.getRuleSessionConfiguration()) ?
+                VirtualThreads.boundedExecutor() :
+                ExecutorProviderFactory.getExecutorProvider().getExecutor();
     }
 
     public void doNode(AsyncSendNode node,
@@ -67,6 +70,7 @@ public class PhreakAsyncSendNode {
         AlphaNodeFieldConstraint[] alphaConstraints = node.getAlphaConstraints();
         DataProvider dataProvider = node.getDataProvider();
         Class<?> resultClass = node.getResultClass();
+        Executor executor = executor(reteEvaluator);
 
         for (TupleImpl leftTuple = srcLeftTuples.getInsertFirst(); leftTuple != null; ) {
             TupleImpl next = leftTuple.getStagedNext();
@@ -84,7 +88,7 @@ public class PhreakAsyncSendNode {
 
             TupleImpl finalLeftTuple = leftTuple;
 
-            executor().execute( () -> {
+            executor.execute( () -> {
                 // TODO context is not thread safe, it needs to be cloned
                 fetchAndSendResults( node, memory, reteEvaluator, context, betaConstraints, alphaConstraints, dataProvider,
                         resultClass, finalLeftTuple, propagationContext );
@@ -18,8 +18,16 @@
  */
 package org.drools.core.phreak;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
 import org.drools.base.reteoo.AccumulateContextEntry;
 import org.drools.base.rule.Accumulate;
+import org.drools.base.rule.ParallelGroupByAccumulate;
 import org.drools.core.common.PropagationContext;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.TupleSets;
@@ -27,12 +35,21 @@ import org.drools.core.reteoo.AccumulateNode;
 import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
 import org.drools.core.reteoo.AccumulateNode.GroupByContext;
 import org.drools.core.reteoo.LeftTupleSink;
+import org.drools.core.reteoo.TupleFactory;
 import org.drools.core.reteoo.TupleImpl;
 import org.drools.core.util.index.TupleListWithContext;
 import org.kie.api.runtime.rule.FactHandle;
 
+import static org.drools.base.common.PartitionsManager.doOnForkJoinPool;
+
 public class PhreakGroupByNode extends PhreakAccumulateNode {
 
+    // the minimum number of matches accumulated at once on a left tuple for a parallel groupBy to shard them
+    static final int PARALLEL_GROUP_BY_THRESHOLD = 1024;
+
+    // the number of shards of a parallel groupBy, by default the number of available processors
+    public static final String PARALLEL_GROUP_BY_SHARDS_PROPERTY = "drools.parallelGroupBy.shards";
+
     @Override
     AccumulateNode.BaseAccumulation initAccumulationContext(AccumulateMemory am, ReteEvaluator reteEvaluator, Accumulate accumulate, TupleImpl leftTuple) {
         GroupByContext accContext = new GroupByContext();
@@ -73,6 +90,10 @@ public class PhreakGroupByNode extends PhreakAccumulateNode {
         for (TupleListWithContext<AccumulateContextEntry> tupleList = groupByContext.takeToPropagateList(); tupleList != null; tupleList = (TupleListWithContext<AccumulateContextEntry>) tupleList.getNext()) {
             AccumulateContextEntry contextEntry = tupleList.getContext();
 
+            if (memory.lazyAccumulate && contextEntry.isReaccumulationPending()) {
+                reaccumulateGroup(accNode, accumulate, leftTuple, reteEvaluator, memory, groupByContext, tupleList);
+            }
+
             Object result = accumulate.getResult(memory.workingMemoryContext, contextEntry, leftTuple, reteEvaluator);
 
             propagateResult( accNode, sink, leftTuple, context, reteEvaluator, memory, trgLeftTuples, stagedLeftTuples,
@@ -99,7 +120,11 @@ public class PhreakGroupByNode extends PhreakAccumulateNode {
             TupleListWithContext<AccumulateContextEntry> tupleList = (TupleListWithContext<AccumulateContextEntry>) match.getMemory();
             tupleList.remove(match);
 
-            if (reaccumulate) {
+            if (reaccumulate && am.lazyAccumulate) {
+                // the group will be recalculated only once, right before being propagated
+                tupleList.getContext().setReaccumulationPending(true);
+                groupByContext.moveToPropagateTupleList(tupleList);
+            } else if (reaccumulate) {
                 // re-init function context for the group
                 Object functionContext = accumulate.createFunctionContext();
                 tupleList.getContext().setFunctionContext(functionContext);
@@ -135,6 +160,45 @@ public class PhreakGroupByNode extends PhreakAccumulateNode {
         }
     }
 
+    private void reaccumulateGroup(final AccumulateNode accNode,
+                                   final Accumulate accumulate,
+                                   final TupleImpl leftTuple,
+                                   final ReteEvaluator reteEvaluator,
+                                   final AccumulateMemory am,
+                                   final GroupByContext groupByContext,
+                                   final TupleListWithContext<AccumulateContextEntry> tupleList) {
+        AccumulateContextEntry entry = tupleList.getContext();
+        entry.setReaccumulationPending(false);
+
+        if (tupleList.isEmpty()) {
+            // all the matches of the group have been removed
+            groupByContext.removeGroup(entry.getKey());
+            entry.setEmpty(true);
+            return;
+        }
+
+        entry.setFunctionContext(accumulate.createFunctionContext());
+        for (TupleImpl childMatch = tupleList.getFirst(); childMatch != null; childMatch = childMatch.getNext()) {
+            TupleImpl rightTuple = childMatch.getRightParent();
+            FactHandle childHandle = rightTuple.getFactHandle();
+            TupleImpl tuple = leftTuple;
+            if (accNode.isRightInputIsRiaNode()) {
+                // if there is a subnetwork, handle must be unwrapped
+                tuple = rightTuple;
+                childHandle = rightTuple.getFactHandleForEvaluation();
+            }
+
+            Object value = accumulate.accumulate(am.workingMemoryContext, tuple, childHandle,
+                                                 groupByContext, tupleList, reteEvaluator);
+            childMatch.setContextObject(value);
+        }
+    }
+
+    @Override
+    protected boolean isReaccumulationPending(AccumulateMemory am, AccumulateNode.BaseAccumulation accctx, TupleImpl match) {
+        return am.lazyAccumulate && ((TupleListWithContext<AccumulateContextEntry>) match.getMemory()).getContext().isReaccumulationPending();
+    }
+
     @Override
     protected void propagateDelete(TupleSets trgLeftTuples, TupleSets stagedLeftTuples, Object accctx ) {
         GroupByContext groupByContext = (GroupByContext)accctx;
@@ -143,6 +207,101 @@ public class PhreakGroupByNode extends PhreakAccumulateNode {
         }
     }
 
+    /**
+     * A parallel groupBy shards the keys of the groups across multiple threads, so that each group is only accumulated
+     * by the thread owning it, following the order of the matches. The matches are then linked and the groups are
+     * enqueued for propagation sequentially, again following the order of the matches, so the outcome is the same of
+     * the sequential accumulation.
+     */
+    @Override
+    void addMatches(final AccumulateNode accNode,
+                    final Accumulate accumulate,
+                    final TupleImpl leftTuple,
+                    final List<TupleImpl> rightTuples,
+                    final ReteEvaluator reteEvaluator,
+                    final AccumulateMemory am,
+                    final AccumulateNode.BaseAccumulation accctx) {
+        int shardsCount = parallelGroupByShards();
+        if (rightTuples.size() < PARALLEL_GROUP_BY_THRESHOLD || shardsCount < 2) {
+            super.addMatches(accNode, accumulate, leftTuple, rightTuples, reteEvaluator, am, accctx);
+            return;
+        }
+
+        ParallelGroupByAccumulate groupBy = (ParallelGroupByAccumulate) accumulate;
+        GroupByContext groupByContext = (GroupByContext) accctx;
+        Accumulate innerAccumulate = groupBy.getInnerAccumulate();
+        Object workingMemoryContext = am.workingMemoryContext;
+        Map<Object, TupleListWithContext<AccumulateContextEntry>> groups = groupByContext.getGroups();
+
+        int size = rightTuples.size();
+        Object[] keys = new Object[size];
+        int[] shards = new int[size];
+        Object[] values = new Object[size];
+        TupleListWithContext<AccumulateContextEntry>[] matchedGroups = new TupleListWithContext[size];
+        Map<Object, TupleListWithContext<AccumulateContextEntry>>[] createdGroups = new Map[shardsCount];
+
+        doOnForkJoinPool(() -> {
+            IntStream.range(0, size).parallel().forEach(i -> {
+                keys[i] = groupBy.getGroupKey(leftTuple, rightTuples.get(i).getFactHandle(), reteEvaluator);
+                shards[i] = shardOf(keys[i], shardsCount);
+            });
+
+            // bucket the indexes of the matches by shard, keeping their order, so that each shard only visits its own ones
+            int[] shardStarts = new int[shardsCount + 1];
+            for (int i = 0; i < size; i++) {
+                shardStarts[shards[i] + 1]++;
+            }
+            for (int shard = 0; shard < shardsCount; shard++) {
+                shardStarts[shard + 1] += shardStarts[shard];
+            }
+            int[] indexesByShard = new int[size];
+            int[] shardEnds = Arrays.copyOf(shardStarts, shardsCount);
+            for (int i = 0; i < size; i++) {
+                indexesByShard[shardEnds[shards[i]]++] = i;
+            }
+
+            // the existing groups are only read here, the new ones are kept by their shard until all the threads are done
+            IntStream.range(0, shardsCount).parallel().forEach(shard -> {
+                Map<Object, TupleListWithContext<AccumulateContextEntry>> created = new HashMap<>();
+                for (int j = shardStarts[shard]; j < shardStarts[shard + 1]; j++) {
+                    int i = indexesByShard[j];
+                    TupleListWithContext<AccumulateContextEntry> group = groups.get(keys[i]);
+                    if (group == null) {
+                        group = created.computeIfAbsent(keys[i], k -> GroupByContext.createGroup(workingMemoryContext, innerAccumulate, leftTuple, k, reteEvaluator));
+                    }
+                    values[i] = innerAccumulate.accumulate(workingMemoryContext, group.getContext(), leftTuple,
+                                                           rightTuples.get(i).getFactHandle(), reteEvaluator);
+                    matchedGroups[i] = group;
+                }
+                createdGroups[shard] = created;
+            });
+        });
+
+        for (Map<Object, TupleListWithContext<AccumulateContextEntry>> created : createdGroups) {
+            groups.putAll(created);
+        }
+
+        for (int i = 0; i < size; i++) {
+            TupleImpl rightTuple = rightTuples.get(i);
+            accctx.setPropagationContext(rightTuple.getPropagationContext());
+            groupByContext.moveToPropagateTupleList(matchedGroups[i]);
+
+            TupleImpl match = TupleFactory.createLeftTuple(leftTuple, rightTuple, null, null, accNode, true);
+            groupByContext.addMatchOnLastTupleList(match);
+            match.setContextObject(values[i]);
+        }
+    }
+
+    private static int parallelGroupByShards() {
+        return Integer.getInteger(PARALLEL_GROUP_BY_SHARDS_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    private static int shardOf(Object key, int shardsCount) {
+        int hash = Objects.hashCode(key);
+        hash ^= (hash >>> 16);
+        return (hash & 0x7fffffff) % shardsCount;
+    }
+
     void postAccumulate(AccumulateNode accNode, Object accctx, TupleImpl match) {
         ((GroupByContext)accctx).addMatchOnLastTupleList(match);
     }
@@ -467,7 +467,7 @@ public class PhreakJoinNode {
         }
     }
 
-    private static void insertChildLeftTuple( TupleSets trgLeftTuples,
+    protected static void insertChildLeftTuple( TupleSets trgLeftTuples,
                                               TupleImpl leftTuple,
                                               TupleImpl rightTuple,
                                               TupleImpl currentLeftChild,
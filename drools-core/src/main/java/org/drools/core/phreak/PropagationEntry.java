@@ -22,6 +22,7 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
 
 import org.drools.base.reteoo.NodeTypeEnums;
@@ -311,6 +312,89 @@ public interface PropagationEntry {
         }
     }
 
+    /**
+     * The insertion of a whole collection of facts, enqueued as a single entry in the PropagationList.
+     * The facts are propagated in the same order they have been added.
+     */
+    class InsertBatch extends AbstractPropagationEntry implements Externalizable {
+        private InternalFactHandle[] handles;
+        private PropagationContext[] contexts;
+        private ObjectTypeConf[] objectTypeConfs;
+        private int size;
+
+        public InsertBatch() { }
+
+        public InsertBatch(int capacity) {
+            this.handles = new InternalFactHandle[capacity];
+            this.contexts = new PropagationContext[capacity];
+            this.objectTypeConfs = new ObjectTypeConf[capacity];
+        }
+
+        public void add(InternalFactHandle handle, PropagationContext context, ReteEvaluator reteEvaluator, ObjectTypeConf objectTypeConf) {
+            if (size == handles.length) {
+                int newCapacity = Math.max(16, size * 2);
+                handles = Arrays.copyOf(handles, newCapacity);
+                contexts = Arrays.copyOf(contexts, newCapacity);
+                objectTypeConfs = Arrays.copyOf(objectTypeConfs, newCapacity);
+            }
+            handles[size] = handle;
+            contexts[size] = context;
+            objectTypeConfs[size] = objectTypeConf;
+            size++;
+
+            if ( handle.isEvent() ) {
+                Insert.scheduleExpiration(reteEvaluator, handle, context, objectTypeConf, reteEvaluator.getTimerService().getCurrentTime());
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public InternalFactHandle getHandle(int i) {
+            return handles[i];
+        }
+
+        public PropagationContext getContext(int i) {
+            return contexts[i];
+        }
+
+        public void internalExecute(ReteEvaluator reteEvaluator ) {
+            for (int i = 0; i < size; i++) {
+                Insert.propagate( handles[i], contexts[i], reteEvaluator, objectTypeConfs[i] );
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Insert of " + size + " facts";
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeObject(next);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeObject(handles[i]);
+                out.writeObject(contexts[i]);
+            }
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+            this.next = (PropagationEntry) in.readObject();
+            this.size = in.readInt();
+            this.handles = new InternalFactHandle[size];
+            this.contexts = new PropagationContext[size];
+            // as for Insert the ObjectTypeConfs are lazily recreated when propagating
+            this.objectTypeConfs = new ObjectTypeConf[size];
+            for (int i = 0; i < size; i++) {
+                this.handles[i] = (InternalFactHandle) in.readObject();
+                this.contexts[i] = (PropagationContext) in.readObject();
+            }
+        }
+    }
+
     class Update extends AbstractPropagationEntry implements Externalizable {
         private InternalFactHandle handle;
         private PropagationContext context;
@@ -27,6 +27,7 @@ import org.drools.core.common.EventSupport;
 import org.drools.core.common.InternalActivationGroup;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.ReteEvaluator;
+import org.drools.core.common.TupleSets;
 import org.drools.core.conflict.MatchConflictResolver;
 import org.drools.core.conflict.RuleAgendaConflictResolver;
 import org.drools.core.event.RuleEventListenerSupport;
@@ -61,6 +62,8 @@ public class RuleExecutor {
     private volatile boolean dirty;
     private final boolean declarativeAgendaEnabled;
     private boolean fireExitedEarly;
+    private boolean deferTerminalNode;
+    private TupleSets deferredTerminalTuples;
 
     public RuleExecutor(final PathMemory pmem,
             RuleAgendaItem ruleAgendaItem,
@@ -227,10 +230,42 @@ public class RuleExecutor {
     }
 
     public void evaluateNetwork(ActivationsManager activationsManager) {
+        if ( deferredTerminalTuples != null ) {
+            TupleSets terminalTuples = deferredTerminalTuples;
+            deferredTerminalTuples = null;
+            RuleNetworkEvaluator.INSTANCE.evaluateTerminalNode( pmem, this, activationsManager, terminalTuples );
+        }
         RuleNetworkEvaluator.INSTANCE.evaluateNetwork( pmem, this, activationsManager );
         setDirty( false );
     }
 
+    /**
+     * Evaluates the network without running its terminal node, so that it can be done out of the thread owning the agenda.
+     * The tuples reaching the terminal node are kept aside and the rule stays dirty: they will be turned into matches by
+     * the next evaluation of this rule, happening on the firing thread.
+     */
+    public void evaluateNetworkUpToTerminalNode(ActivationsManager activationsManager) {
+        deferTerminalNode = true;
+        try {
+            RuleNetworkEvaluator.INSTANCE.evaluateNetwork( pmem, this, activationsManager );
+        } finally {
+            deferTerminalNode = false;
+        }
+    }
+
+    public boolean isDeferTerminalNode() {
+        return deferTerminalNode;
+    }
+
+    public void deferTerminalTuples(TupleSets srcTuples) {
+        if ( deferredTerminalTuples == null ) {
+            deferredTerminalTuples = srcTuples.takeAll();
+        } else {
+            deferredTerminalTuples.addAll( srcTuples );
+            srcTuples.resetAll();
+        }
+    }
+
     public void evaluateNetworkIfDirty(ReteEvaluator reteEvaluator) {
         evaluateNetworkIfDirty(pmem.getActualActivationsManager( reteEvaluator ));
     }
@@ -73,6 +73,7 @@ import org.drools.core.reteoo.Tuple;
 import org.drools.core.reteoo.TupleMemory;
 import org.drools.core.util.FastIterator;
 import org.drools.core.util.LinkedList;
+import org.drools.core.util.index.TupleList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -147,6 +148,10 @@ public class RuleNetworkEvaluator {
         outerEval(pmem, node, firstSegmentIsOnlyLia ? 1L : 2L, nodeMem, smems, firstSegmentIsOnlyLia ? 1 : 0, srcTuples, activationsManager, stack, true, executor);
     }
 
+    public void evaluateTerminalNode(PathMemory pmem, RuleExecutor executor, ActivationsManager activationsManager, TupleSets srcTuples) {
+        pRtNode.doNode((AbstractTerminalNode) pmem.getPathEndNode(), activationsManager, srcTuples, executor);
+    }
+
     public static String indent(int size) {
         StringBuilder sbuilder = new StringBuilder();
         for (int i = 0; i < size; i++) {
@@ -332,7 +337,11 @@ public class RuleNetworkEvaluator {
             boolean terminalNode = true;
             switch (node.getType()) {
                 case NodeTypeEnums.RuleTerminalNode:
-                    pRtNode.doNode((AbstractTerminalNode) node, activationsManager, srcTuples, executor);
+                    if (executor.isDeferTerminalNode()) {
+                        executor.deferTerminalTuples(srcTuples);
+                    } else {
+                        pRtNode.doNode((AbstractTerminalNode) node, activationsManager, srcTuples, executor);
+                    }
                     break;
                 case NodeTypeEnums.QueryTerminalNode:
                     pQtNode.doNode((QueryTerminalNode) node, activationsManager, srcTuples, stack);
@@ -577,7 +586,8 @@ public class RuleNetworkEvaluator {
 
         switch (node.getType()) {
             case NodeTypeEnums.JoinNode: {
-                pJoinNode.doNode((JoinNode) node, sink, bm,
+                PhreakJoinNode compiledJoinNode = ((JoinNode) node).getCompiledPhreakNode();
+                (compiledJoinNode != null ? compiledJoinNode : pJoinNode).doNode((JoinNode) node, sink, bm,
                         reteEvaluator, srcTuples, trgTuples, stagedLeftTuples);
                 break;
             }
@@ -940,18 +950,19 @@ public class RuleNetworkEvaluator {
             if (resumeFromCurrent) {
                 if (rightTuple.getBlocked() != null) {
                     // look for a non-staged right tuple first forward ...
-                    RightTuple tempRightTuple = (RightTuple) rightTuple.getNext();
+                    TupleList bucket = rightTuple.getMemory();
+                    RightTuple tempRightTuple = (RightTuple) bucket.nextOf(rightTuple);
                     while ( tempRightTuple != null && tempRightTuple.getStagedType() != LeftTuple.NONE ) {
                         // next cannot be an updated or deleted rightTuple
-                        tempRightTuple = (RightTuple) tempRightTuple.getNext();
+                        tempRightTuple = (RightTuple) bucket.nextOf(tempRightTuple);
                     }
 
                     // ... and if cannot find one try backward
                     if ( tempRightTuple == null ) {
-                        tempRightTuple = (RightTuple) rightTuple.getPrevious();
+                        tempRightTuple = (RightTuple) bucket.previousOf(rightTuple);
                         while ( tempRightTuple != null && tempRightTuple.getStagedType() != LeftTuple.NONE ) {
                             // next cannot be an updated or deleted rightTuple
-                            tempRightTuple = (RightTuple) tempRightTuple.getPrevious();
+                            tempRightTuple = (RightTuple) bucket.previousOf(tempRightTuple);
                         }
                     }
 
@@ -23,6 +23,7 @@ import org.drools.base.rule.constraint.QueryNameConstraint;
 import org.drools.core.common.Memory;
 import org.drools.core.common.MemoryFactory;
 import org.drools.core.common.ReteEvaluator;
+import org.drools.core.impl.InternalRuleBase;
 import org.drools.core.reteoo.AlphaNode;
 import org.drools.core.reteoo.BetaNode;
 import org.drools.core.reteoo.LeftInputAdapterNode;
@@ -39,6 +40,7 @@ import org.drools.core.reteoo.QueryElementNode;
 import org.drools.core.reteoo.RightInputAdapterNode;
 import org.drools.core.reteoo.SegmentMemory;
 import org.drools.core.reteoo.SegmentMemory.SegmentPrototype;
+import org.drools.core.reteoo.TerminalNode;
 
 import static org.drools.core.phreak.EagerPhreakBuilder.isInsideSubnetwork;
 
@@ -75,6 +77,31 @@ public class RuntimeSegmentUtilities {
         return LazyPhreakBuilder.createSegmentMemory(reteEvaluator, segmentRoot);
     }
 
+    /**
+     * Eagerly creates the memories of all the segments of the kbase, instead of waiting for the first propagation
+     * reaching each of them. It is a no-op when the kbase doesn't have segment prototypes.
+     */
+    public static void createAllSegmentMemories(ReteEvaluator reteEvaluator) {
+        InternalRuleBase kBase = reteEvaluator.getKnowledgeBase();
+        if (!kBase.hasSegmentPrototypes()) {
+            return;
+        }
+        for (TerminalNode[] terminalNodes : kBase.getReteooBuilder().getTerminalNodes().values()) {
+            for (TerminalNode terminalNode : terminalNodes) {
+                SegmentPrototype[] protos = terminalNode.getSegmentPrototypes();
+                if (protos == null) {
+                    continue;
+                }
+                for (SegmentPrototype proto : protos) {
+                    SegmentMemory smem = getOrCreateSegmentMemory(proto.getRootNode(), reteEvaluator);
+                    if (smem.getTipNode() instanceof LeftTupleSource) {
+                        createChildSegments(reteEvaluator, smem, ((LeftTupleSource) smem.getTipNode()).getSinkPropagator());
+                    }
+                }
+            }
+        }
+    }
+
     private static SegmentMemory restoreSegmentFromPrototype(ReteEvaluator reteEvaluator, LeftTupleNode segmentRoot) {
         SegmentPrototype proto = reteEvaluator.getKnowledgeBase().getSegmentPrototype(segmentRoot);
         if (proto == null || proto.getNodesInSegment() == null) {
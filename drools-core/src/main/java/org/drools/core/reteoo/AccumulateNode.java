@@ -191,6 +191,8 @@ public class AccumulateNode extends BetaNode {
 
         memory.workingMemoryContext = this.accumulate.createWorkingMemoryContext();
         memory.resultsContext = this.resultBinder.createContext();
+        // sequential kbases don't keep the matches, so the accumulation can't be recalculated later
+        memory.lazyAccumulate = config.isLazyAccumulate() && !config.isSequential();
         return memory;
     }
 
@@ -201,6 +203,7 @@ public class AccumulateNode extends BetaNode {
         public        Object            workingMemoryContext;
         private final BetaMemory<?> betaMemory;
         public        Object            resultsContext;
+        public        boolean           lazyAccumulate;
 
         protected AccumulateMemory( BetaMemory betaMemory) {
             this.betaMemory = betaMemory;
@@ -321,12 +324,15 @@ public class AccumulateNode extends BetaNode {
 
         public TupleListWithContext<AccumulateContextEntry> getGroup(Object workingMemoryContext, Accumulate accumulate, BaseTuple leftTuple,
                                                           Object key, ReteEvaluator reteEvaluator) {
-            return groupsMap.computeIfAbsent(key, k -> {
-                AccumulateContextEntry entry = new AccumulateContextEntry(key);
-                entry.setFunctionContext( accumulate.init(workingMemoryContext, entry, accumulate.createFunctionContext(), leftTuple, reteEvaluator) );
-                PhreakAccumulateNode.initContext(workingMemoryContext, reteEvaluator, accumulate, leftTuple, entry);
-                return new TupleListWithContext(entry);
-            });
+            return groupsMap.computeIfAbsent(key, k -> createGroup(workingMemoryContext, accumulate, leftTuple, k, reteEvaluator));
+        }
+
+        public static TupleListWithContext<AccumulateContextEntry> createGroup(Object workingMemoryContext, Accumulate accumulate, BaseTuple leftTuple,
+                                                                         Object key, ReteEvaluator reteEvaluator) {
+            AccumulateContextEntry entry = new AccumulateContextEntry(key);
+            entry.setFunctionContext( accumulate.init(workingMemoryContext, entry, accumulate.createFunctionContext(), leftTuple, reteEvaluator) );
+            PhreakAccumulateNode.initContext(workingMemoryContext, reteEvaluator, accumulate, leftTuple, entry);
+            return new TupleListWithContext(entry);
         }
 
         public void removeGroup(Object key) {
@@ -63,7 +63,7 @@ public class ClassObjectTypeConf
 
     private TypeDeclaration typeDecl;
     
-    private boolean tmsEnabled;
+    private volatile boolean tmsEnabled;
 
     private boolean isEvent;
 
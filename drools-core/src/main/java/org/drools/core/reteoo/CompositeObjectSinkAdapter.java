@@ -42,6 +42,7 @@ import org.drools.core.common.BaseNode;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.PropagationContext;
 import org.drools.core.common.ReteEvaluator;
+import org.drools.core.util.index.AlphaHashIndex;
 import org.drools.core.util.index.AlphaRangeIndex;
 
 import static org.drools.base.util.index.IndexUtil.isBigDecimalEqualityConstraint;
@@ -94,6 +95,24 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
         rangeIndexMap = (Map<FieldIndex, AlphaRangeIndex>) in.readObject();
         alphaNodeHashingThreshold = in.readInt();
         alphaNodeRangeIndexThreshold = in.readInt();
+        rebuildHashIndexes();
+    }
+
+    private void rebuildHashIndexes() {
+        if ( this.hashedFieldIndexes == null || this.hashedSinkMap == null ) {
+            return;
+        }
+        for ( FieldIndex fieldIndex : this.hashedFieldIndexes ) {
+            if ( fieldIndex.isHashed() ) {
+                fieldIndex.hashIndex = new AlphaHashIndex( fieldIndex.getFieldExtractor() );
+            }
+        }
+        for ( Map.Entry<HashKey, AlphaNode> entry : this.hashedSinkMap.entrySet() ) {
+            FieldIndex fieldIndex = findFieldIndex( entry.getKey().getIndex() );
+            if ( fieldIndex != null && fieldIndex.hashIndex != null ) {
+                fieldIndex.hashIndex.put( entry.getKey().getObjectValue(), entry.getValue() );
+            }
+        }
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
@@ -154,10 +173,10 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                     }
 
                     // no need to check, we know  the sink  does not exist
-                    this.hashedSinkMap.put( new HashKey( index,
-                                                         value,
-                                                         fieldIndex.getFieldExtractor() ),
-                                            alphaNode );
+                    putHashedSink( fieldIndex, new HashKey( index,
+                                                            value,
+                                                            fieldIndex.getFieldExtractor() ),
+                                   alphaNode );
                 } else {
                     if ( this.hashableSinks == null ) {
                         this.hashableSinks = new ArrayList<>();
@@ -240,6 +259,7 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                                                        value,
                                                        fieldAccessor );
                         this.hashedSinkMap.remove( hashKey );
+                        fieldIndex.hashIndex.remove( hashKey.getObjectValue() );
                         if ( fieldIndex.getCount() <= this.alphaNodeHashingThreshold - 1 ) {
                             // we have less than three so unhash
                             unHashSinks( fieldIndex );
@@ -298,6 +318,7 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
 
         final int index = fieldIndex.getIndex();
         final ReadAccessor fieldReader = fieldIndex.getFieldExtractor();
+        fieldIndex.hashIndex = new AlphaHashIndex( fieldReader );
 
         Iterator<AlphaNode> sinkIterator = this.hashableSinks.iterator();
         while ( sinkIterator.hasNext() ) {
@@ -309,10 +330,10 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
             // the right field index
             if ( index == indexableConstraint.getFieldExtractor().getIndex() ) {
                 final FieldValue value = indexableConstraint.getField();
-                this.hashedSinkMap.put( new HashKey( index,
-                                                     value,
-                                                     fieldReader ),
-                                        alphaNode );
+                putHashedSink( fieldIndex, new HashKey( index,
+                                                        value,
+                                                        fieldReader ),
+                               alphaNode );
 
                 // remove the alpha from the possible candidates of hashable sinks since it is now hashed
                 sinkIterator.remove();
@@ -326,6 +347,11 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
         fieldIndex.setHashed( true );
     }
 
+    private void putHashedSink(FieldIndex fieldIndex, HashKey hashKey, AlphaNode alphaNode) {
+        this.hashedSinkMap.put( hashKey, alphaNode );
+        fieldIndex.hashIndex.put( hashKey.getObjectValue(), alphaNode );
+    }
+
     void unHashSinks(final FieldIndex fieldIndex) {
         final int index = fieldIndex.getIndex();
         // this is the list of sinks that need to be removed from the hashedSinkMap
@@ -357,6 +383,7 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
             this.hashedSinkMap = null;
         }
 
+        fieldIndex.hashIndex = null;
         fieldIndex.setHashed( false );
     }
 
@@ -551,8 +578,8 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                 if ( !fieldIndex.isHashed() ) {
                     continue;
                 }
-                // this field is hashed so set the existing hashKey and see if there is a sink for it
-                final AlphaNode sink = this.hashedSinkMap.get( new HashKey( fieldIndex, object ) );
+                // this field is hashed so look up the sink matching the value of the field, if any
+                final AlphaNode sink = fieldIndex.getHashIndex().get( object );
                 if ( sink != null ) {
                     // go straight to the AlphaNode's propagator, as we know it's true and no need to retest
                     sink.getObjectSinkPropagator().propagateAssertObject( factHandle, context, reteEvaluator );
@@ -620,8 +647,8 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                 if ( !fieldIndex.isHashed() ) {
                     continue;
                 }
-                // this field is hashed so set the existing hashKey and see if there is a sink for it
-                final AlphaNode sink = this.hashedSinkMap.get( new HashKey( fieldIndex, object ) );
+                // this field is hashed so look up the sink matching the value of the field, if any
+                final AlphaNode sink = fieldIndex.getHashIndex().get( object );
                 if ( sink != null ) {
                     // go straight to the AlphaNode's propagator, as we know it's true and no need to retest
                     sink.getObjectSinkPropagator().propagateModifyObject( factHandle, modifyPreviousTuples, context, reteEvaluator );
@@ -690,8 +717,8 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                 if ( !fieldIndex.isHashed() ) {
                     continue;
                 }
-                // this field is hashed so set the existing hashKey and see if there is a sink for it
-                final AlphaNode sink = this.hashedSinkMap.get( new HashKey( fieldIndex, object ) );
+                // this field is hashed so look up the sink matching the value of the field, if any
+                final AlphaNode sink = fieldIndex.getHashIndex().get( object );
                 if ( sink != null ) {
                     // only alpha nodes are hashable
                     sink.getObjectSinkPropagator().byPassModifyToBetaNode( factHandle, modifyPreviousTuples, context, reteEvaluator );
@@ -1010,6 +1037,9 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
         private boolean              hashed;
         private boolean              rangeIndexed;
 
+        // derived from the hashedSinkMap of the adapter, so it is not serialized
+        private transient AlphaHashIndex hashIndex;
+
         public FieldIndex() {
         }
 
@@ -1056,6 +1086,10 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
             this.hashed = hashed;
         }
 
+        public AlphaHashIndex getHashIndex() {
+            return hashIndex;
+        }
+
         public boolean isRangeIndexed() {
             return rangeIndexed;
         }
@@ -37,6 +37,7 @@ import org.drools.core.common.PropagationContext;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.reteoo.CompositeObjectSinkAdapter.FieldIndex;
+import org.drools.core.util.index.AlphaHashIndex;
 
 public class CompositePartitionAwareObjectSinkAdapter implements ObjectSinkPropagator {
 
@@ -46,6 +47,7 @@ public class CompositePartitionAwareObjectSinkAdapter implements ObjectSinkPropa
     private CompositeObjectSinkAdapter.FieldIndex fieldIndex;
 
     private Map<CompositeObjectSinkAdapter.HashKey, AlphaNode> hashedSinkMap;
+    private transient AlphaHashIndex hashIndex;
 
     public CompositePartitionAwareObjectSinkAdapter(int parallelEvaluationSlotsCount) {
         this.partitionedPropagators = new ObjectSinkPropagator[parallelEvaluationSlotsCount];
@@ -71,18 +73,21 @@ public class CompositePartitionAwareObjectSinkAdapter implements ObjectSinkPropa
             if ( fieldIndex == null ) {
                 this.fieldIndex = new CompositeObjectSinkAdapter.FieldIndex( index, readAccessor );
                 this.hashedSinkMap = new HashMap<>();
+                this.hashIndex = new AlphaHashIndex( readAccessor );
             }
             if (fieldIndex.getIndex() == index) {
                 AlphaNode alpha = (AlphaNode)sink;
-                this.hashedSinkMap.put( new CompositeObjectSinkAdapter.HashKey( index,
-                                                                                ((IndexableConstraint)alpha.getConstraint()).getField(),
-                                                                                fieldIndex.getFieldExtractor() ),
-                                        alpha );
+                CompositeObjectSinkAdapter.HashKey hashKey = new CompositeObjectSinkAdapter.HashKey( index,
+                                                                                                     ((IndexableConstraint)alpha.getConstraint()).getField(),
+                                                                                                     fieldIndex.getFieldExtractor() );
+                this.hashedSinkMap.put( hashKey, alpha );
+                this.hashIndex.put( hashKey.getObjectValue(), alpha );
                 return true;
             }
         }
         this.fieldIndex = null;
         this.hashedSinkMap = null;
+        this.hashIndex = null;
         return false;
     }
 
@@ -113,7 +118,7 @@ public class CompositePartitionAwareObjectSinkAdapter implements ObjectSinkPropa
     public void propagateAssertObject( InternalFactHandle factHandle, PropagationContext context, ReteEvaluator reteEvaluator ) {
         ActivationsManager compositeAgenda = reteEvaluator.getActivationsManager();
         if (hashed) {
-            AlphaNode sink = this.hashedSinkMap.get(new CompositeObjectSinkAdapter.HashKey(fieldIndex, factHandle.getObject() ));
+            AlphaNode sink = this.hashIndex.get( factHandle.getObject() );
             if ( sink != null ) {
                 compositeAgenda.getPartitionedAgenda( sink.getPartitionId().getParallelEvaluationSlot() )
                                .addPropagation( new HashedInsert( sink, factHandle, context ) );
@@ -246,6 +251,10 @@ public class CompositePartitionAwareObjectSinkAdapter implements ObjectSinkPropa
         hashed = in.readBoolean();
         fieldIndex = (FieldIndex) in.readObject();
         hashedSinkMap = (Map<CompositeObjectSinkAdapter.HashKey, AlphaNode>) in.readObject();
+        if ( hashedSinkMap != null ) {
+            hashIndex = new AlphaHashIndex( fieldIndex.getFieldExtractor() );
+            hashedSinkMap.forEach( (hashKey, alpha) -> hashIndex.put( hashKey.getObjectValue(), alpha ) );
+        }
         for (int i = 0; i < partitionedPropagators.length; i++) {
             partitionedPropagators[i] = (ObjectSinkPropagator) in.readObject();
         }
@@ -205,6 +205,20 @@ public class EntryPointNode extends ObjectSource implements ObjectSink {
     }
 
 
+    public void assertObjects(final PropagationEntry.InsertBatch batch,
+                              final ReteEvaluator reteEvaluator) {
+        if ( log.isTraceEnabled() ) {
+            log.trace("Insert batch of {} facts", batch.size());
+        }
+
+        if ( parallelExecution || !reteEvaluator.isThreadSafe() ) {
+            // the expirations of the events have been already scheduled while filling the batch
+            batch.internalExecute( reteEvaluator );
+        } else {
+            reteEvaluator.addPropagation( batch );
+        }
+    }
+
     public void modifyObject(final InternalFactHandle handle,
                              final PropagationContext pctx,
                              final ObjectTypeConf objectTypeConf,
@@ -22,12 +22,16 @@ import org.drools.base.reteoo.NodeTypeEnums;
 import org.drools.core.common.BetaConstraints;
 import org.drools.core.common.PropagationContext;
 import org.drools.core.common.ReteEvaluator;
+import org.drools.core.phreak.PhreakJoinNode;
 import org.drools.core.reteoo.builder.BuildContext;
 
 public class JoinNode extends BetaNode {
 
     private static final long serialVersionUID = 510l;
 
+    // the node specific join loops generated by the beta network compiler, if any
+    private transient PhreakJoinNode compiledPhreakNode;
+
     public JoinNode() {
 
     }
@@ -50,6 +54,14 @@ public class JoinNode extends BetaNode {
         return NodeTypeEnums.JoinNode;
     }
 
+    public PhreakJoinNode getCompiledPhreakNode() {
+        return compiledPhreakNode;
+    }
+
+    public void setCompiledPhreakNode(PhreakJoinNode compiledPhreakNode) {
+        this.compiledPhreakNode = compiledPhreakNode;
+    }
+
     public String toString() {
         return "[JoinNode(" + this.getId() + ") - " + getObjectTypeNode().getObjectType() + "]";
     }
@@ -129,6 +129,9 @@ public class PathMemory extends AbstractLinkedListNode<Memory>
     }
 
     public void doLinkRule(ActivationsManager activationsManager) {
+        if (activationsManager.deferRuleLinking(this, true)) {
+            return;
+        }
         TerminalNode rtn = ensureAgendaItemCreated(activationsManager);
         if (isLogTraceEnabled) {
             log.trace(" LinkRule name={}", rtn.getRule().getName());
@@ -142,6 +145,9 @@ public class PathMemory extends AbstractLinkedListNode<Memory>
     }
 
     public void doUnlinkRule(ActivationsManager activationsManager) {
+        if (activationsManager.deferRuleLinking(this, false)) {
+            return;
+        }
         TerminalNode rtn = ensureAgendaItemCreated(activationsManager);
         if (isLogTraceEnabled) {
             log.trace("    UnlinkRule name={}", rtn.getRule().getName());
@@ -50,7 +50,7 @@ public class PrototypeTypeConf
     private ObjectTypeNode concreteObjectTypeNode;
     private ObjectTypeNode[] cache;
     
-    private boolean tmsEnabled;
+    private volatile boolean tmsEnabled;
     
     EntryPointId entryPoint;
 
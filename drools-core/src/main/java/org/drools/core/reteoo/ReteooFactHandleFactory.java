@@ -23,7 +23,9 @@ import java.io.Serializable;
 import org.drools.base.reteoo.InitialFactImpl;
 import org.drools.core.WorkingMemoryEntryPoint;
 import org.drools.core.common.AbstractFactHandleFactory;
+import org.drools.core.common.CompactFactHandle;
 import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.impl.InternalRuleBase;
 import org.drools.core.rule.accessor.FactHandleFactory;
 
 public class ReteooFactHandleFactory extends AbstractFactHandleFactory implements Serializable {
@@ -43,6 +45,17 @@ public class ReteooFactHandleFactory extends AbstractFactHandleFactory implement
         return new DefaultFactHandle(0, InitialFactImpl.getInstance(), 0, wmEntryPoint);
     }
 
+    @Override
+    public DefaultFactHandle createDefaultFactHandle(long id, Object object, long recency, WorkingMemoryEntryPoint entryPoint) {
+        return entryPoint != null && useCompactFactHandles(entryPoint.getKnowledgeBase()) ?
+               new CompactFactHandle(id, object, recency, entryPoint) :
+               super.createDefaultFactHandle(id, object, recency, entryPoint);
+    }
+
+    private static boolean useCompactFactHandles(InternalRuleBase kbase) {
+        return kbase != null && kbase.getRuleBaseConfiguration().isCompactFactHandles() && !kbase.isPartitioned();
+    }
+
     public FactHandleFactory newInstance() {
         return new ReteooFactHandleFactory();
     }
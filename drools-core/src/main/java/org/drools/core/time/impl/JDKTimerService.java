@@ -23,6 +23,7 @@ import java.util.Date;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -43,6 +44,8 @@ public class JDKTimerService implements TimerService, SessionClock, InternalSche
 
     private final int size;
 
+    private final ThreadFactory threadFactory;
+
     private AtomicLong                      idCounter;
 
     protected ScheduledThreadPoolExecutor   scheduler;
@@ -54,11 +57,20 @@ public class JDKTimerService implements TimerService, SessionClock, InternalSche
     }
 
     public JDKTimerService(int size) {
+        this(size, null);
+    }
+
+    public JDKTimerService(int size, ThreadFactory threadFactory) {
         this.size = size;
-        this.scheduler = new ScheduledThreadPoolExecutor(size);
+        this.threadFactory = threadFactory;
+        this.scheduler = createScheduler();
         this.idCounter = new AtomicLong(0L);
     }
 
+    private ScheduledThreadPoolExecutor createScheduler() {
+        return threadFactory != null ? new ScheduledThreadPoolExecutor(size, threadFactory) : new ScheduledThreadPoolExecutor(size);
+    }
+
     public void setTimerJobFactoryManager(TimerJobFactoryManager timerJobFactoryManager) {
         this.jobFactoryManager = timerJobFactoryManager;
     }
@@ -77,7 +89,7 @@ public class JDKTimerService implements TimerService, SessionClock, InternalSche
     public void reset() {
         if (idCounter.get() != 0L) {
             this.scheduler.shutdownNow();
-            this.scheduler = new ScheduledThreadPoolExecutor( size );
+            this.scheduler = createScheduler();
             this.idCounter.set( 0L );
         }
     }
@@ -0,0 +1,224 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.time.impl;
+
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel keeping the TimerJobInstances to be executed in buckets of fixed duration (ticks).
+ * The first level has one slot per tick, each slot of the following levels covers a whole rotation of the previous
+ * one; when the wheel enters the range covered by a slot of an upper level, its entries are cascaded to the lower levels.
+ * Adding and removing an entry take constant time, and all the entries due in the same tick are returned together.
+ * This class is not thread-safe.
+ */
+public class TimingWheel {
+
+    private static final int WHEEL_BITS = 6;
+
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static final int LEVELS = 6;
+
+    // entries farther than this are parked in the last level and cascaded again until they are in range
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final long tickSize;
+
+    private final Entry[][] slots = new Entry[LEVELS][WHEEL_SIZE];
+
+    // the next tick to be processed: all the entries of the previous ticks have already been returned
+    private long currentTick;
+
+    private int size;
+
+    public TimingWheel(long tickSize, long currentTime) {
+        if (tickSize <= 0) {
+            throw new IllegalArgumentException("The tick of a timing wheel must be positive: " + tickSize);
+        }
+        this.tickSize = tickSize;
+        this.currentTick = Math.floorDiv(currentTime, tickSize);
+    }
+
+    public long getTickSize() {
+        return tickSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds a job to be returned by the first advance reaching its fire time. Since a job is returned at the end of the
+     * tick containing its fire time, it is never returned in advance, but it can be delayed up to the size of a tick.
+     */
+    public Entry add(TimerJobInstance job, long fireTime) {
+        Entry entry = new Entry(job, Math.max(ceilDiv(fireTime, tickSize), currentTick));
+        insert(entry);
+        size++;
+        return entry;
+    }
+
+    /**
+     * Removes an entry that hasn't been returned yet, it has no effect otherwise
+     */
+    public void remove(Entry entry) {
+        if (entry.level >= 0) {
+            unlink(entry);
+            size--;
+        }
+    }
+
+    /**
+     * Moves the wheel forward up to the given time, collecting the jobs of all the ticks that are over, in tick order
+     */
+    public void advance(long currentTime, List<TimerJobInstance> expired) {
+        long targetTick = Math.floorDiv(currentTime, tickSize);
+        if (size == 0) {
+            // nothing to cascade or to return, so the intermediate ticks can be skipped
+            currentTick = Math.max(currentTick, targetTick);
+            return;
+        }
+        for (; currentTick <= targetTick && size > 0; currentTick++) {
+            cascade();
+            Entry entry = detachSlot(0, (int) (currentTick & WHEEL_MASK));
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.prev = entry.next = null;
+                size--;
+                expired.add(entry.job);
+                entry = next;
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+    }
+
+    /**
+     * Removes all the entries and restarts the wheel from the given time
+     */
+    public void clear(long currentTime) {
+        for (Entry[] level : slots) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                for (Entry entry = level[i]; entry != null; entry = entry.next) {
+                    entry.level = -1;
+                }
+                level[i] = null;
+            }
+        }
+        size = 0;
+        currentTick = Math.floorDiv(currentTime, tickSize);
+    }
+
+    private void cascade() {
+        // when a level completes a rotation, the next slot of the upper level comes into the range of the lower ones
+        for (int level = 1; level < LEVELS && (currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0; level++) {
+            Entry entry = detachSlot(level, (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK));
+            while (entry != null) {
+                Entry next = entry.next;
+                insert(entry);
+                entry = next;
+            }
+        }
+    }
+
+    private void insert(Entry entry) {
+        long delta = entry.tick - currentTick;
+        long tick = entry.tick;
+        if (delta > MAX_DELTA) {
+            delta = MAX_DELTA;
+            tick = currentTick + MAX_DELTA;
+        }
+        int level = 0;
+        while (delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+
+        Entry head = slots[level][slot];
+        entry.level = level;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        slots[level][slot] = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            slots[entry.level][entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = entry.next = null;
+        entry.level = -1;
+    }
+
+    private Entry detachSlot(int level, int slot) {
+        Entry head = slots[level][slot];
+        slots[level][slot] = null;
+        // entries are pushed in front of the list, so reverse it to return them in insertion order
+        Entry reversed = null;
+        for (Entry entry = head; entry != null; ) {
+            Entry next = entry.next;
+            entry.level = -1;
+            entry.next = reversed;
+            reversed = entry;
+            entry = next;
+        }
+        return reversed;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    public static class Entry {
+        private final TimerJobInstance job;
+        private final long tick;
+
+        private Entry prev;
+        private Entry next;
+
+        private int level = -1;
+        private int slot;
+
+        private Entry(TimerJobInstance job, long tick) {
+            this.job = job;
+            this.tick = tick;
+        }
+
+        public TimerJobInstance getJob() {
+            return job;
+        }
+
+        public boolean isScheduled() {
+            return level >= 0;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.base.time.JobHandle;
+import org.drools.base.time.Trigger;
+import org.drools.core.time.InternalSchedulerService;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.TimerService;
+import org.kie.api.time.SessionClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A realtime TimerService keeping its jobs in a hierarchical TimingWheel instead of the priority queue of
+ * a ScheduledThreadPoolExecutor, so that scheduling and cancelling a job, like the expiration of an event,
+ * take constant time regardless of the number of pending jobs.
+ * A single thread advances the wheel once per tick, only while there are pending jobs, and executes
+ * all the jobs that became due in that tick one after the other.
+ */
+public class TimingWheelTimerService implements TimerService, SessionClock, InternalSchedulerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingWheelTimerService.class);
+
+    private final long tickSize;
+
+    private final ThreadFactory threadFactory;
+
+    private final AtomicLong idCounter = new AtomicLong(0L);
+
+    private final TimingWheel wheel;
+
+    private ScheduledThreadPoolExecutor scheduler;
+
+    private ScheduledFuture<?> ticker;
+
+    private TimerJobFactoryManager jobFactoryManager = DefaultTimerJobFactoryManager.INSTANCE;
+
+    public TimingWheelTimerService(long tickSize) {
+        this(tickSize, null);
+    }
+
+    public TimingWheelTimerService(long tickSize, ThreadFactory threadFactory) {
+        this.tickSize = tickSize;
+        this.threadFactory = threadFactory;
+        this.wheel = new TimingWheel(tickSize, getCurrentTime());
+        this.scheduler = createScheduler();
+    }
+
+    private ScheduledThreadPoolExecutor createScheduler() {
+        ScheduledThreadPoolExecutor executor = threadFactory != null ? new ScheduledThreadPoolExecutor(1, threadFactory) : new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    public long getTickSize() {
+        return tickSize;
+    }
+
+    @Override
+    public void setTimerJobFactoryManager(TimerJobFactoryManager timerJobFactoryManager) {
+        this.jobFactoryManager = timerJobFactoryManager;
+    }
+
+    @Override
+    public TimerJobFactoryManager getTimerJobFactoryManager() {
+        return this.jobFactoryManager;
+    }
+
+    @Override
+    public long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void reset() {
+        if (idCounter.get() != 0L) {
+            this.scheduler.shutdownNow();
+            this.scheduler = createScheduler();
+            this.ticker = null;
+            this.wheel.clear(getCurrentTime());
+            this.idCounter.set(0L);
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        // as for the JDKTimerService, pending jobs are discarded on session dispose
+        this.scheduler.shutdownNow();
+        this.ticker = null;
+    }
+
+    @Override
+    public JobHandle scheduleJob(Job job, JobContext ctx, Trigger trigger) {
+        Date date = trigger.hasNextFireTime();
+        if (date == null) {
+            return null;
+        }
+
+        TimingWheelJobHandle jobHandle = new TimingWheelJobHandle(idCounter.getAndIncrement());
+        TimerJobInstance jobInstance = jobFactoryManager.createTimerJobInstance(job, ctx, trigger, jobHandle, this);
+        jobHandle.setTimerJobInstance(jobInstance);
+        internalSchedule(jobInstance);
+        return jobHandle;
+    }
+
+    @Override
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        long fireTime = timerJobInstance.getTrigger().hasNextFireTime().getTime();
+        synchronized (this) {
+            if (wheel.isEmpty()) {
+                // the ticker is stopped while there is nothing to do, so move the wheel to the current time
+                wheel.advance(getCurrentTime(), null);
+            }
+            TimingWheel.Entry entry = wheel.add(timerJobInstance, fireTime);
+            JobHandle jobHandle = timerJobInstance.getJobHandle();
+            if (jobHandle instanceof TimingWheelJobHandle) {
+                ((TimingWheelJobHandle) jobHandle).setEntry(entry);
+            }
+            if (ticker == null && !scheduler.isShutdown()) {
+                ticker = scheduler.scheduleAtFixedRate(this::tick, tickSize, tickSize, TimeUnit.MILLISECONDS);
+            }
+        }
+        jobFactoryManager.addTimerJobInstance(timerJobInstance);
+    }
+
+    @Override
+    public void removeJob(JobHandle jobHandle) {
+        jobHandle.cancel();
+        jobFactoryManager.removeTimerJobInstance(jobHandle);
+
+        if (jobHandle instanceof TimingWheelJobHandle) {
+            TimingWheel.Entry entry = ((TimingWheelJobHandle) jobHandle).getEntry();
+            if (entry != null) {
+                synchronized (this) {
+                    wheel.remove(entry);
+                }
+            }
+        }
+    }
+
+    void tick() {
+        List<TimerJobInstance> expired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(getCurrentTime(), expired);
+            if (wheel.isEmpty() && ticker != null) {
+                ticker.cancel(false);
+                ticker = null;
+            }
+        }
+
+        // the jobs are executed outside the lock, since they can schedule or cancel other jobs
+        for (TimerJobInstance job : expired) {
+            if (!job.isCanceled()) {
+                try {
+                    ((Callable<?>) job).call();
+                } catch (Exception e) {
+                    logger.error("Exception running timer job: ", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public long getTimeToNextJob() {
+        return 0;
+    }
+
+    @Override
+    public Collection<TimerJobInstance> getTimerJobInstances(long id) {
+        return jobFactoryManager.getTimerJobInstances();
+    }
+
+    public static class TimingWheelJobHandle extends DefaultJobHandle implements JobHandle {
+
+        private static final long serialVersionUID = 510l;
+
+        private transient TimingWheel.Entry entry;
+
+        public TimingWheelJobHandle(long id) {
+            super(id);
+        }
+
+        public TimingWheel.Entry getEntry() {
+            return entry;
+        }
+
+        public void setEntry(TimingWheel.Entry entry) {
+            this.entry = entry;
+        }
+    }
+}
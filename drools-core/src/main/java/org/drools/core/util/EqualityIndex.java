@@ -0,0 +1,265 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Equality based map using open addressing with linear probing over plain arrays, used to find the facts
+ * (or their EqualityKeys) equal to a given object. The hash of each key is kept in an int[], so probing compares
+ * primitives and only calls equals() on a hash hit, while lookups and updates never allocate any entry or
+ * placeholder object. Removal uses backward shift deletion, so the table never fills up with tombstones.
+ * <p>
+ * The probe is matched by invoking equals() on the <b>stored</b> key, passing the probe as argument. This allows
+ * keys like EqualityKey to be looked up directly with the fact they wrap.
+ * Null keys are not supported and the iterators of the views don't support removal.
+ */
+public class EqualityIndex<K, V> extends AbstractMap<K, V> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private transient int[] hashes;
+
+    private transient Object[] keys;
+
+    private transient Object[] values;
+
+    private transient int size;
+
+    private transient Set<Entry<K, V>> entrySet;
+
+    public EqualityIndex() {
+        init(DEFAULT_CAPACITY);
+    }
+
+    private void init(int capacity) {
+        this.hashes = new int[capacity];
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && findSlot(key, key.hashCode()) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(key, key.hashCode());
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("EqualityIndex doesn't support null keys");
+        }
+        int hash = key.hashCode();
+        int slot = findSlot(key, hash);
+        if (slot >= 0) {
+            V existing = (V) values[slot];
+            values[slot] = value;
+            return existing;
+        }
+
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        store(freeSlot(hash), hash, key, value);
+        size++;
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(key, key.hashCode());
+        if (slot < 0) {
+            return null;
+        }
+        V removed = (V) values[slot];
+        size--;
+
+        // backward shift deletion, so the probe sequences of the following keys are not broken
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+            int home = rehash(hashes[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                store(hole, hashes[next], keys[next], values[next]);
+                hole = next;
+            }
+        }
+        keys[hole] = null;
+        values[hole] = null;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            init(DEFAULT_CAPACITY);
+            size = 0;
+        }
+    }
+
+    private int findSlot(Object key, int hash) {
+        int mask = keys.length - 1;
+        for (int slot = rehash(hash) & mask; ; slot = (slot + 1) & mask) {
+            Object stored = keys[slot];
+            if (stored == null) {
+                return -1;
+            }
+            if (hashes[slot] == hash && (stored == key || stored.equals(key))) {
+                return slot;
+            }
+        }
+    }
+
+    private int freeSlot(int hash) {
+        int mask = keys.length - 1;
+        int slot = rehash(hash) & mask;
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void store(int slot, int hash, Object key, Object value) {
+        hashes[slot] = hash;
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    private void resize(int newCapacity) {
+        int[] oldHashes = hashes;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        init(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                store(freeSlot(oldHashes[i]), oldHashes[i], oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int rehash(int hash) {
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        return hash ^ (hash >>> 7) ^ (hash >>> 4);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                out.writeObject(keys[i]);
+                out.writeObject(values[i]);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int entries = in.readInt();
+        int capacity = DEFAULT_CAPACITY;
+        while (entries * 4 > capacity * 3) {
+            capacity *= 2;
+        }
+        init(capacity);
+        // hash codes are recomputed, as they may not survive serialization
+        for (int i = 0; i < entries; i++) {
+            put((K) in.readObject(), (V) in.readObject());
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private final Object[] iteratedKeys = keys;
+        private final Object[] iteratedValues = values;
+        private int slot = nextSlot(0);
+
+        private int nextSlot(int from) {
+            while (from < iteratedKeys.length && iteratedKeys[from] == null) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < iteratedKeys.length;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, V> entry = new SimpleImmutableEntry<>((K) iteratedKeys[slot], (V) iteratedValues[slot]);
+            slot = nextSlot(slot + 1);
+            return entry;
+        }
+    }
+}
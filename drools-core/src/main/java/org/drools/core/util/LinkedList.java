@@ -527,6 +527,16 @@ public class LinkedList<T extends DoubleLinkedEntry<T>>
         other.size = size;
     }
 
+    /**
+     * Lets subclasses keeping their nodes in a different structure expose the first and last ones
+     * through the final accessors of this list.
+     */
+    protected void setState(T firstNode, T lastNode, int size) {
+        this.firstNode = firstNode;
+        this.lastNode = lastNode;
+        this.size = size;
+    }
+
     public <I> void addAllToCollection(Collection<I> c) {
         for (T item = getFirst(); item != null; item = item.getNext()) {
             c.add((I) item);
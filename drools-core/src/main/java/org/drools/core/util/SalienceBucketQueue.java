@@ -0,0 +1,393 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import org.drools.core.util.Queue.QueueEntry;
+
+/**
+ * Queue keeping one bucket per distinct salience value, so that enqueuing and dequeuing an element doesn't
+ * pay the log(n) comparisons of a heap. Elements with the same salience are returned in insertion order (FIFO)
+ * or in reverse insertion order (LIFO).
+ *
+ * Each bucket is a ring buffer. Removing an arbitrary element only marks it as no longer queued, its slot is
+ * skipped when reached from either end of the ring: to recognize stale slots every insertion gets a stamp,
+ * stored both in the slot and in the queue index of the element.
+ *
+ * The salience of an element must not change while it is queued. As soon as an element with a dynamic salience
+ * is enqueued, or the number of distinct saliences exceeds MAX_BUCKETS, all the elements are moved to the
+ * heap based queue created by the QueueFactory with the given comparator, which is used from then on.
+ */
+public class SalienceBucketQueue<T extends QueueEntry> implements Queue<T> {
+
+    static final int MAX_BUCKETS = 64;
+
+    private final ToIntFunction<T> salience;
+
+    private final Predicate<T> dynamicSalience;
+
+    private final Comparator<T> comparator;
+
+    private final boolean lifo;
+
+    // distinct saliences in descending order, each one with its own bucket
+    private int[] saliences = new int[8];
+
+    private SalienceBucketQueue.Bucket[] buckets = new SalienceBucketQueue.Bucket[8];
+
+    private int bucketsSize;
+
+    // index of the bucket with the highest salience holding at least one element, bucketsSize when empty
+    private int top;
+
+    private int size;
+
+    private int stamp;
+
+    // the stamps given before the last clear are stale
+    private int clearedStamp;
+
+    private Queue<T> fallback;
+
+    public SalienceBucketQueue(ToIntFunction<T> salience, Predicate<T> dynamicSalience, Comparator<T> comparator, boolean lifo) {
+        this.salience = salience;
+        this.dynamicSalience = dynamicSalience;
+        this.comparator = comparator;
+        this.lifo = lifo;
+    }
+
+    boolean isBucketed() {
+        return fallback == null;
+    }
+
+    @Override
+    public void enqueue(T element) {
+        if (fallback != null) {
+            fallback.enqueue(element);
+            return;
+        }
+        if (dynamicSalience.test(element)) {
+            switchToFallback();
+            fallback.enqueue(element);
+            return;
+        }
+
+        int index = bucketIndex(salience.applyAsInt(element));
+        if (index < 0) {
+            if (bucketsSize == MAX_BUCKETS) {
+                switchToFallback();
+                fallback.enqueue(element);
+                return;
+            }
+            index = addBucket(-(index + 1), salience.applyAsInt(element));
+        }
+
+        if (stamp == Integer.MAX_VALUE) {
+            restamp();
+        }
+        element.setQueueIndex(++stamp);
+        element.setQueued(true);
+        buckets[index].add(element, stamp);
+        size++;
+        if (index < top) {
+            top = index;
+        }
+    }
+
+    @Override
+    public T dequeue() {
+        if (fallback != null) {
+            return fallback.dequeue();
+        }
+        if (size == 0) {
+            return null;
+        }
+        Bucket bucket = buckets[top];
+        T element = (T) (lifo ? bucket.pollLast() : bucket.pollFirst());
+        element.setQueued(false);
+        element.setQueueIndex(-1);
+        removed(top);
+        return element;
+    }
+
+    @Override
+    public void dequeue(T element) {
+        if (fallback != null) {
+            fallback.dequeue(element);
+            return;
+        }
+        if (!element.isQueued() || element.getQueueIndex() <= clearedStamp) {
+            return;
+        }
+        int index = bucketIndex(salience.applyAsInt(element));
+        if (index < 0) {
+            return;
+        }
+        // the slot of the element becomes stale and will be skipped
+        element.setQueued(false);
+        element.setQueueIndex(-1);
+        buckets[index].live--;
+        removed(index);
+    }
+
+    private void removed(int index) {
+        size--;
+        Bucket bucket = buckets[index];
+        if (bucket.live == 0) {
+            bucket.reset();
+            if (index == top) {
+                while (top < bucketsSize && buckets[top].live == 0) {
+                    top++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return fallback != null ? fallback.isEmpty() : size == 0;
+    }
+
+    @Override
+    public void clear() {
+        if (fallback != null) {
+            fallback.clear();
+            return;
+        }
+        for (int i = 0; i < bucketsSize; i++) {
+            buckets[i].reset();
+        }
+        clearedStamp = stamp;
+        size = 0;
+        top = bucketsSize;
+    }
+
+    @Override
+    public Collection<T> getAll() {
+        if (fallback != null) {
+            return fallback.getAll();
+        }
+        List<T> result = new ArrayList<>(size);
+        for (int i = top; i < bucketsSize; i++) {
+            buckets[i].collect(result, lifo);
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return fallback != null ? fallback.size() : size;
+    }
+
+    @Override
+    public T peek() {
+        if (fallback != null) {
+            return fallback.peek();
+        }
+        if (size == 0) {
+            return null;
+        }
+        Bucket bucket = buckets[top];
+        return (T) (lifo ? bucket.peekLast() : bucket.peekFirst());
+    }
+
+    private int bucketIndex(int value) {
+        // saliences are sorted in descending order
+        int low = 0;
+        int high = bucketsSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midValue = saliences[mid];
+            if (midValue > value) {
+                low = mid + 1;
+            } else if (midValue < value) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int addBucket(int index, int value) {
+        if (bucketsSize == saliences.length) {
+            saliences = Arrays.copyOf(saliences, bucketsSize * 2);
+            buckets = Arrays.copyOf(buckets, bucketsSize * 2);
+        }
+        System.arraycopy(saliences, index, saliences, index + 1, bucketsSize - index);
+        System.arraycopy(buckets, index, buckets, index + 1, bucketsSize - index);
+        saliences[index] = value;
+        buckets[index] = new Bucket();
+        bucketsSize++;
+        if (index <= top) {
+            top++;
+        }
+        return index;
+    }
+
+    private void restamp() {
+        Collection<T> elements = getAll();
+        clear();
+        stamp = 0;
+        clearedStamp = 0;
+        for (T element : elements) {
+            int index = bucketIndex(salience.applyAsInt(element));
+            element.setQueueIndex(++stamp);
+            buckets[index].add(element, stamp);
+            size++;
+            if (index < top) {
+                top = index;
+            }
+        }
+    }
+
+    private void switchToFallback() {
+        Collection<T> elements = getAll();
+        fallback = QueueFactory.createQueue(comparator);
+        for (T element : elements) {
+            element.setQueued(false);
+            element.setQueueIndex(-1);
+            fallback.enqueue(element);
+        }
+        saliences = null;
+        buckets = null;
+        bucketsSize = 0;
+        size = 0;
+    }
+
+    private boolean isLive(Object element, int elementStamp) {
+        QueueEntry entry = (QueueEntry) element;
+        return elementStamp > clearedStamp && entry.isQueued() && entry.getQueueIndex() == elementStamp;
+    }
+
+    private class Bucket {
+
+        private Object[] elements = new Object[16];
+
+        private int[] stamps = new int[16];
+
+        private int head;
+
+        // number of used slots, stale ones included
+        private int count;
+
+        private int live;
+
+        void add(Object element, int elementStamp) {
+            if (count == elements.length) {
+                compact();
+            }
+            int slot = (head + count) & (elements.length - 1);
+            elements[slot] = element;
+            stamps[slot] = elementStamp;
+            count++;
+            live++;
+        }
+
+        Object peekFirst() {
+            trimFirst();
+            return elements[head];
+        }
+
+        Object peekLast() {
+            trimLast();
+            return elements[(head + count - 1) & (elements.length - 1)];
+        }
+
+        Object pollFirst() {
+            trimFirst();
+            Object element = elements[head];
+            elements[head] = null;
+            head = (head + 1) & (elements.length - 1);
+            count--;
+            live--;
+            return element;
+        }
+
+        Object pollLast() {
+            trimLast();
+            int slot = (head + count - 1) & (elements.length - 1);
+            Object element = elements[slot];
+            elements[slot] = null;
+            count--;
+            live--;
+            return element;
+        }
+
+        private void trimFirst() {
+            while (!isLive(elements[head], stamps[head])) {
+                elements[head] = null;
+                head = (head + 1) & (elements.length - 1);
+                count--;
+            }
+        }
+
+        private void trimLast() {
+            int mask = elements.length - 1;
+            for (int slot = (head + count - 1) & mask; !isLive(elements[slot], stamps[slot]); slot = (head + count - 1) & mask) {
+                elements[slot] = null;
+                count--;
+            }
+        }
+
+        void collect(List<T> result, boolean reversed) {
+            int mask = elements.length - 1;
+            for (int i = 0; i < count; i++) {
+                int slot = (head + (reversed ? count - 1 - i : i)) & mask;
+                if (isLive(elements[slot], stamps[slot])) {
+                    result.add((T) elements[slot]);
+                }
+            }
+        }
+
+        private void compact() {
+            // drops the stale slots, doubling the capacity only if at least half of the slots are still in use
+            int capacity = live * 2 > elements.length ? elements.length * 2 : elements.length;
+            Object[] newElements = new Object[capacity];
+            int[] newStamps = new int[capacity];
+            int mask = elements.length - 1;
+            int newCount = 0;
+            for (int i = 0; i < count; i++) {
+                int slot = (head + i) & mask;
+                if (isLive(elements[slot], stamps[slot])) {
+                    newElements[newCount] = elements[slot];
+                    newStamps[newCount++] = stamps[slot];
+                }
+            }
+            elements = newElements;
+            stamps = newStamps;
+            head = 0;
+            count = newCount;
+        }
+
+        void reset() {
+            Arrays.fill(elements, null);
+            head = 0;
+            count = 0;
+            live = 0;
+        }
+    }
+}
@@ -62,6 +62,16 @@ public class ScalablePool<T> {
         pool.offer( t );
     }
 
+    /**
+     * Disposes the resources currently available in the pool, leaving untouched the ones in use
+     */
+    public void disposeAvailable() {
+        for (T t = pool.poll(); t != null; t = pool.poll()) {
+            resources.remove( t );
+            disposer.accept( t );
+        }
+    }
+
     public void shutdown() {
         for (T t : resources) {
             disposer.accept( t );
@@ -307,16 +307,20 @@ public class TupleRBTree<K extends Comparable< ? super K>> {
         }
     }
 
+    protected Node<K> createNode(K key) {
+        return new Node<>( key );
+    }
+
     public Node<K> insert(K key) {
         if (key == null) {
             if (nullNode == null) {
-                nullNode = new Node<>( key );
+                nullNode = createNode( key );
             }
             return nullNode;
         }
         Node<K> insertedNode;
         if ( root == null ) {
-            insertedNode = new Node<>( key );
+            insertedNode = createNode( key );
             root = insertedNode;
         } else {
             Node<K> n = root;
@@ -326,7 +330,7 @@ public class TupleRBTree<K extends Comparable< ? super K>> {
                     return n;
                 } else if ( compResult < 0 ) {
                     if ( n.left == null ) {
-                        insertedNode = new Node<>( key );
+                        insertedNode = createNode( key );
                         n.left = insertedNode;
                         break;
                     } else {
@@ -334,7 +338,7 @@ public class TupleRBTree<K extends Comparable< ? super K>> {
                     }
                 } else {
                     if ( n.right == null ) {
-                        insertedNode = new Node<>( key );
+                        insertedNode = createNode( key );
                         n.right = insertedNode;
                         break;
                     } else {
@@ -0,0 +1,271 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util.index;
+
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.reteoo.TupleImpl;
+import org.drools.core.util.FastIterator;
+
+/**
+ * Equality index memory laid out like CompactTupleIndexHashTable, whose buckets keep up to INLINE_CAPACITY tuples
+ * in a small array instead of linking them through their previous and next references. Most buckets of a join
+ * hold only one or two tuples, so iterating them reads a single contiguous array rather than chasing a pointer
+ * per tuple. A bucket links all its tuples, and behaves as a plain TupleList from then on, as soon as it grows
+ * beyond INLINE_CAPACITY.
+ *
+ * The tuples of an inline bucket have no previous and next references, so they must be navigated through the
+ * iterators of this memory or through TupleList.nextOf and previousOf.
+ */
+public class AdaptiveTupleIndexHashTable extends CompactTupleIndexHashTable {
+
+    static final int INLINE_CAPACITY = 4;
+
+    private static final FastIterator<TupleImpl> BUCKET_ITERATOR = new BucketFastIterator();
+
+    public AdaptiveTupleIndexHashTable(IndexSpec indexSpec, boolean left) {
+        super(indexSpec, left);
+    }
+
+    @Override
+    protected KeyedTupleList createBucket(int hash, Object key) {
+        return new AdaptiveTupleList(hash, key);
+    }
+
+    @Override
+    public FastIterator<TupleImpl> fastIterator() {
+        return BUCKET_ITERATOR;
+    }
+
+    private static class BucketFastIterator implements FastIterator<TupleImpl> {
+
+        @Override
+        public TupleImpl next(TupleImpl tuple) {
+            TupleList memory = tuple.getMemory();
+            // a tuple removed from the memory has no following tuple, as it happens with a linked list
+            return memory != null ? memory.nextOf(tuple) : null;
+        }
+
+        @Override
+        public boolean isFullIterator() {
+            return false;
+        }
+    }
+
+    public static class AdaptiveTupleList extends KeyedTupleList {
+
+        private TupleImpl[] tuples = new TupleImpl[INLINE_CAPACITY];
+
+        private int count;
+
+        // position of the last tuple looked up, so that iterating the bucket doesn't need to scan the array
+        private int cursor;
+
+        AdaptiveTupleList(int hash, Object key) {
+            super(hash, key);
+        }
+
+        boolean isInline() {
+            return tuples != null;
+        }
+
+        @Override
+        public void add(TupleImpl node) {
+            if (tuples == null) {
+                super.add(node);
+                return;
+            }
+            if (count == INLINE_CAPACITY) {
+                link();
+                super.add(node);
+                return;
+            }
+            tuples[count++] = node;
+            node.setMemory(this);
+            setState(tuples[0], node, count);
+        }
+
+        @Override
+        public void remove(TupleImpl node) {
+            if (tuples == null) {
+                super.remove(node);
+                return;
+            }
+            int index = indexOf(node);
+            System.arraycopy(tuples, index + 1, tuples, index, count - index - 1);
+            tuples[--count] = null;
+            setState(count > 0 ? tuples[0] : null, count > 0 ? tuples[count - 1] : null, count);
+            node.clear();
+        }
+
+        @Override
+        public TupleImpl removeFirst() {
+            if (tuples == null) {
+                return super.removeFirst();
+            }
+            TupleImpl first = getFirst();
+            if (first != null) {
+                remove(first);
+            }
+            return first;
+        }
+
+        @Override
+        public TupleImpl removeLast() {
+            if (tuples == null) {
+                return super.removeLast();
+            }
+            TupleImpl last = getLast();
+            if (last != null) {
+                remove(last);
+            }
+            return last;
+        }
+
+        @Override
+        public TupleImpl nextOf(TupleImpl tuple) {
+            if (tuples == null) {
+                return tuple.getNext();
+            }
+            int index = indexOf(tuple);
+            if (index < 0 || index + 1 == count) {
+                return null;
+            }
+            cursor = index + 1;
+            return tuples[cursor];
+        }
+
+        @Override
+        public TupleImpl previousOf(TupleImpl tuple) {
+            if (tuples == null) {
+                return tuple.getPrevious();
+            }
+            int index = indexOf(tuple);
+            return index > 0 ? tuples[index - 1] : null;
+        }
+
+        @Override
+        public TupleImpl get(InternalFactHandle handle) {
+            if (tuples == null) {
+                return super.get(handle);
+            }
+            for (int i = 0; i < count; i++) {
+                if (tuples[i].getFactHandle() == handle) {
+                    return tuples[i];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public TupleImpl get(int i) {
+            return tuples == null ? super.get(i) : tuples[i];
+        }
+
+        @Override
+        public boolean contains(TupleImpl node) {
+            return tuples == null ? super.contains(node) : indexOf(node) >= 0;
+        }
+
+        @Override
+        public void addFirst(TupleImpl node) {
+            link();
+            super.addFirst(node);
+        }
+
+        @Override
+        public void addLast(TupleImpl node) {
+            link();
+            super.addLast(node);
+        }
+
+        @Override
+        public void insertAfter(TupleImpl existingNode, TupleImpl newNode) {
+            link();
+            super.insertAfter(existingNode, newNode);
+        }
+
+        @Override
+        public void removeAdd(TupleImpl node) {
+            link();
+            super.removeAdd(node);
+        }
+
+        @Override
+        public void clear() {
+            if (tuples != null) {
+                for (int i = 0; i < count; i++) {
+                    tuples[i] = null;
+                }
+                count = 0;
+            }
+            super.clear();
+        }
+
+        @Override
+        public FastIterator<TupleImpl> fastIterator() {
+            return BUCKET_ITERATOR;
+        }
+
+        @Override
+        public FastIterator<TupleImpl> fullFastIterator() {
+            return BUCKET_ITERATOR;
+        }
+
+        @Override
+        public FastIterator<TupleImpl> fullFastIterator(TupleImpl tuple) {
+            return BUCKET_ITERATOR;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (TupleImpl tuple = getFirst(); tuple != null; tuple = nextOf(tuple)) {
+                builder.append(tuple).append("\n");
+            }
+            return builder.toString();
+        }
+
+        private int indexOf(TupleImpl tuple) {
+            if (cursor < count && tuples[cursor] == tuple) {
+                return cursor;
+            }
+            for (int i = 0; i < count; i++) {
+                if (tuples[i] == tuple) {
+                    cursor = i;
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void link() {
+            if (tuples == null) {
+                return;
+            }
+            TupleImpl[] inline = tuples;
+            int inlineCount = count;
+            tuples = null;
+            count = 0;
+            setState(null, null, 0);
+            for (int i = 0; i < inlineCount; i++) {
+                super.add(inline[i]);
+            }
+        }
+    }
+}
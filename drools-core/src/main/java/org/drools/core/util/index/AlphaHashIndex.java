@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util.index;
+
+import java.util.Objects;
+
+import org.drools.base.base.ValueType;
+import org.drools.base.rule.accessor.ReadAccessor;
+import org.drools.core.reteoo.AlphaNode;
+
+/**
+ * Lookup table of the hashed alpha nodes of a single field, keyed directly on the extracted value.
+ * It uses open addressing with linear probing over plain arrays, so finding the alpha node matching a fact
+ * doesn't allocate any HashKey. Fields of primitive integral types are read through getLongValue and
+ * stored in a long[], so that their values are never boxed.
+ * The table is only modified while the network is being built, so lookups don't need any synchronization.
+ */
+public class AlphaHashIndex {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final ReadAccessor extractor;
+
+    private final boolean primitiveKey;
+
+    private long[] longKeys;
+
+    private Object[] keys;
+
+    private AlphaNode[] nodes;
+
+    private AlphaNode nullNode;
+
+    private int size;
+
+    public AlphaHashIndex(ReadAccessor extractor) {
+        this.extractor = extractor;
+        this.primitiveKey = isPrimitiveIntegral(extractor.getValueType());
+        init(DEFAULT_CAPACITY);
+    }
+
+    private static boolean isPrimitiveIntegral(ValueType valueType) {
+        return valueType != null && valueType.isIntegerNumber() && valueType.getClassType().isPrimitive();
+    }
+
+    private void init(int capacity) {
+        this.longKeys = primitiveKey ? new long[capacity] : null;
+        this.keys = primitiveKey ? null : new Object[capacity];
+        this.nodes = new AlphaNode[capacity];
+    }
+
+    boolean isPrimitiveKey() {
+        return primitiveKey;
+    }
+
+    public int size() {
+        return nullNode != null ? size + 1 : size;
+    }
+
+    /**
+     * Returns the alpha node whose literal is equal to the value of the indexed field of the given fact, if any
+     */
+    public AlphaNode get(Object object) {
+        if (primitiveKey) {
+            long key = extractor.getLongValue(null, object);
+            int mask = nodes.length - 1;
+            for (int slot = hash(Long.hashCode(key)) & mask; nodes[slot] != null; slot = (slot + 1) & mask) {
+                if (longKeys[slot] == key) {
+                    return nodes[slot];
+                }
+            }
+            return null;
+        }
+
+        Object key = extractor.getValue(null, object);
+        if (key == null) {
+            return nullNode;
+        }
+        int mask = nodes.length - 1;
+        for (int slot = hash(hashCodeOf(key)) & mask; nodes[slot] != null; slot = (slot + 1) & mask) {
+            if (Objects.equals(keys[slot], key)) {
+                return nodes[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registers the alpha node for the given key, which is the literal of its constraint already coerced to the type of the field
+     */
+    public void put(Object key, AlphaNode alphaNode) {
+        if (key == null) {
+            nullNode = alphaNode;
+            return;
+        }
+        if ((size + 1) * 4 > nodes.length * 3) {
+            resize(nodes.length * 2);
+        }
+        int slot = findSlot(key);
+        if (nodes[slot] == null) {
+            size++;
+        }
+        store(slot, key, alphaNode);
+    }
+
+    public void remove(Object key) {
+        if (key == null) {
+            nullNode = null;
+            return;
+        }
+        int slot = findSlot(key);
+        if (nodes[slot] == null) {
+            return;
+        }
+        size--;
+
+        // backward shift deletion, so the probe sequences of the following keys are not broken
+        int mask = nodes.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; nodes[next] != null; next = (next + 1) & mask) {
+            int home = homeSlot(next);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                moveSlot(next, hole);
+                hole = next;
+            }
+        }
+        nodes[hole] = null;
+        if (keys != null) {
+            keys[hole] = null;
+        }
+    }
+
+    private int findSlot(Object key) {
+        int mask = nodes.length - 1;
+        if (primitiveKey) {
+            long longKey = ((Number) key).longValue();
+            int slot = hash(Long.hashCode(longKey)) & mask;
+            while (nodes[slot] != null && longKeys[slot] != longKey) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+        int slot = hash(hashCodeOf(key)) & mask;
+        while (nodes[slot] != null && !Objects.equals(keys[slot], key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int homeSlot(int slot) {
+        int hash = primitiveKey ? hash(Long.hashCode(longKeys[slot])) : hash(hashCodeOf(keys[slot]));
+        return hash & (nodes.length - 1);
+    }
+
+    private void store(int slot, Object key, AlphaNode alphaNode) {
+        if (primitiveKey) {
+            longKeys[slot] = ((Number) key).longValue();
+        } else {
+            keys[slot] = key;
+        }
+        nodes[slot] = alphaNode;
+    }
+
+    private void moveSlot(int from, int to) {
+        if (primitiveKey) {
+            longKeys[to] = longKeys[from];
+        } else {
+            keys[to] = keys[from];
+        }
+        nodes[to] = nodes[from];
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldLongKeys = longKeys;
+        Object[] oldKeys = keys;
+        AlphaNode[] oldNodes = nodes;
+        init(newCapacity);
+        for (int i = 0; i < oldNodes.length; i++) {
+            if (oldNodes[i] != null) {
+                Object key = primitiveKey ? (Object) oldLongKeys[i] : oldKeys[i];
+                store(findSlot(key), key, oldNodes[i]);
+            }
+        }
+    }
+
+    private static int hashCodeOf(Object key) {
+        try {
+            return key.hashCode();
+        } catch (UnsupportedOperationException e) {
+            return 0;
+        }
+    }
+
+    private static int hash(int hash) {
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        return hash ^ (hash >>> 7) ^ (hash >>> 4);
+    }
+}
@@ -0,0 +1,419 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util.index;
+
+import java.util.Objects;
+
+import org.drools.base.base.ValueType;
+import org.drools.base.util.IndexedValueReader;
+import org.drools.core.reteoo.TupleImpl;
+import org.drools.core.reteoo.TupleMemory;
+import org.drools.core.util.AbstractHashTable.HashEntry;
+import org.drools.core.util.AbstractHashTable.Index;
+import org.drools.core.util.FastIterator;
+import org.drools.core.util.LinkedList;
+
+/**
+ * Equality index memory using open addressing over primitive arrays instead of chained IndexTupleList buckets.
+ * The hash of each bucket is kept in an int[] so probing never dereferences a bucket on a hash miss, and no
+ * HashEntry is cloned per bucket. Single field indexes on primitive integral types keep their key in a long[],
+ * other single field indexes (i.e. String) keep the plain value in the bucket, only composite indexes still
+ * rely on the HashEntry of the Index.
+ */
+public class CompactTupleIndexHashTable implements TupleMemory {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    // marks a slot whose bucket has been removed, so that probe sequences are not broken
+    private static final KeyedTupleList REMOVED = new KeyedTupleList(0, null);
+
+    enum KeyType {
+        LONG, OBJECT, COMPOSITE
+    }
+
+    private final Index index;
+
+    private final IndexedValueReader fieldIndex;
+
+    private final KeyType keyType;
+
+    private final boolean left;
+
+    private int[] hashes;
+
+    private long[] longKeys;
+
+    private KeyedTupleList[] buckets;
+
+    private int size;
+
+    private int usedSlots;
+
+    private int threshold;
+
+    private int factSize;
+
+    private transient FullFastIterator fullFastIterator;
+
+    // the key of the last lookup, kept in fields to avoid allocating a holder on each access
+    private int hash;
+    private long longKey;
+    private Object objectKey;
+
+    public CompactTupleIndexHashTable(IndexSpec indexSpec, boolean left) {
+        this.index = indexSpec.getIndex();
+        this.left = left;
+
+        IndexedValueReader[] indexes = indexSpec.getIndexes();
+        if (indexes.length == 1) {
+            this.fieldIndex = indexes[0];
+            this.keyType = isPrimitiveIntegral(fieldIndex) ? KeyType.LONG : KeyType.OBJECT;
+        } else {
+            this.fieldIndex = null;
+            this.keyType = KeyType.COMPOSITE;
+        }
+
+        init(DEFAULT_CAPACITY);
+    }
+
+    private static boolean isPrimitiveIntegral(IndexedValueReader fieldIndex) {
+        return isPrimitiveIntegral(fieldIndex.getLeftExtractor().getValueType()) &&
+               isPrimitiveIntegral(fieldIndex.getRightExtractor().getValueType());
+    }
+
+    private static boolean isPrimitiveIntegral(ValueType valueType) {
+        return valueType != null && valueType.isIntegerNumber() && valueType.getClassType().isPrimitive();
+    }
+
+    private void init(int capacity) {
+        this.hashes = new int[capacity];
+        this.longKeys = keyType == KeyType.LONG ? new long[capacity] : null;
+        this.buckets = new KeyedTupleList[capacity];
+        this.usedSlots = 0;
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    KeyType getKeyType() {
+        return keyType;
+    }
+
+    @Override
+    public Index getIndex() {
+        return index;
+    }
+
+    @Override
+    public TupleImpl getFirst(TupleImpl tuple) {
+        if (!readKey(tuple, !left)) {
+            return null;
+        }
+        int slot = findSlot();
+        return slot >= 0 ? buckets[slot].getFirst() : null;
+    }
+
+    @Override
+    public void removeAdd(TupleImpl tuple) {
+        if (!readKey(tuple, left)) {
+            return;
+        }
+
+        KeyedTupleList memory = (KeyedTupleList) tuple.getMemory();
+        memory.remove(tuple);
+
+        int slot = findSlot();
+        if (slot >= 0 && buckets[slot] == memory) {
+            // it's the same bucket, so re-use and return
+            memory.add(tuple);
+            return;
+        }
+
+        if (memory.getFirst() == null) {
+            removeBucket(memory);
+        }
+
+        getOrCreate().add(tuple);
+    }
+
+    @Override
+    public void add(TupleImpl tuple) {
+        if (!readKey(tuple, left)) {
+            return;
+        }
+        getOrCreate().add(tuple);
+        this.factSize++;
+    }
+
+    @Override
+    public void remove(TupleImpl tuple) {
+        KeyedTupleList memory = (KeyedTupleList) tuple.getMemory();
+        memory.remove(tuple);
+        this.factSize--;
+        if (memory.getFirst() == null) {
+            removeBucket(memory);
+        }
+        tuple.clear();
+    }
+
+    private boolean readKey(TupleImpl tuple, boolean isLeftTuple) {
+        try {
+            switch (keyType) {
+                case LONG:
+                    longKey = ((Number) fieldIndex.indexedValueOf(tuple, isLeftTuple)).longValue();
+                    hash = rehash(Long.hashCode(longKey));
+                    break;
+                case OBJECT:
+                    objectKey = fieldIndex.indexedValueOf(tuple, isLeftTuple);
+                    hash = rehash(Objects.hashCode(objectKey));
+                    break;
+                default:
+                    objectKey = index.hashCodeOf(tuple, isLeftTuple);
+                    hash = objectKey.hashCode();
+            }
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean keyMatches(int slot, KeyedTupleList bucket) {
+        switch (keyType) {
+            case LONG:
+                return longKeys[slot] == longKey;
+            case OBJECT:
+                return Objects.equals(objectKey, bucket.key);
+            default:
+                return objectKey.equals(bucket.key);
+        }
+    }
+
+    private int findSlot() {
+        int mask = buckets.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            KeyedTupleList bucket = buckets[slot];
+            if (bucket == null) {
+                return -1;
+            }
+            if (bucket != REMOVED && hashes[slot] == hash && keyMatches(slot, bucket)) {
+                return slot;
+            }
+        }
+    }
+
+    private KeyedTupleList getOrCreate() {
+        int mask = buckets.length - 1;
+        int freeSlot = -1;
+        int slot = hash & mask;
+        for (KeyedTupleList bucket = buckets[slot]; bucket != null; bucket = buckets[slot]) {
+            if (bucket == REMOVED) {
+                if (freeSlot < 0) {
+                    freeSlot = slot;
+                }
+            } else if (hashes[slot] == hash && keyMatches(slot, bucket)) {
+                return bucket;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (freeSlot < 0) {
+            freeSlot = slot;
+            usedSlots++;
+        }
+
+        KeyedTupleList bucket = createBucket(hash, keyType == KeyType.COMPOSITE ? ((HashEntry) objectKey).clone() : objectKey);
+        buckets[freeSlot] = bucket;
+        hashes[freeSlot] = hash;
+        if (keyType == KeyType.LONG) {
+            longKeys[freeSlot] = longKey;
+        }
+        size++;
+
+        if (usedSlots > threshold) {
+            // grow only when needed, otherwise resizing to the same capacity is enough to purge the removed slots
+            resize(size >= threshold / 2 ? buckets.length * 2 : buckets.length);
+        }
+        return bucket;
+    }
+
+    protected KeyedTupleList createBucket(int hash, Object key) {
+        return new KeyedTupleList(hash, key);
+    }
+
+    private void removeBucket(KeyedTupleList bucket) {
+        int slot = slotOf(bucket);
+        buckets[slot] = REMOVED;
+        size--;
+    }
+
+    private int slotOf(KeyedTupleList bucket) {
+        int mask = buckets.length - 1;
+        int slot = bucket.hash & mask;
+        while (buckets[slot] != bucket) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int newCapacity) {
+        int[] oldHashes = hashes;
+        long[] oldLongKeys = longKeys;
+        KeyedTupleList[] oldBuckets = buckets;
+
+        init(newCapacity);
+
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldBuckets.length; i++) {
+            KeyedTupleList bucket = oldBuckets[i];
+            if (bucket == null || bucket == REMOVED) {
+                continue;
+            }
+            int slot = oldHashes[i] & mask;
+            while (buckets[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            buckets[slot] = bucket;
+            hashes[slot] = oldHashes[i];
+            if (oldLongKeys != null) {
+                longKeys[slot] = oldLongKeys[i];
+            }
+            usedSlots++;
+        }
+    }
+
+    private static int rehash(int hash) {
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        return hash ^ (hash >>> 7) ^ (hash >>> 4);
+    }
+
+    @Override
+    public boolean isIndexed() {
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return factSize;
+    }
+
+    @Override
+    public FastIterator<TupleImpl> fastIterator() {
+        return LinkedList.fastIterator;
+    }
+
+    @Override
+    public FastIterator<TupleImpl> fullFastIterator() {
+        if (fullFastIterator == null) {
+            fullFastIterator = new FullFastIterator();
+        }
+        fullFastIterator.reset(buckets);
+        return fullFastIterator;
+    }
+
+    @Override
+    public FastIterator<TupleImpl> fullFastIterator(TupleImpl tuple) {
+        if (fullFastIterator == null) {
+            fullFastIterator = new FullFastIterator();
+        }
+        fullFastIterator.resume(buckets, slotOf((KeyedTupleList) tuple.getMemory()));
+        return fullFastIterator;
+    }
+
+    @Override
+    public IndexType getIndexType() {
+        return IndexType.EQUAL;
+    }
+
+    @Override
+    public void clear() {
+        init(DEFAULT_CAPACITY);
+        this.size = 0;
+        this.factSize = 0;
+        this.objectKey = null;
+        this.fullFastIterator = null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        FastIterator<TupleImpl> it = new FullFastIterator();
+        ((FullFastIterator) it).reset(buckets);
+        for (TupleImpl tuple = it.next(null); tuple != null; tuple = it.next(tuple)) {
+            builder.append(tuple).append("\n");
+        }
+        return builder.toString();
+    }
+
+    public static class KeyedTupleList extends TupleList {
+        private final int hash;
+        private final Object key;
+
+        KeyedTupleList(int hash, Object key) {
+            this.hash = hash;
+            this.key = key;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj;
+        }
+    }
+
+    public static class FullFastIterator implements FastIterator<TupleImpl> {
+        private KeyedTupleList[] buckets;
+        private int slot;
+
+        void reset(KeyedTupleList[] buckets) {
+            this.buckets = buckets;
+            this.slot = 0;
+        }
+
+        void resume(KeyedTupleList[] buckets, int currentSlot) {
+            this.buckets = buckets;
+            this.slot = currentSlot + 1; // slot always points to the one after the current bucket
+        }
+
+        @Override
+        public TupleImpl next(TupleImpl tuple) {
+            if (tuple != null) {
+                TupleImpl next = tuple.getMemory().nextOf(tuple);
+                if (next != null) {
+                    return next;
+                }
+            }
+            while (slot < buckets.length) {
+                KeyedTupleList bucket = buckets[slot++];
+                if (bucket != null && bucket != REMOVED) {
+                    return bucket.getFirst();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean isFullIterator() {
+            return true;
+        }
+    }
+}
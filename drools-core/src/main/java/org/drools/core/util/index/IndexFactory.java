@@ -48,6 +48,9 @@ public interface IndexFactory {
         }
 
         if (indexSpec.getConstraintType() == ConstraintTypeOperator.EQUAL) {
+            if (indexSpec.getRangeIndex() != null) {
+                return IndexMemory.createCompositeRangeMemory(indexSpec, false);
+            }
             return IndexMemory.createEqualityMemory(indexSpec, false);
         }
 
@@ -67,6 +70,9 @@ public interface IndexFactory {
         }
 
         if (indexSpec.getConstraintType() == ConstraintTypeOperator.EQUAL) {
+            if (indexSpec.getRangeIndex() != null) {
+                return IndexMemory.createCompositeRangeMemory(indexSpec, true);
+            }
             return IndexMemory.createEqualityMemory(indexSpec, true);
         }
 
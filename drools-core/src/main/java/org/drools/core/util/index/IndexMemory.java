@@ -28,16 +28,24 @@ public class IndexMemory {
 
     private static final String INTERNAL_INDEX = "internal";
     private static final String FASTUTIL_INDEX = "fastutil";
+    private static final String COMPACT_INDEX = "compact";
+    private static final String ADAPTIVE_INDEX = "adaptive";
 
     private static final String DEFAULT_INDEX = INTERNAL_INDEX;
 
     public enum EqualityMemoryType {
-        INTERNAL, FASTUTIL;
+        INTERNAL, FASTUTIL, COMPACT, ADAPTIVE;
 
         static EqualityMemoryType get(String s) {
             if (s.equalsIgnoreCase(FASTUTIL_INDEX)) {
                 return FASTUTIL;
             }
+            if (s.equalsIgnoreCase(COMPACT_INDEX)) {
+                return COMPACT;
+            }
+            if (s.equalsIgnoreCase(ADAPTIVE_INDEX)) {
+                return ADAPTIVE;
+            }
             return INTERNAL;
         }
 
@@ -49,6 +57,12 @@ public class IndexMemory {
                     throw new RuntimeException("You're trying to use fastutil indexes without having imported them. Please add the module org.drools:drools-fastutil to your classpath.", e);
                 }
             }
+            if (this == COMPACT) {
+                return new CompactEqualityMemoryFactory();
+            }
+            if (this == ADAPTIVE) {
+                return new AdaptiveEqualityMemoryFactory();
+            }
             return new InternalEqualityMemoryFactory();
         }
     }
@@ -110,6 +124,10 @@ public class IndexMemory {
         return ComparisonMemoryFactoryHolder.INSTANCE.createMemory(indexSpec, isLeft);
     }
 
+    public static TupleMemory createCompositeRangeMemory(IndexSpec indexSpec, boolean isLeft) {
+        return new TupleIndexHashRBTree(indexSpec, isLeft);
+    }
+
     public interface Factory {
         TupleMemory createMemory(IndexSpec indexSpec, boolean isLeft);
     }
@@ -138,6 +156,22 @@ public class IndexMemory {
         }
     }
 
+    static class CompactEqualityMemoryFactory implements IndexMemory.Factory {
+
+        @Override
+        public TupleMemory createMemory(IndexSpec indexSpec, boolean isLeft) {
+            return new CompactTupleIndexHashTable(indexSpec, isLeft);
+        }
+    }
+
+    static class AdaptiveEqualityMemoryFactory implements IndexMemory.Factory {
+
+        @Override
+        public TupleMemory createMemory(IndexSpec indexSpec, boolean isLeft) {
+            return new AdaptiveTupleIndexHashTable(indexSpec, isLeft);
+        }
+    }
+
     static class InternalComparisonMemoryFactory implements IndexMemory.Factory {
 
         @Override
@@ -37,6 +37,10 @@ public class IndexSpec {
     private ConstraintTypeOperator constraintType = ConstraintTypeOperator.UNKNOWN;
     private IndexedValueReader[]   indexes;
 
+    // trailing comparison constraint of a composite equality + range index, if any
+    private IndexedValueReader     rangeIndex;
+    private ConstraintTypeOperator rangeConstraintType;
+
     public IndexSpec(int nodeType, BetaConstraint[] constraints, RuleBaseConfiguration config) {
         init(nodeType, constraints, config);
     }
@@ -59,6 +63,14 @@ public class IndexSpec {
         return indexes;
     }
 
+    public IndexedValueReader getRangeIndex() {
+        return rangeIndex;
+    }
+
+    public ConstraintTypeOperator getRangeConstraintType() {
+        return rangeConstraintType;
+    }
+
     public Index getIndex() {
         Index index;
         int PRIME   = 31;
@@ -116,12 +128,30 @@ public class IndexSpec {
             }
             indexes = indexList.toArray(new IndexedValueReader[indexList.size()]);
 
+            if (config.isBetaNodeRangeIndexEnabled() && indexes.length > 0 && !((IndexableConstraint) constraints[firstIndexableConstraint]).isUnification()) {
+                initRangeIndex(nodeType, constraints, config);
+            }
+
         } else if (constraintType.isComparison()) {
             // look for a dual constraint to create a range index
             indexes = new IndexedValueReader[]{((IndexableConstraint)constraints[firstIndexableConstraint]).getFieldIndex() };
         }
     }
 
+    private void initRangeIndex(int nodeType, BetaConstraint[] constraints, RuleBaseConfiguration config) {
+        for (BetaConstraint constraint : constraints) {
+            if (constraint instanceof IndexableConstraint && !isEqualIndexable(constraint)) {
+                IndexableConstraint indexableConstraint = (IndexableConstraint) constraint;
+                ConstraintTypeOperator type = indexableConstraint.getConstraintType();
+                if (type.isComparison() && !indexableConstraint.isUnification() && type.isIndexableForNode(nodeType, indexableConstraint, config)) {
+                    rangeIndex = indexableConstraint.getFieldIndex();
+                    rangeConstraintType = type;
+                    return;
+                }
+            }
+        }
+    }
+
     public int determineTypeWithEqualityPriority(int nodeType, BetaConstraint[] constraints, RuleBaseConfiguration config) {
         int indexedConstraintPos = 0;
         for (int i = 0; i < constraints.length; i++) {
@@ -0,0 +1,330 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util.index;
+
+import org.drools.base.util.IndexedValueReader;
+import org.drools.base.util.index.ConstraintTypeOperator;
+import org.drools.core.reteoo.TupleImpl;
+import org.drools.core.reteoo.TupleMemory;
+import org.drools.core.util.AbstractHashTable.HashEntry;
+import org.drools.core.util.AbstractHashTable.Index;
+import org.drools.core.util.FastIterator;
+import org.drools.core.util.TupleRBTree;
+import org.drools.core.util.TupleRBTree.Node;
+
+/**
+ * Composite index for constraints like a == $x && b > $y: tuples are hashed on the equality columns
+ * and each bucket keeps a TupleIndexRBTree on the trailing comparison column. getFirst() and the fast
+ * iterator behave like the ones of TupleIndexRBTree, but are confined to the bucket of the equality key.
+ */
+public class TupleIndexHashRBTree implements TupleMemory {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Index index;
+
+    private final IndexedValueReader rangeIndex;
+
+    private final ConstraintTypeOperator rangeConstraintType;
+
+    private final boolean left;
+
+    private RangeBucket[] table;
+
+    private int size;
+
+    private int threshold;
+
+    private int factSize;
+
+    private final FastIterator<TupleImpl> fastIterator = new BucketFastIterator();
+
+    private final FastIterator<TupleImpl> fullFastIterator = new FullFastIterator();
+
+    public TupleIndexHashRBTree(IndexSpec indexSpec, boolean left) {
+        this.index = indexSpec.getIndex();
+        this.rangeIndex = indexSpec.getRangeIndex();
+        this.rangeConstraintType = indexSpec.getRangeConstraintType();
+        this.left = left;
+        init(16);
+    }
+
+    private void init(int capacity) {
+        this.table = new RangeBucket[capacity];
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    @Override
+    public Index getIndex() {
+        return index;
+    }
+
+    public IndexedValueReader getRangeIndex() {
+        return rangeIndex;
+    }
+
+    @Override
+    public TupleImpl getFirst(TupleImpl tuple) {
+        RangeBucket bucket = get(tuple, !left);
+        return bucket != null ? bucket.getFirst(tuple) : null;
+    }
+
+    @Override
+    public void removeAdd(TupleImpl tuple) {
+        remove(tuple);
+        add(tuple);
+    }
+
+    @Override
+    public void add(TupleImpl tuple) {
+        RangeBucket bucket = getOrCreate(tuple);
+        if (bucket != null) {
+            bucket.add(tuple);
+            factSize++;
+        }
+    }
+
+    @Override
+    public void remove(TupleImpl tuple) {
+        RangeBucket bucket = bucketOf(tuple);
+        bucket.remove(tuple);
+        factSize--;
+        if (bucket.size() == 0) {
+            removeBucket(bucket);
+        }
+    }
+
+    private static RangeBucket bucketOf(TupleImpl tuple) {
+        return ((BucketNode) tuple.getMemory()).bucket;
+    }
+
+    private RangeBucket get(TupleImpl tuple, boolean isLeftTuple) {
+        HashEntry hashEntry;
+        try {
+            hashEntry = index.hashCodeOf(tuple, isLeftTuple);
+        } catch (UnsupportedOperationException e) {
+            return null;
+        }
+
+        int hashCode = hashEntry.hashCode();
+        for (RangeBucket bucket = table[indexOf(hashCode, table.length)]; bucket != null; bucket = bucket.next) {
+            if (bucket.hashCode == hashCode && hashEntry.equals(bucket.hashEntry)) {
+                return bucket;
+            }
+        }
+        return null;
+    }
+
+    private RangeBucket getOrCreate(TupleImpl tuple) {
+        HashEntry hashEntry;
+        try {
+            hashEntry = index.hashCodeOf(tuple, left);
+        } catch (UnsupportedOperationException e) {
+            return null;
+        }
+
+        int hashCode = hashEntry.hashCode();
+        int row = indexOf(hashCode, table.length);
+        for (RangeBucket bucket = table[row]; bucket != null; bucket = bucket.next) {
+            if (bucket.hashCode == hashCode && hashEntry.equals(bucket.hashEntry)) {
+                return bucket;
+            }
+        }
+
+        RangeBucket bucket = new RangeBucket(hashEntry.clone(), rangeConstraintType, rangeIndex, left);
+        bucket.next = table[row];
+        table[row] = bucket;
+
+        if (size++ >= threshold) {
+            resize(2 * table.length);
+        }
+        return bucket;
+    }
+
+    private void removeBucket(RangeBucket bucket) {
+        int row = indexOf(bucket.hashCode, table.length);
+        RangeBucket previous = null;
+        RangeBucket current = table[row];
+        while (current != bucket) {
+            previous = current;
+            current = current.next;
+        }
+
+        if (previous != null) {
+            previous.next = current.next;
+        } else {
+            table[row] = current.next;
+        }
+        size--;
+    }
+
+    private void resize(int newCapacity) {
+        RangeBucket[] oldTable = table;
+        init(newCapacity);
+        for (RangeBucket entry : oldTable) {
+            while (entry != null) {
+                RangeBucket next = entry.next;
+                int row = indexOf(entry.hashCode, newCapacity);
+                entry.next = table[row];
+                table[row] = entry;
+                entry = next;
+            }
+        }
+    }
+
+    private static int indexOf(int hashCode, int dataSize) {
+        return hashCode & (dataSize - 1);
+    }
+
+    private TupleImpl firstTupleFrom(int row) {
+        for (; row < table.length; row++) {
+            for (RangeBucket bucket = table[row]; bucket != null; bucket = bucket.next) {
+                TupleImpl first = bucket.nextTuple(null);
+                if (first != null) {
+                    return first;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isIndexed() {
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return factSize;
+    }
+
+    @Override
+    public FastIterator<TupleImpl> fastIterator() {
+        return fastIterator;
+    }
+
+    @Override
+    public FastIterator<TupleImpl> fullFastIterator() {
+        return fullFastIterator;
+    }
+
+    @Override
+    public FastIterator<TupleImpl> fullFastIterator(TupleImpl tuple) {
+        return fullFastIterator;
+    }
+
+    @Override
+    public IndexType getIndexType() {
+        return IndexType.COMPARISON;
+    }
+
+    @Override
+    public void clear() {
+        init(16);
+        size = 0;
+        factSize = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (TupleImpl tuple = fullFastIterator.next(null); tuple != null; tuple = fullFastIterator.next(tuple)) {
+            builder.append(tuple).append("\n");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Iterates the tuples matching the range constraint within the bucket of the current tuple.
+     * The state is entirely derived from the given tuple, so a single instance can be shared.
+     */
+    private static class BucketFastIterator implements FastIterator<TupleImpl> {
+
+        @Override
+        public TupleImpl next(TupleImpl tuple) {
+            return bucketOf(tuple).nextTuple(tuple);
+        }
+
+        @Override
+        public boolean isFullIterator() {
+            return false;
+        }
+    }
+
+    private class FullFastIterator implements FastIterator<TupleImpl> {
+
+        @Override
+        public TupleImpl next(TupleImpl tuple) {
+            if (tuple == null) {
+                return firstTupleFrom(0);
+            }
+
+            RangeBucket bucket = bucketOf(tuple);
+            TupleImpl next = bucket.nextTuple(tuple);
+            if (next != null) {
+                return next;
+            }
+
+            // try the other buckets sharing the same row, then the following rows
+            for (RangeBucket other = bucket.next; other != null; other = other.next) {
+                TupleImpl first = other.nextTuple(null);
+                if (first != null) {
+                    return first;
+                }
+            }
+            return firstTupleFrom(indexOf(bucket.hashCode, table.length) + 1);
+        }
+
+        @Override
+        public boolean isFullIterator() {
+            return true;
+        }
+    }
+
+    static class RangeBucket extends TupleIndexRBTree {
+        private final HashEntry hashEntry;
+        private final int hashCode;
+        private RangeBucket next;
+
+        RangeBucket(HashEntry hashEntry, ConstraintTypeOperator constraintType, IndexedValueReader rangeIndex, boolean left) {
+            super(constraintType, rangeIndex, left);
+            this.hashEntry = hashEntry;
+            this.hashCode = hashEntry.hashCode();
+        }
+
+        @Override
+        protected TupleRBTree<Comparable<Comparable>> createTree() {
+            return new TupleRBTree<>() {
+                @Override
+                protected Node<Comparable<Comparable>> createNode(Comparable<Comparable> key) {
+                    return new BucketNode(key, RangeBucket.this);
+                }
+            };
+        }
+    }
+
+    static class BucketNode extends Node<Comparable<Comparable>> {
+        private final RangeBucket bucket;
+
+        BucketNode(Comparable<Comparable> key, RangeBucket bucket) {
+            super(key);
+            this.bucket = bucket;
+        }
+    }
+}
@@ -46,7 +46,11 @@ public class TupleIndexRBTree extends AbstractTupleIndexTree implements External
         this.index = index;
         this.constraintType = constraintType;
         this.left = left;
-        tree = new TupleRBTree<>();
+        tree = createTree();
+    }
+
+    protected TupleRBTree<Comparable<Comparable>> createTree() {
+        return new TupleRBTree<>();
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
@@ -180,18 +184,22 @@ public class TupleIndexRBTree extends AbstractTupleIndexTree implements External
         return key;
     }
 
+    TupleImpl nextTuple(TupleImpl tuple) {
+        if (tuple == null) {
+            Node<Comparable<Comparable>> firstNode = tree.first();
+            return firstNode == null ? null : firstNode.getFirst();
+        }
+        TupleImpl next = tuple.getNext();
+        if (next != null) {
+            return next;
+        }
+        Comparable key = getLeftIndexedValue(tuple);
+        return getNext(key, false);
+    }
+
     public class TupleFastIterator implements FastIterator<TupleImpl> {
         public TupleImpl next(TupleImpl tuple) {
-            if (tuple == null) {
-                Node<Comparable<Comparable>> firstNode = tree.first();
-                return firstNode == null ? null : firstNode.getFirst();
-            }
-            TupleImpl next = tuple.getNext();
-            if (next != null) {
-                return next;
-            }
-            Comparable key = getLeftIndexedValue(tuple);
-            return getNext(key, false);
+            return nextTuple(tuple);
         }
 
         public boolean isFullIterator() {
@@ -200,7 +208,7 @@ public class TupleIndexRBTree extends AbstractTupleIndexTree implements External
     }
 
     public void clear() {
-        tree = new TupleRBTree<>();
+        tree = createTree();
     }
 
     public IndexType getIndexType() {
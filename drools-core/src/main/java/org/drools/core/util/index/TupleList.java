@@ -105,6 +105,20 @@ public class TupleList extends LinkedList<TupleImpl> implements TupleMemory, Sin
         return false;
     }
 
+    /**
+     * Returns the tuple following the given one in this list
+     */
+    public TupleImpl nextOf(TupleImpl tuple) {
+        return tuple.getNext();
+    }
+
+    /**
+     * Returns the tuple preceding the given one in this list
+     */
+    public TupleImpl previousOf(TupleImpl tuple) {
+        return tuple.getPrevious();
+    }
+
     public TupleList getNext() {
         return this.next;
     }
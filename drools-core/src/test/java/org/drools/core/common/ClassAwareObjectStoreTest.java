@@ -91,6 +91,25 @@ public class ClassAwareObjectStoreTest {
         assertThat(result).hasAtLeastOneElementOfType(SubClass.class);
     }
 
+    @ParameterizedTest
+	@MethodSource("parameters")
+    public void addHandlesStoresBatchOfMixedTypes(ClassAwareObjectStore underTest) throws Exception {
+        List<InternalFactHandle> handles = new ArrayList<>();
+        handles.add(handleFor(new SubClass()));
+        handles.add(handleFor(new SubClass()));
+        handles.add(handleFor(new SuperClass()));
+        handles.add(handleFor(new SubClass()));
+
+        underTest.addHandles(handles);
+
+        assertThat(underTest.size()).isEqualTo(4);
+        assertThat(collect(underTest.iterateObjects(SubClass.class))).hasSize(3);
+        assertThat(collect(underTest.iterateObjects(SuperClass.class))).hasSize(4);
+        for (InternalFactHandle handle : handles) {
+            assertThat(underTest.getHandleForObject(handle.getObject())).isSameAs(handle);
+        }
+    }
+
     /**
      * Should have identical results to {@link #queryBySuperTypeFindsSubType()}
      */
@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.common;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.kie.api.runtime.ClassObjectFilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentObjectStoreTest {
+
+    private static final AtomicInteger factCounter = new AtomicInteger(1);
+
+    public static Stream<ConcurrentObjectStore> parameters() {
+        return Stream.of(new ConcurrentObjectStore(true), new ConcurrentObjectStore(false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("parameters")
+    public void iterateByClassFindsSubTypes(ConcurrentObjectStore underTest) {
+        Object superObject = new SuperClass();
+        Object subObject = new SubClass();
+        underTest.addHandle(handleFor("a string"), "a string");
+        underTest.addHandle(handleFor(superObject), superObject);
+        underTest.addHandle(handleFor(subObject), subObject);
+
+        assertThat(underTest.size()).isEqualTo(3);
+        assertThat(collect(underTest.iterateObjects())).hasSize(3);
+        assertThat(collect(underTest.iterateObjects(new ClassObjectFilter(SuperClass.class)))).containsExactlyInAnyOrder(superObject, subObject);
+        assertThat(collect(underTest.iterateFactHandles(SubClass.class))).hasSize(1);
+        assertThat(collect(underTest.iterateObjects(SubClass.class::isInstance))).containsExactly(subObject);
+    }
+
+    @ParameterizedTest
+    @MethodSource("parameters")
+    public void addLookupAndRemove(ConcurrentObjectStore underTest) {
+        BigDecimal value = new BigDecimal("1");
+        InternalFactHandle handle = handleFor(value);
+        assertThat(underTest.addHandleIfAbsent(handle, value)).isNull();
+        assertThat(underTest.addHandleIfAbsent(handleFor(value), value)).isSameAs(handle);
+
+        assertThat(underTest.getHandleForObject(value)).isSameAs(handle);
+        assertThat(underTest.getObjectForHandle(handle)).isSameAs(value);
+        assertThat(underTest.reconnect(new DefaultFactHandle(handle.getId(), value))).isSameAs(handle);
+
+        underTest.removeHandle(handle);
+        assertThat(underTest.getHandleForObject(value)).isNull();
+        assertThat(underTest.getObjectForHandle(handle)).isNull();
+        assertThat(underTest.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void equalityLookup() {
+        ConcurrentObjectStore underTest = new ConcurrentObjectStore(true);
+        String value = new String("value");
+        InternalFactHandle handle = handleFor(value);
+        underTest.addHandle(handle, value);
+        assertThat(underTest.getHandleForObject(new String("value"))).isSameAs(handle);
+
+        ConcurrentObjectStore identityStore = new ConcurrentObjectStore(false);
+        identityStore.addHandle(handle, value);
+        assertThat(identityStore.getHandleForObject(new String("value"))).isNull();
+    }
+
+    @ParameterizedTest
+    @MethodSource("parameters")
+    public void clearClassStore(ConcurrentObjectStore underTest) {
+        Object superObject = new SuperClass();
+        Object subObject = new SubClass();
+        underTest.addHandle(handleFor(superObject), superObject);
+        underTest.addHandle(handleFor(subObject), subObject);
+
+        assertThat(underTest.clearClassStore(SubClass.class)).isTrue();
+        assertThat(underTest.size()).isEqualTo(1);
+        assertThat(underTest.getHandleForObject(subObject)).isNull();
+        assertThat(collect(underTest.iterateObjects())).containsExactly(superObject);
+    }
+
+    @ParameterizedTest
+    @MethodSource("parameters")
+    public void concurrentAddHandleIfAbsent(ConcurrentObjectStore underTest) throws Exception {
+        int threads = 4;
+        int factsNr = 5000;
+        List<Object> facts = new ArrayList<>();
+        for (int i = 0; i < factsNr; i++) {
+            facts.add(i % 2 == 0 ? new SuperClass() : new SubClass());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int added = 0;
+                    // all the threads try to add all the facts, but each fact must be added only once
+                    for (Object fact : facts) {
+                        if (underTest.addHandleIfAbsent(handleFor(fact), fact) == null) {
+                            added++;
+                        }
+                    }
+                    return added;
+                }));
+            }
+            start.countDown();
+
+            int totalAdded = 0;
+            for (Future<Integer> result : results) {
+                totalAdded += result.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(totalAdded).isEqualTo(factsNr);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(underTest.size()).isEqualTo(factsNr);
+        assertThat(collect(underTest.iterateFactHandles())).hasSize(factsNr);
+        for (Object fact : facts) {
+            assertThat(underTest.getHandleForObject(fact).getObject()).isSameAs(fact);
+        }
+    }
+
+    private static <T> Collection<T> collect(Iterator<T> objects) {
+        List<T> result = new ArrayList<>();
+        objects.forEachRemaining(result::add);
+        return result;
+    }
+
+    private static InternalFactHandle handleFor(Object object) {
+        return new DefaultFactHandle(factCounter.getAndIncrement(), object);
+    }
+
+    private static class SuperClass { }
+
+    private static class SubClass extends SuperClass { }
+}
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void testBoundedExecutorLimitsConcurrency() {
+        ExecutorService delegate = Executors.newCachedThreadPool();
+        try {
+            VirtualThreads.BoundedExecutor executor = new VirtualThreads.BoundedExecutor(delegate, 2);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+            assertThat(maxRunning.get()).isBetween(1, 2);
+            assertThat(running.get()).isZero();
+        } finally {
+            delegate.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNewThreadFactory() throws Exception {
+        if (!VirtualThreads.isAvailable()) {
+            return;
+        }
+        Thread thread = VirtualThreads.newThreadFactory("drools-test-").newThread(() -> { });
+        assertThat(thread.getName()).isEqualTo("drools-test-0");
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.phreak;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.common.ReteEvaluator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LockFreePropagationListTest {
+
+    @Test
+    public void testTakeAllKeepsInsertionOrder() {
+        LockFreePropagationList list = new LockFreePropagationList(null, true);
+        assertThat(list.isEmpty()).isTrue();
+        assertThat(list.takeAll()).isNull();
+
+        for (int i = 0; i < 10; i++) {
+            list.addEntry(new Entry(0, i));
+        }
+        assertThat(list.isEmpty()).isFalse();
+
+        Iterator<PropagationEntry> it = list.iterator();
+        for (int i = 0; i < 10; i++) {
+            assertThat(((Entry) it.next()).seq).isEqualTo(i);
+        }
+        assertThat(it.hasNext()).isFalse();
+
+        int i = 0;
+        for (PropagationEntry entry = list.takeAll(); entry != null; entry = entry.getNext()) {
+            assertThat(((Entry) entry).seq).isEqualTo(i++);
+        }
+        assertThat(i).isEqualTo(10);
+        assertThat(list.isEmpty()).isTrue();
+    }
+
+    @Test
+    @Timeout(20)
+    public void testConcurrentProducers() throws Exception {
+        final int PRODUCERS = 4;
+        final int ENTRIES = 50_000;
+        LockFreePropagationList list = new LockFreePropagationList(null, false);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            final int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < ENTRIES; i++) {
+                    list.addEntry(new Entry(producer, i));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // the entries of each producer must be taken exactly once and in the order they have been added
+        int[] expected = new int[PRODUCERS];
+        int taken = 0;
+        while (taken < PRODUCERS * ENTRIES) {
+            for (PropagationEntry entry = list.takeAll(); entry != null; entry = entry.getNext()) {
+                Entry e = (Entry) entry;
+                assertThat(e.seq).isEqualTo(expected[e.producer]++);
+                taken++;
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(list.isEmpty()).isTrue();
+    }
+
+    @Test
+    @Timeout(20)
+    public void testWaitOnRestWakesUpOnNewEntry() throws Exception {
+        LockFreePropagationList list = new LockFreePropagationList(null, true);
+        list.setFiringUntilHalt(true);
+
+        CountDownLatch started = new CountDownLatch(1);
+        Thread consumer = new Thread(() -> {
+            started.countDown();
+            while (list.isEmpty()) {
+                list.waitOnRest();
+            }
+        });
+        consumer.start();
+        started.await();
+
+        list.addEntry(new Entry(0, 0));
+        consumer.join(TimeUnit.SECONDS.toMillis(10));
+        assertThat(consumer.isAlive()).isFalse();
+    }
+
+    private static class Entry extends PropagationEntry.AbstractPropagationEntry {
+        private final int producer;
+        private final int seq;
+
+        private Entry(int producer, int seq) {
+            this.producer = producer;
+            this.seq = seq;
+        }
+
+        @Override
+        public void internalExecute(ReteEvaluator reteEvaluator) { }
+    }
+}
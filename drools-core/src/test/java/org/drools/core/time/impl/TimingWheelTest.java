@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.drools.base.time.JobHandle;
+import org.drools.base.time.Trigger;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testJobsOfTheSameTickAreReturnedTogether() {
+        TimingWheel wheel = new TimingWheel(10, 0);
+        List<TimerJobInstance> jobs = new ArrayList<>();
+        for (int i = 11; i <= 20; i++) {
+            TimerJobInstance job = new MockJobInstance();
+            jobs.add(job);
+            wheel.add(job, i);
+        }
+        assertThat(wheel.size()).isEqualTo(10);
+
+        List<TimerJobInstance> expired = new ArrayList<>();
+        wheel.advance(19, expired);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(20, expired);
+        assertThat(expired).containsExactlyElementsOf(jobs);
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testRemove() {
+        TimingWheel wheel = new TimingWheel(1, 0);
+        TimerJobInstance job1 = new MockJobInstance();
+        TimerJobInstance job2 = new MockJobInstance();
+        TimerJobInstance job3 = new MockJobInstance();
+        wheel.add(job1, 5);
+        TimingWheel.Entry entry2 = wheel.add(job2, 5);
+        TimingWheel.Entry entry3 = wheel.add(job3, 100_000);
+
+        wheel.remove(entry2);
+        wheel.remove(entry3);
+        assertThat(entry2.isScheduled()).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        List<TimerJobInstance> expired = new ArrayList<>();
+        wheel.advance(200_000, expired);
+        assertThat(expired).containsExactly(job1);
+
+        // removing an entry already returned has no effect
+        wheel.remove(entry2);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void testPastFireTime() {
+        TimingWheel wheel = new TimingWheel(1, 1000);
+        TimerJobInstance job = new MockJobInstance();
+        wheel.add(job, 500);
+
+        List<TimerJobInstance> expired = new ArrayList<>();
+        wheel.advance(1000, expired);
+        assertThat(expired).containsExactly(job);
+    }
+
+    @Test
+    public void testRandomSchedule() {
+        Random random = new Random(0);
+        long tickSize = 5;
+        TimingWheel wheel = new TimingWheel(tickSize, 0);
+
+        Map<TimerJobInstance, Long> fireTimes = new HashMap<>();
+        long now = 0;
+        for (int round = 0; round < 500; round++) {
+            // a mix of near and far jobs, to exercise the cascade between the levels
+            for (int i = 0; i < 20; i++) {
+                long delay = random.nextInt(4) == 0 ? random.nextInt(50_000_000) : random.nextInt(2_000);
+                TimerJobInstance job = new MockJobInstance();
+                fireTimes.put(job, now + delay);
+                wheel.add(job, now + delay);
+            }
+
+            now += random.nextInt(300_000);
+            List<TimerJobInstance> expired = new ArrayList<>();
+            wheel.advance(now, expired);
+
+            long previous = Long.MIN_VALUE;
+            for (TimerJobInstance job : expired) {
+                long fireTime = fireTimes.remove(job);
+                assertThat(fireTime).isGreaterThan(previous);
+                assertThat(fireTime).isLessThanOrEqualTo(now);
+                previous = Math.floorDiv(fireTime - 1, tickSize) * tickSize;
+            }
+            // all the jobs still in the wheel must be due after the end of the current tick
+            long currentTickEnd = Math.floorDiv(now, tickSize) * tickSize;
+            assertThat(fireTimes.values()).allMatch(fireTime -> fireTime > currentTickEnd);
+            assertThat(wheel.size()).isEqualTo(fireTimes.size());
+        }
+
+        List<TimerJobInstance> expired = new ArrayList<>();
+        wheel.advance(Long.MAX_VALUE / 2, expired);
+        assertThat(expired).hasSize(fireTimes.size());
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    private static class MockJobInstance implements TimerJobInstance {
+
+        @Override
+        public JobHandle getJobHandle() {
+            return null;
+        }
+
+        @Override
+        public Job getJob() {
+            return null;
+        }
+
+        @Override
+        public Trigger getTrigger() {
+            return null;
+        }
+
+        @Override
+        public JobContext getJobContext() {
+            return null;
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+    }
+}
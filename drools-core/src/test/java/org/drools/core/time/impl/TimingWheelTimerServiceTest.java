@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.time.impl;
+
+import org.drools.base.time.Trigger;
+import org.drools.core.ClockType;
+import org.drools.core.SessionConfiguration;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.impl.JDKTimerServiceTest.DelayedTrigger;
+import org.drools.core.time.impl.JDKTimerServiceTest.HelloWorldJob;
+import org.drools.core.time.impl.JDKTimerServiceTest.HelloWorldJobContext;
+import org.junit.jupiter.api.Test;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.internal.runtime.conf.TimingWheelOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelTimerServiceTest {
+
+    @Test
+    public void testSingleExecutionJob() throws Exception {
+        TimerService timeService = createTimerService();
+        Trigger trigger = new DelayedTrigger( 100 );
+        HelloWorldJobContext ctx = new HelloWorldJobContext( "hello world", timeService);
+        timeService.scheduleJob( new HelloWorldJob(), ctx,  trigger);
+        Thread.sleep( 500 );
+        timeService.shutdown();
+        assertThat(ctx.getList()).hasSize(1);
+    }
+
+    @Test
+    public void testRepeatedExecutionJob() throws Exception {
+        TimerService timeService = createTimerService();
+        Trigger trigger = new DelayedTrigger(  new long[] { 100, 100, 100} );
+        HelloWorldJobContext ctx = new HelloWorldJobContext( "hello world", timeService);
+        timeService.scheduleJob( new HelloWorldJob(), ctx,  trigger);
+        Thread.sleep( 500 );
+        timeService.shutdown();
+        assertThat(ctx.getList()).hasSize(3);
+    }
+
+    @Test
+    public void testRepeatedExecutionJobWithRemove() throws Exception {
+        TimerService timeService = createTimerService();
+        Trigger trigger = new DelayedTrigger(  new long[] {100, 100, 100, 100, 100, 100, 100, 100} );
+        HelloWorldJobContext ctx = new HelloWorldJobContext( "hello world", timeService);
+        ctx.setLimit( 3 );
+        timeService.scheduleJob( new HelloWorldJob(), ctx,  trigger);
+        Thread.sleep( 1000 );
+        timeService.shutdown();
+        assertThat(ctx.getList()).hasSize(5);
+    }
+
+    @Test
+    public void testCancelledJobIsNotExecuted() throws Exception {
+        TimerService timeService = createTimerService();
+        HelloWorldJobContext ctx = new HelloWorldJobContext( "hello world", timeService);
+        ctx.setJobHandle( timeService.scheduleJob( new HelloWorldJob(), ctx, new DelayedTrigger( 100 ) ) );
+        timeService.removeJob( ctx.getJobHandle() );
+        Thread.sleep( 300 );
+        timeService.shutdown();
+        assertThat(ctx.getList()).isEmpty();
+    }
+
+    private TimerService createTimerService() {
+        KieSessionConfiguration conf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setOption( TimingWheelOption.get( 10 ) );
+        SessionConfiguration config = conf.as(SessionConfiguration.KEY);
+        config.setClockType(ClockType.REALTIME_CLOCK);
+        TimerService timeService = config.createTimerService();
+        assertThat(timeService).isInstanceOf(TimingWheelTimerService.class);
+        return timeService;
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EqualityIndexTest {
+
+    @Test
+    public void testPutGetRemove() {
+        EqualityIndex<Key, Integer> index = new EqualityIndex<>();
+        Map<Key, Integer> expected = new HashMap<>();
+
+        // few distinct hash codes, so that the probe sequences are long and overlap
+        for (int i = 0; i < 1000; i++) {
+            Key key = new Key(i);
+            assertThat(index.put(key, i)).isNull();
+            expected.put(key, i);
+        }
+        assertThat(index.size()).isEqualTo(1000);
+        assertThat(index.put(new Key(3), 42)).isEqualTo(3);
+        expected.put(new Key(3), 42);
+
+        for (int i = 0; i < 1000; i += 2) {
+            assertThat(index.remove(new Key(i))).isEqualTo(expected.remove(new Key(i)));
+        }
+        assertThat(index.remove(new Key(2000))).isNull();
+        assertThat(index.size()).isEqualTo(500);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(index.get(new Key(i))).isEqualTo(expected.get(new Key(i)));
+            assertThat(index.containsKey(new Key(i))).isEqualTo(i % 2 == 1);
+        }
+        assertThat(index).isEqualTo(expected);
+
+        index.clear();
+        assertThat(index).isEmpty();
+        assertThat(index.get(new Key(1))).isNull();
+    }
+
+    @Test
+    public void testLookupThroughStoredKey() {
+        // the stored key decides the equality, as done by the EqualityKey with the fact it wraps
+        EqualityIndex<Wrapper, Wrapper> index = new EqualityIndex<>();
+        Wrapper wrapper = new Wrapper("a");
+        index.put(wrapper, wrapper);
+
+        assertThat(index.get("a")).isSameAs(wrapper);
+        assertThat(index.get("b")).isNull();
+        assertThat(index.remove(new Wrapper("a"))).isNull();
+        assertThat(index.remove(wrapper)).isSameAs(wrapper);
+        assertThat(index).isEmpty();
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        EqualityIndex<Key, String> index = new EqualityIndex<>();
+        for (int i = 0; i < 100; i++) {
+            index.put(new Key(i), "v" + i);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(index);
+        }
+        EqualityIndex<Key, String> read;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = (EqualityIndex<Key, String>) in.readObject();
+        }
+
+        assertThat(read).hasSize(100);
+        for (int i = 0; i < 100; i++) {
+            assertThat(read.get(new Key(i))).isEqualTo("v" + i);
+        }
+    }
+
+    private static class Key implements java.io.Serializable {
+        private final int value;
+
+        private Key(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value % 7;
+        }
+    }
+
+    private static class Wrapper {
+        private final String value;
+
+        private Wrapper(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Wrapper ? this == o : value.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+}
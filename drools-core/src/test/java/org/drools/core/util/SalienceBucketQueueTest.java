@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.drools.core.util.Queue.QueueEntry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SalienceBucketQueueTest {
+
+    private static final Comparator<Item> BY_SALIENCE = (i1, i2) -> i1.salience != i2.salience ?
+            Integer.compare(i1.salience, i2.salience) : Integer.compare(i2.id, i1.id);
+
+    @Test
+    public void testFifoAndLifo() {
+        SalienceBucketQueue<Item> fifo = newQueue(false);
+        SalienceBucketQueue<Item> lifo = newQueue(true);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Item item = new Item(i, i % 3 * 10);
+            items.add(item);
+        }
+
+        items.forEach(fifo::enqueue);
+        assertThat(fifo.size()).isEqualTo(12);
+        assertThat(fifo.peek().id).isEqualTo(2);
+        assertThat(ids(fifo.getAll())).containsExactly(2, 5, 8, 11, 1, 4, 7, 10, 0, 3, 6, 9);
+        assertThat(ids(drain(fifo))).containsExactly(2, 5, 8, 11, 1, 4, 7, 10, 0, 3, 6, 9);
+        assertThat(items).noneMatch(Item::isQueued);
+
+        items.forEach(lifo::enqueue);
+        assertThat(ids(drain(lifo))).containsExactly(11, 8, 5, 2, 10, 7, 4, 1, 9, 6, 3, 0);
+        assertThat(lifo.isEmpty()).isTrue();
+        assertThat(lifo.dequeue()).isNull();
+    }
+
+    @Test
+    public void testRemoveAndRequeue() {
+        SalienceBucketQueue<Item> queue = newQueue(false);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(new Item(i, i % 2));
+            queue.enqueue(items.get(i));
+        }
+
+        // remove the odd items and put back a few of them, they must go to the end of their bucket
+        for (int i = 1; i < 100; i += 2) {
+            queue.dequeue(items.get(i));
+            assertThat(items.get(i).isQueued()).isFalse();
+        }
+        queue.dequeue(items.get(1));
+        assertThat(queue.size()).isEqualTo(50);
+        queue.enqueue(items.get(3));
+        queue.enqueue(items.get(1));
+
+        List<Integer> expected = new ArrayList<>(List.of(3, 1));
+        for (int i = 0; i < 100; i += 2) {
+            expected.add(i);
+        }
+        assertThat(ids(drain(queue))).isEqualTo(expected);
+
+        items.forEach(queue::enqueue);
+        queue.clear();
+        assertThat(queue.isEmpty()).isTrue();
+        queue.dequeue(items.get(0));
+        assertThat(queue.size()).isZero();
+        queue.enqueue(items.get(0));
+        assertThat(drain(queue)).containsExactly(items.get(0));
+    }
+
+    @Test
+    public void testFallbackKeepsOrder() {
+        Random random = new Random(0);
+        SalienceBucketQueue<Item> queue = newQueue(false);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(new Item(i, random.nextInt(SalienceBucketQueue.MAX_BUCKETS)));
+            queue.enqueue(items.get(i));
+        }
+        assertThat(queue.isBucketed()).isTrue();
+
+        List<Item> expected = new ArrayList<>(items);
+        expected.sort(BY_SALIENCE.reversed());
+        for (int i = 0; i < 100; i++) {
+            Item removed = expected.remove(random.nextInt(expected.size()));
+            queue.dequeue(removed);
+        }
+
+        // a new salience value moves everything to the heap, which orders the ties with the comparator
+        Item overflow = new Item(1000, SalienceBucketQueue.MAX_BUCKETS);
+        queue.enqueue(overflow);
+        expected.add(0, overflow);
+        assertThat(queue.isBucketed()).isFalse();
+        assertThat(queue.size()).isEqualTo(expected.size());
+        assertThat(drain(queue)).isEqualTo(expected);
+
+        SalienceBucketQueue<Item> dynamicQueue = newQueue(false);
+        dynamicQueue.enqueue(new Item(0, 1));
+        Item dynamic = new Item(1, 0);
+        dynamic.dynamic = true;
+        dynamicQueue.enqueue(dynamic);
+        assertThat(dynamicQueue.isBucketed()).isFalse();
+        assertThat(ids(drain(dynamicQueue))).containsExactly(0, 1);
+    }
+
+    private static SalienceBucketQueue<Item> newQueue(boolean lifo) {
+        return new SalienceBucketQueue<>(item -> item.salience, item -> item.dynamic, BY_SALIENCE, lifo);
+    }
+
+    private static List<Item> drain(Queue<Item> queue) {
+        List<Item> result = new ArrayList<>();
+        for (Item item = queue.dequeue(); item != null; item = queue.dequeue()) {
+            result.add(item);
+        }
+        return result;
+    }
+
+    private static List<Integer> ids(Iterable<Item> items) {
+        List<Integer> ids = new ArrayList<>();
+        items.forEach(item -> ids.add(item.id));
+        return ids;
+    }
+
+    private static class Item implements QueueEntry {
+        private final int id;
+        private final int salience;
+        private boolean dynamic;
+        private boolean queued;
+        private int index;
+
+        private Item(int id, int salience) {
+            this.id = id;
+            this.salience = salience;
+        }
+
+        public void setQueued(boolean queued) {
+            this.queued = queued;
+        }
+
+        public boolean isQueued() {
+            return queued;
+        }
+
+        public int getQueueIndex() {
+            return index;
+        }
+
+        public void setQueueIndex(int index) {
+            this.index = index;
+        }
+
+        public void dequeue() {
+        }
+
+        public String toString() {
+            return id + "(" + salience + ")";
+        }
+    }
+}
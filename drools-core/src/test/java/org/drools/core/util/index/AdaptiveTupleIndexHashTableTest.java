@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.base.base.ValueResolver;
+import org.drools.base.base.ValueType;
+import org.drools.base.reteoo.BaseTuple;
+import org.drools.base.rule.accessor.TupleValueExtractor;
+import org.drools.base.util.IndexedValueReader;
+import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.reteoo.RightTuple;
+import org.drools.core.reteoo.TupleImpl;
+import org.drools.core.util.FastIterator;
+import org.drools.core.util.index.AdaptiveTupleIndexHashTable.AdaptiveTupleList;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveTupleIndexHashTableTest {
+
+    @Test
+    public void testInlineBucket() {
+        AdaptiveTupleIndexHashTable memory = createMemory();
+        List<TupleImpl> tuples = new ArrayList<>();
+        for (int i = 0; i < AdaptiveTupleIndexHashTable.INLINE_CAPACITY; i++) {
+            tuples.add(rightTuple(i, 10));
+            memory.add(tuples.get(i));
+        }
+
+        AdaptiveTupleList bucket = (AdaptiveTupleList) tuples.get(0).getMemory();
+        assertThat(bucket.isInline()).isTrue();
+        assertThat(bucket.size()).isEqualTo(tuples.size());
+        assertThat(bucket.getLast()).isSameAs(tuples.get(tuples.size() - 1));
+        assertThat(tuples.get(0).getNext()).isNull();
+        assertThat(iterateBucket(memory, 10)).containsExactlyElementsOf(tuples);
+
+        // remove from the middle, the order of the remaining tuples is preserved
+        memory.remove(tuples.get(1));
+        assertThat(tuples.get(1).getMemory()).isNull();
+        assertThat(iterateBucket(memory, 10)).containsExactly(tuples.get(0), tuples.get(2), tuples.get(3));
+        assertThat(bucket.previousOf(tuples.get(2))).isSameAs(tuples.get(0));
+        assertThat(bucket.nextOf(tuples.get(3))).isNull();
+        assertThat(memory.fastIterator().next(tuples.get(1))).isNull();
+
+        memory.remove(tuples.get(0));
+        memory.remove(tuples.get(2));
+        memory.remove(tuples.get(3));
+        assertThat(memory.getFirst(rightTuple(100, 10))).isNull();
+        assertThat(memory.size()).isZero();
+    }
+
+    @Test
+    public void testBucketSwitchesToLinkedList() {
+        AdaptiveTupleIndexHashTable memory = createMemory();
+        List<TupleImpl> tuples = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tuples.add(rightTuple(i, 10));
+            memory.add(tuples.get(i));
+        }
+
+        AdaptiveTupleList bucket = (AdaptiveTupleList) tuples.get(0).getMemory();
+        assertThat(bucket.isInline()).isFalse();
+        assertThat(tuples.get(0).getNext()).isSameAs(tuples.get(1));
+        assertThat(iterateBucket(memory, 10)).containsExactlyElementsOf(tuples);
+
+        memory.remove(tuples.get(4));
+        tuples.remove(4);
+        assertThat(iterateBucket(memory, 10)).containsExactlyElementsOf(tuples);
+        assertThat(bucket.size()).isEqualTo(9);
+    }
+
+    @Test
+    public void testFullIterationAndRemoveAdd() {
+        AdaptiveTupleIndexHashTable memory = createMemory();
+        List<TupleImpl> tuples = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            TupleImpl tuple = rightTuple(i, i % 300);
+            tuples.add(tuple);
+            memory.add(tuple);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            memory.remove(tuples.get(i));
+        }
+        assertThat(memory.size()).isEqualTo(500);
+        assertThat(countFullIteration(memory)).isEqualTo(500);
+
+        Holder holder = (Holder) tuples.get(1).getFactHandle().getObject();
+        holder.value = 1000;
+        memory.removeAdd(tuples.get(1));
+        assertThat(iterateBucket(memory, 1000)).containsExactly(tuples.get(1));
+        assertThat(countFullIteration(memory)).isEqualTo(500);
+    }
+
+    private static List<TupleImpl> iterateBucket(AdaptiveTupleIndexHashTable memory, int value) {
+        List<TupleImpl> result = new ArrayList<>();
+        FastIterator<TupleImpl> it = memory.fastIterator();
+        for (TupleImpl tuple = memory.getFirst(rightTuple(-1, value)); tuple != null; tuple = it.next(tuple)) {
+            result.add(tuple);
+        }
+        return result;
+    }
+
+    private static int countFullIteration(AdaptiveTupleIndexHashTable memory) {
+        int count = 0;
+        FastIterator<TupleImpl> it = memory.fullFastIterator();
+        for (TupleImpl tuple = it.next(null); tuple != null; tuple = it.next(tuple)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static AdaptiveTupleIndexHashTable createMemory() {
+        IndexedValueReader fieldIndex = new IndexedValueReader(new HolderExtractor(), new HolderExtractor());
+        return new AdaptiveTupleIndexHashTable(new IndexSpec(new IndexedValueReader[]{fieldIndex}), false);
+    }
+
+    private static TupleImpl rightTuple(long id, Object value) {
+        return new RightTuple(new DefaultFactHandle(id, new Holder(value)));
+    }
+
+    private static class Holder {
+        private Object value;
+
+        private Holder(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static class HolderExtractor implements TupleValueExtractor {
+
+        @Override
+        public ValueType getValueType() {
+            return ValueType.PINTEGER_TYPE;
+        }
+
+        @Override
+        public Object getValue(ValueResolver valueResolver, BaseTuple tuple) {
+            return ((Holder) tuple.getFactHandle().getObject()).value;
+        }
+
+        @Override
+        public TupleValueExtractor clone() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util.index;
+
+import org.drools.base.base.ValueResolver;
+import org.drools.base.base.ValueType;
+import org.drools.base.base.extractors.BaseObjectClassFieldReader;
+import org.drools.core.reteoo.AlphaNode;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AlphaHashIndexTest {
+
+    @Test
+    public void testPrimitiveKey() {
+        AlphaHashIndex index = new AlphaHashIndex(new HolderReader(int.class, ValueType.PINTEGER_TYPE));
+        assertThat(index.isPrimitiveKey()).isTrue();
+
+        AlphaNode[] nodes = new AlphaNode[1000];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new AlphaNode();
+            index.put(i * 7, nodes[i]);
+        }
+        assertThat(index.size()).isEqualTo(1000);
+        for (int i = 0; i < nodes.length; i++) {
+            assertThat(index.get(new Holder(i * 7))).isSameAs(nodes[i]);
+        }
+        assertThat(index.get(new Holder(1))).isNull();
+
+        // remove every other key and check the remaining ones are still reachable
+        for (int i = 0; i < nodes.length; i += 2) {
+            index.remove(i * 7);
+        }
+        assertThat(index.size()).isEqualTo(500);
+        for (int i = 0; i < nodes.length; i++) {
+            assertThat(index.get(new Holder(i * 7))).isSameAs(i % 2 == 0 ? null : nodes[i]);
+        }
+    }
+
+    @Test
+    public void testObjectKey() {
+        AlphaHashIndex index = new AlphaHashIndex(new HolderReader(String.class, ValueType.STRING_TYPE));
+        assertThat(index.isPrimitiveKey()).isFalse();
+
+        AlphaNode a = new AlphaNode();
+        AlphaNode b = new AlphaNode();
+        AlphaNode nullNode = new AlphaNode();
+        index.put("a", a);
+        index.put("b", b);
+        index.put(null, nullNode);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.get(new Holder("a"))).isSameAs(a);
+        assertThat(index.get(new Holder("b"))).isSameAs(b);
+        assertThat(index.get(new Holder(null))).isSameAs(nullNode);
+        assertThat(index.get(new Holder("c"))).isNull();
+
+        index.remove("a");
+        index.remove(null);
+        assertThat(index.get(new Holder("a"))).isNull();
+        assertThat(index.get(new Holder(null))).isNull();
+        assertThat(index.get(new Holder("b"))).isSameAs(b);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static class Holder {
+        private final Object value;
+
+        private Holder(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static class HolderReader extends BaseObjectClassFieldReader {
+
+        private HolderReader(Class<?> fieldType, ValueType valueType) {
+            super(0, fieldType, valueType);
+        }
+
+        @Override
+        public Object getValue(ValueResolver valueResolver, Object object) {
+            return ((Holder) object).value;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.base.base.ValueResolver;
+import org.drools.base.base.ValueType;
+import org.drools.base.reteoo.BaseTuple;
+import org.drools.base.rule.accessor.TupleValueExtractor;
+import org.drools.base.util.IndexedValueReader;
+import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.reteoo.RightTuple;
+import org.drools.core.reteoo.TupleImpl;
+import org.drools.core.util.FastIterator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompactTupleIndexHashTableTest {
+
+    @Test
+    public void testPrimitiveKey() {
+        CompactTupleIndexHashTable memory = createMemory(ValueType.PINTEGER_TYPE);
+        assertThat(memory.getKeyType()).isEqualTo(CompactTupleIndexHashTable.KeyType.LONG);
+
+        TupleImpl t1 = rightTuple(1, 10);
+        TupleImpl t2 = rightTuple(2, 10);
+        TupleImpl t3 = rightTuple(3, 20);
+        memory.add(t1);
+        memory.add(t2);
+        memory.add(t3);
+
+        assertThat(memory.size()).isEqualTo(3);
+        assertThat(t1.getMemory()).isSameAs(t2.getMemory());
+        assertThat(t1.getMemory()).isNotSameAs(t3.getMemory());
+        assertThat(memory.getFirst(rightTuple(4, 10))).isSameAs(t1);
+        assertThat(memory.getFirst(rightTuple(5, 20))).isSameAs(t3);
+        assertThat(memory.getFirst(rightTuple(6, 30))).isNull();
+
+        memory.remove(t1);
+        assertThat(memory.getFirst(rightTuple(4, 10))).isSameAs(t2);
+        memory.remove(t2);
+        assertThat(memory.getFirst(rightTuple(4, 10))).isNull();
+        assertThat(memory.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testObjectKey() {
+        CompactTupleIndexHashTable memory = createMemory(ValueType.STRING_TYPE);
+        assertThat(memory.getKeyType()).isEqualTo(CompactTupleIndexHashTable.KeyType.OBJECT);
+
+        TupleImpl t1 = rightTuple(1, "a");
+        TupleImpl t2 = rightTuple(2, null);
+        memory.add(t1);
+        memory.add(t2);
+
+        assertThat(memory.getFirst(rightTuple(3, "a"))).isSameAs(t1);
+        assertThat(memory.getFirst(rightTuple(4, null))).isSameAs(t2);
+        assertThat(memory.getFirst(rightTuple(5, "b"))).isNull();
+    }
+
+    @Test
+    public void testRemoveAddMovesTupleToNewBucket() {
+        CompactTupleIndexHashTable memory = createMemory(ValueType.PLONG_TYPE);
+        Holder holder = new Holder(1L);
+        TupleImpl tuple = new RightTuple(new DefaultFactHandle(1, holder));
+        memory.add(tuple);
+
+        holder.value = 2L;
+        memory.removeAdd(tuple);
+
+        assertThat(memory.size()).isEqualTo(1);
+        assertThat(memory.getFirst(rightTuple(2, 1L))).isNull();
+        assertThat(memory.getFirst(rightTuple(3, 2L))).isSameAs(tuple);
+    }
+
+    @Test
+    public void testGrowAndFullIteration() {
+        CompactTupleIndexHashTable memory = createMemory(ValueType.PINTEGER_TYPE);
+        List<TupleImpl> tuples = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            TupleImpl tuple = rightTuple(i, i % 300);
+            tuples.add(tuple);
+            memory.add(tuple);
+        }
+        // remove half of the tuples to leave removed slots behind
+        for (int i = 0; i < 1000; i += 2) {
+            memory.remove(tuples.get(i));
+        }
+        for (int i = 1000; i < 1500; i++) {
+            memory.add(rightTuple(i, i));
+        }
+
+        assertThat(memory.size()).isEqualTo(1000);
+        assertThat(countFullIteration(memory)).isEqualTo(1000);
+        assertThat(memory.getFirst(rightTuple(2000, 1499)).getFactHandle().getId()).isEqualTo(1499);
+
+        memory.clear();
+        assertThat(memory.size()).isEqualTo(0);
+        assertThat(countFullIteration(memory)).isEqualTo(0);
+    }
+
+    private static int countFullIteration(CompactTupleIndexHashTable memory) {
+        int count = 0;
+        FastIterator<TupleImpl> it = memory.fullFastIterator();
+        for (TupleImpl tuple = it.next(null); tuple != null; tuple = it.next(tuple)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static CompactTupleIndexHashTable createMemory(ValueType valueType) {
+        IndexedValueReader fieldIndex = new IndexedValueReader(new HolderExtractor(valueType), new HolderExtractor(valueType));
+        return new CompactTupleIndexHashTable(new IndexSpec(new IndexedValueReader[]{fieldIndex}), false);
+    }
+
+    private static TupleImpl rightTuple(long id, Object value) {
+        return new RightTuple(new DefaultFactHandle(id, new Holder(value)));
+    }
+
+    private static class Holder {
+        private Object value;
+
+        private Holder(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static class HolderExtractor implements TupleValueExtractor {
+        private final ValueType valueType;
+
+        private HolderExtractor(ValueType valueType) {
+            this.valueType = valueType;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return valueType;
+        }
+
+        @Override
+        public Object getValue(ValueResolver valueResolver, BaseTuple tuple) {
+            return ((Holder) tuple.getFactHandle().getObject()).value;
+        }
+
+        @Override
+        public TupleValueExtractor clone() {
+            return this;
+        }
+    }
+}
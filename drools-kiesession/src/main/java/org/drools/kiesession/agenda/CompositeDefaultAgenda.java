@@ -29,6 +29,7 @@ import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.PropagationContext;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.RuleFlowGroup;
+import org.drools.core.concurrent.VirtualThreads;
 import org.drools.core.event.AgendaEventSupport;
 import org.drools.core.impl.InternalRuleBase;
 import org.drools.core.phreak.ExecutableEntry;
@@ -68,6 +69,8 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
 
     private PropagationList propagationList;
 
+    private boolean virtualThreads;
+
     public CompositeDefaultAgenda() { }
 
     public CompositeDefaultAgenda(InternalWorkingMemory workingMemory) {
@@ -78,6 +81,7 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
         }
         // this composite agenda and the first partitioned one share the same propagation list
         this.propagationList = agendas[0].getPropagationList();
+        this.virtualThreads = VirtualThreads.isEnabled(workingMemory.getRuleSessionConfiguration());
     }
 
     @Override
@@ -159,6 +163,9 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
     }
 
     private int parallelFire( AgendaFilter agendaFilter, int fireLimit ) {
+        if (virtualThreads) {
+            return VirtualThreads.sumAll(agendas, a -> a.internalFireAllRules( agendaFilter, fireLimit, false ));
+        }
         return doOnForkJoinPool(() -> Stream.of(agendas).parallel().mapToInt(a -> a.internalFireAllRules( agendaFilter, fireLimit, false )).sum() );
     }
 
@@ -183,7 +190,10 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
             log.trace("Starting Fire Until Halt");
         }
 
-        ExecutorService fireUntilHaltExecutor = PartitionsManager.borrowFireUntilHaltExecutors();
+        // the partitioned agendas mostly wait for new propagations, so with virtual threads they don't need a bounded pool
+        ExecutorService fireUntilHaltExecutor = virtualThreads ?
+                VirtualThreads.newThreadPerTaskExecutor("drools-fire-until-halt-") :
+                PartitionsManager.borrowFireUntilHaltExecutors();
         if (executionStateMachine.toFireUntilHalt()) {
             try {
                 while ( isFiring() ) {
@@ -196,7 +206,11 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
                 }
             } finally {
                 executionStateMachine.immediateHalt( propagationList );
-                PartitionsManager.offerFireUntilHaltExecutors(fireUntilHaltExecutor);
+                if (virtualThreads) {
+                    fireUntilHaltExecutor.shutdown();
+                } else {
+                    PartitionsManager.offerFireUntilHaltExecutors(fireUntilHaltExecutor);
+                }
             }
         }
 
@@ -49,6 +49,7 @@ import org.drools.core.concurrent.SequentialGroupEvaluator;
 import org.drools.core.event.AgendaEventSupport;
 import org.drools.core.impl.InternalRuleBase;
 import org.drools.core.phreak.ExecutableEntry;
+import org.drools.core.phreak.LockFreePropagationList;
 import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.phreak.PropagationList;
 import org.drools.core.phreak.RuleAgendaItem;
@@ -71,6 +72,7 @@ import org.kie.api.conf.EventProcessingOption;
 import org.kie.api.event.rule.MatchCancelledCause;
 import org.kie.api.runtime.rule.AgendaFilter;
 import org.kie.api.runtime.rule.AgendaGroup;
+import org.kie.internal.runtime.conf.PropagationListWaitStrategyOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -191,8 +193,13 @@ public class DefaultAgenda implements InternalAgenda {
             return new ThreadUnsafePropagationList( workingMemory );
         }
 
-        return workingMemory.getRuleSessionConfiguration().hasForceEagerActivationFilter() ?
-               new SynchronizedBypassPropagationList( workingMemory ) :
+        if (workingMemory.getRuleSessionConfiguration().hasForceEagerActivationFilter()) {
+            return new SynchronizedBypassPropagationList( workingMemory );
+        }
+
+        PropagationListWaitStrategyOption waitStrategy = workingMemory.getRuleSessionConfiguration().getPropagationListWaitStrategy();
+        return waitStrategy.isLockFree() ?
+               new LockFreePropagationList( workingMemory, waitStrategy == PropagationListWaitStrategyOption.SPIN_PARK ) :
                new SynchronizedPropagationList( workingMemory );
     }
 
@@ -858,6 +865,11 @@ public class DefaultAgenda implements InternalAgenda {
         groupEvaluator.haltEvaluation();
     }
 
+    @Override
+    public boolean deferRuleLinking(PathMemory pmem, boolean link) {
+        return groupEvaluator.deferRuleLinking(pmem, link);
+    }
+
     @Override
     public void addPropagation(PropagationEntry propagationEntry) {
         propagationList.addEntry( propagationEntry );
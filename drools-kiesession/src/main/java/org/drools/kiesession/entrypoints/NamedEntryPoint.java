@@ -37,6 +37,7 @@ import org.drools.core.RuleBaseConfiguration;
 import org.drools.core.base.TraitHelper;
 import org.drools.core.common.BaseNode;
 import org.drools.core.common.ClassAwareObjectStore;
+import org.drools.core.common.ConcurrentObjectStore;
 import org.drools.core.common.DefaultEventHandle;
 import org.drools.core.common.EqualityKey;
 import org.drools.core.common.IdentityObjectStore;
@@ -52,6 +53,7 @@ import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.SuperCacheFixer;
 import org.drools.core.common.TruthMaintenanceSystemFactory;
 import org.drools.core.impl.InternalRuleBase;
+import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.ObjectTypeConf;
 import org.drools.core.reteoo.ObjectTypeNode;
@@ -121,18 +123,23 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
     }
 
     protected ObjectStore createObjectStore(EntryPointId entryPoint, RuleBaseConfiguration conf, ReteEvaluator reteEvaluator) {
+        if (this.lock != null && reteEvaluator.getRuleSessionConfiguration().isConcurrentObjectStore()) {
+            return new ConcurrentObjectStore( isEqualityBehaviour );
+        }
         boolean useClassAwareStore = isEqualityBehaviour || conf.getOption(KieBaseMutabilityOption.KEY).isMutabilityEnabled();
         return useClassAwareStore ?
                 new ClassAwareObjectStore( isEqualityBehaviour, this.lock ) :
                 new IdentityObjectStore();
     }
 
+    @Override
     public void lock() {
         if (lock != null) {
             lock.lock();
         }
     }
 
+    @Override
     public void unlock() {
         if (lock != null) {
             lock.unlock();
@@ -200,6 +207,10 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
                 return handle;
             }
 
+            if ( !typeConf.isTMSEnabled() && this.objectStore instanceof ConcurrentObjectStore ) {
+                return insertConcurrently( object, dynamic, typeConf, propagationContext );
+            }
+
             InternalFactHandle handle;
             try {
                 lock();
@@ -241,6 +252,150 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
 
     }
 
+    /**
+     * Inserts an object without acquiring the lock of this entry point: the concurrent object store
+     * guarantees that, when many threads insert the same object, only one of them propagates it.
+     */
+    private InternalFactHandle insertConcurrently(Object object, boolean dynamic, ObjectTypeConf typeConf, PropagationContext propagationContext) {
+        ConcurrentObjectStore concurrentStore = (ConcurrentObjectStore) this.objectStore;
+
+        InternalFactHandle handle = concurrentStore.getHandleForObject( object );
+        if ( handle != null ) {
+            return handle;
+        }
+
+        handle = createHandle( object, typeConf );
+        InternalFactHandle existing = concurrentStore.addHandleIfAbsent( handle, object );
+        if ( existing != null ) {
+            // another thread inserted the same object in the meanwhile
+            this.handleFactory.destroyFactHandle( handle );
+            return existing;
+        }
+
+        if ( typeConf.isTMSEnabled() ) {
+            // TMS has been enabled for this type while the handle was being added, possibly without finding it
+            try {
+                lock();
+                TruthMaintenanceSystemFactory.get().getOrCreateTruthMaintenanceSystem(this).addStatedHandle(handle);
+            } finally {
+                unlock();
+            }
+        }
+
+        propagationContext.setFactHandle(handle);
+        if ( dynamic || typeConf.isDynamic() ) {
+            try {
+                lock();
+                addPropertyChangeListener( handle, dynamic );
+            } finally {
+                unlock();
+            }
+        }
+
+        this.ruleBase.executeQueuedActions();
+        this.entryPointNode.assertObject( handle, propagationContext, typeConf, this.reteEvaluator );
+        this.reteEvaluator.getRuleRuntimeEventSupport().fireObjectInserted(propagationContext, handle, object, this.reteEvaluator);
+        return handle;
+    }
+
+    /**
+     * Inserts all the given objects acquiring the lock only once and enqueueing a single propagation
+     * for the whole collection. Facts are propagated in the iteration order of the collection, so the
+     * recency of the resulting activations is the same as for a sequence of single inserts.
+     */
+    @Override
+    public List<FactHandle> insertAll(final Collection<?> objects) {
+        if ( this.reteEvaluator.isSequential() ) {
+            List<FactHandle> handles = new ArrayList<>(objects.size());
+            for (Object object : objects) {
+                handles.add( insert( object ) );
+            }
+            return handles;
+        }
+
+        List<FactHandle> handles = new ArrayList<>(objects.size());
+        try {
+            this.reteEvaluator.startOperation(ReteEvaluator.InternalOperationType.INSERT);
+            this.ruleBase.executeQueuedActions();
+
+            PropagationEntry.InsertBatch batch = new PropagationEntry.InsertBatch(objects.size());
+            Class<?> lastClass = null;
+            ObjectTypeConf typeConf = null;
+            try {
+                lock();
+
+                for (Object object : objects) {
+                    if ( object == null ) {
+                        // you cannot assert a null object
+                        handles.add( null );
+                        continue;
+                    }
+
+                    if ( object.getClass() != lastClass || object instanceof PrototypeFactInstance ) {
+                        typeConf = getObjectTypeConfigurationRegistry().getOrCreateObjectTypeConf( this.entryPoint, object );
+                        lastClass = object.getClass();
+                    }
+
+                    if ( typeConf.isTMSEnabled() ) {
+                        // the TMS may need to retract a justified fact, so flush what has been batched so far
+                        // and fall back to the single insert to preserve the propagation order
+                        flushBatch( batch );
+                        batch = new PropagationEntry.InsertBatch(objects.size() - handles.size());
+                        handles.add( insert( object ) );
+                        continue;
+                    }
+
+                    // check if the object already exists in the WM
+                    InternalFactHandle handle = this.objectStore.getHandleForObject( object );
+                    if ( handle != null ) {
+                        handles.add( handle );
+                        continue;
+                    }
+
+                    handle = createHandle( object, typeConf );
+                    if ( this.objectStore instanceof ConcurrentObjectStore ) {
+                        // single inserts don't acquire the lock when using a concurrent store
+                        InternalFactHandle existing = ((ConcurrentObjectStore) this.objectStore).addHandleIfAbsent( handle, object );
+                        if ( existing != null ) {
+                            this.handleFactory.destroyFactHandle( handle );
+                            handles.add( existing );
+                            continue;
+                        }
+                    } else {
+                        this.objectStore.addHandle( handle, object );
+                    }
+
+                    PropagationContext propagationContext = this.pctxFactory.createPropagationContext(this.reteEvaluator.getNextPropagationIdCounter(),
+                            PropagationContext.Type.INSERTION, null, null, handle, entryPoint);
+
+                    if ( typeConf.isDynamic() ) {
+                        addPropertyChangeListener( handle, false );
+                    }
+
+                    batch.add( handle, propagationContext, this.reteEvaluator, typeConf );
+                    handles.add( handle );
+                }
+
+                flushBatch( batch );
+            } finally {
+                unlock();
+            }
+        } finally {
+            this.reteEvaluator.endOperation(ReteEvaluator.InternalOperationType.INSERT);
+        }
+        return handles;
+    }
+
+    private void flushBatch(PropagationEntry.InsertBatch batch) {
+        if ( batch.size() > 0 ) {
+            this.entryPointNode.assertObjects( batch, this.reteEvaluator );
+            for (int i = 0; i < batch.size(); i++) {
+                InternalFactHandle handle = batch.getHandle( i );
+                this.reteEvaluator.getRuleRuntimeEventSupport().fireObjectInserted(batch.getContext( i ), handle, handle.getObject(), this.reteEvaluator);
+            }
+        }
+    }
+
     public void insert(InternalFactHandle handle) {
         Object object = handle.getObject();
         ObjectTypeConf typeConf = getObjectTypeConfigurationRegistry().getOrCreateObjectTypeConf( this.entryPoint, object );
@@ -18,6 +18,10 @@
  */
 package org.drools.kiesession.session;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -36,6 +40,8 @@ public abstract class AbstractKieSessionsPool implements KieSessionsPool {
 
     protected final Environment environment = EnvironmentFactory.newEnvironment();
 
+    private volatile List<Object> referenceFacts = Collections.emptyList();
+
     protected AbstractKieSessionsPool( int initialSize ) {
         this.initialSize = initialSize;
     }
@@ -47,13 +53,46 @@ public abstract class AbstractKieSessionsPool implements KieSessionsPool {
         pools.clear();
     }
 
+    @Override
+    public void setReferenceFacts( Collection<?> referenceFacts ) {
+        this.referenceFacts = referenceFacts == null ? Collections.emptyList() : new ArrayList<>( referenceFacts );
+    }
+
+    protected void initSession( StatefulKnowledgeSessionImpl session ) {
+        // released sessions are reinitialized before being handed out again, so the entry point has to be used directly
+        for (Object fact : referenceFacts) {
+            session.getDefaultEntryPoint().insert( fact );
+        }
+    }
+
     protected StatefulSessionPool getPool( KieSessionConfiguration conf, boolean stateless) {
         return getPool( null, conf, stateless);
     }
 
     protected StatefulSessionPool getPool( String kSessionName, KieSessionConfiguration conf, boolean stateless) {
         checkAlive();
-        return pools.computeIfAbsent( getKey(kSessionName, conf, stateless), k -> createStatefulSessionPool( kSessionName, conf, stateless ) );
+        String key = getKey(kSessionName, conf, stateless);
+        StatefulSessionPool pool = pools.computeIfAbsent( key, k -> createStatefulSessionPool( kSessionName, conf, stateless ) );
+        if (pool != null && isStale( pool )) {
+            pool = pools.compute( key, (k, current) -> {
+                if (current != null && !isStale( current )) {
+                    return current;
+                }
+                if (current != null) {
+                    current.retire();
+                }
+                return createStatefulSessionPool( kSessionName, conf, stateless );
+            } );
+        }
+        return pool;
+    }
+
+    /**
+     * Returns true if the kbase of the given pool has been replaced by a newer snapshot,
+     * so that the pool has to be replaced as well
+     */
+    protected boolean isStale( StatefulSessionPool pool ) {
+        return false;
     }
 
     private void checkAlive() {
@@ -65,7 +65,8 @@ public class KieSessionsPoolImpl extends AbstractKieSessionsPool {
         return new StatefulSessionPool(kBase, initialSize, () ->
                 stateless ?
                     ((StatefulKnowledgeSessionImpl ) RuntimeComponentFactory.get().createStatefulSession(kBase, environment, conf.as(SessionConfiguration.KEY), true )).setStateless( true ) :
-                    (StatefulKnowledgeSessionImpl ) kBase.newKieSession(conf, environment, true));
+                    (StatefulKnowledgeSessionImpl ) kBase.newKieSession(conf, environment, true),
+                this::initSession);
     }
 
 }
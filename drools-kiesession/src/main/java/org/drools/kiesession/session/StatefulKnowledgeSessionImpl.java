@@ -1270,6 +1270,12 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         return this.entryPointsManager.getDefaultEntryPoint().insert(object, dynamic, rule, terminalNode);
     }
 
+    @Override
+    public List<FactHandle> insertAll(final Collection<?> objects) {
+        checkAlive();
+        return this.entryPointsManager.getDefaultEntryPoint().insertAll(objects);
+    }
+
     public void retract(FactHandle handle) {
         delete(handle);
     }
@@ -18,8 +18,10 @@
  */
 package org.drools.kiesession.session;
 
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import org.drools.core.phreak.RuntimeSegmentUtilities;
 import org.drools.kiesession.rulebase.InternalKnowledgeBase;
 import org.drools.core.util.ScalablePool;
 
@@ -28,9 +30,45 @@ public class StatefulSessionPool {
     private final InternalKnowledgeBase kbase;
     private final ScalablePool<StatefulKnowledgeSessionImpl> pool;
 
+    private final boolean warmUp;
+    private final Consumer<? super StatefulKnowledgeSessionImpl> initializer;
+
+    private volatile boolean retired;
+
     public StatefulSessionPool(InternalKnowledgeBase kbase, int initialSize, Supplier<StatefulKnowledgeSessionImpl> supplier) {
+        this(kbase, initialSize, supplier, null);
+    }
+
+    /**
+     * The initializer, if any, is applied to each new session and again each time a session is reset
+     * when released, so all the sessions handed out by this pool start from the same state
+     */
+    public StatefulSessionPool(InternalKnowledgeBase kbase, int initialSize, Supplier<StatefulKnowledgeSessionImpl> supplier,
+                               Consumer<? super StatefulKnowledgeSessionImpl> initializer) {
         this.kbase = kbase;
-        this.pool = new ScalablePool<>(initialSize, supplier, s -> s.reset(), s -> s.fromPool(null).dispose());
+        this.warmUp = kbase.getRuleBaseConfiguration().isSessionsPoolWarmUp();
+        this.initializer = initializer;
+        this.pool = new ScalablePool<>(initialSize, () -> prepare(supplier.get()), this::reset, s -> s.fromPool(null).dispose());
+    }
+
+    private StatefulKnowledgeSessionImpl prepare(StatefulKnowledgeSessionImpl session) {
+        if (warmUp) {
+            // the memories survive the reset of the session, so they have to be created only once per pooled session
+            RuntimeSegmentUtilities.createAllSegmentMemories(session);
+        }
+        initialize(session);
+        return session;
+    }
+
+    private void reset(StatefulKnowledgeSessionImpl session) {
+        session.reset();
+        initialize(session);
+    }
+
+    private void initialize(StatefulKnowledgeSessionImpl session) {
+        if (initializer != null) {
+            initializer.accept(session);
+        }
     }
 
     public InternalKnowledgeBase getKieBase() {
@@ -42,7 +80,24 @@ public class StatefulSessionPool {
     }
 
     public void release(StatefulKnowledgeSessionImpl session) {
+        if (retired) {
+            session.fromPool(null).dispose();
+            return;
+        }
         pool.release( session );
+        if (retired) {
+            // retired while releasing, make sure the session doesn't stay in the pool
+            pool.disposeAvailable();
+        }
+    }
+
+    /**
+     * Stops pooling the sessions: the available ones are disposed immediately,
+     * the ones in use are disposed when released
+     */
+    public void retire() {
+        retired = true;
+        pool.disposeAvailable();
     }
 
     public void shutdown() {
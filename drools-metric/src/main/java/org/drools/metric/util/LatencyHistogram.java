@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.metric.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets: each power of two is split in
+ * 2^SUB_BUCKET_BITS linear sub-buckets, so that any recorded value is reported with a relative error
+ * lower than 1 / 2^SUB_BUCKET_BITS, using a fixed amount of memory whatever the recorded range is.
+ */
+public class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketOf(value));
+        max.accumulate(value);
+    }
+
+    static int bucketOf(long value) {
+        int magnitude = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        if (magnitude <= 0) {
+            // values lower than 2^SUB_BUCKET_BITS are stored exactly
+            return (int) value;
+        }
+        // the leading bit is implicit, the following SUB_BUCKET_BITS bits select the sub-bucket
+        int subBucket = (int) (value >>> (magnitude - 1)) - SUB_BUCKETS;
+        return magnitude * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueOf(int bucket) {
+        int magnitude = bucket >> SUB_BUCKET_BITS;
+        int subBucket = bucket & (SUB_BUCKETS - 1);
+        if (magnitude == 0) {
+            return subBucket;
+        }
+        long lowest = (long) (SUB_BUCKETS + subBucket) << (magnitude - 1);
+        return lowest + (1L << (magnitude - 1)) - 1;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the highest value of the bucket containing the given percentile (between 0.0 and 1.0) of the recorded values
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+}
@@ -40,8 +40,15 @@ public class MetricLogUtils {
     public static final String METRIC_LOGGER_THRESHOLD = "drools.metric.logger.threshold";
     private int threshold = Integer.parseInt(getConfig(METRIC_LOGGER_THRESHOLD, "500")); // microseconds
 
+    // When greater than 0 only one node evaluation every samplingRate is measured and published through Micrometer,
+    // instead of measuring and logging all of them. Intended to be left always on in production.
+    public static final String METRIC_SAMPLING_RATE = "drools.metric.sampling.rate";
+    private int samplingRate = Integer.parseInt(getConfig(METRIC_SAMPLING_RATE, "0"));
+
     private final ThreadLocal<NodeStats> nodeStats = new ThreadLocal<>();
 
+    private final ThreadLocal<NodeSampler> nodeSampler = ThreadLocal.withInitial(() -> new NodeSampler(samplingRate));
+
     private static MetricLogUtils INSTANCE = new MetricLogUtils();
 
     private static boolean isMicrometerAvailable() {
@@ -67,11 +74,21 @@ public class MetricLogUtils {
     }
 
     public boolean isEnabled() {
-        return enabled;
+        return enabled || isSamplingEnabled();
+    }
+
+    public boolean isSamplingEnabled() {
+        return samplingRate > 0 && micrometerAvailable && !micrometerDisabled;
+    }
+
+    public int getSamplingRate() {
+        return samplingRate;
     }
 
     public void startMetrics(BaseNode baseNode) {
-        if (enabled) {
+        if (isSamplingEnabled()) {
+            nodeSampler.get().start(baseNode);
+        } else if (enabled) {
             nodeStats.set(new NodeStats(baseNode));
         } else {
             logger.warn("Metrics must not be started when disabled");
@@ -79,7 +96,9 @@ public class MetricLogUtils {
     }
 
     public void incrementEvalCount() {
-        if (enabled) {
+        if (isSamplingEnabled()) {
+            nodeSampler.get().incrementEvalCount();
+        } else if (enabled) {
             NodeStats stats = nodeStats.get();
             if (stats != null && stats.isStarted()) {
                 stats.incrementEvalCount();
@@ -90,7 +109,9 @@ public class MetricLogUtils {
     }
 
     public void logAndEndMetrics() {
-        if (enabled) {
+        if (isSamplingEnabled()) {
+            nodeSampler.get().end();
+        } else if (enabled) {
             NodeStats stats = nodeStats.get();
             if (stats != null && stats.isStarted()) {
                 long evalCount = stats.getEvalCount();
@@ -19,14 +19,19 @@
 package org.drools.metric.util;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Metrics;
@@ -47,6 +52,11 @@ public final class MicrometerUtils {
     private final Map<BaseNode, Timer> elapsedTimeCache = new WeakHashMap<>(0);
     private final Map<BaseNode, Counter> evaluationCountCache = new WeakHashMap<>(0);
 
+    // accessed only when an evaluation is sampled, the stats themselves are updated without locking
+    private final Map<BaseNode, SampledNodeStats> sampledStatsCache = Collections.synchronizedMap(new WeakHashMap<>(0));
+
+    private static final double[] PUBLISHED_PERCENTILES = {0.5, 0.9, 0.99};
+
     private MicrometerUtils() {
         // No external instances.
     }
@@ -73,17 +83,57 @@ public final class MicrometerUtils {
                 node);
     }
 
+    /**
+     * Returns the stats of the sampled evaluations of the given node, registering the meters publishing them on first access
+     */
+    public SampledNodeStats getSampledNodeStats(BaseNode node, int samplingRate) {
+        return sampledStatsCache.computeIfAbsent(node, k -> registerSampledNodeStats(node, new SampledNodeStats(samplingRate)));
+    }
+
+    private static SampledNodeStats registerSampledNodeStats(BaseNode node, SampledNodeStats stats) {
+        MeterRegistry meterRegistry = Metrics.globalRegistry;
+        Iterable<Tag> tags = Stream.concat(nodeTags(node), Stream.of(Tag.of("node.type", node.getClass().getSimpleName())))
+                .collect(Collectors.toSet());
+
+        FunctionCounter.builder("org.drools.metric.sampled.invocation.count", stats, SampledNodeStats::getEstimatedInvocationCount)
+                .tags(tags)
+                .register(meterRegistry);
+        FunctionCounter.builder("org.drools.metric.sampled.evaluation.count", stats, SampledNodeStats::getEstimatedEvalCount)
+                .tags(tags)
+                .register(meterRegistry);
+        FunctionTimer.builder("org.drools.metric.sampled.elapsed.time", stats,
+                              SampledNodeStats::getSampledCount, SampledNodeStats::getSampledElapsedTimeInNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .register(meterRegistry);
+        for (double percentile : PUBLISHED_PERCENTILES) {
+            Gauge.builder("org.drools.metric.sampled.elapsed.time.percentile", stats, s -> s.getHistogram().getValueAtPercentile(percentile))
+                    .tags(tags)
+                    .tag("percentile", Double.toString(percentile))
+                    .baseUnit("nanoseconds")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("org.drools.metric.sampled.elapsed.time.max", stats, s -> s.getHistogram().getMax())
+                .tags(tags)
+                .baseUnit("nanoseconds")
+                .register(meterRegistry);
+        return stats;
+    }
+
+    private static Stream<Tag> nodeTags(BaseNode node) {
+        Tag nodeIdTag = Tag.of("node.id", Long.toString(node.getId()));
+        Stream<Tag> allTags = Stream.of(nodeIdTag);
+        for (Rule rule : node.getAssociatedRules()) {
+            String ruleName = rule.getPackageName() + "." + rule.getName();
+            Tag ruleTag = Tag.of("rule", ruleName);
+            allTags = Stream.concat(allTags, Stream.of(ruleTag));
+        }
+        return allTags;
+    }
+
     private static <Meter_ extends Meter> void triggerMicrometer(Map<BaseNode, Meter_> cache, Function<Iterable<Tag>,
             Meter_> meterConstructor, Consumer<Meter_> meterRecorder, BaseNode node) {
         Meter_ meter = cache.computeIfAbsent(node, k -> { // Meter lookups take a lot of time; we cache meters per node.
-            Tag nodeIdTag = Tag.of("node.id", Long.toString(node.getId()));
-            Stream<Tag> allTags = Stream.of(nodeIdTag);
-            for (Rule rule : node.getAssociatedRules()) {
-                String ruleName = rule.getPackageName() + "." + rule.getName();
-                Tag ruleTag = Tag.of("rule", ruleName);
-                allTags = Stream.concat(allTags, Stream.of(ruleTag));
-            }
-            Iterable<Tag> tagsIterable = allTags.collect(Collectors.toSet());
+            Iterable<Tag> tagsIterable = nodeTags(node).collect(Collectors.toSet());
             // Look up the timer in the registry.
             return meterConstructor.apply(tagsIterable);
         });
@@ -95,6 +145,7 @@ public final class MicrometerUtils {
         averageElapsedTimeCache.clear();
         elapsedTimeCache.clear();
         evaluationCountCache.clear();
+        sampledStatsCache.clear();
     }
 
 }
@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.metric.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.drools.core.common.BaseNode;
+
+/**
+ * Per thread state of the sampling mode. Only one evaluation every samplingRate ones is timed, the others
+ * just decrement a thread confined counter, so that the overhead is negligible for the not sampled evaluations.
+ * The state is reused across evaluations, so sampling doesn't allocate anything on the hot path.
+ */
+class NodeSampler {
+
+    private final int samplingRate;
+
+    private int countdown;
+
+    private BaseNode node;
+    private long startTime;
+    private long evalCount;
+
+    NodeSampler(int samplingRate) {
+        this.samplingRate = samplingRate;
+        // start each thread at a random offset, so that threads evaluating the same nodes don't sample them in lockstep
+        this.countdown = ThreadLocalRandom.current().nextInt(samplingRate) + 1;
+    }
+
+    void start(BaseNode baseNode) {
+        if (--countdown > 0) {
+            node = null;
+            return;
+        }
+        countdown = samplingRate;
+        node = baseNode;
+        evalCount = 0;
+        startTime = System.nanoTime();
+    }
+
+    void incrementEvalCount() {
+        evalCount++;
+    }
+
+    void end() {
+        if (node != null) {
+            long elapsedTimeInNanos = System.nanoTime() - startTime;
+            MicrometerUtils.INSTANCE.getSampledNodeStats(node, samplingRate).record(evalCount, elapsedTimeInNanos);
+            node = null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.metric.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated statistics of the sampled evaluations of a single node. They are updated concurrently by
+ * all the threads evaluating the node without any locking and read by Micrometer when publishing.
+ */
+public class SampledNodeStats {
+
+    private final int samplingRate;
+
+    private final LongAdder sampledCount = new LongAdder();
+    private final LongAdder sampledEvalCount = new LongAdder();
+    private final LongAdder sampledElapsedTimeInNanos = new LongAdder();
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    public SampledNodeStats(int samplingRate) {
+        this.samplingRate = samplingRate;
+    }
+
+    public void record(long evalCount, long elapsedTimeInNanos) {
+        sampledCount.increment();
+        sampledEvalCount.add(evalCount);
+        sampledElapsedTimeInNanos.add(elapsedTimeInNanos);
+        histogram.record(elapsedTimeInNanos);
+    }
+
+    public long getSampledCount() {
+        return sampledCount.sum();
+    }
+
+    public double getSampledElapsedTimeInNanos() {
+        return sampledElapsedTimeInNanos.sum();
+    }
+
+    /**
+     * Estimation of the total number of evaluations of the node, extrapolated from the samples
+     */
+    public double getEstimatedInvocationCount() {
+        return (double) sampledCount.sum() * samplingRate;
+    }
+
+    /**
+     * Estimation of the total number of constraint evaluations performed by the node, extrapolated from the samples
+     */
+    public double getEstimatedEvalCount() {
+        return (double) sampledEvalCount.sum() * samplingRate;
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+}
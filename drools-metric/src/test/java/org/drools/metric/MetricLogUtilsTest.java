@@ -24,8 +24,12 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.search.Search;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.drools.metric.util.MetricLogUtils;
 import org.drools.mvel.compiler.Address;
 import org.drools.mvel.compiler.Person;
@@ -108,6 +112,48 @@ public class MetricLogUtilsTest extends AbstractMetricTest {
         }
     }
 
+    @Test
+    public void testSampling() {
+
+        // the global registry is a composite one, a concrete registry is needed to actually read the published values
+        SimpleMeterRegistry simpleRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(simpleRegistry);
+        try {
+            System.setProperty(MetricLogUtils.METRIC_SAMPLING_RATE, "1");
+            MetricLogUtils.recreateInstance();
+            assertThat(MetricLogUtils.getInstance().isSamplingEnabled()).isTrue();
+
+            runJoinRules();
+
+            // sampled meters are published instead of the logged ones
+            assertThat(Search.in(registry)
+                               .name("org.drools.metric.elapsed.time")
+                               .timers()).isEmpty();
+
+            Collection<FunctionTimer> timers = Search.in(registry)
+                    .name("org.drools.metric.sampled.elapsed.time")
+                    .functionTimers();
+            assertThat(timers).hasSize(2);
+            assertThat(timers).allMatch(timer -> timer.count() > 0);
+            assertThat(timers).allMatch(timer -> "JoinNode".equals(timer.getId().getTag("node.type")));
+
+            Collection<FunctionCounter> counters = Search.in(registry)
+                    .name("org.drools.metric.sampled.evaluation.count")
+                    .functionCounters();
+            assertThat(counters).hasSize(2);
+            assertThat(counters.stream().mapToDouble(FunctionCounter::count).sum()).isGreaterThan(0);
+
+            assertThat(Search.in(registry)
+                               .name("org.drools.metric.sampled.elapsed.time.percentile")
+                               .tag("percentile", "0.99")
+                               .gauges()).hasSize(2);
+        } finally {
+            System.clearProperty(MetricLogUtils.METRIC_SAMPLING_RATE);
+            MetricLogUtils.recreateInstance();
+            Metrics.removeRegistry(simpleRegistry);
+        }
+    }
+
     @Test
     public void testFrom() {
 
@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.metric.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[] {0, 1, 7, 8, 15, 16, 17, 1000, 123_456_789L, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertThat(LatencyHistogram.highestValueOf(bucket)).isGreaterThanOrEqualTo(value);
+            // the relative error is bounded by the number of sub-buckets
+            assertThat(LatencyHistogram.highestValueOf(bucket) - value).isLessThanOrEqualTo(value >> LatencyHistogram.SUB_BUCKET_BITS);
+            if (bucket > 0) {
+                assertThat(LatencyHistogram.highestValueOf(bucket - 1)).isLessThan(value);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getValueAtPercentile(0.99)).isZero();
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getMax()).isEqualTo(1_000_000L);
+        assertThat(histogram.getValueAtPercentile(0.5)).isBetween(500_000L, 500_000L + (500_000L >> LatencyHistogram.SUB_BUCKET_BITS));
+        assertThat(histogram.getValueAtPercentile(0.99)).isBetween(990_000L, 1_000_000L);
+        assertThat(histogram.getValueAtPercentile(1.0)).isEqualTo(1_000_000L);
+    }
+}
@@ -527,6 +527,18 @@ public class DSL {
         return new GroupByExprViewItem<>( viewItem, new Variable[] { var1, var2, var3, var4 }, varKey, toFunctionN( groupingFunction ), accFunctions );
     }
 
+    /**
+     * Returns a copy of the given groupBy hinting that it can be accumulated in parallel
+     *
+     * @see GroupByExprViewItem#parallel()
+     */
+    public static <T> ExprViewItem<T> parallel(ExprViewItem<T> groupBy) {
+        if (!(groupBy instanceof GroupByExprViewItem)) {
+            throw new IllegalArgumentException( "Only a groupBy can be accumulated in parallel" );
+        }
+        return (( GroupByExprViewItem<T, ?> ) groupBy).parallel();
+    }
+
     // -- Temporal Constraints --
 
     public static TemporalPredicate not(TemporalPredicate predicate) {
@@ -27,4 +27,9 @@ public interface GroupByPattern<T, K> extends AccumulatePattern<T> {
     Variable<K> getVarKey();
 
     FunctionN getGroupingFunction();
+
+    /**
+     * Tells if the groups can be accumulated in parallel, sharding the keys across multiple threads
+     */
+    boolean isParallel();
 }
@@ -163,7 +163,7 @@ public class ViewPatternBuilder implements ViewBuilder {
             GroupByExprViewItem groupBy = ( GroupByExprViewItem ) ruleItem;
             return new GroupByPatternImpl(ruleItem2Condition( groupBy.getExpr() ),
                     groupBy.getVars(), groupBy.getVarKey(), groupBy.getGroupingFunction(),
-                    groupBy.getAccumulateFunctions());
+                    groupBy.isParallel(), groupBy.getAccumulateFunctions());
         }
 
         if ( ruleItem instanceof AccumulateExprViewItem ) {
@@ -29,12 +29,18 @@ public class GroupByPatternImpl<T, K> extends AccumulatePatternImpl<T> implement
     private final Variable[] vars;
     private final Variable<K> varKey;
     private final FunctionN groupingFunction;
+    private final boolean parallel;
 
     public GroupByPatternImpl( Condition condition, Variable[] vars, Variable<K> varKey, FunctionN groupingFunction, AccumulateFunction... accumulateFunctions ) {
+        this( condition, vars, varKey, groupingFunction, false, accumulateFunctions );
+    }
+
+    public GroupByPatternImpl( Condition condition, Variable[] vars, Variable<K> varKey, FunctionN groupingFunction, boolean parallel, AccumulateFunction... accumulateFunctions ) {
         super( condition, varKey, accumulateFunctions );
         this.vars = vars;
         this.varKey = varKey;
         this.groupingFunction = groupingFunction;
+        this.parallel = parallel;
     }
 
     @Override
@@ -56,4 +62,9 @@ public class GroupByPatternImpl<T, K> extends AccumulatePatternImpl<T> implement
     public FunctionN getGroupingFunction() {
         return groupingFunction;
     }
+
+    @Override
+    public boolean isParallel() {
+        return parallel;
+    }
 }
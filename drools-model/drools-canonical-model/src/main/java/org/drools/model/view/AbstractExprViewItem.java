@@ -83,4 +83,10 @@ public abstract class AbstractExprViewItem<T> implements ExprViewItem<T>  {
     public void setQueryExpression( boolean queryExpression ) {
         this.queryExpression = queryExpression;
     }
+
+    protected void copySettingsFrom( AbstractExprViewItem<T> other ) {
+        this.reactivitySpecs = other.reactivitySpecs;
+        this.watchedProps = other.watchedProps;
+        this.queryExpression = other.queryExpression;
+    }
 }
@@ -28,6 +28,7 @@ public class GroupByExprViewItem<T, K> extends AccumulateExprViewItem<T> {
     private final Variable[] vars;
     private final Variable<K> varKey;
     private final FunctionN groupingFunction;
+    private boolean parallel;
 
     public GroupByExprViewItem( ViewItem<T> expr, Variable[] vars, Variable<K> varKey, FunctionN groupingFunction, AccumulateFunction[] accumulateFunctions ) {
         super( expr, accumulateFunctions );
@@ -52,4 +53,23 @@ public class GroupByExprViewItem<T, K> extends AccumulateExprViewItem<T> {
     public FunctionN getGroupingFunction() {
         return groupingFunction;
     }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Hints that the groups can be accumulated in parallel: when many facts are accumulated at once, their keys are
+     * sharded across multiple threads, each one owning the accumulation contexts of its own groups.
+     * The grouping function and the accumulate functions must then be thread-safe.
+     * This view item is left unchanged, so it can still be used as a sequential groupBy in other rules.
+     *
+     * @return a parallel copy of this groupBy
+     */
+    public GroupByExprViewItem<T, K> parallel() {
+        GroupByExprViewItem<T, K> copy = new GroupByExprViewItem<>( getExpr(), vars, varKey, groupingFunction, getAccumulateFunctions() );
+        copy.copySettingsFrom( this );
+        copy.parallel = true;
+        return copy;
+    }
 }
@@ -27,9 +27,12 @@ import org.drools.model.codegen.execmodel.domain.Person;
 import org.drools.model.functions.accumulate.GroupKey;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.kie.api.KieServices;
+import org.kie.api.builder.model.KieModuleModel;
 import org.kie.api.runtime.KieSession;
 import org.kie.api.runtime.rule.FactHandle;
 import org.kie.api.runtime.rule.Match;
+import org.kie.internal.conf.LazyAccumulateOption;
 import org.kie.internal.event.rule.RuleEventListener;
 import org.kie.internal.event.rule.RuleEventManager;
 
@@ -1595,4 +1598,70 @@ public class GroupByTest extends BaseModelTest {
             assertThat(results.contains(84)).isTrue();
         });
     }
+
+    @ParameterizedTest
+    @MethodSource("parameters")
+    public void testMaxPersonAgeGroupByInitialWithLazyAccumulate(RUN_TYPE runType) {
+        String str =
+                "import " + Person.class.getCanonicalName() + ";" +
+                "import " + Map.class.getCanonicalName() + ";" +
+                "global Map results;\n" +
+                "rule X when\n" +
+                "groupby( $p: Person (); " +
+                "$key : $p.getName().substring(0, 1); " +
+                "$maxOfAges : max($p.getAge()); " +
+                "$maxOfAges > 36)" +
+                "then\n" +
+                "  results.put($key, $maxOfAges);\n" +
+                "end";
+
+        List<Map<Object, Object>> expected = runMaxPersonAgeGroupByInitial(runType, str, false);
+        assertThat(expected).containsExactly(Map.of("E", 38, "M", 45),
+                                             Map.of("M", 42),
+                                             Map.of("E", 37),
+                                             Map.of("M", 39, "G", 40));
+        assertThat(runMaxPersonAgeGroupByInitial(runType, str, true)).containsExactlyElementsOf(expected);
+    }
+
+    private List<Map<Object, Object>> runMaxPersonAgeGroupByInitial(RUN_TYPE runType, String str, boolean lazyAccumulate) {
+        KieModuleModel model = KieServices.get().newKieModuleModel();
+        model.setConfigurationProperty(LazyAccumulateOption.PROPERTY_NAME, String.valueOf(lazyAccumulate));
+        KieSession ksession = getKieSession(runType, model, str);
+
+        List<Map<Object, Object>> allResults = new ArrayList<>();
+        Map<Object, Object> results = new HashMap<>();
+        ksession.setGlobal( "results", results );
+
+        FactHandle markFH = ksession.insert(new Person("Mark", 42));
+        ksession.insert(new Person("Edson", 38));
+        FactHandle meFH = ksession.insert(new Person("Mario", 45));
+        ksession.insert(new Person("Maciej", 39));
+        FactHandle edoardoFH = ksession.insert(new Person("Edoardo", 33));
+        FactHandle geoffreyFH = ksession.insert(new Person("Geoffrey", 35));
+        ksession.fireAllRules();
+        allResults.add(new HashMap<>(results));
+        results.clear();
+
+        // the max can't be reversed
+        ksession.delete( meFH );
+        ksession.fireAllRules();
+        allResults.add(new HashMap<>(results));
+        results.clear();
+
+        // many non reversible changes on the same groups
+        ksession.update(edoardoFH, new Person("Edoardo", 37));
+        ksession.delete(ksession.getFactHandle(ksession.getObjects(o -> o instanceof Person && ((Person) o).getName().equals("Edson")).iterator().next()));
+        ksession.fireAllRules();
+        allResults.add(new HashMap<>(results));
+        results.clear();
+
+        ksession.delete( markFH );
+        ksession.update(geoffreyFH, new Person("Geoffrey", 40));
+        ksession.insert(new Person("Matteo", 38));
+        ksession.fireAllRules();
+        allResults.add(new HashMap<>(results));
+
+        ksession.dispose();
+        return allResults;
+    }
 }
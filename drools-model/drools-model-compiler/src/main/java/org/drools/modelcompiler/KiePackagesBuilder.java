@@ -886,7 +886,7 @@ public class KiePackagesBuilder {
         for (int i = 0; i < groupByPattern.getVars().length; i++) {
             groupingDeclarations[i] = ctx.getDeclaration( groupByPattern.getVars()[i] );
         }
-        return new LambdaGroupByAccumulate(accumulate, groupingDeclarations, groupByPattern.getGroupingFunction());
+        return new LambdaGroupByAccumulate(accumulate, groupingDeclarations, groupByPattern.getGroupingFunction(), groupByPattern.isParallel());
     }
 
     private void processFunctions(RuleContext ctx, AccumulatePattern accPattern, RuleConditionElement source, Pattern pattern,
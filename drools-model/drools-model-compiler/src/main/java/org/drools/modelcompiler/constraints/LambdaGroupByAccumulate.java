@@ -23,6 +23,7 @@ import org.drools.base.reteoo.AccumulateContextEntry;
 import org.drools.base.reteoo.BaseTuple;
 import org.drools.base.rule.Accumulate;
 import org.drools.base.rule.Declaration;
+import org.drools.base.rule.ParallelGroupByAccumulate;
 import org.drools.base.rule.accessor.Accumulator;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.reteoo.AccumulateNode.GroupByContext;
@@ -38,21 +39,27 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
 
-public class LambdaGroupByAccumulate extends Accumulate {
+public class LambdaGroupByAccumulate extends Accumulate implements ParallelGroupByAccumulate {
 
     private Accumulate innerAccumulate;
     private Declaration[] groupingDeclarations;
     private FunctionN groupingFunction;
     private Function1 groupingFunction1;
+    private boolean parallel;
 
     public LambdaGroupByAccumulate() { }
 
     public LambdaGroupByAccumulate( Accumulate innerAccumulate, Declaration[] groupingDeclarations, FunctionN groupingFunction ) {
+        this( innerAccumulate, groupingDeclarations, groupingFunction, false );
+    }
+
+    public LambdaGroupByAccumulate( Accumulate innerAccumulate, Declaration[] groupingDeclarations, FunctionN groupingFunction, boolean parallel ) {
         super(innerAccumulate.getSource(), innerAccumulate.getRequiredDeclarations());
         this.innerAccumulate = innerAccumulate;
         this.groupingDeclarations = groupingDeclarations;
         this.groupingFunction = groupingFunction;
         this.groupingFunction1 = groupingDeclarations.length == 1 ? groupingFunction.asFunction1() : null;
+        this.parallel = parallel;
     }
 
     private Object getKey( Tuple tuple, FactHandle handle, ReteEvaluator reteEvaluator ) {
@@ -81,6 +88,7 @@ public class LambdaGroupByAccumulate extends Accumulate {
         this.groupingDeclarations = (Declaration[]) in.readObject();
         this.groupingFunction = (FunctionN) in.readObject();
         this.groupingFunction1 = groupingDeclarations.length == 1 ? groupingFunction.asFunction1() : null;
+        this.parallel = in.readBoolean();
     }
 
     @Override
@@ -89,6 +97,7 @@ public class LambdaGroupByAccumulate extends Accumulate {
         out.writeObject(innerAccumulate);
         out.writeObject(groupingDeclarations);
         out.writeObject(groupingFunction);
+        out.writeBoolean(parallel);
     }
 
     @Override
@@ -162,7 +171,7 @@ public class LambdaGroupByAccumulate extends Accumulate {
 
     @Override
     public Accumulate clone() {
-        return new LambdaGroupByAccumulate( innerAccumulate.clone(), groupingDeclarations, groupingFunction );
+        return new LambdaGroupByAccumulate( innerAccumulate.clone(), groupingDeclarations, groupingFunction, parallel );
     }
 
     @Override
@@ -184,4 +193,19 @@ public class LambdaGroupByAccumulate extends Accumulate {
     public boolean isGroupBy() {
         return true;
     }
+
+    @Override
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    @Override
+    public Object getGroupKey( BaseTuple match, FactHandle handle, ValueResolver valueResolver ) {
+        return getKey( (Tuple) match, handle, (ReteEvaluator) valueResolver );
+    }
+
+    @Override
+    public Accumulate getInnerAccumulate() {
+        return innerAccumulate;
+    }
 }
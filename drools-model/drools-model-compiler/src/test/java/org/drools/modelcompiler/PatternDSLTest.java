@@ -33,6 +33,7 @@ import org.drools.base.rule.Accumulate;
 import org.drools.base.rule.Pattern;
 import org.drools.core.ClockType;
 import org.drools.core.base.accumulators.CollectSetAccumulateFunction;
+import org.drools.core.phreak.PhreakGroupByNode;
 import org.drools.core.rule.consequence.InternalMatch;
 import org.drools.model.DSL;
 import org.drools.model.Global;
@@ -45,6 +46,8 @@ import org.drools.model.Rule;
 import org.drools.model.Variable;
 import org.drools.model.functions.Predicate1;
 import org.drools.model.impl.ModelImpl;
+import org.drools.model.view.ExprViewItem;
+import org.drools.model.view.GroupByExprViewItem;
 import org.drools.model.view.ViewItem;
 import org.drools.modelcompiler.constraints.LambdaConstraint;
 import org.drools.modelcompiler.domain.Adult;
@@ -78,9 +81,11 @@ import static org.drools.model.DSL.and;
 import static org.drools.model.DSL.declarationOf;
 import static org.drools.model.DSL.execute;
 import static org.drools.model.DSL.globalOf;
+import static org.drools.model.DSL.groupBy;
 import static org.drools.model.DSL.not;
 import static org.drools.model.DSL.on;
 import static org.drools.model.DSL.or;
+import static org.drools.model.DSL.parallel;
 import static org.drools.model.DSL.reactiveFrom;
 import static org.drools.model.DSL.supply;
 import static org.drools.model.DSL.valueOf;
@@ -286,6 +291,86 @@ public class PatternDSLTest {
         assertThat(result.getValue()).isEqualTo("total = 77; average = 38.5");
     }
 
+    @Test
+    public void testParallelGroupBy() {
+        // enough facts for the groupBy to be accumulated in parallel, on more shards than a single one even with a single processor
+        List<String> expected = runGroupBy(false);
+        assertThat(expected).hasSize(2500);
+
+        String shards = System.setProperty(PhreakGroupByNode.PARALLEL_GROUP_BY_SHARDS_PROPERTY, "4");
+        try {
+            assertThat(runGroupBy(true)).containsExactlyElementsOf(expected);
+        } finally {
+            if (shards == null) {
+                System.clearProperty(PhreakGroupByNode.PARALLEL_GROUP_BY_SHARDS_PROPERTY);
+            } else {
+                System.setProperty(PhreakGroupByNode.PARALLEL_GROUP_BY_SHARDS_PROPERTY, shards);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelGroupByIsACopy() {
+        Variable<Person> person = declarationOf(Person.class);
+        Variable<String> key = declarationOf(String.class);
+        Variable<Long> count = declarationOf(Long.class);
+
+        GroupByExprViewItem<Person, String> groupBy = (GroupByExprViewItem<Person, String>) groupBy(pattern(person),
+                person, key, Person::getName,
+                accFunction(org.drools.core.base.accumulators.CountAccumulateFunction::new).as(count));
+
+        GroupByExprViewItem<Person, String> parallelGroupBy = groupBy.parallel();
+        assertThat(parallelGroupBy).isNotSameAs(groupBy);
+        assertThat(parallelGroupBy.isParallel()).isTrue();
+        assertThat(parallelGroupBy.getVarKey()).isSameAs(groupBy.getVarKey());
+        assertThat(parallelGroupBy.getAccumulateFunctions()).isSameAs(groupBy.getAccumulateFunctions());
+        assertThat(groupBy.isParallel()).isFalse();
+    }
+
+    private List<String> runGroupBy(boolean parallel) {
+        Global<List> var_results = globalOf(List.class, "defaultpkg", "results");
+        Variable<Person> person = declarationOf(Person.class);
+        Variable<Integer> age = declarationOf(Integer.class);
+        Variable<String> key = declarationOf(String.class);
+        Variable<Integer> sum = declarationOf(Integer.class);
+        Variable<Long> count = declarationOf(Long.class);
+
+        ExprViewItem<Person> groupBy = groupBy(pattern(person).bind(age, Person::getAge),
+                                           person, key, p -> p.getName().substring(0, p.getName().indexOf('-')),
+                                           accFunction(org.drools.core.base.accumulators.IntegerSumAccumulateFunction::new, age).as(sum),
+                                           accFunction(org.drools.core.base.accumulators.CountAccumulateFunction::new).as(count));
+
+        Rule rule = rule("groupBy")
+                .build(
+                        parallel ? parallel(groupBy) : groupBy,
+                        on(var_results, key, sum, count)
+                                .execute((results, k, s, c) -> results.add(k + ":" + s + ":" + c))
+                );
+
+        Model model = new ModelImpl().addRule( rule ).addGlobal( var_results );
+        KieSession ksession = KieBaseBuilder.createKieBaseFromModel( model ).newKieSession();
+
+        List<String> results = new ArrayList<>();
+        ksession.setGlobal("results", results);
+
+        List<FactHandle> handles = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            handles.add(ksession.insert(new Person("G" + (i % 1000) + "-" + i, i % 90)));
+        }
+        ksession.fireAllRules();
+
+        for (int i = 0; i < 5000; i += 10) {
+            ksession.delete(handles.get(i));
+        }
+        for (int i = 5000; i < 7000; i++) {
+            ksession.insert(new Person("G" + (i % 1500) + "-" + i, i % 90));
+        }
+        ksession.fireAllRules();
+
+        ksession.dispose();
+        return results;
+    }
+
     @Test
     public void testAccumulateConstant() {
         Result result = new Result();
@@ -116,9 +116,15 @@ public class BatchingStorageDecorator<K, V> implements Storage<K, V> {
 
     @Override
     public void flush() {
-        storage.putAll(batchingMap);
-        batchingMap.clear();
-        batchingRemoveSet.forEach(storage::remove);
-        batchingRemoveSet.clear();
+        // everything changed since the last safepoint is written with a single putAll and a single removeAll,
+        // so that storages able to do it can commit each batch at once
+        if (!batchingMap.isEmpty()) {
+            storage.putAll(batchingMap);
+            batchingMap.clear();
+        }
+        if (!batchingRemoveSet.isEmpty()) {
+            storage.removeAll(batchingRemoveSet);
+            batchingRemoveSet.clear();
+        }
     }
 }
@@ -0,0 +1,235 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.reliability.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.charset.StandardCharsets;
+
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+
+/**
+ * Binary encoding of the keys and values of the storages. The types the reliability layer itself stores, like
+ * fact handle ids, activation keys and the SerializableStoredObject wrapping each fact, are written field by field.
+ * A fact is marshalled by the first of the given strategies accepting it, while the facts not accepted by any
+ * strategy fall back to Java serialization. The strategies are invoked without any ObjectInputStream or ObjectOutputStream,
+ * so they have to produce the whole marshalled form of the fact, plus optionally their context.
+ */
+public class BinaryStoredValueCodec implements StoredValueCodec {
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte INTEGER = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte STRING = 4;
+    private static final byte STORED_OBJECT = 5;
+    private static final byte STORED_EVENT = 6;
+    private static final byte SERIALIZED = 7;
+    private static final byte STRATEGY = 8;
+
+    private final ObjectMarshallingStrategy[] strategies;
+
+    public BinaryStoredValueCodec(ObjectMarshallingStrategy... strategies) {
+        this.strategies = strategies;
+    }
+
+    @Override
+    public void writeValue(DataOutput out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value.getClass() == SerializableStoredObject.class) {
+            // subclasses carry additional state, so they are serialized as a whole
+            SerializableStoredObject storedObject = (SerializableStoredObject) value;
+            out.writeByte(STORED_OBJECT);
+            out.writeBoolean(storedObject.isPropagated());
+            writeValue(out, storedObject.getObject());
+        } else if (value.getClass() == SerializableStoredEvent.class) {
+            SerializableStoredEvent storedEvent = (SerializableStoredEvent) value;
+            out.writeByte(STORED_EVENT);
+            out.writeBoolean(storedEvent.isPropagated());
+            out.writeLong(storedEvent.getTimestamp());
+            out.writeLong(storedEvent.getDuration());
+            writeValue(out, storedEvent.getObject());
+        } else {
+            writeObject(out, value);
+        }
+    }
+
+    @Override
+    public Object readValue(DataInput in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case LONG:
+                return in.readLong();
+            case INTEGER:
+                return in.readInt();
+            case BOOLEAN:
+                return in.readBoolean();
+            case STRING:
+                return readString(in);
+            case STORED_OBJECT:
+                boolean propagated = in.readBoolean();
+                return new SerializableStoredObject(readValue(in), propagated);
+            case STORED_EVENT:
+                boolean eventPropagated = in.readBoolean();
+                long timestamp = in.readLong();
+                long duration = in.readLong();
+                return new SerializableStoredEvent(readValue(in), eventPropagated, timestamp, duration);
+            case SERIALIZED:
+                return deserialize(readBytes(in));
+            case STRATEGY:
+                return readWithStrategy(in);
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    private void writeObject(DataOutput out, Object value) throws IOException {
+        for (ObjectMarshallingStrategy strategy : strategies) {
+            if (strategy.accept(value)) {
+                ObjectMarshallingStrategy.Context context = strategy.createContext();
+                byte[] bytes = strategy.marshal(context, null, value);
+                out.writeByte(STRATEGY);
+                writeString(out, strategy.getName());
+                writeBytes(out, bytes);
+                out.writeBoolean(context != null);
+                if (context != null) {
+                    writeBytes(out, serialize(context::write));
+                }
+                return;
+            }
+        }
+        out.writeByte(SERIALIZED);
+        writeBytes(out, serialize(oos -> oos.writeObject(value)));
+    }
+
+    private Object readWithStrategy(DataInput in) throws IOException {
+        ObjectMarshallingStrategy strategy = findStrategy(readString(in));
+        byte[] bytes = readBytes(in);
+        ObjectMarshallingStrategy.Context context = null;
+        if (in.readBoolean()) {
+            context = strategy.createContext();
+            try (ObjectInputStream ois = new ContextClassLoaderObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+                context.read(ois);
+            } catch (ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+        }
+        try {
+            return strategy.unmarshal(context, null, bytes, getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private ObjectMarshallingStrategy findStrategy(String name) throws IOException {
+        for (ObjectMarshallingStrategy strategy : strategies) {
+            if (strategy.getName().equals(name)) {
+                return strategy;
+            }
+        }
+        throw new IOException("Unknown marshalling strategy " + name);
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static byte[] serialize(ObjectWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            writer.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException {
+        try (ObjectInputStream in = new ContextClassLoaderObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static ClassLoader getClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : BinaryStoredValueCodec.class.getClassLoader();
+    }
+
+    @FunctionalInterface
+    private interface ObjectWriter {
+        void write(ObjectOutputStream out) throws IOException;
+    }
+
+    private static class ContextClassLoaderObjectInputStream extends ObjectInputStream {
+
+        private ContextClassLoaderObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            if (classLoader != null) {
+                try {
+                    return Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    // fall back to the default resolution
+                }
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
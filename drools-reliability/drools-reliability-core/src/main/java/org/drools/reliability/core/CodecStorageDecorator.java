@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.reliability.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.core.common.Storage;
+
+/**
+ * Lets a storage keep its values as the bytes produced by a {@link StoredValueCodec}, instead of relying on the
+ * serialization mechanism of the underlying persistence layer.
+ */
+public class CodecStorageDecorator<K, V> implements Storage<K, V> {
+
+    private final Storage<K, byte[]> storage;
+
+    private final StoredValueCodec codec;
+
+    public CodecStorageDecorator(Storage<K, byte[]> storage) {
+        this(storage, StoredValueCodec.get());
+    }
+
+    public CodecStorageDecorator(Storage<K, byte[]> storage, StoredValueCodec codec) {
+        this.storage = storage;
+        this.codec = codec;
+    }
+
+    @Override
+    public V get(K key) {
+        return decode(storage.get(key));
+    }
+
+    @Override
+    public V getOrDefault(K key, V value) {
+        byte[] bytes = storage.get(key);
+        return bytes != null ? decode(bytes) : value;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return decode(storage.put(key, codec.encode(value)));
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> otherMap) {
+        Map<K, byte[]> encoded = new HashMap<>();
+        for (Map.Entry<? extends K, ? extends V> entry : otherMap.entrySet()) {
+            encoded.put(entry.getKey(), codec.encode(entry.getValue()));
+        }
+        storage.putAll(encoded);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return storage.containsKey(key);
+    }
+
+    @Override
+    public V remove(K key) {
+        return decode(storage.remove(key));
+    }
+
+    @Override
+    public void removeAll(Collection<? extends K> keys) {
+        storage.removeAll(keys);
+    }
+
+    @Override
+    public void clear() {
+        storage.clear();
+    }
+
+    @Override
+    public Collection<V> values() {
+        Collection<byte[]> encoded = storage.values();
+        List<V> values = new ArrayList<>(encoded.size());
+        for (byte[] bytes : encoded) {
+            values.add(decode(bytes));
+        }
+        return values;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return storage.keySet();
+    }
+
+    @Override
+    public int size() {
+        return storage.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return storage.isEmpty();
+    }
+
+    @Override
+    public boolean requiresFlush() {
+        return storage.requiresFlush();
+    }
+
+    @Override
+    public void flush() {
+        storage.flush();
+    }
+
+    private V decode(byte[] bytes) {
+        return bytes != null ? (V) codec.decode(bytes) : null;
+    }
+}
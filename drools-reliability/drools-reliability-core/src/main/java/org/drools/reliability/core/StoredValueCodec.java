@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.reliability.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.kie.api.internal.utils.KieService;
+
+/**
+ * Converts the keys and values of the storages, including the facts wrapped by the stored objects, to and from bytes.
+ * Register an implementation as a KieService to replace the default {@link BinaryStoredValueCodec}, for instance with one
+ * created on the ObjectMarshallingStrategies already used to marshall the sessions.
+ */
+public interface StoredValueCodec extends KieService {
+
+    void writeValue(DataOutput out, Object value) throws IOException;
+
+    Object readValue(DataInput in) throws IOException;
+
+    default byte[] encode(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeValue(out, value);
+        } catch (IOException e) {
+            throw new ReliabilityRuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    default Object decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return readValue(in);
+        } catch (IOException e) {
+            throw new ReliabilityRuntimeException(e);
+        }
+    }
+
+    class Holder {
+
+        private static final StoredValueCodec INSTANCE = createInstance();
+
+        private Holder() {
+        }
+
+        static StoredValueCodec createInstance() {
+            StoredValueCodec codec = KieService.load(StoredValueCodec.class);
+            return codec != null ? codec : new BinaryStoredValueCodec();
+        }
+    }
+
+    static StoredValueCodec get() {
+        return Holder.INSTANCE;
+    }
+}
@@ -72,6 +72,14 @@ public class H2MVStoreStorage<K, V> implements Storage<K, V> {
         return previousValue;
     }
 
+    @Override
+    public void removeAll(Collection<? extends K> keys) {
+        for (K key : keys) {
+            mvMap.remove(key);
+        }
+        mvMap.store.commit();
+    }
+
     @Override
     public void clear() {
         mvMap.clear();
@@ -27,6 +27,7 @@ import java.util.Set;
 
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.Storage;
+import org.drools.reliability.core.CodecStorageDecorator;
 import org.drools.reliability.core.TestableStorageManager;
 import org.h2.mvstore.MVMap;
 import org.h2.mvstore.MVStore;
@@ -59,14 +60,14 @@ public class H2MVStoreStorageManager implements TestableStorageManager {
 
     @Override
     public <K, V> Storage<K, V> internalGetOrCreateStorageForSession(ReteEvaluator reteEvaluator, String cacheName) {
-        MVMap<K, V> mvMap = mvStore.openMap(createStorageId(reteEvaluator, cacheName));
-        return H2MVStoreStorage.fromMVMap(mvMap);
+        MVMap<K, byte[]> mvMap = mvStore.openMap(createStorageId(reteEvaluator, cacheName));
+        return new CodecStorageDecorator<>(H2MVStoreStorage.fromMVMap(mvMap));
     }
 
     @Override
     public <K, V> Storage<K, V> getOrCreateSharedStorage(String cacheName) {
-        MVMap<K, V> mvMap = mvStore.openMap(SHARED_STORAGE_PREFIX + cacheName);
-        return H2MVStoreStorage.fromMVMap(mvMap);
+        MVMap<K, byte[]> mvMap = mvStore.openMap(SHARED_STORAGE_PREFIX + cacheName);
+        return new CodecStorageDecorator<>(H2MVStoreStorage.fromMVMap(mvMap));
     }
 
     @Override
@@ -23,6 +23,7 @@ import java.util.Set;
 
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.Storage;
+import org.drools.reliability.core.CodecStorageDecorator;
 import org.drools.util.FileUtils;
 import org.infinispan.Cache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
@@ -95,14 +96,14 @@ public class EmbeddedStorageManager implements InfinispanStorageManager {
 
     @Override
     public <K, V> Storage<K, V> internalGetOrCreateStorageForSession(ReteEvaluator reteEvaluator, String cacheName) {
-        Cache<K, V> cache = embeddedCacheManager.administration().getOrCreateCache(createStorageId(reteEvaluator, cacheName), cacheConfiguration);
-        return InfinispanStorage.fromCache(cache);
+        Cache<K, byte[]> cache = embeddedCacheManager.administration().getOrCreateCache(createStorageId(reteEvaluator, cacheName), cacheConfiguration);
+        return new CodecStorageDecorator<>(InfinispanStorage.fromCache(cache));
     }
 
     @Override
     public <K, V> Storage<K, V> getOrCreateSharedStorage(String cacheName) {
-        Cache<K, V> cache = embeddedCacheManager.administration().getOrCreateCache(SHARED_STORAGE_PREFIX + cacheName, cacheConfiguration);
-        return InfinispanStorage.fromCache(cache);
+        Cache<K, byte[]> cache = embeddedCacheManager.administration().getOrCreateCache(SHARED_STORAGE_PREFIX + cacheName, cacheConfiguration);
+        return new CodecStorageDecorator<>(InfinispanStorage.fromCache(cache));
     }
 
     @Override
@@ -23,6 +23,7 @@ import java.util.Set;
 
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.Storage;
+import org.drools.reliability.core.CodecStorageDecorator;
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
 import org.infinispan.commons.marshall.JavaSerializationMarshaller;
@@ -101,14 +102,20 @@ public class RemoteStorageManager implements InfinispanStorageManager {
 
     @Override
     public <K, V> Storage<K, V> internalGetOrCreateStorageForSession(ReteEvaluator reteEvaluator, String cacheName) {
-        RemoteCache<K, V> cache = remoteCacheManager.administration().getOrCreateCache(createStorageId(reteEvaluator, cacheName), (String) null);
-        return InfinispanStorage.fromCache(cache);
+        return wrapStorage(remoteCacheManager.administration().getOrCreateCache(createStorageId(reteEvaluator, cacheName), (String) null));
     }
 
     @Override
     public <K, V> Storage<K, V> getOrCreateSharedStorage(String cacheName) {
-        RemoteCache<K, V> cache = remoteCacheManager.administration().getOrCreateCache(SHARED_STORAGE_PREFIX + cacheName, (String) null);
-        return InfinispanStorage.fromCache(cache);
+        return wrapStorage(remoteCacheManager.administration().getOrCreateCache(SHARED_STORAGE_PREFIX + cacheName, (String) null));
+    }
+
+    private <K, V> Storage<K, V> wrapStorage(RemoteCache<K, ?> cache) {
+        if (isProtoStream()) {
+            // ProtoStream already encodes the stored objects with the schemas provided by the serialization context
+            return InfinispanStorage.fromCache((RemoteCache<K, V>) cache);
+        }
+        return new CodecStorageDecorator<>(InfinispanStorage.fromCache((RemoteCache<K, byte[]>) cache));
     }
 
     @Override
@@ -23,6 +23,7 @@ import java.nio.file.Path;
 import org.drools.reliability.h2mvstore.H2MVStoreStorageManager;
 import org.drools.reliability.infinispan.EmbeddedStorageManager;
 import org.drools.reliability.test.util.TestConfigurationUtils;
+import org.drools.reliability.wal.WalStorageManager;
 import org.drools.util.FileUtils;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
@@ -58,6 +59,9 @@ public class BeforeAllMethodExtension implements BeforeAllCallback {
         H2MVStoreStorageManager.cleanUpDatabase();
         LOG.info("### Deleted database file {}", H2MVStoreStorageManager.STORE_FILE_NAME);
 
+        WalStorageManager.cleanUpDatabase();
+        LOG.info("### Deleted directory {}", WalStorageManager.WAL_DIR);
+
         LOG.info("### Set marshaller to {}", System.getProperty(INFINISPAN_STORAGE_MARSHALLER));
         LOG.info("### Set initializer to {}", System.getProperty(INFINISPAN_STORAGE_SERIALIZATION_CONTEXT_INITIALIZER));
 
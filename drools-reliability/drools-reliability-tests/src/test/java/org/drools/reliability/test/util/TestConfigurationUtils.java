@@ -24,13 +24,15 @@ import org.drools.reliability.core.StorageManagerFactory;
 
 import static org.drools.reliability.test.util.TestConfigurationUtils.Module.H2MVSTORE;
 import static org.drools.reliability.test.util.TestConfigurationUtils.Module.INFINISPAN;
+import static org.drools.reliability.test.util.TestConfigurationUtils.Module.WAL;
 import static org.drools.util.Config.getConfig;
 
 public class TestConfigurationUtils {
 
     public enum Module {
         INFINISPAN,
-        H2MVSTORE
+        H2MVSTORE,
+        WAL
     }
 
     public static final String DROOLS_RELIABILITY_MODULE_TEST = "drools.reliability.module.test";
@@ -45,6 +47,8 @@ public class TestConfigurationUtils {
             prioritizeInfinispanServices();
         } else if (module == H2MVSTORE) {
             prioritizeH2MVStoreServices();
+        } else if (module == WAL) {
+            prioritizeWalServices();
         } else {
             throw new IllegalStateException("Unknown module: " + module);
         }
@@ -61,4 +65,10 @@ public class TestConfigurationUtils {
         SimpleReliableObjectStoreFactory.get("core");
         StorageManagerFactory.get("h2mvstore");
     }
+
+    private static void prioritizeWalServices() {
+        ReliableGlobalResolverFactory.get("core");
+        SimpleReliableObjectStoreFactory.get("core");
+        StorageManagerFactory.get("wal");
+    }
 }
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.reliability.wal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.drools.reliability.core.ReliabilityRuntimeException;
+import org.drools.reliability.core.StoredValueCodec;
+
+/**
+ * A single operation on a storage as it is appended to the write-ahead log. All the operations are idempotent,
+ * so replaying a record on a state which already contains its effect leaves that state unchanged.
+ */
+class WalRecord {
+
+    enum Operation {
+        CREATE, PUT, REMOVE, CLEAR, DROP;
+
+        private static final Operation[] VALUES = values();
+    }
+
+    private static final StoredValueCodec CODEC = StoredValueCodec.get();
+
+    private final Operation operation;
+    private final String storageName;
+    private final Object key;
+    private final Object value;
+
+    private WalRecord(Operation operation, String storageName, Object key, Object value) {
+        this.operation = operation;
+        this.storageName = storageName;
+        this.key = key;
+        this.value = value;
+    }
+
+    static WalRecord create(String storageName) {
+        return new WalRecord(Operation.CREATE, storageName, null, null);
+    }
+
+    static WalRecord put(String storageName, Object key, Object value) {
+        return new WalRecord(Operation.PUT, storageName, key, value);
+    }
+
+    static WalRecord remove(String storageName, Object key) {
+        return new WalRecord(Operation.REMOVE, storageName, key, null);
+    }
+
+    static WalRecord clear(String storageName) {
+        return new WalRecord(Operation.CLEAR, storageName, null, null);
+    }
+
+    static WalRecord drop(String storageName) {
+        return new WalRecord(Operation.DROP, storageName, null, null);
+    }
+
+    /**
+     * Applies this operation to the in-memory storages and returns the value previously associated to the key, if any
+     */
+    Object applyTo(Map<String, Map<Object, Object>> storages) {
+        switch (operation) {
+            case CREATE:
+                storages.computeIfAbsent(storageName, name -> new ConcurrentHashMap<>());
+                return null;
+            case PUT:
+                return storages.computeIfAbsent(storageName, name -> new ConcurrentHashMap<>()).put(key, value);
+            case REMOVE:
+                Map<Object, Object> storage = storages.get(storageName);
+                return storage != null ? storage.remove(key) : null;
+            case CLEAR:
+                storages.computeIfAbsent(storageName, name -> new ConcurrentHashMap<>()).clear();
+                return null;
+            default:
+                storages.remove(storageName);
+                return null;
+        }
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(operation.ordinal());
+            out.writeUTF(storageName);
+            if (operation == Operation.PUT || operation == Operation.REMOVE) {
+                CODEC.writeValue(out, key);
+            }
+            if (operation == Operation.PUT) {
+                CODEC.writeValue(out, value);
+            }
+        } catch (IOException e) {
+            throw new ReliabilityRuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static WalRecord decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            Operation operation = Operation.VALUES[in.readByte()];
+            String storageName = in.readUTF();
+            Object key = operation == Operation.PUT || operation == Operation.REMOVE ? CODEC.readValue(in) : null;
+            Object value = operation == Operation.PUT ? CODEC.readValue(in) : null;
+            return new WalRecord(operation, storageName, key, value);
+        } catch (IOException e) {
+            throw new ReliabilityRuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.reliability.wal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.drools.core.common.Storage;
+
+public class WalStorage<K, V> implements Storage<K, V> {
+
+    private final WalStorageManager storageManager;
+
+    private final String storageName;
+
+    WalStorage(WalStorageManager storageManager, String storageName) {
+        this.storageManager = storageManager;
+        this.storageName = storageName;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<K, V> storage() {
+        return (Map<K, V>) storageManager.getStorage(storageName);
+    }
+
+    @Override
+    public V get(K key) {
+        return storage().get(key);
+    }
+
+    @Override
+    public V getOrDefault(K key, V value) {
+        return storage().getOrDefault(key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V put(K key, V value) {
+        return (V) storageManager.write(WalRecord.put(storageName, key, value));
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> otherMap) {
+        // a single group commit for the whole batch, i.e. when the BatchingStorageDecorator is flushed at a safepoint
+        List<WalRecord> records = otherMap.entrySet()
+                .stream()
+                .map(entry -> WalRecord.put(storageName, entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        storageManager.writeAll(records);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return storage().containsKey(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V remove(K key) {
+        // removing a missing key doesn't need to be logged
+        return containsKey(key) ? (V) storageManager.write(WalRecord.remove(storageName, key)) : null;
+    }
+
+    @Override
+    public void removeAll(Collection<? extends K> keys) {
+        storageManager.writeAll(keys.stream()
+                .filter(this::containsKey)
+                .map(key -> WalRecord.remove(storageName, key))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public void clear() {
+        storageManager.write(WalRecord.clear(storageName));
+    }
+
+    @Override
+    public Collection<V> values() {
+        return Collections.unmodifiableCollection(storage().values());
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(storage().keySet());
+    }
+
+    @Override
+    public int size() {
+        return storage().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return storage().isEmpty();
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.reliability.wal;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.common.Storage;
+import org.drools.reliability.core.TestableStorageManager;
+import org.drools.util.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.drools.reliability.core.StorageManager.createStorageId;
+import static org.drools.reliability.core.StorageManagerFactory.DELIMITER;
+import static org.drools.reliability.core.StorageManagerFactory.SESSION_STORAGE_PREFIX;
+import static org.drools.reliability.core.StorageManagerFactory.SHARED_STORAGE_PREFIX;
+import static org.drools.reliability.wal.WalStorageManagerFactory.WAL_STORAGE_COMPACTION_SEGMENTS;
+import static org.drools.reliability.wal.WalStorageManagerFactory.WAL_STORAGE_DIRECTORY;
+import static org.drools.reliability.wal.WalStorageManagerFactory.WAL_STORAGE_SEGMENT_SIZE;
+import static org.drools.util.Config.getConfig;
+
+/**
+ * StorageManager keeping all the storages in memory and recording each change in an append-only write-ahead log.
+ * Reads never touch the disk, while the log is replayed only once when the manager is initialized, so that restoring
+ * a session just reads the already rebuilt in-memory storages.
+ */
+public class WalStorageManager implements TestableStorageManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WalStorageManager.class);
+
+    static final WalStorageManager INSTANCE = new WalStorageManager();
+
+    public static final String WAL_DIR = getConfig(WAL_STORAGE_DIRECTORY, "wal");
+
+    private static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final int DEFAULT_COMPACTION_SEGMENTS = 4;
+
+    private final Map<String, Map<Object, Object>> storages = new ConcurrentHashMap<>();
+
+    private WriteAheadLog wal;
+
+    private WalStorageManager() {
+    }
+
+    @Override
+    public void initStorageManager() {
+        LOG.info("Using WalStorageManager");
+        int segmentSize = Integer.parseInt(getConfig(WAL_STORAGE_SEGMENT_SIZE, String.valueOf(DEFAULT_SEGMENT_SIZE)));
+        int compactionSegments = Integer.parseInt(getConfig(WAL_STORAGE_COMPACTION_SEGMENTS, String.valueOf(DEFAULT_COMPACTION_SEGMENTS)));
+
+        long start = System.currentTimeMillis();
+        storages.clear();
+        wal = new WriteAheadLog(Path.of(WAL_DIR), segmentSize, compactionSegments, this::writeState);
+        wal.open(bytes -> WalRecord.decode(bytes).applyTo(storages));
+        LOG.info("Restored {} storages from the write-ahead log in {} ms", storages.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public <K, V> Storage<K, V> internalGetOrCreateStorageForSession(ReteEvaluator reteEvaluator, String cacheName) {
+        return getOrCreateStorage(createStorageId(reteEvaluator, cacheName));
+    }
+
+    @Override
+    public <K, V> Storage<K, V> getOrCreateSharedStorage(String cacheName) {
+        return getOrCreateStorage(SHARED_STORAGE_PREFIX + cacheName);
+    }
+
+    private <K, V> Storage<K, V> getOrCreateStorage(String storageName) {
+        if (!storages.containsKey(storageName)) {
+            write(WalRecord.create(storageName));
+        }
+        return new WalStorage<>(this, storageName);
+    }
+
+    Map<Object, Object> getStorage(String storageName) {
+        return storages.getOrDefault(storageName, Collections.emptyMap());
+    }
+
+    /**
+     * Applies the record to the in-memory storages and returns once it has been made durable.
+     * The record is serialized before touching the storages, so a failure doesn't leave them out of sync with the log.
+     */
+    Object write(WalRecord record) {
+        byte[] bytes = record.encode();
+        Object previous;
+        long lsn;
+        synchronized (this) {
+            previous = record.applyTo(storages);
+            lsn = wal.append(bytes);
+        }
+        wal.sync(lsn);
+        return previous;
+    }
+
+    /**
+     * Same as write(), but all the records are made durable with a single force of the log
+     */
+    void writeAll(List<WalRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<byte[]> encoded = records.stream().map(WalRecord::encode).collect(Collectors.toList());
+        long lsn = 0;
+        synchronized (this) {
+            for (int i = 0; i < records.size(); i++) {
+                records.get(i).applyTo(storages);
+                lsn = wal.append(encoded.get(i));
+            }
+        }
+        wal.sync(lsn);
+    }
+
+    // invoked by the log while appending, so already holding the lock of this manager
+    private void writeState(Consumer<byte[]> sink) {
+        storages.forEach((storageName, storage) -> {
+            sink.accept(WalRecord.create(storageName).encode());
+            storage.forEach((key, value) -> sink.accept(WalRecord.put(storageName, key, value).encode()));
+        });
+    }
+
+    @Override
+    public void close() {
+        wal.close();
+    }
+
+    @Override
+    public void removeStorage(String storageName) {
+        write(WalRecord.drop(storageName));
+    }
+
+    @Override
+    public void removeStoragesBySessionId(String sessionId) {
+        removeStorages(SESSION_STORAGE_PREFIX + sessionId + DELIMITER);
+    }
+
+    @Override
+    public void removeAllSessionStorages() {
+        removeStorages(SESSION_STORAGE_PREFIX);
+    }
+
+    private void removeStorages(String prefix) {
+        writeAll(storages.keySet()
+                .stream()
+                .filter(storageName -> storageName.startsWith(prefix))
+                .map(WalRecord::drop)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public Set<String> getStorageNames() {
+        return new HashSet<>(storages.keySet());
+    }
+
+    //--- test purpose
+
+    @Override
+    public void restart() {
+        // JVM crashed
+        wal.close();
+        wal = null;
+
+        // Reboot
+        initStorageManager();
+    }
+
+    @Override
+    public void restartWithCleanUp() {
+        // JVM crashed
+        wal.close();
+        wal = null;
+
+        // remove log files
+        cleanUpDatabase();
+
+        // Reboot
+        initStorageManager();
+    }
+
+    @Override
+    public boolean isRemote() {
+        return false;
+    }
+
+    public static void cleanUpDatabase() {
+        FileUtils.deleteDirectory(Path.of(WAL_DIR));
+    }
+}
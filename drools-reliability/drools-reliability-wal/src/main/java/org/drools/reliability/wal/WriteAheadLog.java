@@ -0,0 +1,361 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.reliability.wal;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Segmented, append-only log of records backed by memory-mapped files.
+ * Each record is written as [length][crc32][bytes] and a segment ends at the first record with a zero length
+ * or a wrong checksum, so a record torn by a crash is simply discarded on replay.
+ * Appending only copies the record into the mapped segment, making it durable is a separate step: sync() forces
+ * at once all the records appended by any thread since the last force (group commit).
+ * When the number of full segments reaches the compaction threshold, the whole state is written into a snapshot
+ * and all the segments it covers are deleted, so that the replay on restore never reads more than a snapshot and
+ * a few segments.
+ */
+class WriteAheadLog {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".wal";
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * Writes the current state of all the storages as a sequence of encoded records
+     */
+    interface StateWriter {
+        void writeTo(Consumer<byte[]> sink);
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int compactionSegments;
+    private final StateWriter stateWriter;
+
+    private final CRC32 crc = new CRC32();
+    private final Object syncLock = new Object();
+
+    private final List<Long> sealedSegmentIds = new ArrayList<>();
+    private Segment activeSegment;
+
+    // total number of bytes ever appended and made durable, used as tickets for the group commit
+    private long appendedLsn;
+    private volatile long syncedLsn;
+
+    WriteAheadLog(Path directory, int segmentSize, int compactionSegments, StateWriter stateWriter) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.compactionSegments = compactionSegments;
+        this.stateWriter = stateWriter;
+    }
+
+    /**
+     * Replays the last snapshot and all the following segments, then gets ready to append after the last valid record
+     */
+    synchronized void open(Consumer<byte[]> replayer) {
+        try {
+            Files.createDirectories(directory);
+            long snapshotId = lastSnapshotId();
+            if (snapshotId >= 0) {
+                replaySnapshot(snapshotPath(snapshotId), replayer);
+            }
+            List<Long> segmentIds = fileIds(SEGMENT_PREFIX, SEGMENT_SUFFIX).stream()
+                    .filter(id -> id >= snapshotId)
+                    .sorted()
+                    .collect(Collectors.toList());
+            for (int i = 0; i < segmentIds.size(); i++) {
+                long segmentId = segmentIds.get(i);
+                Segment segment = Segment.open(segmentPath(segmentId), segmentId, segmentSize, false);
+                segment.position = replay(segment.buffer, replayer);
+                if (i < segmentIds.size() - 1) {
+                    if (segment.position + HEADER_SIZE <= segment.buffer.capacity() && segment.buffer.getInt(segment.position) != 0) {
+                        LOG.warn("Discarded the corrupted tail of {}", segment.path);
+                    }
+                    sealedSegmentIds.add(segmentId);
+                    segment.close();
+                } else {
+                    // wipe what follows the last valid record, so that it cannot be mistaken for new records later
+                    segment.zeroFrom(segment.position);
+                    segment.syncedPosition = segment.position;
+                    activeSegment = segment;
+                }
+            }
+            if (activeSegment == null) {
+                long segmentId = Math.max(snapshotId, 0);
+                activeSegment = Segment.open(segmentPath(segmentId), segmentId, segmentSize, true);
+            }
+            deleteObsoleteFiles(snapshotId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends a record without making it durable and returns the ticket to be passed to sync()
+     */
+    synchronized long append(byte[] bytes) {
+        if (!activeSegment.hasRoom(bytes.length)) {
+            roll(bytes.length);
+        }
+        crc.reset();
+        crc.update(bytes);
+        activeSegment.write(bytes, (int) crc.getValue());
+        appendedLsn += HEADER_SIZE + bytes.length;
+        return appendedLsn;
+    }
+
+    /**
+     * Makes durable all the records appended up to the given ticket. A thread finding its records already forced
+     * by another one returns immediately, otherwise it forces everything appended so far on behalf of all the waiters.
+     */
+    void sync(long lsn) {
+        if (syncedLsn >= lsn) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedLsn >= lsn) {
+                return;
+            }
+            Segment segment;
+            int from;
+            int to;
+            long target;
+            synchronized (this) {
+                segment = activeSegment;
+                from = segment.syncedPosition;
+                to = segment.position;
+                target = appendedLsn;
+            }
+            // the previous segments have been already forced when they were sealed
+            segment.force(from, to);
+            segment.syncedPosition = to;
+            syncedLsn = target;
+        }
+    }
+
+    synchronized void close() {
+        if (activeSegment != null) {
+            activeSegment.force(activeSegment.syncedPosition, activeSegment.position);
+            activeSegment.close();
+            activeSegment = null;
+        }
+        sealedSegmentIds.clear();
+    }
+
+    private void roll(int recordLength) {
+        activeSegment.force(activeSegment.syncedPosition, activeSegment.position);
+        activeSegment.close();
+        sealedSegmentIds.add(activeSegment.id);
+
+        long nextId = activeSegment.id + 1;
+        if (sealedSegmentIds.size() >= compactionSegments) {
+            compact(nextId);
+        }
+        activeSegment = Segment.open(segmentPath(nextId), nextId, Math.max(segmentSize, HEADER_SIZE + recordLength), true);
+    }
+
+    /**
+     * Writes the current state into the snapshot replacing all the segments preceding the given one
+     */
+    private void compact(long snapshotId) {
+        long start = System.currentTimeMillis();
+        Path tmpPath = directory.resolve(SNAPSHOT_PREFIX + snapshotId + SNAPSHOT_SUFFIX + TMP_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                CRC32 snapshotCrc = new CRC32();
+                stateWriter.writeTo(bytes -> {
+                    snapshotCrc.reset();
+                    snapshotCrc.update(bytes);
+                    try {
+                        out.writeInt(bytes.length);
+                        out.writeInt((int) snapshotCrc.getValue());
+                        out.write(bytes);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(tmpPath, snapshotPath(snapshotId), StandardCopyOption.ATOMIC_MOVE);
+            sealedSegmentIds.clear();
+            deleteObsoleteFiles(snapshotId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        LOG.debug("Compacted the write-ahead log into {} in {} ms", snapshotPath(snapshotId), System.currentTimeMillis() - start);
+    }
+
+    private void replaySnapshot(Path path, Consumer<byte[]> replayer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            replay(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), replayer);
+        }
+    }
+
+    private static int replay(ByteBuffer buffer, Consumer<byte[]> replayer) {
+        CRC32 replayCrc = new CRC32();
+        int position = 0;
+        while (position + HEADER_SIZE <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.limit() - position - HEADER_SIZE) {
+                break;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(position + HEADER_SIZE, bytes);
+            replayCrc.reset();
+            replayCrc.update(bytes);
+            if ((int) replayCrc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            replayer.accept(bytes);
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    private void deleteObsoleteFiles(long snapshotId) throws IOException {
+        for (long segmentId : fileIds(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (segmentId < snapshotId) {
+                Files.deleteIfExists(segmentPath(segmentId));
+            }
+        }
+        for (long id : fileIds(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (id < snapshotId) {
+                Files.deleteIfExists(snapshotPath(id));
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path tmp : files.filter(path -> path.getFileName().toString().endsWith(TMP_SUFFIX)).collect(Collectors.toList())) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    private long lastSnapshotId() throws IOException {
+        return fileIds(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).stream().mapToLong(Long::longValue).max().orElse(-1);
+    }
+
+    private List<Long> fileIds(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(long segmentId) {
+        return directory.resolve(SEGMENT_PREFIX + segmentId + SEGMENT_SUFFIX);
+    }
+
+    private Path snapshotPath(long snapshotId) {
+        return directory.resolve(SNAPSHOT_PREFIX + snapshotId + SNAPSHOT_SUFFIX);
+    }
+
+    private static class Segment {
+
+        private static final byte[] ZEROS = new byte[4096];
+
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private int position;
+        private int syncedPosition;
+
+        private Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, long id, int size, boolean create) {
+            try {
+                FileChannel channel = create ?
+                        FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) :
+                        FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                long mappedSize = Math.max(size, channel.size());
+                return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        boolean hasRoom(int length) {
+            return position + HEADER_SIZE + length <= buffer.capacity();
+        }
+
+        void write(byte[] bytes, int checksum) {
+            buffer.put(position + HEADER_SIZE, bytes);
+            buffer.putInt(position + Integer.BYTES, checksum);
+            buffer.putInt(position, bytes.length);
+            position += HEADER_SIZE + bytes.length;
+        }
+
+        void zeroFrom(int from) {
+            for (int i = from; i < buffer.capacity(); i += ZEROS.length) {
+                buffer.put(i, ZEROS, 0, Math.min(ZEROS.length, buffer.capacity() - i));
+            }
+            buffer.force(from, buffer.capacity() - from);
+        }
+
+        void force(int from, int to) {
+            if (to > from) {
+                buffer.force(from, to - from);
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
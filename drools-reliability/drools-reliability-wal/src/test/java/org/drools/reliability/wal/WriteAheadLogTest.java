@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.reliability.wal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.drools.reliability.core.SerializableStoredEvent;
+import org.drools.reliability.core.SerializableStoredObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    private final Map<String, Map<Object, Object>> storages = new ConcurrentHashMap<>();
+
+    private WriteAheadLog open(int segmentSize, int compactionSegments) {
+        storages.clear();
+        WriteAheadLog wal = new WriteAheadLog(directory, segmentSize, compactionSegments, sink -> storages.forEach((storageName, storage) -> {
+            sink.accept(WalRecord.create(storageName).encode());
+            storage.forEach((key, value) -> sink.accept(WalRecord.put(storageName, key, value).encode()));
+        }));
+        wal.open(bytes -> WalRecord.decode(bytes).applyTo(storages));
+        return wal;
+    }
+
+    private void write(WriteAheadLog wal, WalRecord record) {
+        record.applyTo(storages);
+        wal.sync(wal.append(record.encode()));
+    }
+
+    @Test
+    void restart_shouldReplayAllTheRecords() {
+        WriteAheadLog wal = open(4096, 4);
+        write(wal, WalRecord.create("empty"));
+        write(wal, WalRecord.put("s", 1L, "a"));
+        write(wal, WalRecord.put("s", 2L, "b"));
+        write(wal, WalRecord.put("s", 1L, "c"));
+        write(wal, WalRecord.remove("s", 2L));
+        write(wal, WalRecord.put("dropped", "k", "v"));
+        write(wal, WalRecord.drop("dropped"));
+        wal.close();
+
+        wal = open(4096, 4);
+        assertThat(storages).containsOnlyKeys("empty", "s");
+        assertThat(storages.get("empty")).isEmpty();
+        assertThat(storages.get("s")).containsExactly(Map.entry(1L, "c"));
+
+        // keeps appending after the replayed records
+        write(wal, WalRecord.clear("s"));
+        write(wal, WalRecord.put("s", 3L, "d"));
+        wal.close();
+
+        open(4096, 4).close();
+        assertThat(storages.get("s")).containsExactly(Map.entry(3L, "d"));
+    }
+
+    @Test
+    void compaction_shouldReplaceTheSegmentsWithASnapshot() throws IOException {
+        WriteAheadLog wal = open(512, 2);
+        Map<Object, Object> expected = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            write(wal, WalRecord.put("s", (long) (i % 20), "value" + i));
+            expected.put((long) (i % 20), "value" + i);
+        }
+        wal.close();
+
+        List<String> files = fileNames();
+        assertThat(files).anyMatch(name -> name.startsWith(WriteAheadLog.SNAPSHOT_PREFIX));
+        assertThat(files).filteredOn(name -> name.startsWith(WriteAheadLog.SNAPSHOT_PREFIX)).hasSize(1);
+        assertThat(files).filteredOn(name -> name.startsWith(WriteAheadLog.SEGMENT_PREFIX)).hasSizeLessThanOrEqualTo(2);
+
+        open(512, 2).close();
+        assertThat(storages).containsOnlyKeys("s");
+        assertThat(storages.get("s")).isEqualTo(expected);
+    }
+
+    @Test
+    void tornRecord_shouldBeDiscardedOnReplay() throws IOException {
+        WriteAheadLog wal = open(4096, 4);
+        write(wal, WalRecord.put("s", 1L, "a"));
+        long end = wal.append(WalRecord.put("s", 2L, "b").encode());
+        wal.sync(end);
+        wal.close();
+
+        // corrupt the last byte of the second record, as if the crash happened while it was written
+        Path segment = directory.resolve(WriteAheadLog.SEGMENT_PREFIX + 0 + WriteAheadLog.SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 42 }), end - 1);
+        }
+
+        wal = open(4096, 4);
+        assertThat(storages.get("s")).containsExactly(Map.entry(1L, "a"));
+
+        write(wal, WalRecord.put("s", 3L, "c"));
+        wal.close();
+
+        open(4096, 4).close();
+        assertThat(storages.get("s")).containsOnly(Map.entry(1L, "a"), Map.entry(3L, "c"));
+    }
+
+    @Test
+    void storedObjects_shouldBeReplayedWithTheirState() {
+        WriteAheadLog wal = open(4096, 4);
+        write(wal, WalRecord.put("ep", 1L, new SerializableStoredObject("fact", true)));
+        write(wal, WalRecord.put("ep", 2L, new SerializableStoredEvent(new ArrayList<>(List.of(1, 2)), false, 10L, 5L)));
+        write(wal, WalRecord.put("activations", "R:[1]", true));
+        wal.close();
+
+        open(4096, 4).close();
+        SerializableStoredObject storedObject = (SerializableStoredObject) storages.get("ep").get(1L);
+        assertThat(storedObject.getObject()).isEqualTo("fact");
+        assertThat(storedObject.isPropagated()).isTrue();
+
+        SerializableStoredEvent storedEvent = (SerializableStoredEvent) storages.get("ep").get(2L);
+        assertThat(storedEvent.getObject()).isEqualTo(List.of(1, 2));
+        assertThat(storedEvent.isPropagated()).isFalse();
+        assertThat(storedEvent.getTimestamp()).isEqualTo(10L);
+        assertThat(storedEvent.getDuration()).isEqualTo(5L);
+
+        assertThat(storages.get("activations")).containsExactly(Map.entry("R:[1]", true));
+    }
+
+    private List<String> fileNames() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.serialization.protobuf;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.ObjectStore;
+import org.drools.kiesession.entrypoints.NamedEntryPoint;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.EntryPoint;
+
+/**
+ * Keeps track of the fact handles inserted, updated or deleted in a session since its last checkpoint, so that
+ * an incremental snapshot only has to marshal the handles that actually changed. A deleted handle is recorded
+ * with a null value and written as a tombstone. It is registered on the session when its base snapshot is taken.
+ * Expired events are removed from their object store without any notification, so the tracker also keeps the
+ * live event handles and writes a tombstone for the ones no longer in their store when the checkpoint is taken.
+ * Facts modified without notifying the engine (i.e. without calling update) are not tracked.
+ * The handles returned by a checkpoint are kept until its snapshot has been written: if the write fails they are
+ * merged back, so that they are written again by the following checkpoint.
+ */
+public class IncrementalSnapshotTracker implements RuleRuntimeEventListener {
+
+    // entry point id -> handle id -> the dirty handle, or null if it has been deleted
+    private Map<String, Map<Long, InternalFactHandle>> dirtyHandles = new HashMap<>();
+
+    // entry point id -> handle id -> the event handles that could expire after having been written
+    private final Map<String, Map<Long, InternalFactHandle>> liveEvents = new HashMap<>();
+
+    // the handles returned by the last checkpoint, until its snapshot has been written
+    private Map<String, Map<Long, InternalFactHandle>> pendingHandles;
+
+    // true while the base snapshot of the chain hasn't been written yet
+    private boolean pendingBase;
+
+    public static IncrementalSnapshotTracker get(KieSession ksession) {
+        for (RuleRuntimeEventListener listener : ksession.getRuleRuntimeEventListeners()) {
+            if (listener instanceof IncrementalSnapshotTracker) {
+                return (IncrementalSnapshotTracker) listener;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void objectInserted(ObjectInsertedEvent event) {
+        markDirty((InternalFactHandle) event.getFactHandle(), false);
+    }
+
+    @Override
+    public void objectUpdated(ObjectUpdatedEvent event) {
+        markDirty((InternalFactHandle) event.getFactHandle(), false);
+    }
+
+    @Override
+    public void objectDeleted(ObjectDeletedEvent event) {
+        markDirty((InternalFactHandle) event.getFactHandle(), true);
+    }
+
+    synchronized void markDirty(InternalFactHandle handle, boolean deleted) {
+        dirtyHandles.computeIfAbsent(handle.getEntryPointName(), k -> new HashMap<>())
+                    .put(handle.getId(), deleted ? null : handle);
+        if (deleted) {
+            Map<Long, InternalFactHandle> events = liveEvents.get(handle.getEntryPointName());
+            if (events != null) {
+                events.remove(handle.getId());
+            }
+        } else if (handle.isEvent()) {
+            liveEvents.computeIfAbsent(handle.getEntryPointName(), k -> new HashMap<>()).put(handle.getId(), handle);
+        }
+    }
+
+    /**
+     * Starts tracking the session from its base snapshot, collecting the event handles already in its entry points
+     */
+    synchronized void register(KieSession ksession) {
+        dirtyHandles.clear();
+        liveEvents.clear();
+        pendingHandles = null;
+        pendingBase = true;
+        for (EntryPoint ep : ksession.getEntryPoints()) {
+            Iterator<InternalFactHandle> it = ((NamedEntryPoint) ep).getObjectStore().iterateFactHandles();
+            while (it.hasNext()) {
+                InternalFactHandle handle = it.next();
+                if (handle.isEvent()) {
+                    liveEvents.computeIfAbsent(ep.getEntryPointId(), k -> new HashMap<>()).put(handle.getId(), handle);
+                }
+            }
+        }
+        ksession.addEventListener(this);
+    }
+
+    /**
+     * Returns the handles changed since the previous checkpoint, grouped by entry point, and starts tracking a new interval
+     */
+    synchronized Map<String, Map<Long, InternalFactHandle>> checkpoint(KieSession ksession) {
+        for (Map.Entry<String, Map<Long, InternalFactHandle>> entry : liveEvents.entrySet()) {
+            EntryPoint ep = ksession.getEntryPoint(entry.getKey());
+            ObjectStore objectStore = ((NamedEntryPoint) ep).getObjectStore();
+            for (Iterator<InternalFactHandle> it = entry.getValue().values().iterator(); it.hasNext();) {
+                InternalFactHandle handle = it.next();
+                if (objectStore.getHandleForObject(handle.getObject()) != handle) {
+                    // the event expired, so it has been removed from the store without firing any delete
+                    dirtyHandles.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(handle.getId(), null);
+                    it.remove();
+                }
+            }
+        }
+
+        Map<String, Map<Long, InternalFactHandle>> result = dirtyHandles;
+        dirtyHandles = new HashMap<>();
+        pendingHandles = result;
+        pendingBase = false;
+        return result;
+    }
+
+    /**
+     * Confirms that the snapshot of the last checkpoint has been written
+     */
+    synchronized void commit() {
+        pendingHandles = null;
+        pendingBase = false;
+    }
+
+    /**
+     * Reverts the last checkpoint, whose snapshot couldn't be written. If it was the base of the chain the tracker is
+     * removed from the session, so that the next checkpoint is a full snapshot again, otherwise its handles are merged
+     * with the ones changed in the meanwhile, which are more recent.
+     */
+    synchronized void rollback(KieSession ksession) {
+        if (pendingBase) {
+            ksession.removeEventListener(this);
+        } else if (pendingHandles != null) {
+            for (Map.Entry<String, Map<Long, InternalFactHandle>> entry : pendingHandles.entrySet()) {
+                Map<Long, InternalFactHandle> handles = dirtyHandles.computeIfAbsent(entry.getKey(), k -> new HashMap<>());
+                for (Map.Entry<Long, InternalFactHandle> handle : entry.getValue().entrySet()) {
+                    if (!handles.containsKey(handle.getKey())) {
+                        handles.put(handle.getKey(), handle.getValue());
+                    }
+                }
+            }
+        }
+        commit();
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.serialization.protobuf;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import com.google.protobuf.ExtensionRegistry;
+import org.drools.core.SessionConfiguration;
+import org.drools.core.WorkingMemoryEntryPoint;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.PropagationContext;
+import org.drools.kiesession.session.StatefulKnowledgeSessionImpl;
+import org.drools.serialization.protobuf.marshalling.KieSessionInitializer;
+import org.kie.api.runtime.Environment;
+
+import static org.drools.serialization.protobuf.ProtobufChunkedOutputMarshaller.CHUNK_HEADER_SIZE;
+import static org.drools.serialization.protobuf.ProtobufChunkedOutputMarshaller.END_CHUNK;
+import static org.drools.serialization.protobuf.ProtobufChunkedOutputMarshaller.FACTS_CHUNK;
+import static org.drools.serialization.protobuf.ProtobufChunkedOutputMarshaller.SESSION_CHUNK;
+import static org.drools.serialization.protobuf.ProtobufChunkedOutputMarshaller.TIMERS_CHUNK;
+
+/**
+ * Reads a session written by ProtobufChunkedOutputMarshaller. The chunks are consumed in a pipelined fashion: the
+ * fact objects of the FACTS chunks are unmarshalled on the given executor, while the handles of the chunks already
+ * unmarshalled are inserted into the session, in the order they have been written. At most maxPendingChunks chunks
+ * are in flight at the same time, so the memory needed on top of the restored session doesn't depend on its size.
+ */
+public class ProtobufChunkedInputMarshaller {
+
+    public interface ReaderContextFactory {
+        ProtobufMarshallerReaderContext newReaderContext( InputStream stream ) throws IOException;
+    }
+
+    public static ReadSessionResult readSession( ReadableByteChannel channel,
+                                                 ReaderContextFactory contextFactory,
+                                                 Executor executor,
+                                                 int maxPendingChunks,
+                                                 int id,
+                                                 Environment environment,
+                                                 SessionConfiguration config,
+                                                 KieSessionInitializer initializer) throws IOException, ClassNotFoundException {
+        ChunkReader reader = new ChunkReader( channel );
+        if ( reader.next() != SESSION_CHUNK ) {
+            throw new IOException( "A streamed session must start with its session chunk" );
+        }
+
+        ProtobufMarshallerReaderContext context = contextFactory.newReaderContext( new ByteArrayInputStream( reader.data ) );
+        ProtobufMessages.KnowledgeSession _session = ProtobufInputMarshaller.loadAndParseSession( context );
+
+        StatefulKnowledgeSessionImpl session = ProtobufInputMarshaller.createAndInitializeSession( context,
+                                                                                                   id,
+                                                                                                   environment,
+                                                                                                   config,
+                                                                                                   _session );
+        // Initialize the session before unmarshalling data
+        if (initializer != null) {
+            initializer.init( session );
+        }
+
+        List<PropagationContext> pctxs = ProtobufInputMarshaller.prepareSession( _session, session, context );
+
+        Deque<CompletableFuture<FactsChunk>> pendingChunks = new ArrayDeque<>();
+        boolean factsRead = false;
+        for ( byte chunkType = reader.next(); chunkType != END_CHUNK; chunkType = reader.next() ) {
+            switch ( chunkType ) {
+                case FACTS_CHUNK : {
+                    if ( factsRead ) {
+                        throw new IOException( "Unexpected facts chunk after the timers of the session" );
+                    }
+                    byte[] data = reader.data;
+                    pendingChunks.add( CompletableFuture.supplyAsync( () -> readFactsChunk( contextFactory, data ), executor ) );
+                    if ( pendingChunks.size() > maxPendingChunks ) {
+                        loadFactsChunk( context, ProtobufInputMarshaller.join( pendingChunks.poll() ), pctxs );
+                    }
+                    break;
+                }
+                case TIMERS_CHUNK : {
+                    if ( !factsRead ) {
+                        readFactsState( _session, session, context, pendingChunks, pctxs );
+                        factsRead = true;
+                    }
+                    readTimersChunk( contextFactory, context, reader.data );
+                    break;
+                }
+                default : {
+                    throw new IOException( "Unknown chunk type " + chunkType + " in streamed session" );
+                }
+            }
+        }
+
+        if ( !factsRead ) {
+            readFactsState( _session, session, context, pendingChunks, pctxs );
+        }
+
+        ProtobufInputMarshaller.completeSession( context, session.getAgenda() );
+        context.close();
+
+        return new ReadSessionResult( session, _session );
+    }
+
+    private static void readFactsState( ProtobufMessages.KnowledgeSession _session,
+                                        StatefulKnowledgeSessionImpl session,
+                                        ProtobufMarshallerReaderContext context,
+                                        Deque<CompletableFuture<FactsChunk>> pendingChunks,
+                                        List<PropagationContext> pctxs) throws IOException, ClassNotFoundException {
+        while ( !pendingChunks.isEmpty() ) {
+            loadFactsChunk( context, ProtobufInputMarshaller.join( pendingChunks.poll() ), pctxs );
+        }
+
+        context.getWorkingMemory().getFactHandleFactory().doRecycleIds( context.getHandles().keySet() );
+
+        for ( ProtobufMessages.EntryPoint _ep : _session.getRuleData().getEntryPointList() ) {
+            WorkingMemoryEntryPoint wmep = context.getWorkingMemory().getEntryPoint( _ep.getEntryPointId() );
+            ProtobufInputMarshaller.readTruthMaintenanceSystem( session, context, wmep, _ep, pctxs );
+        }
+
+        ProtobufInputMarshaller.readSessionState( _session, context, pctxs );
+    }
+
+    private static FactsChunk readFactsChunk( ReaderContextFactory contextFactory,
+                                              byte[] data ) {
+        try (ProtobufMarshallerReaderContext chunkContext = contextFactory.newReaderContext( new ByteArrayInputStream( data ) )) {
+            ExtensionRegistry registry = ProtobufInputMarshaller.buildRegistry( chunkContext );
+            ProtobufMessages.Header _header = PersisterHelper.readFromStreamWithHeaderPreloaded( chunkContext, registry );
+            ProtobufMessages.EntryPoint _ep = ProtobufMessages.EntryPoint.parseFrom( _header.getPayload(), registry );
+
+            Object[] objects = new Object[_ep.getHandleCount()];
+            for ( int i = 0; i < objects.length; i++ ) {
+                objects[i] = ProtobufInputMarshaller.readFactObject( chunkContext, _ep.getHandle( i ) );
+            }
+            return new FactsChunk( _ep, objects );
+        } catch ( IOException | ClassNotFoundException e ) {
+            throw new CompletionException( e );
+        }
+    }
+
+    private static void loadFactsChunk( ProtobufMarshallerReaderContext context,
+                                        FactsChunk chunk,
+                                        List<PropagationContext> pctxs) {
+        InternalWorkingMemory wm = context.getWorkingMemory();
+        WorkingMemoryEntryPoint entryPoint = wm.getEntryPoint( chunk._ep.getEntryPointId() );
+        ProtobufInputMarshaller.loadFactHandles( context, wm, entryPoint, entryPoint.getObjectStore(), chunk._ep.getHandleList(), chunk.objects, pctxs );
+    }
+
+    private static void readTimersChunk( ReaderContextFactory contextFactory,
+                                         ProtobufMarshallerReaderContext context,
+                                         byte[] data ) throws IOException, ClassNotFoundException {
+        ProtobufMessages.Timers _timers;
+        try (ProtobufMarshallerReaderContext chunkContext = contextFactory.newReaderContext( new ByteArrayInputStream( data ) )) {
+            ExtensionRegistry registry = ProtobufInputMarshaller.buildRegistry( chunkContext );
+            ProtobufMessages.Header _header = PersisterHelper.readFromStreamWithHeaderPreloaded( chunkContext, registry );
+            _timers = ProtobufMessages.Timers.parseFrom( _header.getPayload(), registry );
+        }
+        for ( ProtobufMessages.Timers.Timer _timer : _timers.getTimerList() ) {
+            ProtobufInputMarshaller.readTimer( context, _timer );
+        }
+    }
+
+    private static class FactsChunk {
+        private final ProtobufMessages.EntryPoint _ep;
+        private final Object[] objects;
+
+        private FactsChunk( ProtobufMessages.EntryPoint _ep,
+                            Object[] objects ) {
+            this._ep = _ep;
+            this.objects = objects;
+        }
+    }
+
+    private static class ChunkReader {
+        private final ReadableByteChannel channel;
+        private final ByteBuffer header = ByteBuffer.allocate( CHUNK_HEADER_SIZE );
+
+        private byte[] data;
+
+        private ChunkReader( ReadableByteChannel channel ) {
+            this.channel = channel;
+        }
+
+        /**
+         * Reads the next chunk, returning its type, while its content is available in data
+         */
+        private byte next() throws IOException {
+            header.clear();
+            readFully( header );
+            header.flip();
+            byte chunkType = header.get();
+            data = new byte[header.getInt()];
+            readFully( ByteBuffer.wrap( data ) );
+            return chunkType;
+        }
+
+        private void readFully( ByteBuffer buffer ) throws IOException {
+            while ( buffer.hasRemaining() ) {
+                if ( channel.read( buffer ) < 0 ) {
+                    throw new EOFException( "Unexpected end of the streamed session" );
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.serialization.protobuf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import com.google.protobuf.Message;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.ObjectStore;
+import org.drools.core.time.impl.TimerJobInstance;
+import org.drools.kiesession.entrypoints.NamedEntryPoint;
+import org.drools.kiesession.session.StatefulKnowledgeSessionImpl;
+import org.drools.serialization.protobuf.ProtobufMessages.Timers.Timer;
+import org.kie.api.runtime.rule.EntryPoint;
+
+/**
+ * Writes a session to a channel as a sequence of length-delimited chunks, so that the whole session never has to be
+ * held in memory as a single protobuf message. Each chunk is framed by its type (1 byte) and its length (4 bytes),
+ * and holds a complete marshalled Header, with its own strategies index, signature and payload:
+ * <ul>
+ *     <li>SESSION, a KnowledgeSession with everything but its fact handles and timers</li>
+ *     <li>FACTS, an EntryPoint with a run of consecutive fact handles, in the same id order as a classic snapshot</li>
+ *     <li>TIMERS, a batch of Timers</li>
+ *     <li>END, with no content, marking the end of the session</li>
+ * </ul>
+ * As every chunk is self-contained, the FACTS ones can be unmarshalled independently on different threads.
+ */
+public class ProtobufChunkedOutputMarshaller {
+
+    static final byte END_CHUNK = 0;
+    static final byte SESSION_CHUNK = 1;
+    static final byte FACTS_CHUNK = 2;
+    static final byte TIMERS_CHUNK = 3;
+
+    static final int CHUNK_HEADER_SIZE = 5;
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    public interface WriteContextFactory {
+        ProtobufMarshallerWriteContext newWriteContext( OutputStream stream ) throws IOException;
+    }
+
+    /**
+     * Writes the session of the write contexts created by the given factory, with at most chunkSize fact handles or timers per chunk
+     */
+    public static void writeSession( WritableByteChannel channel,
+                                     WriteContextFactory contextFactory,
+                                     int chunkSize ) throws IOException {
+        ChunkWriter writer = new ChunkWriter( channel, contextFactory );
+        ProtobufMarshallerWriteContext context = writer.start();
+        StatefulKnowledgeSessionImpl wm = (StatefulKnowledgeSessionImpl) context.getWorkingMemory();
+
+        try {
+            ProtobufOutputMarshaller.lockSession( wm );
+
+            writer.finish( SESSION_CHUNK, ProtobufOutputMarshaller.serializeSession( context, null, false ) );
+
+            for ( EntryPoint wmep : wm.getEntryPoints() ) {
+                writeFactHandles( writer, wmep.getEntryPointId(), ((NamedEntryPoint) wmep).getObjectStore(), chunkSize );
+            }
+
+            writeTimers( writer, wm.getTimerJobInstances( wm.getIdentifier() ), chunkSize );
+
+            writer.writeChunk( END_CHUNK, new byte[0] );
+        } finally {
+            ProtobufOutputMarshaller.unlockSession( wm );
+        }
+    }
+
+    private static void writeFactHandles( ChunkWriter writer,
+                                          String entryPointId,
+                                          ObjectStore objectStore,
+                                          int chunkSize ) throws IOException {
+        // the handles are written in consecutive runs of the whole entry point sorted by id, as in the classic snapshot,
+        // so that the restore inserts them in the same order and rebuilds the same memories and agenda
+        InternalFactHandle[] handles = ProtobufOutputMarshaller.orderFacts( objectStore );
+        for ( int from = 0; from < handles.length; from += chunkSize ) {
+            writeFactsChunk( writer, entryPointId, handles, from, Math.min( from + chunkSize, handles.length ) );
+        }
+    }
+
+    private static void writeFactsChunk( ChunkWriter writer,
+                                         String entryPointId,
+                                         InternalFactHandle[] handles,
+                                         int from,
+                                         int to ) throws IOException {
+        ProtobufMarshallerWriteContext context = writer.start();
+        ProtobufMessages.EntryPoint.Builder _epb = ProtobufMessages.EntryPoint.newBuilder();
+        _epb.setEntryPointId( entryPointId );
+
+        for ( int i = from; i < to; i++ ) {
+            _epb.addHandle( ProtobufOutputMarshaller.writeFactHandle( context, context.getObjectMarshallingStrategyStore(), handles[i] ) );
+        }
+
+        writer.finish( FACTS_CHUNK, _epb.build() );
+    }
+
+    private static void writeTimers( ChunkWriter writer,
+                                     Iterable<TimerJobInstance> timers,
+                                     int chunkSize ) throws IOException {
+        ProtobufMarshallerWriteContext context = null;
+        ProtobufMessages.Timers.Builder _timers = null;
+        for ( TimerJobInstance timer : timers ) {
+            if ( context == null ) {
+                context = writer.start();
+                _timers = ProtobufMessages.Timers.newBuilder();
+            }
+            Timer _timer = ProtobufOutputMarshaller.writeTimer( timer, context );
+            if ( _timer != null ) {
+                _timers.addTimer( _timer );
+                if ( _timers.getTimerCount() == chunkSize ) {
+                    writer.finish( TIMERS_CHUNK, _timers.build() );
+                    context = null;
+                }
+            }
+        }
+
+        if ( context != null ) {
+            if ( _timers.getTimerCount() > 0 ) {
+                writer.finish( TIMERS_CHUNK, _timers.build() );
+            } else {
+                context.close();
+            }
+        }
+    }
+
+    private static class ChunkWriter {
+        private final WritableByteChannel channel;
+        private final WriteContextFactory contextFactory;
+
+        private ByteArrayOutputStream bytes;
+        private ProtobufMarshallerWriteContext context;
+
+        private ChunkWriter( WritableByteChannel channel,
+                             WriteContextFactory contextFactory ) {
+            this.channel = channel;
+            this.contextFactory = contextFactory;
+        }
+
+        private ProtobufMarshallerWriteContext start() throws IOException {
+            bytes = new ByteArrayOutputStream();
+            context = contextFactory.newWriteContext( bytes );
+            return context;
+        }
+
+        private void finish( byte chunkType,
+                             Message payload ) throws IOException {
+            PersisterHelper.writeToStreamWithHeader( context, payload );
+            context.close();
+            writeChunk( chunkType, bytes.toByteArray() );
+            bytes = null;
+            context = null;
+        }
+
+        private void writeChunk( byte chunkType,
+                                 byte[] chunk ) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate( CHUNK_HEADER_SIZE );
+            header.put( chunkType ).putInt( chunk.length ).flip();
+            writeFully( header );
+            writeFully( ByteBuffer.wrap( chunk ) );
+        }
+
+        private void writeFully( ByteBuffer buffer ) throws IOException {
+            while ( buffer.hasRemaining() ) {
+                channel.write( buffer );
+            }
+        }
+    }
+}
@@ -80,6 +80,7 @@ import org.kie.api.runtime.rule.Match;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -88,7 +89,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -100,6 +105,9 @@ public class ProtobufInputMarshaller {
 
     private static final ProcessMarshaller PROCESS_MARSHALLER = createProcessMarshaller();
 
+    // the number of fact handles unmarshalled by each task of a parallel restore, and propagated at once into the network
+    static final int RESTORE_BATCH_SIZE = 1024;
+
     private static ProcessMarshaller createProcessMarshaller() {
         try {
             return ProcessMarshallerFactory.newProcessMarshaller();
@@ -133,6 +141,69 @@ public class ProtobufInputMarshaller {
 
         ProtobufMessages.KnowledgeSession _session = loadAndParseSession( context );
 
+        return readSession( context, _session, id, environment, config, initializer );
+    }
+
+    /**
+     * Restores a session from an incremental snapshot chain, made of a full base snapshot followed by the deltas
+     * written on top of it, one reader context per snapshot. The fact handles of each entry point are merged by id
+     * over the whole chain, while everything else (agenda, timers, TMS, node memories...) comes from the last
+     * snapshot, which always contains it in full. The objects of the handles not rewritten by the last snapshot are
+     * unmarshalled with the context of the snapshot that holds their latest state, as strategy indexes and contexts
+     * are local to each snapshot.
+     */
+    public static ReadSessionResult readSession( List<ProtobufMarshallerReaderContext> chain,
+                                                 int id,
+                                                 Environment environment,
+                                                 SessionConfiguration config,
+                                                 KieSessionInitializer initializer) throws IOException, ClassNotFoundException {
+        int last = chain.size() - 1;
+
+        // entry point id -> handle id -> latest state of the handle, and the position in the chain of the snapshot holding it
+        Map<String, Map<Long, FactHandle>> mergedHandles = new HashMap<>();
+        Map<Long, Integer> handleSources = new HashMap<>();
+        ProtobufMessages.KnowledgeSession _lastSession = null;
+        for ( int i = 0; i <= last; i++ ) {
+            _lastSession = loadAndParseSession( chain.get( i ) );
+            for ( ProtobufMessages.EntryPoint _ep : _lastSession.getRuleData().getEntryPointList() ) {
+                Map<Long, FactHandle> handles = mergedHandles.computeIfAbsent( _ep.getEntryPointId(), k -> new TreeMap<>() );
+                for ( FactHandle _handle : _ep.getHandleList() ) {
+                    if ( _handle.hasType() ) {
+                        handles.put( _handle.getId(), _handle );
+                        handleSources.put( _handle.getId(), i );
+                    } else {
+                        // tombstone of a handle deleted since the previous snapshot
+                        handles.remove( _handle.getId() );
+                        handleSources.remove( _handle.getId() );
+                    }
+                }
+            }
+        }
+
+        ProtobufMarshallerReaderContext context = chain.get( last );
+        ProtobufMessages.RuleData.Builder _ruleData = _lastSession.getRuleData().toBuilder().clearEntryPoint();
+        for ( ProtobufMessages.EntryPoint _ep : _lastSession.getRuleData().getEntryPointList() ) {
+            ProtobufMessages.EntryPoint.Builder _epb = _ep.toBuilder().clearHandle();
+            for ( FactHandle _handle : mergedHandles.get( _ep.getEntryPointId() ).values() ) {
+                int source = handleSources.get( _handle.getId() );
+                if ( source != last ) {
+                    context.getResolvedObjects().put( _handle.getId(), readFactObject( chain.get( source ), _handle ) );
+                    _handle = _handle.toBuilder().clearStrategyIndex().clearObject().build();
+                }
+                _epb.addHandle( _handle );
+            }
+            _ruleData.addEntryPoint( _epb.build() );
+        }
+
+        return readSession( context, _lastSession.toBuilder().setRuleData( _ruleData.build() ).build(), id, environment, config, initializer );
+    }
+
+    private static ReadSessionResult readSession( ProtobufMarshallerReaderContext context,
+                                                  ProtobufMessages.KnowledgeSession _session,
+                                                  int id,
+                                                  Environment environment,
+                                                  SessionConfiguration config,
+                                                  KieSessionInitializer initializer) throws IOException, ClassNotFoundException {
         StatefulKnowledgeSessionImpl session = createAndInitializeSession( context,
                                                                            id,
                                                                            environment,
@@ -164,7 +235,7 @@ public class ProtobufInputMarshaller {
         return agenda;
     }
 
-    private static StatefulKnowledgeSessionImpl createAndInitializeSession( ProtobufMarshallerReaderContext context,
+    static StatefulKnowledgeSessionImpl createAndInitializeSession( ProtobufMarshallerReaderContext context,
                                                                             int id,
                                                                             Environment environment,
                                                                             SessionConfiguration config,
@@ -182,20 +253,55 @@ public class ProtobufInputMarshaller {
         return session;
     }
 
-    private static ProtobufMessages.KnowledgeSession loadAndParseSession( MarshallerReaderContext context) throws IOException,
-                                                                                                         ClassNotFoundException {
-        ExtensionRegistry registry = PersisterHelper.buildRegistry( context, PROCESS_MARSHALLER);
+    static ProtobufMessages.KnowledgeSession loadAndParseSession( MarshallerReaderContext context) throws IOException,
+                                                                                                 ClassNotFoundException {
+        ExtensionRegistry registry = buildRegistry( context );
 
         ProtobufMessages.Header _header = PersisterHelper.readFromStreamWithHeaderPreloaded( context, registry );
 
         return ProtobufMessages.KnowledgeSession.parseFrom( _header.getPayload(), registry );
     }
 
+    static ExtensionRegistry buildRegistry( MarshallerReaderContext context ) {
+        return PersisterHelper.buildRegistry( context, PROCESS_MARSHALLER );
+    }
+
     public static StatefulKnowledgeSessionImpl readSession( ProtobufMessages.KnowledgeSession _session,
                                                             StatefulKnowledgeSessionImpl session,
                                                             InternalAgenda agenda,
                                                             ProtobufMarshallerReaderContext context) throws IOException,
                                                                                     ClassNotFoundException {
+        List<PropagationContext> pctxs = prepareSession( _session, session, context );
+
+        for ( ProtobufMessages.EntryPoint _ep : _session.getRuleData().getEntryPointList() ) {
+            WorkingMemoryEntryPoint wmep = context.getWorkingMemory().getEntryPoint(_ep.getEntryPointId());
+            readFactHandles( context, _ep, wmep.getObjectStore(), pctxs );
+
+            context.getWorkingMemory().getFactHandleFactory().doRecycleIds( context.getHandles().keySet() );
+
+            readTruthMaintenanceSystem( session, context, wmep, _ep, pctxs );
+
+        }
+
+        readSessionState( _session, context, pctxs );
+
+        if ( _session.hasTimers() ) {
+            for ( ProtobufMessages.Timers.Timer _timer : _session.getTimers().getTimerList() ) {
+                readTimer( context, _timer );
+            }
+        }
+
+        completeSession( context, agenda );
+
+        return session;
+    }
+
+    /**
+     * Sets up the session before its fact handles are read, returning the list collecting the propagation contexts of their insertions
+     */
+    static List<PropagationContext> prepareSession( ProtobufMessages.KnowledgeSession _session,
+                                                    StatefulKnowledgeSessionImpl session,
+                                                    ProtobufMarshallerReaderContext context) {
         GlobalResolver globalResolver = (GlobalResolver) context.env.get( EnvironmentName.GLOBALS );
         if ( globalResolver != null ) {
             session.setGlobalResolver( globalResolver );
@@ -221,16 +327,16 @@ public class ProtobufInputMarshaller {
             context.getHandles().put( session.getInitialFactHandle().getId(), session.getInitialFactHandle() );
         }
 
-        for ( ProtobufMessages.EntryPoint _ep : _session.getRuleData().getEntryPointList() ) {
-            WorkingMemoryEntryPoint wmep = context.getWorkingMemory().getEntryPoint(_ep.getEntryPointId());
-            readFactHandles( context, _ep, wmep.getObjectStore(), pctxs );
-
-            context.getWorkingMemory().getFactHandleFactory().doRecycleIds( context.getHandles().keySet() );
-
-            readTruthMaintenanceSystem( session, context, wmep, _ep, pctxs );
-
-        }
+        return pctxs;
+    }
 
+    /**
+     * Reads the state of the session depending on its fact handles, once all of them and their TMS have been read
+     */
+    static void readSessionState( ProtobufMessages.KnowledgeSession _session,
+                                  ProtobufMarshallerReaderContext context,
+                                  List<PropagationContext> pctxs) throws IOException,
+                                                                         ClassNotFoundException {
         context.getFilter().evaluateRNEAs( context.getWorkingMemory() );
         cleanReaderContexts( pctxs );
         context.getWorkingMemory().getFactHandleFactory().stopRecycleIds();
@@ -255,13 +361,13 @@ public class ProtobufInputMarshaller {
                 throw new IllegalStateException( "No process marshaller, unable to unmarshall process data." );
             }
         }
+    }
 
-        if ( _session.hasTimers() ) {
-            for ( ProtobufMessages.Timers.Timer _timer : _session.getTimers().getTimerList() ) {
-                readTimer( context, _timer );
-            }
-        }
-
+    /**
+     * Completes the session once its timers have been read
+     */
+    static void completeSession( ProtobufMarshallerReaderContext context,
+                                 InternalAgenda agenda) {
         // need to process any eventual left over timer node timers
         if ( ! context.timerNodeSchedulers.isEmpty() ) {
             for ( Map<TupleKey, Scheduler> schedulers : context.timerNodeSchedulers.values() ) {
@@ -276,8 +382,6 @@ public class ProtobufInputMarshaller {
 
         // remove the activations filter
         agenda.setActivationsFilter( null );
-
-        return session;
     }
 
     private static void readNodeMemories( ProtobufMarshallerReaderContext context,
@@ -410,49 +514,136 @@ public class ProtobufInputMarshaller {
         EntryPoint entryPoint = context.getWorkingMemory().getEntryPoint(_ep.getEntryPointId());
         
         // load the handles
-        for ( ProtobufMessages.FactHandle _handle : _ep.getHandleList() ) {
-            InternalFactHandle handle = readFactHandle( context, entryPoint, _handle );
+        List<FactHandle> _handles = _ep.getHandleList();
+        loadFactHandles( context, wm, entryPoint, objectStore, _handles, readFactObjects( context, _handles ), pctxs );
+    }
 
-            context.getHandles().put( handle.getId(), handle );
+    /**
+     * Unmarshals the objects of the given handles. When the context has a restore executor, they are unmarshalled in
+     * slices of RESTORE_BATCH_SIZE handles running on it, so the strategies in use must allow concurrent unmarshalling,
+     * without reading from the ObjectInputStream they receive.
+     */
+    static Object[] readFactObjects( ProtobufMarshallerReaderContext context,
+                                     List<FactHandle> _handles) throws IOException,
+                                                                       ClassNotFoundException {
+        Object[] objects = new Object[_handles.size()];
+        Executor executor = context.getRestoreExecutor();
+        if ( executor == null || objects.length <= RESTORE_BATCH_SIZE ) {
+            for ( int i = 0; i < objects.length; i++ ) {
+                objects[i] = readFactObject( context, _handles.get( i ) );
+            }
+            return objects;
+        }
 
-            if ( !_handle.getIsJustified() ) {
-                // BeliefSystem handles the Object type 
-                if ( handle.getObject() != null ) {
-                    objectStore.addHandle( handle, handle.getObject() );
+        List<CompletableFuture<Void>> slices = new ArrayList<>();
+        for ( int from = 0; from < objects.length; from += RESTORE_BATCH_SIZE ) {
+            int start = from;
+            int end = Math.min( from + RESTORE_BATCH_SIZE, objects.length );
+            slices.add( CompletableFuture.runAsync( () -> {
+                try {
+                    for ( int i = start; i < end; i++ ) {
+                        objects[i] = readFactObject( context, _handles.get( i ) );
+                    }
+                } catch ( IOException | ClassNotFoundException e ) {
+                    throw new CompletionException( e );
                 }
+            }, executor ) );
+        }
+        for ( CompletableFuture<Void> slice : slices ) {
+            join( slice );
+        }
+        return objects;
+    }
 
-                // add handle to object type node
-                assertHandleIntoOTN( context, wm, handle, pctxs );
+    /**
+     * Loads the given handles, holding the given objects, into the session. They are added to the object store and
+     * propagated into the network in batches of RESTORE_BATCH_SIZE handles, flushing the propagations once per batch.
+     */
+    static void loadFactHandles( ProtobufMarshallerReaderContext context,
+                                 InternalWorkingMemory wm,
+                                 EntryPoint entryPoint,
+                                 ObjectStore objectStore,
+                                 List<FactHandle> _handles,
+                                 Object[] objects,
+                                 List<PropagationContext> pctxs) {
+        List<InternalFactHandle> storedHandles = new ArrayList<>();
+        List<InternalFactHandle> assertedHandles = new ArrayList<>();
+        for ( int from = 0; from < objects.length; from += RESTORE_BATCH_SIZE ) {
+            int end = Math.min( from + RESTORE_BATCH_SIZE, objects.length );
+            for ( int i = from; i < end; i++ ) {
+                FactHandle _handle = _handles.get( i );
+                InternalFactHandle handle = readFactHandle( entryPoint, _handle, objects[i] );
+
+                context.getHandles().put( handle.getId(), handle );
+
+                if ( !_handle.getIsJustified() ) {
+                    // BeliefSystem handles the Object type 
+                    if ( handle.getObject() != null ) {
+                        storedHandles.add( handle );
+                    }
+                    assertedHandles.add( handle );
+                }
             }
 
-            if (handle.isExpired()) {
-                wm.addPropagation(new WorkingMemoryReteExpireAction((DefaultEventHandle) handle));
+            objectStore.addHandles( storedHandles );
+
+            // add handles to object type node
+            assertHandlesIntoOTN( context, wm, assertedHandles, pctxs );
+
+            for ( int i = from; i < end; i++ ) {
+                InternalFactHandle handle = context.getHandles().get( _handles.get( i ).getId() );
+                if (handle.isExpired()) {
+                    wm.addPropagation(new WorkingMemoryReteExpireAction((DefaultEventHandle) handle));
+                }
             }
+
+            storedHandles.clear();
+            assertedHandles.clear();
         }
     }
 
-    private static void assertHandleIntoOTN( ProtobufMarshallerReaderContext context,
-                                             InternalWorkingMemory wm,
-                                             InternalFactHandle handle,
-                                             List<PropagationContext> pctxs) {
-        Object object = handle.getObject();
-        WorkingMemoryEntryPoint ep = handle.getEntryPoint(wm);
-        ObjectTypeConf typeConf = ep.getObjectTypeConfigurationRegistry().getOrCreateObjectTypeConf( ep.getEntryPoint(), object );
-
+    private static void assertHandlesIntoOTN( ProtobufMarshallerReaderContext context,
+                                              InternalWorkingMemory wm,
+                                              List<InternalFactHandle> handles,
+                                              List<PropagationContext> pctxs) {
         PropagationContextFactory pctxFactory = RuntimeComponentFactory.get().getPropagationContextFactory();
 
-        PropagationContext propagationContext = pctxFactory.createPropagationContext(wm.getNextPropagationIdCounter(), PropagationContext.Type.INSERTION, null, null, handle, ep.getEntryPoint(), context);
-        // keeping this list for a later cleanup is necessary because of the lazy propagations that might occur
-        pctxs.add( propagationContext );
+        for ( InternalFactHandle handle : handles ) {
+            Object object = handle.getObject();
+            WorkingMemoryEntryPoint ep = handle.getEntryPoint(wm);
+            ObjectTypeConf typeConf = ep.getObjectTypeConfigurationRegistry().getOrCreateObjectTypeConf( ep.getEntryPoint(), object );
+
+            PropagationContext propagationContext = pctxFactory.createPropagationContext(wm.getNextPropagationIdCounter(), PropagationContext.Type.INSERTION, null, null, handle, ep.getEntryPoint(), context);
+            // keeping this list for a later cleanup is necessary because of the lazy propagations that might occur
+            pctxs.add( propagationContext );
 
-        ep.getEntryPointNode().assertObject( handle,
-                                             propagationContext,
-                                             typeConf,
-                                             wm );
+            ep.getEntryPointNode().assertObject( handle,
+                                                 propagationContext,
+                                                 typeConf,
+                                                 wm );
+        }
 
         wm.flushPropagations();
     }
 
+    static <T> T join( CompletableFuture<T> future ) throws IOException, ClassNotFoundException {
+        try {
+            return future.join();
+        } catch ( CompletionException e ) {
+            Throwable cause = e.getCause();
+            if ( cause instanceof IOException ) {
+                throw (IOException) cause;
+            }
+            if ( cause instanceof ClassNotFoundException ) {
+                throw (ClassNotFoundException) cause;
+            }
+            if ( cause instanceof RuntimeException ) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
     private static void cleanReaderContexts(List<PropagationContext> pctxs) {
         for ( PropagationContext ctx : pctxs ) {
             ctx.cleanReaderContext();
@@ -463,17 +654,12 @@ public class ProtobufInputMarshaller {
                                                      EntryPoint entryPoint,
                                                      FactHandle _handle) throws IOException,
                                                                        ClassNotFoundException {
-        Object object = null;
-        ObjectMarshallingStrategy strategy = null;
-        if ( _handle.hasStrategyIndex() ) {
-            strategy = context.getUsedStrategies().get( _handle.getStrategyIndex() );
-            object = strategy.unmarshal( context.getStrategyContexts().get( strategy ),
-                                         context,
-                                         _handle.getObject().toByteArray(),
-                                         (context.getKnowledgeBase() == null) ? null : context.getKnowledgeBase().getRootClassLoader() );
-        }
-
+        return readFactHandle( entryPoint, _handle, readFactObject( context, _handle ) );
+    }
 
+    private static InternalFactHandle readFactHandle( EntryPoint entryPoint,
+                                                      FactHandle _handle,
+                                                      Object object) {
         InternalFactHandle handle;
         switch ( _handle.getType() ) {
             case FACT : {
@@ -509,6 +695,19 @@ public class ProtobufInputMarshaller {
         return handle;
     }
 
+    static Object readFactObject( ProtobufMarshallerReaderContext context,
+                                  FactHandle _handle) throws IOException,
+                                                             ClassNotFoundException {
+        if ( _handle.hasStrategyIndex() ) {
+            ObjectMarshallingStrategy strategy = context.getUsedStrategies().get( _handle.getStrategyIndex() );
+            return strategy.unmarshal( context.getStrategyContexts().get( strategy ),
+                                       context,
+                                       _handle.getObject().toByteArray(),
+                                       (context.getKnowledgeBase() == null) ? null : context.getKnowledgeBase().getRootClassLoader() );
+        }
+        return context.getResolvedObjects().get( _handle.getId() );
+    }
+
     public static void readTruthMaintenanceSystem( StatefulKnowledgeSessionImpl session,
                                                    ProtobufMarshallerReaderContext context,
                                                    EntryPoint wmep,
@@ -545,10 +744,10 @@ public class ProtobufInputMarshaller {
                 handle.getEntryPoint((( NamedEntryPoint ) wmep).getReteEvaluator()).getObjectStore()
                         .addHandle( handle, handle.getObject() );
                 // add handle to object type node
-                assertHandleIntoOTN( context,
-                                     context.getWorkingMemory(),
-                                     handle,
-                                     pctxs );
+                assertHandlesIntoOTN( context,
+                                      context.getWorkingMemory(),
+                                      Collections.singletonList( handle ),
+                                      pctxs );
             }
 
             for ( Long factHandleId : _key.getOtherHandleList() ) {
@@ -21,8 +21,14 @@ package org.drools.serialization.protobuf;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import org.drools.core.RuleBaseConfiguration;
 import org.drools.core.SessionConfiguration;
@@ -65,6 +71,23 @@ public class ProtobufMarshaller
         this.initializer = initializer;
     }
 
+    protected Executor restoreExecutor;
+
+    public Executor getRestoreExecutor() {
+        return restoreExecutor;
+    }
+
+    /**
+     * Sets the executor used to unmarshal the fact objects of a session in parallel while restoring it. The object
+     * marshalling strategies in use must then support concurrent unmarshalling. Only the strategies unmarshalling
+     * each object on its own, like JavaSerializableResolverStrategy, get faster: the default
+     * SerializablePlaceholderResolverStrategy deserializes all its objects sequentially when its context is read,
+     * so with it the parallel slices just look the objects up.
+     */
+    public void setRestoreExecutor( Executor restoreExecutor ) {
+        this.restoreExecutor = restoreExecutor;
+    }
+
     public static final Map<Integer, TimersInputMarshaller> TIMER_READERS = new HashMap<>();
     static {
         TIMER_READERS.put( ProtobufMessages.Timers.TimerType.BEHAVIOR_VALUE, new BehaviorJobContextTimerInputMarshaller() );
@@ -111,18 +134,98 @@ public class ProtobufMarshaller
     public void marshall(final OutputStream stream,
                          final KieSession ksession,
                          final long clockTime) throws IOException {
+        marshall( stream, ksession, clockTime, null );
+    }
+
+    /**
+     * Writes the session to the given channel in the chunked format of ProtobufChunkedOutputMarshaller, so that
+     * only one chunk of it is held in memory at any time. The channel can be restored with unmarshall(ReadableByteChannel, ...).
+     */
+    public void marshall(final WritableByteChannel channel,
+                         final KieSession ksession) throws IOException {
+        marshall( channel, ksession, ksession.getSessionClock().getCurrentTime(), ProtobufChunkedOutputMarshaller.DEFAULT_CHUNK_SIZE );
+    }
+
+    public void marshall(final WritableByteChannel channel,
+                         final KieSession ksession,
+                         final long clockTime,
+                         final int chunkSize) throws IOException {
+        ((InternalWorkingMemory) ksession).flushPropagations();
+        ProtobufChunkedOutputMarshaller.writeSession( channel,
+                                                      stream -> {
+                                                          ProtobufMarshallerWriteContext context = getMarshallerWriteContext( stream, ksession );
+                                                          context.setClockTime( clockTime );
+                                                          return context;
+                                                      },
+                                                      chunkSize );
+    }
+
+    /**
+     * Writes a checkpoint of the session for an incremental snapshot chain. The first checkpoint of a session is a
+     * full snapshot, acting as the base of the chain, while the following ones only contain the fact handles
+     * inserted, updated or deleted since the previous checkpoint. The chain can be restored with unmarshallIncremental.
+     * If the checkpoint cannot be written, its changes are written by the following one.
+     * <p>
+     * Each delta still contains the whole agenda, timers and TMS state, and restoring a chain parses all its snapshots,
+     * so a long chain should be periodically rebased with compactIncremental, or restarted with resetIncremental.
+     */
+    public void marshallIncremental(final OutputStream stream,
+                                    final KieSession ksession) throws IOException {
+        marshallIncremental( stream, ksession, ksession.getSessionClock().getCurrentTime() );
+    }
+
+    public void marshallIncremental(final OutputStream stream,
+                                    final KieSession ksession,
+                                    final long clockTime) throws IOException {
+        IncrementalSnapshotTracker tracker = IncrementalSnapshotTracker.get( ksession );
+        marshall( stream, ksession, clockTime, tracker != null ? tracker : new IncrementalSnapshotTracker() );
+    }
+
+    /**
+     * Rebases an incremental snapshot chain, writing the session it restores as a single full snapshot. This can
+     * replace the whole chain as its base, and the deltas that the session writes afterwards can be appended to it.
+     */
+    public void compactIncremental(final List<InputStream> chain,
+                                   final OutputStream stream,
+                                   Environment environment) throws IOException, ClassNotFoundException {
+        KieSession ksession = unmarshallIncremental( chain, null, environment );
+        try {
+            marshall( stream, ksession, ksession.getSessionClock().getCurrentTime() );
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    /**
+     * Starts a new incremental snapshot chain, so that the next checkpoint of the session is a full snapshot again
+     */
+    public void resetIncremental(final KieSession ksession) {
+        IncrementalSnapshotTracker tracker = IncrementalSnapshotTracker.get( ksession );
+        if ( tracker != null ) {
+            ksession.removeEventListener( tracker );
+        }
+    }
+
+    private void marshall(final OutputStream stream,
+                          final KieSession ksession,
+                          final long clockTime,
+                          final IncrementalSnapshotTracker tracker) throws IOException {
         ((InternalWorkingMemory) ksession).flushPropagations();
-        ProtobufMarshallerWriteContext context = new ProtobufMarshallerWriteContext( stream,
-                                                                     (InternalKnowledgeBase) kbase,
-                                                                     (InternalWorkingMemory) ksession,
-                                                                     RuleBaseNodes.getNodeMap( (InternalKnowledgeBase) kbase),
-                                                                     this.strategyStore,
-                                                                     this.marshallingConfig.isMarshallProcessInstances(),
-                                                                     this.marshallingConfig.isMarshallWorkItems(),
-                                                                     ksession.getEnvironment() );
+        ProtobufMarshallerWriteContext context = getMarshallerWriteContext( stream, ksession );
         context.setClockTime( clockTime );
-        ProtobufOutputMarshaller.writeSession( context );
-        context.close();
+        try {
+            ProtobufOutputMarshaller.writeSession( context, tracker );
+            context.close();
+        } catch ( IOException | RuntimeException e ) {
+            if ( tracker != null ) {
+                // the changes drained by the checkpoint have not been written
+                tracker.rollback( ksession );
+            }
+            throw e;
+        }
+        if ( tracker != null ) {
+            tracker.commit();
+        }
     }
 
     public MarshallingConfiguration getMarshallingConfiguration() {
@@ -154,15 +257,104 @@ public class ProtobufMarshaller
         return readSessionResult;
     }
 
+    /**
+     * Restores a session from an incremental snapshot chain, given as the base snapshot followed by its deltas in the
+     * order they have been written
+     */
+    public StatefulKnowledgeSession unmarshallIncremental( final List<InputStream> chain,
+                                                           KieSessionConfiguration config,
+                                                           Environment environment) throws IOException, ClassNotFoundException {
+        if ( chain.isEmpty() ) {
+            throw new IllegalArgumentException( "An incremental snapshot chain must contain at least its base snapshot" );
+        }
+
+        if ( config == null ) {
+            config = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        }
+
+        if ( environment == null ) {
+            environment = KieServices.get().newEnvironment();
+        }
+
+        List<ProtobufMarshallerReaderContext> contexts = new ArrayList<>( chain.size() );
+        for ( InputStream stream : chain ) {
+            contexts.add( getMarshallerReaderContext( stream, environment ) );
+        }
+        int id = ((InternalKnowledgeBase) this.kbase).nextWorkingMemoryCounter();
+        ReadSessionResult readSessionResult = ProtobufInputMarshaller.readSession(contexts,
+                                                                                  id,
+                                                                                  environment,
+                                                                                  config.as(SessionConfiguration.KEY),
+                                                                                  initializer);
+        for ( ProtobufMarshallerReaderContext context : contexts ) {
+            context.close();
+        }
+        if ( (config.as(SessionConfiguration.KEY)).isKeepReference() ) {
+            ((InternalKnowledgeBase) this.kbase).addStatefulSession(readSessionResult.getSession());
+        }
+        return readSessionResult.getSession();
+    }
+
+    /**
+     * Restores a session written by marshall(WritableByteChannel, ...), unmarshalling its facts on the restore
+     * executor, or on the common ForkJoinPool when it isn't set
+     */
+    public StatefulKnowledgeSession unmarshall( final ReadableByteChannel channel,
+                                                KieSessionConfiguration config,
+                                                Environment environment) throws IOException, ClassNotFoundException {
+        return unmarshall( channel, config, environment, restoreExecutor != null ? restoreExecutor : ForkJoinPool.commonPool() );
+    }
+
+    public StatefulKnowledgeSession unmarshall( final ReadableByteChannel channel,
+                                                KieSessionConfiguration config,
+                                                Environment environment,
+                                                Executor executor) throws IOException, ClassNotFoundException {
+        if ( config == null ) {
+            config = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        }
+
+        if ( environment == null ) {
+            environment = KieServices.get().newEnvironment();
+        }
+
+        Environment env = environment;
+        int id = ((InternalKnowledgeBase) this.kbase).nextWorkingMemoryCounter();
+        ReadSessionResult readSessionResult = ProtobufChunkedInputMarshaller.readSession(channel,
+                                                                                         stream -> getMarshallerReaderContext( stream, env ),
+                                                                                         executor,
+                                                                                         2 * Runtime.getRuntime().availableProcessors(),
+                                                                                         id,
+                                                                                         environment,
+                                                                                         config.as(SessionConfiguration.KEY),
+                                                                                         initializer);
+        if ( (config.as(SessionConfiguration.KEY)).isKeepReference() ) {
+            ((InternalKnowledgeBase) this.kbase).addStatefulSession(readSessionResult.getSession());
+        }
+        return readSessionResult.getSession();
+    }
+
+    private ProtobufMarshallerWriteContext getMarshallerWriteContext( final OutputStream outputStream, final KieSession ksession) throws IOException {
+        return new ProtobufMarshallerWriteContext( outputStream,
+                                                   (InternalKnowledgeBase) kbase,
+                                                   (InternalWorkingMemory) ksession,
+                                                   RuleBaseNodes.getNodeMap( (InternalKnowledgeBase) kbase),
+                                                   this.strategyStore,
+                                                   this.marshallingConfig.isMarshallProcessInstances(),
+                                                   this.marshallingConfig.isMarshallWorkItems(),
+                                                   ksession.getEnvironment() );
+    }
+
     private ProtobufMarshallerReaderContext getMarshallerReaderContext( final InputStream inputStream, final Environment environment) throws IOException {
-        return new ProtobufMarshallerReaderContext(inputStream,
-                                           (InternalKnowledgeBase) kbase,
-                                           RuleBaseNodes.getNodeMap((InternalKnowledgeBase) kbase),
-                                           this.strategyStore,
-                                           TIMER_READERS,
-                                           this.marshallingConfig.isMarshallProcessInstances(),
-                                           this.marshallingConfig.isMarshallWorkItems(),
-                                           environment);
+        ProtobufMarshallerReaderContext context = new ProtobufMarshallerReaderContext(inputStream,
+                                                                                      (InternalKnowledgeBase) kbase,
+                                                                                      RuleBaseNodes.getNodeMap((InternalKnowledgeBase) kbase),
+                                                                                      this.strategyStore,
+                                                                                      TIMER_READERS,
+                                                                                      this.marshallingConfig.isMarshallProcessInstances(),
+                                                                                      this.marshallingConfig.isMarshallWorkItems(),
+                                                                                      environment);
+        context.setRestoreExecutor( restoreExecutor );
+        return context;
     }
 
 }
@@ -25,6 +25,7 @@ import java.io.ObjectStreamClass;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.drools.core.common.BaseNode;
 import org.drools.core.common.InternalFactHandle;
@@ -60,6 +61,9 @@ public class ProtobufMarshallerReaderContext extends ObjectInputStream implement
 
     private Map<Long, InternalFactHandle>                                          handles;
 
+    // fact objects already unmarshalled from the earlier snapshots of an incremental chain, indexed by handle id
+    private final Map<Long, Object>                                                 resolvedObjects;
+
     public final Map<RightTupleKey, RightTuple> rightTuples;
     private final Map<Integer, LeftTuple>       terminalTupleMap;
     private final PBActivationsFilter                                              filter;
@@ -88,6 +92,7 @@ public class ProtobufMarshallerReaderContext extends ObjectInputStream implement
 
     private Object                                                                 parameterObject;
     private ClassLoader                                                            classLoader;
+    private Executor                                                               restoreExecutor;
     public Map<Integer, Map<TupleKey, Scheduler>>                                  timerNodeSchedulers;
 
     public ProtobufMarshallerReaderContext( InputStream stream,
@@ -121,6 +126,7 @@ public class ProtobufMarshallerReaderContext extends ObjectInputStream implement
         this.readersByInt = timerReaders;
 
         this.handles = new HashMap<>();
+        this.resolvedObjects = new HashMap<>();
         this.rightTuples = new HashMap<>();
         this.terminalTupleMap = new HashMap<>();
         this.filter = new PBActivationsFilter();
@@ -211,6 +217,18 @@ public class ProtobufMarshallerReaderContext extends ObjectInputStream implement
         return handles;
     }
 
+    public Executor getRestoreExecutor() {
+        return restoreExecutor;
+    }
+
+    public void setRestoreExecutor( Executor restoreExecutor ) {
+        this.restoreExecutor = restoreExecutor;
+    }
+
+    public Map<Long, Object> getResolvedObjects() {
+        return resolvedObjects;
+    }
+
     @Override
     public Map<Integer, LeftTuple> getTerminalTupleMap() {
         return terminalTupleMap;
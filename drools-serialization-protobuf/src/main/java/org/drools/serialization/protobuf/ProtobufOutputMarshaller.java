@@ -93,6 +93,7 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * An output marshaller that uses ProtoBuf as the marshalling framework
@@ -112,18 +113,40 @@ public class ProtobufOutputMarshaller {
     }
 
     public static void writeSession( ProtobufMarshallerWriteContext context) throws IOException {
-        ProtobufMessages.KnowledgeSession _session = serializeSession( context );
+        writeSession( context, null );
+    }
+
+    /**
+     * Writes a snapshot of the session. When a tracker is given and it is already registered on the session, only the
+     * fact handles changed since its last checkpoint are written, with deleted handles as tombstones (a handle with
+     * an id and no type). Otherwise a full snapshot is written and the tracker, if any, is registered on the session
+     * so that the following snapshots can be written as deltas on top of this one.
+     */
+    public static void writeSession( ProtobufMarshallerWriteContext context,
+                                     IncrementalSnapshotTracker tracker ) throws IOException {
+        ProtobufMessages.KnowledgeSession _session = serializeSession( context, tracker, true );
         PersisterHelper.writeToStreamWithHeader( context, _session );
     }
 
-    private static ProtobufMessages.KnowledgeSession serializeSession( MarshallerWriteContext context) throws IOException {
+    /**
+     * Serializes the session, leaving out its fact handles and timers when they are written apart, i.e. in the chunks
+     * of a streamed session
+     */
+    static ProtobufMessages.KnowledgeSession serializeSession( MarshallerWriteContext context,
+                                                               IncrementalSnapshotTracker tracker,
+                                                               boolean withFactsAndTimers ) throws IOException {
         StatefulKnowledgeSessionImpl wm = (StatefulKnowledgeSessionImpl) context.getWorkingMemory();
 
         try {
-            wm.getLock().lock();
-            for (EntryPoint ep : wm.getEntryPoints()) {
-                if (ep instanceof NamedEntryPoint) {
-                    ((NamedEntryPoint)ep).lock();
+            lockSession( wm );
+
+            // the checkpoint is taken while holding the locks, so no change can fall between two snapshots
+            Map<String, Map<Long, InternalFactHandle>> dirtyHandles = null;
+            if ( tracker != null ) {
+                if ( IncrementalSnapshotTracker.get( wm ) == tracker ) {
+                    dirtyHandles = tracker.checkpoint( wm );
+                } else {
+                    tracker.register( wm );
                 }
             }
 
@@ -159,9 +182,18 @@ public class ProtobufOutputMarshaller {
 
                 writeObjectTypeConfiguration( ((WorkingMemoryEntryPoint)wmep).getObjectTypeConfigurationRegistry(), _epb );
 
-                writeFactHandles( context,
-                                  _epb,
-                                  ((NamedEntryPoint) wmep).getObjectStore() );
+                if ( !withFactsAndTimers ) {
+                    // the handles are written in chunks of their own
+                } else if ( dirtyHandles == null ) {
+                    writeFactHandles( context,
+                                      _epb,
+                                      ((NamedEntryPoint) wmep).getObjectStore() );
+                } else {
+                    writeDirtyFactHandles( context,
+                                           _epb,
+                                           wmep,
+                                           dirtyHandles.getOrDefault( wmep.getEntryPointId(), Collections.emptyMap() ) );
+                }
 
                 writeTruthMaintenanceSystem( context,
                                              wmep,
@@ -197,21 +229,36 @@ public class ProtobufOutputMarshaller {
                 _session.setProcessData( _pdata.build() );
             }
 
-            ProtobufMessages.Timers _timers = writeTimers( context.getWorkingMemory().getTimerJobInstances( context.getWorkingMemory().getIdentifier() ),
-                                          context );
-            if ( _timers != null ) {
-                _session.setTimers( _timers );
+            if ( withFactsAndTimers ) {
+                ProtobufMessages.Timers _timers = writeTimers( context.getWorkingMemory().getTimerJobInstances( context.getWorkingMemory().getIdentifier() ),
+                                              context );
+                if ( _timers != null ) {
+                    _session.setTimers( _timers );
+                }
             }
 
             return _session.build();
         } finally {
-            for (EntryPoint ep : wm.getEntryPoints()) {
-                if (ep instanceof NamedEntryPoint) {
-                    ((NamedEntryPoint)ep).unlock();
-                }
+            unlockSession( wm );
+        }
+    }
+
+    static void lockSession( StatefulKnowledgeSessionImpl wm ) {
+        wm.getLock().lock();
+        for (EntryPoint ep : wm.getEntryPoints()) {
+            if (ep instanceof NamedEntryPoint) {
+                ((NamedEntryPoint)ep).lock();
+            }
+        }
+    }
+
+    static void unlockSession( StatefulKnowledgeSessionImpl wm ) {
+        for (EntryPoint ep : wm.getEntryPoints()) {
+            if (ep instanceof NamedEntryPoint) {
+                ((NamedEntryPoint)ep).unlock();
             }
-            wm.getLock().unlock();
         }
+        wm.getLock().unlock();
     }
 
     private static void writeObjectTypeConfiguration( ObjectTypeConfigurationRegistry otcr,
@@ -548,7 +595,35 @@ public class ProtobufOutputMarshaller {
         }
     }
 
-    private static ProtobufMessages.FactHandle writeFactHandle( MarshallerWriteContext context,
+    private static void writeDirtyFactHandles( MarshallerWriteContext context,
+                                               ProtobufMessages.EntryPoint.Builder _epb,
+                                               EntryPoint wmep,
+                                               Map<Long, InternalFactHandle> dirtyHandles) throws IOException {
+        ObjectMarshallingStrategyStore objectMarshallingStrategyStore = context.getObjectMarshallingStrategyStore();
+
+        Map<Long, InternalFactHandle> handles = new TreeMap<>( dirtyHandles );
+
+        // the TMS is always written in full, so the handles it justifies are rewritten as well to keep their status in sync
+        TruthMaintenanceSystem tms = TruthMaintenanceSystemFactory.get().getOrCreateTruthMaintenanceSystem((NamedEntryPoint) wmep);
+        if ( tms.getEqualityKeysSize() != 0 ) {
+            for (EqualityKey key : tms.getEqualityKeys()) {
+                if ( key.getStatus() == EqualityKey.JUSTIFIED ) {
+                    handles.put( key.getFactHandle().getId(), key.getFactHandle() );
+                }
+            }
+        }
+
+        for ( Map.Entry<Long, InternalFactHandle> entry : handles.entrySet() ) {
+            InternalFactHandle handle = entry.getValue();
+            if ( handle == null ) {
+                _epb.addHandle( ProtobufMessages.FactHandle.newBuilder().setId( entry.getKey() ).build() );
+            } else {
+                _epb.addHandle( writeFactHandle( context, objectMarshallingStrategyStore, handle ) );
+            }
+        }
+    }
+
+    static ProtobufMessages.FactHandle writeFactHandle( MarshallerWriteContext context,
                                                                 ObjectMarshallingStrategyStore objectMarshallingStrategyStore,
                                                                 InternalFactHandle handle) throws IOException {
         ProtobufMessages.FactHandle.Builder _handle = ProtobufMessages.FactHandle.newBuilder();
@@ -754,16 +829,7 @@ public class ProtobufOutputMarshaller {
 
             ProtobufMessages.Timers.Builder _timers = ProtobufMessages.Timers.newBuilder();
             for ( TimerJobInstance timer : sortedTimers ) {
-                JobContext jctx = timer.getJobContext();
-                if ( jctx instanceof SelfRemovalJobContext ) {
-                    jctx = ((SelfRemovalJobContext) jctx).getJobContext();
-                }
-                if (jctx instanceof ObjectTypeNode.ExpireJobContext &&
-                    !((ObjectTypeNode.ExpireJobContext) jctx).getExpireAction().getFactHandle().isValid()) {                    
-                    continue;
-                }
-                TimersOutputMarshaller writer = ( TimersOutputMarshaller ) outCtx.getWriterForClass( jctx.getClass() );
-                Timer _timer = writer.serialize( jctx, outCtx );
+                Timer _timer = writeTimer( timer, outCtx );
                 if ( _timer != null ) {
                     _timers.addTimer( _timer );
                 }
@@ -773,6 +839,20 @@ public class ProtobufOutputMarshaller {
         return null;
     }
 
+    static Timer writeTimer(TimerJobInstance timer,
+                            MarshallerWriteContext outCtx) {
+        JobContext jctx = timer.getJobContext();
+        if ( jctx instanceof SelfRemovalJobContext ) {
+            jctx = ((SelfRemovalJobContext) jctx).getJobContext();
+        }
+        if (jctx instanceof ObjectTypeNode.ExpireJobContext &&
+            !((ObjectTypeNode.ExpireJobContext) jctx).getExpireAction().getFactHandle().isValid()) {
+            return null;
+        }
+        TimersOutputMarshaller writer = ( TimersOutputMarshaller ) outCtx.getWriterForClass( jctx.getClass() );
+        return writer.serialize( jctx, outCtx );
+    }
+
     public static ProtobufMessages.Trigger writeTrigger(Trigger trigger, MarshallerWriteContext outCtx) {
         if ( trigger instanceof CronTrigger ) {
             CronTrigger cronTrigger = (CronTrigger) trigger;
@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.serialization.protobuf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.drools.core.impl.EnvironmentFactory;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.core.marshalling.ClassObjectMarshallingStrategyAcceptor;
+import org.drools.core.marshalling.SerializablePlaceholderResolverStrategy;
+import org.drools.mvel.compiler.Person;
+import org.drools.serialization.protobuf.marshalling.JavaSerializableResolverStrategy;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.kie.api.KieBase;
+import org.kie.api.io.ResourceType;
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+import org.kie.api.runtime.Environment;
+import org.kie.api.runtime.EnvironmentName;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.runtime.conf.TimerJobFactoryOption;
+import org.kie.api.time.SessionPseudoClock;
+import org.kie.internal.marshalling.MarshallerFactory;
+import org.kie.internal.utils.KieHelper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChunkedMarshallingTest {
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + "\n" +
+            "global java.util.List list\n" +
+            "rule Adult when\n" +
+            "    $p : Person( age >= 18 )\n" +
+            "then\n" +
+            "    list.add( $p.getName() );\n" +
+            "end\n" +
+            "rule Word when\n" +
+            "    $s : String() from entry-point \"words\"\n" +
+            "then\n" +
+            "    list.add( $s );\n" +
+            "end\n" +
+            "rule Timed timer (int: 10s) when\n" +
+            "    Person( name == \"Timed\" )\n" +
+            "then\n" +
+            "    list.add( \"timer\" );\n" +
+            "end\n";
+
+    @TempDir
+    public Path temp;
+
+    public static Stream<ObjectMarshallingStrategy> parameters() {
+        return Stream.of(new JavaSerializableResolverStrategy(ClassObjectMarshallingStrategyAcceptor.DEFAULT),
+                         new SerializablePlaceholderResolverStrategy(ClassObjectMarshallingStrategyAcceptor.DEFAULT));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("parameters")
+    public void testChannelRoundTrip(ObjectMarshallingStrategy strategy) throws Exception {
+        Environment env = EnvironmentFactory.newEnvironment();
+        env.set(EnvironmentName.OBJECT_MARSHALLING_STRATEGIES, new ObjectMarshallingStrategy[]{strategy});
+
+        KieSessionConfiguration ksconf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        ksconf.setOption(ClockTypeOption.PSEUDO);
+        ksconf.setOption(TimerJobFactoryOption.get("trackable"));
+
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        ProtobufMarshaller marshaller = (ProtobufMarshaller) MarshallerFactory.newMarshaller(kbase, new ObjectMarshallingStrategy[]{strategy});
+        KieSession ksession = kbase.newKieSession(ksconf, env);
+        ksession.setGlobal("list", new ArrayList<>());
+
+        Path file = temp.resolve("session.bin");
+        try {
+            for (int i = 0; i < 500; i++) {
+                ksession.insert(new Person("P" + i, i % 40));
+            }
+            assertThat(ksession.fireAllRules()).isEqualTo(adults(0, 500));
+
+            // these facts are still to be fired when the session is marshalled, and span several chunks of different types
+            for (int i = 500; i < 1000; i++) {
+                ksession.insert(new Person("P" + i, i % 40));
+                ksession.getEntryPoint("words").insert("W" + i);
+            }
+            ksession.insert(new Person("Timed", 10));
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                marshaller.marshall(channel, ksession, ksession.getSessionClock().getCurrentTime(), 64);
+            }
+        } finally {
+            ksession.dispose();
+        }
+
+        KieSession restored;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            restored = marshaller.unmarshall(channel, ksconf, env);
+        }
+        try {
+            List<String> list = new ArrayList<>();
+            restored.setGlobal("list", list);
+
+            assertThat(restored.getFactCount()).isEqualTo(1001);
+            assertThat(restored.getEntryPoint("words").getFactCount()).isEqualTo(500);
+            assertThat(restored.fireAllRules()).isEqualTo(adults(500, 1000) + 500);
+            assertThat(list).doesNotContain("P0", "timer").contains("P999", "W500");
+
+            ((SessionPseudoClock) restored.getSessionClock()).advanceTime(10, TimeUnit.SECONDS);
+            assertThat(restored.fireAllRules()).isEqualTo(1);
+            assertThat(list).endsWith("timer");
+        } finally {
+            restored.dispose();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("parameters")
+    public void testSameFiringOrderAsClassicRestore(ObjectMarshallingStrategy strategy) throws Exception {
+        String drl =
+                "global java.util.List list\n" +
+                "rule Any when\n" +
+                "    $o : Object() from entry-point \"mixed\"\n" +
+                "then\n" +
+                "    list.add( $o );\n" +
+                "end\n";
+
+        Environment env = EnvironmentFactory.newEnvironment();
+        env.set(EnvironmentName.OBJECT_MARSHALLING_STRATEGIES, new ObjectMarshallingStrategy[]{strategy});
+
+        KieBase kbase = new KieHelper().addContent(drl, ResourceType.DRL).build();
+        ProtobufMarshaller marshaller = (ProtobufMarshaller) MarshallerFactory.newMarshaller(kbase, new ObjectMarshallingStrategy[]{strategy});
+        KieSession ksession = kbase.newKieSession(null, env);
+
+        Path file = temp.resolve("mixed.bin");
+        byte[] classic;
+        try {
+            // facts of different types are interleaved, so a chunk per type would change the order of the restored matches
+            for (int i = 0; i < 100; i++) {
+                ksession.getEntryPoint("mixed").insert("S" + i);
+                ksession.getEntryPoint("mixed").insert(i);
+            }
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                marshaller.marshall(channel, ksession, ksession.getSessionClock().getCurrentTime(), 16);
+            }
+            try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+                marshaller.marshall(bos, ksession);
+                classic = bos.toByteArray();
+            }
+        } finally {
+            ksession.dispose();
+        }
+
+        List<Object> classicList = new ArrayList<>();
+        KieSession classicRestored = marshaller.unmarshall(new ByteArrayInputStream(classic), null, env);
+        try {
+            classicRestored.setGlobal("list", classicList);
+            assertThat(classicRestored.fireAllRules()).isEqualTo(200);
+        } finally {
+            classicRestored.dispose();
+        }
+
+        List<Object> chunkedList = new ArrayList<>();
+        KieSession chunkedRestored;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            chunkedRestored = marshaller.unmarshall(channel, null, env);
+        }
+        try {
+            chunkedRestored.setGlobal("list", chunkedList);
+            assertThat(chunkedRestored.fireAllRules()).isEqualTo(200);
+        } finally {
+            chunkedRestored.dispose();
+        }
+
+        assertThat(chunkedList).isEqualTo(classicList);
+    }
+
+    private static int adults(int from, int to) {
+        return (int) IntStream.range(from, to).filter(i -> i % 40 >= 18).count();
+    }
+}
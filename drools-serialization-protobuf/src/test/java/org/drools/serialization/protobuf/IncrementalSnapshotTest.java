@@ -0,0 +1,306 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.serialization.protobuf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.drools.core.impl.EnvironmentFactory;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.core.marshalling.ClassObjectMarshallingStrategyAcceptor;
+import org.drools.core.marshalling.SerializablePlaceholderResolverStrategy;
+import org.drools.mvel.compiler.Person;
+import org.drools.serialization.protobuf.marshalling.JavaSerializableResolverStrategy;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.kie.api.KieBase;
+import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.io.ResourceType;
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+import org.kie.api.runtime.Environment;
+import org.kie.api.runtime.EnvironmentName;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.runtime.conf.TimerJobFactoryOption;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.time.SessionPseudoClock;
+import org.kie.internal.marshalling.MarshallerFactory;
+import org.kie.internal.utils.KieHelper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IncrementalSnapshotTest {
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + "\n" +
+            "rule Adult when\n" +
+            "    Person( age >= 18 )\n" +
+            "then\n" +
+            "end\n";
+
+    public static Stream<ObjectMarshallingStrategy> parameters() {
+        return Stream.of(new JavaSerializableResolverStrategy(ClassObjectMarshallingStrategyAcceptor.DEFAULT),
+                         new SerializablePlaceholderResolverStrategy(ClassObjectMarshallingStrategyAcceptor.DEFAULT));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("parameters")
+    public void testRestoreDeltaChain(ObjectMarshallingStrategy strategy) throws Exception {
+        Environment env = EnvironmentFactory.newEnvironment();
+        env.set(EnvironmentName.OBJECT_MARSHALLING_STRATEGIES, new ObjectMarshallingStrategy[]{strategy});
+
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        ProtobufMarshaller marshaller = (ProtobufMarshaller) MarshallerFactory.newMarshaller(kbase, new ObjectMarshallingStrategy[]{strategy});
+        KieSession ksession = kbase.newKieSession(null, env);
+
+        List<byte[]> chain = new ArrayList<>();
+        try {
+            Person bob = new Person("Bob", 10);
+            ksession.insert(new Person("Alice", 20));
+            FactHandle bobFh = ksession.insert(bob);
+            FactHandle charlieFh = ksession.insert(new Person("Charlie", 30));
+            assertThat(ksession.fireAllRules()).isEqualTo(2);
+            chain.add(checkpoint(marshaller, ksession));
+
+            bob.setAge(40);
+            ksession.update(bobFh, bob);
+            ksession.delete(charlieFh);
+            FactHandle daveFh = ksession.insert(new Person("Dave", 50));
+            byte[] firstDelta = checkpoint(marshaller, ksession);
+            chain.add(firstDelta);
+
+            ksession.insert(new Person("Eve", 60));
+            ksession.delete(daveFh);
+            chain.add(checkpoint(marshaller, ksession));
+
+            // only the handles changed since the previous checkpoint are written, deleted ones as tombstones
+            assertThat(handleCount(firstDelta)).isEqualTo(3);
+            assertThat(handleCount(checkpoint(marshaller, ksession))).isZero();
+        } finally {
+            ksession.dispose();
+        }
+
+        List<InputStream> streams = new ArrayList<>();
+        for (byte[] snapshot : chain) {
+            streams.add(new ByteArrayInputStream(snapshot));
+        }
+        KieSession restored = marshaller.unmarshallIncremental(streams, null, env);
+        try {
+            assertThat(restored.getObjects()).extracting(o -> ((Person) o).getName()).containsExactlyInAnyOrder("Alice", "Bob", "Eve");
+            assertThat(restored.getObjects()).extracting(o -> ((Person) o).getAge()).containsExactlyInAnyOrder(20, 40, 60);
+            assertThat(restored.fireAllRules()).isEqualTo(2);
+        } finally {
+            restored.dispose();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("parameters")
+    public void testExpiredEventsAreTombstoned(ObjectMarshallingStrategy strategy) throws Exception {
+        String drl =
+                "import " + Person.class.getCanonicalName() + "\n" +
+                "declare Person @role( event ) @expires( 10s ) end\n" +
+                "rule Adult when\n" +
+                "    Person( age >= 18 )\n" +
+                "then\n" +
+                "end\n";
+
+        Environment env = EnvironmentFactory.newEnvironment();
+        env.set(EnvironmentName.OBJECT_MARSHALLING_STRATEGIES, new ObjectMarshallingStrategy[]{strategy});
+
+        KieSessionConfiguration ksconf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        ksconf.setOption(ClockTypeOption.PSEUDO);
+        ksconf.setOption(TimerJobFactoryOption.get("trackable"));
+
+        KieBase kbase = new KieHelper().addContent(drl, ResourceType.DRL).build(EventProcessingOption.STREAM);
+        ProtobufMarshaller marshaller = (ProtobufMarshaller) MarshallerFactory.newMarshaller(kbase, new ObjectMarshallingStrategy[]{strategy});
+        KieSession ksession = kbase.newKieSession(ksconf, env);
+        SessionPseudoClock clock = ksession.getSessionClock();
+
+        List<byte[]> chain = new ArrayList<>();
+        try {
+            ksession.insert(new Person("Alice", 20));
+            ksession.insert(new Person("Bob", 10));
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            chain.add(checkpoint(marshaller, ksession));
+
+            clock.advanceTime(5, TimeUnit.SECONDS);
+            ksession.insert(new Person("Charlie", 30));
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            chain.add(checkpoint(marshaller, ksession));
+
+            // Alice and Bob expire without any delete event, but the next delta must still remove them
+            clock.advanceTime(6, TimeUnit.SECONDS);
+            ksession.fireAllRules();
+            assertThat(ksession.getObjects()).extracting(o -> ((Person) o).getName()).containsExactly("Charlie");
+            byte[] expirationDelta = checkpoint(marshaller, ksession);
+            chain.add(expirationDelta);
+            assertThat(handleCount(expirationDelta)).isEqualTo(2);
+        } finally {
+            ksession.dispose();
+        }
+
+        List<InputStream> streams = new ArrayList<>();
+        for (byte[] snapshot : chain) {
+            streams.add(new ByteArrayInputStream(snapshot));
+        }
+        KieSession restored = marshaller.unmarshallIncremental(streams, ksconf, env);
+        try {
+            assertThat(restored.getObjects()).extracting(o -> ((Person) o).getName()).containsExactly("Charlie");
+
+            ((SessionPseudoClock) restored.getSessionClock()).advanceTime(5, TimeUnit.SECONDS);
+            restored.fireAllRules();
+            assertThat(restored.getObjects()).isEmpty();
+        } finally {
+            restored.dispose();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("parameters")
+    public void testFailedCheckpointIsWrittenByTheNextOne(ObjectMarshallingStrategy strategy) throws Exception {
+        Environment env = EnvironmentFactory.newEnvironment();
+        env.set(EnvironmentName.OBJECT_MARSHALLING_STRATEGIES, new ObjectMarshallingStrategy[]{strategy});
+
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        ProtobufMarshaller marshaller = (ProtobufMarshaller) MarshallerFactory.newMarshaller(kbase, new ObjectMarshallingStrategy[]{strategy});
+        KieSession ksession = kbase.newKieSession(null, env);
+
+        List<byte[]> chain = new ArrayList<>();
+        try {
+            // a failed base snapshot doesn't start the chain
+            ksession.insert(new Person("Alice", 20));
+            assertThatThrownBy(() -> marshaller.marshallIncremental(new FailingOutputStream(), ksession)).isInstanceOf(IOException.class);
+            chain.add(checkpoint(marshaller, ksession));
+            assertThat(handleCount(chain.get(0))).isEqualTo(1);
+
+            FactHandle bobFh = ksession.insert(new Person("Bob", 30));
+            assertThatThrownBy(() -> marshaller.marshallIncremental(new FailingOutputStream(), ksession)).isInstanceOf(IOException.class);
+            ksession.insert(new Person("Charlie", 40));
+            ksession.delete(bobFh);
+
+            // the next checkpoint contains both the changes of the failed one and the ones following it
+            byte[] delta = checkpoint(marshaller, ksession);
+            assertThat(handleCount(delta)).isEqualTo(2);
+            chain.add(delta);
+        } finally {
+            ksession.dispose();
+        }
+
+        KieSession restored = marshaller.unmarshallIncremental(toStreams(chain), null, env);
+        try {
+            assertThat(restored.getObjects()).extracting(o -> ((Person) o).getName()).containsExactlyInAnyOrder("Alice", "Charlie");
+        } finally {
+            restored.dispose();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("parameters")
+    public void testCompactChain(ObjectMarshallingStrategy strategy) throws Exception {
+        Environment env = EnvironmentFactory.newEnvironment();
+        env.set(EnvironmentName.OBJECT_MARSHALLING_STRATEGIES, new ObjectMarshallingStrategy[]{strategy});
+
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        ProtobufMarshaller marshaller = (ProtobufMarshaller) MarshallerFactory.newMarshaller(kbase, new ObjectMarshallingStrategy[]{strategy});
+        KieSession ksession = kbase.newKieSession(null, env);
+
+        List<byte[]> chain = new ArrayList<>();
+        byte[] lastDelta;
+        try {
+            ksession.insert(new Person("Alice", 20));
+            chain.add(checkpoint(marshaller, ksession));
+            FactHandle bobFh = ksession.insert(new Person("Bob", 30));
+            chain.add(checkpoint(marshaller, ksession));
+            ksession.delete(bobFh);
+            ksession.insert(new Person("Charlie", 40));
+            chain.add(checkpoint(marshaller, ksession));
+
+            // the compacted chain is a new base for the deltas written afterwards
+            ByteArrayOutputStream compacted = new ByteArrayOutputStream();
+            marshaller.compactIncremental(toStreams(chain), compacted, env);
+            chain.clear();
+            chain.add(compacted.toByteArray());
+            assertThat(handleCount(chain.get(0))).isEqualTo(2);
+
+            ksession.insert(new Person("Dave", 50));
+            lastDelta = checkpoint(marshaller, ksession);
+            chain.add(lastDelta);
+        } finally {
+            ksession.dispose();
+        }
+
+        assertThat(handleCount(lastDelta)).isEqualTo(1);
+        KieSession restored = marshaller.unmarshallIncremental(toStreams(chain), null, env);
+        try {
+            assertThat(restored.getObjects()).extracting(o -> ((Person) o).getName()).containsExactlyInAnyOrder("Alice", "Charlie", "Dave");
+            assertThat(restored.fireAllRules()).isEqualTo(3);
+        } finally {
+            restored.dispose();
+        }
+    }
+
+    private static List<InputStream> toStreams(List<byte[]> chain) {
+        List<InputStream> streams = new ArrayList<>();
+        for (byte[] snapshot : chain) {
+            streams.add(new ByteArrayInputStream(snapshot));
+        }
+        return streams;
+    }
+
+    private static class FailingOutputStream extends OutputStream {
+
+        private int written;
+
+        @Override
+        public void write(int b) throws IOException {
+            // let the stream header through, so that the failure happens while the snapshot is written
+            if (++written > 4) {
+                throw new IOException("disk full");
+            }
+        }
+    }
+
+    private static byte[] checkpoint(ProtobufMarshaller marshaller, KieSession ksession) throws Exception {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+            marshaller.marshallIncremental(bos, ksession);
+            return bos.toByteArray();
+        }
+    }
+
+    private static int handleCount(byte[] snapshot) throws Exception {
+        ProtobufMessages.Header header;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(snapshot))) {
+            header = ProtobufMessages.Header.parseFrom(in.readAllBytes());
+        }
+        return ProtobufMessages.KnowledgeSession.parseFrom(header.getPayload()).getRuleData().getEntryPointList().stream()
+                .mapToInt(ProtobufMessages.EntryPoint::getHandleCount)
+                .sum();
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.serialization.protobuf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.drools.core.impl.EnvironmentFactory;
+import org.drools.core.marshalling.ClassObjectMarshallingStrategyAcceptor;
+import org.drools.core.marshalling.SerializablePlaceholderResolverStrategy;
+import org.drools.mvel.compiler.Person;
+import org.drools.serialization.protobuf.marshalling.JavaSerializableResolverStrategy;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.kie.api.KieBase;
+import org.kie.api.io.ResourceType;
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+import org.kie.api.runtime.Environment;
+import org.kie.api.runtime.EnvironmentName;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.marshalling.MarshallerFactory;
+import org.kie.internal.utils.KieHelper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelRestoreTest {
+
+    private static final int FACTS = 5000;
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + "\n" +
+            "global java.util.List list\n" +
+            "rule Adult when\n" +
+            "    $p : Person( age >= 18 )\n" +
+            "    String( this == $p.name )\n" +
+            "then\n" +
+            "    list.add( $p.getName() );\n" +
+            "end\n";
+
+    public static Stream<ObjectMarshallingStrategy> parameters() {
+        return Stream.of(new JavaSerializableResolverStrategy(ClassObjectMarshallingStrategyAcceptor.DEFAULT),
+                         new SerializablePlaceholderResolverStrategy(ClassObjectMarshallingStrategyAcceptor.DEFAULT));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("parameters")
+    public void testParallelRestore(ObjectMarshallingStrategy strategy) throws Exception {
+        Environment env = EnvironmentFactory.newEnvironment();
+        env.set(EnvironmentName.OBJECT_MARSHALLING_STRATEGIES, new ObjectMarshallingStrategy[]{strategy});
+
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        ProtobufMarshaller marshaller = (ProtobufMarshaller) MarshallerFactory.newMarshaller(kbase, new ObjectMarshallingStrategy[]{strategy});
+        KieSession ksession = kbase.newKieSession(null, env);
+        ksession.setGlobal("list", new ArrayList<>());
+
+        byte[] snapshot;
+        try {
+            for (int i = 0; i < FACTS; i++) {
+                ksession.insert(new Person("P" + i, i % 40));
+                ksession.insert("P" + i);
+            }
+            try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+                marshaller.marshall(bos, ksession);
+                snapshot = bos.toByteArray();
+            }
+        } finally {
+            ksession.dispose();
+        }
+
+        // the strategy records the threads unmarshalling the facts, to check that the executor has actually been used
+        Set<String> unmarshallingThreads = ConcurrentHashMap.newKeySet();
+        ObjectMarshallingStrategy recordingStrategy = new RecordingStrategy(strategy, unmarshallingThreads);
+        env.set(EnvironmentName.OBJECT_MARSHALLING_STRATEGIES, new ObjectMarshallingStrategy[]{recordingStrategy});
+        marshaller = (ProtobufMarshaller) MarshallerFactory.newMarshaller(kbase, new ObjectMarshallingStrategy[]{recordingStrategy});
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4, r -> new Thread(r, "restore-" + threadCounter.incrementAndGet()));
+        marshaller.setRestoreExecutor(executor);
+        KieSession restored;
+        try (ByteArrayInputStream bis = new ByteArrayInputStream(snapshot)) {
+            restored = marshaller.unmarshall(bis, null, env);
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(unmarshallingThreads).isNotEmpty().allMatch(name -> name.startsWith("restore-"));
+
+        try {
+            List<String> list = new ArrayList<>();
+            restored.setGlobal("list", list);
+
+            assertThat(restored.getFactCount()).isEqualTo(2 * FACTS);
+            Object restoredObject = restored.getObjects(o -> "P42".equals(o)).iterator().next();
+            assertThat(restored.getFactHandle(restoredObject)).isNotNull();
+
+            long adults = IntStream.range(0, FACTS).filter(i -> i % 40 >= 18).count();
+            assertThat(restored.fireAllRules()).isEqualTo((int) adults);
+            assertThat(list).hasSize((int) adults).contains("P18", "P" + (FACTS - 1));
+        } finally {
+            restored.dispose();
+        }
+    }
+
+    private static class RecordingStrategy implements ObjectMarshallingStrategy {
+
+        private final ObjectMarshallingStrategy delegate;
+        private final Set<String> unmarshallingThreads;
+
+        private RecordingStrategy(ObjectMarshallingStrategy delegate, Set<String> unmarshallingThreads) {
+            this.delegate = delegate;
+            this.unmarshallingThreads = unmarshallingThreads;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public boolean accept(Object object) {
+            return delegate.accept(object);
+        }
+
+        @Override
+        public void write(ObjectOutputStream os, Object object) throws IOException {
+            delegate.write(os, object);
+        }
+
+        @Override
+        public Object read(ObjectInputStream os) throws IOException, ClassNotFoundException {
+            return delegate.read(os);
+        }
+
+        @Override
+        public byte[] marshal(Context context, ObjectOutputStream os, Object object) throws IOException {
+            return delegate.marshal(context, os, object);
+        }
+
+        @Override
+        public Object unmarshal(Context context, ObjectInputStream is, byte[] object, ClassLoader classloader) throws IOException, ClassNotFoundException {
+            unmarshallingThreads.add(Thread.currentThread().getName());
+            return delegate.unmarshal(context, is, object, classloader);
+        }
+
+        @Override
+        public Context createContext() {
+            return delegate.createContext();
+        }
+    }
+}
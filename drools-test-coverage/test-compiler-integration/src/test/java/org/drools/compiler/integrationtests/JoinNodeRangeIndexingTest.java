@@ -29,10 +29,13 @@ import java.util.stream.Stream;
 
 import org.drools.ancompiler.CompiledNetwork;
 import org.drools.core.common.BetaConstraints;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.reteoo.BetaMemory;
 import org.drools.core.reteoo.JoinNode;
 import org.drools.core.reteoo.ObjectSink;
 import org.drools.core.reteoo.ObjectSinkPropagator;
 import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.util.index.TupleIndexHashRBTree;
 import org.drools.testcoverage.common.model.Cheese;
 import org.drools.testcoverage.common.model.Person;
 import org.drools.testcoverage.common.model.Pet;
@@ -48,6 +51,7 @@ import org.kie.api.KieBase;
 import org.kie.api.builder.KieModule;
 import org.kie.api.conf.BetaRangeIndexOption;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -530,4 +534,85 @@ public class JoinNodeRangeIndexingTest {
             ksession.dispose();
         }
     }
+
+    @ParameterizedTest(name = "KieBase type={0}")
+	@MethodSource("parameters")
+    public void testCompositeEqualityAndRangeIndex(KieBaseTestConfiguration kieBaseTestConfiguration) {
+
+        final String drl = "import " + Person.class.getCanonicalName() + ";\n" +
+                           "import " + Pet.class.getCanonicalName() + ";\n" +
+                           "global java.util.Set result;\n" +
+                           "rule R1\n" +
+                           "when\n" +
+                           "   $pet : Pet()\n" +
+                           "   $person : Person( name == $pet.name, age > $pet.age )\n" +
+                           "then\n" +
+                           "   result.add( $person.getName() + \" \" + $person.getAge() + \" > \" + $pet.getAge() );\n" +
+                           "end\n" +
+                           "rule R2\n" +
+                           "when\n" +
+                           "   $pet : Pet()\n" +
+                           "   not Person( name == $pet.name, age > $pet.age )\n" +
+                           "then\n" +
+                           "   result.add( \"none for \" + $pet.getName() + \" \" + $pet.getAge() );\n" +
+                           "end\n";
+
+        final KieBase kbase = getKieBaseWithRangeIndexOption(kieBaseTestConfiguration, drl);
+
+        final KieSession ksession = kbase.newKieSession();
+        Set<String> result = new HashSet<>();
+        ksession.setGlobal("result", result);
+        try {
+            ksession.insert(new Pet("Max", 10));
+            ksession.insert(new Pet("Max", 20));
+            ksession.insert(new Pet("Oscar", 10));
+
+            Person max = new Person("Max", 15);
+            FactHandle maxFh = ksession.insert(max);
+            ksession.insert(new Person("Max", 25));
+            ksession.insert(new Person("Oscar", 5));
+
+            ksession.fireAllRules();
+            assertThat(result).containsExactlyInAnyOrder("Max 15 > 10", "Max 25 > 10", "Max 25 > 20", "none for Oscar 10");
+            assertCompositeIndex(kieBaseTestConfiguration, kbase, ksession);
+
+            result.clear();
+            max.setAge(30);
+            ksession.update(maxFh, max);
+            ksession.fireAllRules();
+            assertThat(result).containsExactlyInAnyOrder("Max 30 > 10", "Max 30 > 20");
+
+            result.clear();
+            max.setName("Oscar");
+            ksession.update(maxFh, max);
+            ksession.fireAllRules();
+            assertThat(result).containsExactlyInAnyOrder("Oscar 30 > 10");
+
+            result.clear();
+            ksession.delete(maxFh);
+            ksession.fireAllRules();
+            assertThat(result).containsExactlyInAnyOrder("none for Oscar 10");
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private void assertCompositeIndex(KieBaseTestConfiguration kieBaseTestConfiguration, KieBase kbase, KieSession ksession) {
+        final ObjectTypeNode otn = KieUtil.getObjectTypeNode(kbase, Person.class);
+        ObjectSinkPropagator objectSinkPropagator = otn.getObjectSinkPropagator();
+        if (kieBaseTestConfiguration.useAlphaNetworkCompiler()) {
+            objectSinkPropagator = ((CompiledNetwork) objectSinkPropagator).getOriginalSinkPropagator();
+        }
+
+        boolean isPassedForJoinNode = false;
+        for (ObjectSink sink : objectSinkPropagator.getSinks()) {
+            if (sink instanceof JoinNode) {
+                BetaMemory bm = (BetaMemory) ((InternalWorkingMemory) ksession).getNodeMemory((JoinNode) sink);
+                assertThat(bm.getRightTupleMemory()).isInstanceOf(TupleIndexHashRBTree.class);
+                assertThat(bm.getLeftTupleMemory()).isInstanceOf(TupleIndexHashRBTree.class);
+                isPassedForJoinNode = true;
+            }
+        }
+        assertThat(isPassedForJoinNode).isTrue();
+    }
 }
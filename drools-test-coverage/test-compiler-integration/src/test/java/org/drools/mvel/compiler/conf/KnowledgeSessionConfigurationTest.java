@@ -26,6 +26,8 @@ import org.kie.api.runtime.conf.AccumulateNullPropagationOption;
 import org.kie.api.runtime.conf.BeliefSystemTypeOption;
 import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.internal.runtime.conf.TimingWheelOption;
+import org.kie.internal.runtime.conf.VirtualThreadsOption;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -104,4 +106,50 @@ public class KnowledgeSessionConfigurationTest {
         // checking the string based getProperty() method
         assertThat(config.getProperty(AccumulateNullPropagationOption.PROPERTY_NAME)).isEqualTo("false");
     }
+
+    @Test
+    public void testVirtualThreads() {
+        // false by default
+        assertThat(config.getOption(VirtualThreadsOption.KEY)).isEqualTo(VirtualThreadsOption.NO);
+        assertThat(config.getProperty(VirtualThreadsOption.PROPERTY_NAME)).isEqualTo("false");
+
+        config.setOption(VirtualThreadsOption.YES);
+
+        assertThat(config.getOption(VirtualThreadsOption.KEY)).isEqualTo(VirtualThreadsOption.YES);
+
+        // checking the string based getProperty() method
+        assertThat(config.getProperty(VirtualThreadsOption.PROPERTY_NAME)).isEqualTo("true");
+
+        // setting the options using the string based setProperty() method
+        config.setProperty(VirtualThreadsOption.PROPERTY_NAME,
+                           "false");
+
+        // checking the type safe getOption() method
+        assertThat(config.getOption(VirtualThreadsOption.KEY)).isEqualTo(VirtualThreadsOption.NO);
+        // checking the string based getProperty() method
+        assertThat(config.getProperty(VirtualThreadsOption.PROPERTY_NAME)).isEqualTo("false");
+    }
+
+    @Test
+    public void testTimingWheelTick() {
+        // disabled by default
+        assertThat(config.getOption(TimingWheelOption.KEY)).isEqualTo(TimingWheelOption.get(0));
+        assertThat(config.getProperty(TimingWheelOption.PROPERTY_NAME)).isEqualTo("0");
+
+        config.setOption(TimingWheelOption.get(10));
+
+        assertThat(config.getOption(TimingWheelOption.KEY)).isEqualTo(TimingWheelOption.get(10));
+
+        // checking the string based getProperty() method
+        assertThat(config.getProperty(TimingWheelOption.PROPERTY_NAME)).isEqualTo("10");
+
+        // setting the options using the string based setProperty() method
+        config.setProperty(TimingWheelOption.PROPERTY_NAME,
+                           "5");
+
+        // checking the type safe getOption() method
+        assertThat(config.getOption(TimingWheelOption.KEY)).isEqualTo(TimingWheelOption.get(5));
+        // checking the string based getProperty() method
+        assertThat(config.getProperty(TimingWheelOption.PROPERTY_NAME)).isEqualTo("5");
+    }
 }
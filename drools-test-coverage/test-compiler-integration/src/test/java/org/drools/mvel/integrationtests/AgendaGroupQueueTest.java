@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.mvel.integrationtests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.KieUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil2;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.kie.api.KieBase;
+import org.kie.api.builder.KieModule;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.conf.AgendaGroupQueueOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AgendaGroupQueueTest {
+
+    public static Stream<KieBaseTestConfiguration> parameters() {
+        return TestParametersUtil2.getKieBaseCloudConfigurations(true).stream();
+    }
+
+    private static final String DRL =
+            "package org.drools.mvel.integrationtests;\n" +
+            "global java.util.List list;\n" +
+            "rule A salience 10 when\n" +
+            "  String( this == \"a\" )\n" +
+            "then\n" +
+            "  list.add(\"A\");\n" +
+            "end\n" +
+            "rule B salience 10 when\n" +
+            "  String( this == \"b\" )\n" +
+            "then\n" +
+            "  list.add(\"B\");\n" +
+            "end\n" +
+            "rule C salience 10 when\n" +
+            "  String( this == \"c\" )\n" +
+            "then\n" +
+            "  list.add(\"C\");\n" +
+            "end\n" +
+            "rule H salience 20 when\n" +
+            "  String( this == \"h\" )\n" +
+            "then\n" +
+            "  list.add(\"H\");\n" +
+            "  insert(\"l\");\n" +
+            "end\n" +
+            "rule L when\n" +
+            "  String( this == \"l\" )\n" +
+            "then\n" +
+            "  list.add(\"L\");\n" +
+            "end\n";
+
+    private static final String DYNAMIC_SALIENCE_DRL =
+            DRL +
+            "rule D salience ($i) when\n" +
+            "  $i : Integer()\n" +
+            "then\n" +
+            "  list.add(\"D\" + $i);\n" +
+            "end\n";
+
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    public void testSalienceBuckets(KieBaseTestConfiguration kieBaseTestConfiguration) {
+        assertThat(run(kieBaseTestConfiguration, DRL, AgendaGroupQueueOption.PRIORITY)).containsExactly("H", "A", "B", "C", "L");
+        assertThat(run(kieBaseTestConfiguration, DRL, AgendaGroupQueueOption.SALIENCE_FIFO)).containsExactly("H", "C", "A", "B", "L");
+        assertThat(run(kieBaseTestConfiguration, DRL, AgendaGroupQueueOption.SALIENCE_LIFO)).containsExactly("H", "B", "A", "C", "L");
+    }
+
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    public void testDynamicSalienceFallsBackToPriority(KieBaseTestConfiguration kieBaseTestConfiguration) {
+        List<String> expected = run(kieBaseTestConfiguration, DYNAMIC_SALIENCE_DRL, AgendaGroupQueueOption.PRIORITY);
+        assertThat(expected).containsExactly("D30", "H", "D15", "A", "B", "C", "D5", "L");
+        assertThat(run(kieBaseTestConfiguration, DYNAMIC_SALIENCE_DRL, AgendaGroupQueueOption.SALIENCE_FIFO)).containsExactlyElementsOf(expected);
+    }
+
+    private List<String> run(KieBaseTestConfiguration kieBaseTestConfiguration, String drl, AgendaGroupQueueOption option) {
+        KieModule kieModule = KieUtil.getKieModuleFromDrls("test", kieBaseTestConfiguration, drl);
+        KieBase kbase = KieBaseUtil.newKieBaseFromKieModuleWithAdditionalOptions(kieModule, kieBaseTestConfiguration, option);
+        KieSession ksession = kbase.newKieSession();
+        try {
+            List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+            ksession.insert("c");
+            ksession.insert("a");
+            ksession.insert("b");
+            ksession.insert("h");
+            ksession.insert(5);
+            ksession.insert(30);
+            ksession.insert(15);
+            ksession.fireAllRules();
+            return list;
+        } finally {
+            ksession.dispose();
+        }
+    }
+}
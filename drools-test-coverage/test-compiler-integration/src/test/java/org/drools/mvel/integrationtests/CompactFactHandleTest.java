@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.mvel.integrationtests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.drools.core.common.CompactFactHandle;
+import org.drools.core.common.DefaultFactHandle;
+import org.drools.mvel.compiler.Cheese;
+import org.drools.mvel.compiler.Person;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.KieUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil2;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.kie.api.KieBase;
+import org.kie.api.builder.KieModule;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.conf.CompactFactHandlesOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompactFactHandleTest {
+
+    public static Stream<KieBaseTestConfiguration> parameters() {
+        return TestParametersUtil2.getKieBaseCloudConfigurations(true).stream();
+    }
+
+    private static final String DRL =
+            "package org.drools.mvel.integrationtests;\n" +
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule Join when\n" +
+            "  $p : Person( $likes : likes )\n" +
+            "  $c : Cheese( type == $likes )\n" +
+            "then\n" +
+            "  list.add(\"join:\" + $p.getName() + \":\" + $c.getType());\n" +
+            "end\n" +
+            "rule NotCheese when\n" +
+            "  $p : Person( $likes : likes )\n" +
+            "  not Cheese( type == $likes )\n" +
+            "then\n" +
+            "  list.add(\"not:\" + $p.getName());\n" +
+            "end\n" +
+            "rule Total when\n" +
+            "  $s : Number( intValue > 0 ) from accumulate( Cheese( $price : price ), sum( $price ) )\n" +
+            "then\n" +
+            "  list.add(\"sum:\" + $s.intValue());\n" +
+            "end\n";
+
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    public void testCompactFactHandles(KieBaseTestConfiguration kieBaseTestConfiguration) {
+        List<String> expected = run(kieBaseTestConfiguration, CompactFactHandlesOption.NO, DefaultFactHandle.class);
+        List<String> actual = run(kieBaseTestConfiguration, CompactFactHandlesOption.YES, CompactFactHandle.class);
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    private List<String> run(KieBaseTestConfiguration kieBaseTestConfiguration, CompactFactHandlesOption option, Class<?> handleClass) {
+        KieModule kieModule = KieUtil.getKieModuleFromDrls("test", kieBaseTestConfiguration, DRL);
+        KieBase kbase = KieBaseUtil.newKieBaseFromKieModuleWithAdditionalOptions(kieModule, kieBaseTestConfiguration, option);
+        KieSession ksession = kbase.newKieSession();
+        try {
+            List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+
+            Person mario = new Person("Mario", "stilton");
+            Person mark = new Person("Mark", "brie");
+            FactHandle marioFh = ksession.insert(mario);
+            FactHandle markFh = ksession.insert(mark);
+            Cheese stilton = new Cheese("stilton", 10);
+            FactHandle stiltonFh = ksession.insert(stilton);
+            ksession.insert(new Cheese("cheddar", 5));
+            assertThat(marioFh).isExactlyInstanceOf(handleClass);
+            ksession.fireAllRules();
+
+            mark.setLikes("cheddar");
+            ksession.update(markFh, mark);
+            stilton.setPrice(20);
+            ksession.update(stiltonFh, stilton);
+            ksession.fireAllRules();
+
+            ksession.delete(stiltonFh);
+            ksession.fireAllRules();
+
+            // removing a rule detaches the tuples of its nodes from the fact handles
+            kbase.removeRule("org.drools.mvel.integrationtests", "Join");
+            ksession.delete(marioFh);
+            ksession.insert(new Cheese("brie", 7));
+            ksession.fireAllRules();
+
+            list.sort(null);
+            return list;
+        } finally {
+            ksession.dispose();
+        }
+    }
+}
@@ -51,7 +51,10 @@ import org.kie.api.definition.type.FactType;
 import org.kie.api.io.Resource;
 import org.kie.api.io.ResourceType;
 import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieContainerSessionsPool;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.StatelessKieSession;
+import org.kie.internal.conf.CopyOnWriteUpdateOption;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.drools.core.util.DroolsAssert.assertEnumerationSize;
@@ -301,6 +304,103 @@ public class KieContainerTest {
         }
     }
 
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    public void testCopyOnWriteUpdate(KieBaseTestConfiguration kieBaseTestConfiguration) {
+        final KieServices kieServices = KieServices.Factory.get();
+
+        ReleaseId releaseId1 = kieServices.newReleaseId("org.kie.test", "copy-on-write-test", "1.0.0");
+        KieUtil.getKieModuleFromDrls(releaseId1, kieBaseTestConfiguration, createStringDRL("ruleA"));
+
+        System.setProperty(CopyOnWriteUpdateOption.PROPERTY_NAME, "true");
+        try {
+            KieContainer kieContainer = kieServices.newKieContainer(releaseId1);
+            KieBase kieBase1 = kieContainer.getKieBase();
+            KieContainerSessionsPool pool = kieContainer.newKieSessionsPool(1);
+
+            KieSession existingSession = kieContainer.newKieSession();
+            List<String> existingList = new ArrayList<>();
+            existingSession.setGlobal("list", existingList);
+            existingSession.insert("1");
+            existingSession.fireAllRules();
+            assertThat(existingList).containsExactly("ruleA");
+
+            KieSession pooledSession = pool.newKieSession();
+            assertThat(pooledSession.getKieBase()).isSameAs(kieBase1);
+            pooledSession.dispose();
+
+            StatelessKieSession statelessSession = kieBase1.newStatelessKieSession();
+
+            ReleaseId releaseId2 = kieServices.newReleaseId("org.kie.test", "copy-on-write-test", "1.0.1");
+            KieUtil.getKieModuleFromDrls(releaseId2, kieBaseTestConfiguration, createStringDRL("ruleB"));
+            kieContainer.updateToVersion(releaseId2);
+
+            // new sessions, also the pooled ones, are created from a new snapshot of the kbase
+            KieBase kieBase2 = kieContainer.getKieBase();
+            assertThat(kieBase2).isNotSameAs(kieBase1);
+            assertThat(kieBase2.getRule("org.kie.test", "ruleA")).isNull();
+            assertThat(kieBase2.getRule("org.kie.test", "ruleB")).isNotNull();
+
+            pooledSession = pool.newKieSession();
+            assertThat(pooledSession.getKieBase()).isSameAs(kieBase2);
+            pooledSession.dispose();
+
+            KieSession newSession = kieContainer.newKieSession();
+            assertThat(newSession.getKieBase()).isSameAs(kieBase2);
+            List<String> newList = new ArrayList<>();
+            newSession.setGlobal("list", newList);
+            newSession.insert("2");
+            newSession.fireAllRules();
+            assertThat(newList).containsExactly("ruleB");
+            newSession.dispose();
+
+            // the existing session keeps its kbase, which has been incrementally updated
+            assertThat(existingSession.getKieBase()).isSameAs(kieBase1);
+            existingList.clear();
+            existingSession.insert("3");
+            existingSession.fireAllRules();
+            assertThat(existingList).containsExactlyInAnyOrder("ruleB", "ruleB");
+            existingSession.dispose();
+
+            // so do the stateless sessions and the kbase references held before the update
+            assertThat(kieBase1.getRule("org.kie.test", "ruleA")).isNull();
+            assertThat(kieBase1.getRule("org.kie.test", "ruleB")).isNotNull();
+            List<String> statelessList = new ArrayList<>();
+            statelessSession.setGlobal("list", statelessList);
+            statelessSession.execute("4");
+            assertThat(statelessList).containsExactly("ruleB");
+
+            pool.shutdown();
+
+            // without live sessions the current kbase is updated in place, while the previous one keeps being updated
+            ReleaseId releaseId3 = kieServices.newReleaseId("org.kie.test", "copy-on-write-test", "1.0.2");
+            KieUtil.getKieModuleFromDrls(releaseId3, kieBaseTestConfiguration, createStringDRL("ruleC"));
+            kieContainer.updateToVersion(releaseId3);
+
+            assertThat(kieContainer.getKieBase()).isSameAs(kieBase2);
+            for (KieBase kieBase : new KieBase[] { kieBase1, kieBase2 }) {
+                assertThat(kieBase.getRule("org.kie.test", "ruleB")).isNull();
+                assertThat(kieBase.getRule("org.kie.test", "ruleC")).isNotNull();
+            }
+            statelessList.clear();
+            statelessSession.execute("5");
+            assertThat(statelessList).containsExactly("ruleC");
+        } finally {
+            System.clearProperty(CopyOnWriteUpdateOption.PROPERTY_NAME);
+        }
+    }
+
+    private String createStringDRL(String ruleName) {
+        return "package org.kie.test\n" +
+               "global java.util.List list\n" +
+               "rule " + ruleName + "\n" +
+               "when\n" +
+               "  String()\n" +
+               "then\n" +
+               "  list.add( drools.getRule().getName() );\n" +
+               "end\n";
+    }
+
     private static boolean previousRuleExists(KieContainer kieContainer, int i) {
         KieBase kieBase = kieContainer.getKieBase();
         InternalKnowledgePackage internalKnowledgePackage = (InternalKnowledgePackage)kieBase.getKiePackage("org.kie.test");
@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.mvel.integrationtests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.drools.testcoverage.common.model.Person;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.KieUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil2;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.kie.api.KieBase;
+import org.kie.api.builder.KieModule;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.conf.LazyAccumulateOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyAccumulateTest {
+
+    public static Stream<KieBaseTestConfiguration> parameters() {
+        return TestParametersUtil2.getKieBaseCloudConfigurations(true).stream();
+    }
+
+    private static final String DRL =
+            "package org.drools.mvel.integrationtests;\n" +
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R when\n" +
+            "  $s : String()\n" +
+            "  accumulate( Person( name == $s, $a : age ); $max : max($a), $min : min($a), $count : count() )\n" +
+            "then\n" +
+            "  list.add($s + \":\" + $max + \":\" + $min + \":\" + $count);\n" +
+            "end\n";
+
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    public void testNonReversibleFunctions(KieBaseTestConfiguration kieBaseTestConfiguration) {
+        List<String> expected = run(kieBaseTestConfiguration, LazyAccumulateOption.NO);
+        assertThat(expected).containsExactly("b:50:50:1", "a:40:10:3",
+                                             "a:30:10:3",
+                                             "a:30:20:2", "b:50:15:2",
+                                             "a:60:20:2",
+                                             "b:15:15:1", "a:60:20:4");
+        assertThat(run(kieBaseTestConfiguration, LazyAccumulateOption.YES)).containsExactlyElementsOf(expected);
+    }
+
+    private List<String> run(KieBaseTestConfiguration kieBaseTestConfiguration, LazyAccumulateOption option) {
+        KieModule kieModule = KieUtil.getKieModuleFromDrls("test", kieBaseTestConfiguration, DRL);
+        KieBase kbase = KieBaseUtil.newKieBaseFromKieModuleWithAdditionalOptions(kieModule, kieBaseTestConfiguration, option);
+        KieSession ksession = kbase.newKieSession();
+        try {
+            List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+
+            FactHandle a = ksession.insert("a");
+            ksession.insert("b");
+            Person a10 = new Person("a", 10);
+            FactHandle a10Handle = ksession.insert(a10);
+            ksession.insert(new Person("a", 20));
+            FactHandle a40Handle = ksession.insert(new Person("a", 40));
+            ksession.insert(new Person("a", 30));
+            ksession.delete(ksession.insert(new Person("a", 5)));
+            Person b50 = new Person("b", 50);
+            FactHandle b50Handle = ksession.insert(b50);
+            ksession.delete(ksession.getFactHandle(findAged(ksession, 30)));
+            ksession.fireAllRules();
+
+            // the max can't be reversed
+            ksession.delete(a40Handle);
+            ksession.insert(new Person("a", 30));
+            ksession.fireAllRules();
+
+            // the min can't be reversed, a modified person moves to another group
+            a10.setName("b");
+            a10.setAge(15);
+            ksession.update(a10Handle, a10);
+            ksession.fireAllRules();
+
+            // many non reversible changes on the same accumulation
+            ksession.insert(new Person("a", 60));
+            ksession.delete(ksession.getFactHandle(findAged(ksession, 30)));
+            ksession.fireAllRules();
+
+            // the left tuple is modified and all its matches are re-evaluated
+            ksession.insert(new Person("a", 25));
+            ksession.insert(new Person("a", 35));
+            ksession.update(a, "a");
+            b50.setAge(45);
+            ksession.update(b50Handle, b50);
+            ksession.delete(b50Handle);
+            ksession.fireAllRules();
+
+            return list;
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private static Person findAged(KieSession ksession, int age) {
+        return ksession.getObjects(o -> o instanceof Person && ((Person) o).getAge() == age)
+                .stream().map(Person.class::cast).findFirst().orElseThrow();
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.drools.mvel.integrationtests;
 
+import org.drools.core.impl.InternalRuleBase;
+import org.drools.core.rule.consequence.InternalMatch;
 import org.drools.mvel.compiler.util.debug.DebugList;
 import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
 import org.drools.testcoverage.common.util.KieBaseUtil;
@@ -27,11 +29,20 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.kie.api.KieBase;
 import org.kie.api.builder.KieModule;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.event.rule.MatchCreatedEvent;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
 import org.kie.internal.conf.ParallelExecutionOption;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -131,4 +142,184 @@ public class ParallelEvaluationTest {
                 .flatMap(i -> Arrays.asList(i, i+1).stream()).collect(Collectors.toList());
         assertThat(list).isEqualTo(expected);
     }
+
+    private String getSinglePartitionRule(int i) {
+        // the first alpha node is shared, so all the rules belong to the same partition, but their segments are disjoint
+        return  "rule R" + i + " salience " + i + " when\n" +
+                "    $s : String( length > 0, toString == \"" + i + "\" )\n" +
+                "    $i : Integer( toString == $s )\n" +
+                "    not Long( intValue == $i )\n" +
+                "then\n" +
+                "    list.add($i);\n" +
+                "end\n";
+    }
+
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    public void testSegmentEvaluationInSinglePartition(KieBaseTestConfiguration kieBaseTestConfiguration) {
+        int ruleNr = 20;
+        StringBuilder sb = new StringBuilder( 400 );
+        sb.append( "global java.util.List list;\n" );
+        for (int i = 0; i < ruleNr; i++) {
+            sb.append( getSinglePartitionRule( i ) );
+        }
+        // a rule sharing its first segment with R0 must be evaluated by the same thread
+        sb.append( "rule Rshared salience -1 when\n" +
+                   "    $s : String( length > 0, toString == \"0\" )\n" +
+                   "    exists Integer( toString == $s )\n" +
+                   "then\n" +
+                   "    list.add(-1);\n" +
+                   "end\n" );
+
+        final KieModule kieModule = KieUtil.getKieModuleFromDrls("test", kieBaseTestConfiguration, sb.toString());
+        final KieBase kbase = KieBaseUtil.newKieBaseFromKieModuleWithAdditionalOptions(kieModule, kieBaseTestConfiguration, ParallelExecutionOption.PARALLEL_SEGMENT_EVALUATION );
+        assertThat(((InternalRuleBase) kbase).getRuleBaseConfiguration().isParallelSegmentEvaluation()).isTrue();
+
+        for (int loop = 0; loop < 10; loop++) {
+            KieSession ksession = kbase.newKieSession();
+
+            List<Integer> list = new DebugList<>();
+            ksession.setGlobal( "list", list );
+
+            for (int i = 0; i < ruleNr; i++) {
+                ksession.insert( i );
+                ksession.insert( "" + i );
+                if (i % 2 == 1) {
+                    ksession.insert( (long) i );
+                }
+            }
+
+            ksession.fireAllRules();
+
+            List<Integer> expected = Stream.iterate(ruleNr-2, i -> i-2).limit(ruleNr/2).collect(Collectors.toList());
+            expected.add(-1);
+            assertThat(list).isEqualTo(expected);
+            ksession.dispose();
+        }
+    }
+
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    public void testSegmentEvaluationWithActivationGroupAndListener(KieBaseTestConfiguration kieBaseTestConfiguration) {
+        int ruleNr = 20;
+        StringBuilder sb = new StringBuilder( 400 );
+        sb.append( "global java.util.List list;\n" );
+        for (int i = 0; i < ruleNr; i++) {
+            sb.append( getSinglePartitionRule( i ) );
+        }
+        // the rules of an activation-group are evaluated eagerly, but their matches share the agenda with the other ones
+        for (int i = 1; i <= 2; i++) {
+            sb.append( "rule G" + i + " salience " + (100 - i) + " activation-group \"G\" when\n" +
+                       "    Integer( intValue == " + i + " )\n" +
+                       "then\n" +
+                       "    list.add(" + (100 - i) + ");\n" +
+                       "end\n" );
+        }
+
+        final KieModule kieModule = KieUtil.getKieModuleFromDrls("test", kieBaseTestConfiguration, sb.toString());
+        final KieBase kbase = KieBaseUtil.newKieBaseFromKieModuleWithAdditionalOptions(kieModule, kieBaseTestConfiguration, ParallelExecutionOption.PARALLEL_SEGMENT_EVALUATION );
+        assertThat(((InternalRuleBase) kbase).getRuleBaseConfiguration().isParallelSegmentEvaluation()).isTrue();
+
+        for (int loop = 0; loop < 10; loop++) {
+            KieSession ksession = kbase.newKieSession();
+
+            List<Integer> list = new DebugList<>();
+            ksession.setGlobal( "list", list );
+
+            // the matches must be created by the firing thread, since the agenda and its listeners are not thread safe
+            Thread firingThread = Thread.currentThread();
+            List<Thread> creatingThreads = Collections.synchronizedList( new ArrayList<>() );
+            Set<Long> activationNumbers = Collections.synchronizedSet( new HashSet<>() );
+            ksession.addEventListener( new DefaultAgendaEventListener() {
+                @Override
+                public void matchCreated( MatchCreatedEvent event ) {
+                    creatingThreads.add( Thread.currentThread() );
+                    activationNumbers.add( ((InternalMatch) event.getMatch()).getActivationNumber() );
+                }
+            } );
+
+            for (int i = 0; i < ruleNr; i++) {
+                ksession.insert( i );
+                ksession.insert( "" + i );
+                if (i % 2 == 1) {
+                    ksession.insert( (long) i );
+                }
+            }
+
+            assertThat(ksession.fireAllRules()).isEqualTo(ruleNr / 2 + 1);
+
+            // G1 fires first and cancels G2, being in the same activation-group
+            List<Integer> expected = Stream.iterate(ruleNr-2, i -> i-2).limit(ruleNr/2).collect(Collectors.toList());
+            expected.add(0, 99);
+            assertThat(list).isEqualTo(expected);
+            assertThat(creatingThreads).hasSize(ruleNr / 2 + 2).containsOnly(firingThread);
+            assertThat(activationNumbers).hasSize(ruleNr / 2 + 2);
+            ksession.dispose();
+        }
+    }
+
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    public void testSegmentEvaluationWithTogglingNotAndExists(KieBaseTestConfiguration kieBaseTestConfiguration) {
+        int ruleNr = 20;
+        StringBuilder sb = new StringBuilder( 400 );
+        sb.append( "global java.util.List list;\n" );
+        for (int i = 0; i < ruleNr; i++) {
+            // the not and exists nodes have no beta constraints, so they link and unlink their segments while being evaluated
+            sb.append( "rule Rnot" + i + " salience " + i + " when\n" +
+                       "    $s : String( length > 0, toString == \"" + i + "\" )\n" +
+                       "    $i : Integer( toString == $s )\n" +
+                       "    not Long( intValue == " + i + " )\n" +
+                       "then\n" +
+                       "    list.add($i);\n" +
+                       "end\n" );
+            sb.append( "rule Rexists" + i + " salience " + (i - ruleNr) + " when\n" +
+                       "    $s : String( length > 0, toString == \"" + i + "\" )\n" +
+                       "    $i : Integer( toString == $s )\n" +
+                       "    exists Short( intValue == " + i + " )\n" +
+                       "then\n" +
+                       "    list.add(-$i - 1);\n" +
+                       "end\n" );
+        }
+
+        final KieModule kieModule = KieUtil.getKieModuleFromDrls("test", kieBaseTestConfiguration, sb.toString());
+        final KieBase kbase = KieBaseUtil.newKieBaseFromKieModuleWithAdditionalOptions(kieModule, kieBaseTestConfiguration, ParallelExecutionOption.PARALLEL_SEGMENT_EVALUATION );
+
+        for (int loop = 0; loop < 10; loop++) {
+            KieSession ksession = kbase.newKieSession();
+
+            List<Integer> list = new DebugList<>();
+            ksession.setGlobal( "list", list );
+
+            Map<Integer, FactHandle> longs = new HashMap<>();
+            Map<Integer, FactHandle> shorts = new HashMap<>();
+            for (int i = 0; i < ruleNr; i++) {
+                ksession.insert( i );
+                ksession.insert( "" + i );
+            }
+            assertThat(ksession.fireAllRules()).isEqualTo(ruleNr);
+
+            for (int step = 0; step < 4; step++) {
+                list.clear();
+                List<Integer> notFired = new ArrayList<>();
+                List<Integer> existsFired = new ArrayList<>();
+                for (int i = ruleNr - 1; i >= 0; i--) {
+                    if (i % 2 == step % 2) {
+                        longs.put( i, ksession.insert( (long) i ) );
+                        shorts.put( i, ksession.insert( (short) i ) );
+                        existsFired.add( -i - 1 );
+                    } else if (longs.containsKey( i )) {
+                        ksession.delete( longs.remove( i ) );
+                        ksession.delete( shorts.remove( i ) );
+                        notFired.add( i );
+                    }
+                }
+                assertThat(ksession.fireAllRules()).isEqualTo(notFired.size() + existsFired.size());
+
+                notFired.addAll( existsFired );
+                assertThat(list).containsExactlyElementsOf(notFired);
+            }
+            ksession.dispose();
+        }
+    }
 }
@@ -36,6 +36,7 @@ import org.kie.api.runtime.KieSession;
 import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.api.runtime.conf.ClockTypeOption;
 import org.kie.api.runtime.rule.EntryPoint;
+import org.kie.api.runtime.rule.QueryResultsRow;
 import org.kie.api.time.SessionPseudoClock;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -77,6 +78,13 @@ public class WindowTest {
             "        )\n" +
             "end\n" +
             "\n" +
+            "query \"TestTimeWindowMax\"\n" +
+            "    accumulate (\n" +
+            "        $event : TestEvent ( name == \"max\", $id : id ) over window:time( 300ms ) from entry-point EventStream;\n" +
+            "        $eventCount : count( $event ), $maxId : max( $id )\n" +
+            "    )\n" +
+            "end\n" +
+            "\n" +
             "query \"TestLengthWindow\"\n" +
             "    Number( $eventCount : longValue ) from\n" +
             "        accumulate (\n" +
@@ -158,6 +166,37 @@ public class WindowTest {
         }
     }
 
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    public void testTimeWindowExpiringMaxTogether(KieBaseTestConfiguration kieBaseTestConfiguration) {
+        initialization(kieBaseTestConfiguration);
+        EntryPoint entryPoint = ksession.getEntryPoint("EventStream");
+
+        entryPoint.insert(new TestEvent(5, "max", null));
+        entryPoint.insert(new TestEvent(9, "max", null));
+        entryPoint.insert(new TestEvent(1, "max", null));
+        clock.advanceTime(100, TimeUnit.MILLISECONDS);
+        entryPoint.insert(new TestEvent(7, "max", null));
+        entryPoint.insert(new TestEvent(3, "max", null));
+        assertTimeWindowMax(5, 9);
+
+        // the first 3 events, including the max, leave the window together
+        clock.advanceTime(200, TimeUnit.MILLISECONDS);
+        assertTimeWindowMax(2, 7);
+
+        clock.advanceTime(99, TimeUnit.MILLISECONDS);
+        assertTimeWindowMax(2, 7);
+
+        clock.advanceTime(1, TimeUnit.MILLISECONDS);
+        assertThat(ksession.getQueryResults("TestTimeWindowMax").iterator().next().get("$eventCount")).isEqualTo(0L);
+    }
+
+    private void assertTimeWindowMax(long expectedCount, int expectedMaxId) {
+        QueryResultsRow row = ksession.getQueryResults("TestTimeWindowMax").iterator().next();
+        assertThat(row.get("$eventCount")).isEqualTo(expectedCount);
+        assertThat(((Number) row.get("$maxId")).intValue()).isEqualTo(expectedMaxId);
+    }
+
     @ParameterizedTest(name = "KieBase type={0}")
     @MethodSource("parameters")
     public void testLengthWindow(KieBaseTestConfiguration kieBaseTestConfiguration) {
@@ -53,6 +53,8 @@ import org.kie.api.runtime.rule.EntryPoint;
 import org.kie.api.runtime.rule.FactHandle;
 import org.kie.api.runtime.rule.QueryResults;
 import org.kie.internal.conf.ConstraintJittingThresholdOption;
+import org.kie.internal.runtime.conf.ConcurrentObjectStoreOption;
+import org.kie.internal.runtime.conf.PropagationListWaitStrategyOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -537,6 +539,178 @@ public class MultithreadTest {
         }
     }
 
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    @Timeout(40000)
+    public void testConcurrentInsertsWithConcurrentObjectStore(KieBaseTestConfiguration kieBaseTestConfiguration) throws Exception {
+        final String drl =
+                "global java.util.List list;\n" +
+                "rule R when\n" +
+                "  $i: Integer()\n" +
+                "then\n" +
+                "  list.add($i);\n" +
+                "end\n";
+
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, drl);
+        KieSessionConfiguration conf = KieServices.get().newKieSessionConfiguration();
+        conf.setOption(ConcurrentObjectStoreOption.YES);
+        KieSession ksession = kbase.newKieSession(conf, null);
+        final List<Integer> list = Collections.synchronizedList(new ArrayList<>());
+        ksession.setGlobal("list", list);
+
+        final int THREAD_NR = 4;
+        final int FACT_NR = 2500;
+        final Integer shared = 1_000_000;
+        final ExecutorService executor = Executors.newFixedThreadPool(THREAD_NR);
+        try {
+            final CyclicBarrier barrier = new CyclicBarrier(THREAD_NR);
+            final CompletionService<Boolean> ecs = new ExecutorCompletionService<>(executor);
+            for (int t = 0; t < THREAD_NR; t++) {
+                final int offset = t * FACT_NR;
+                ecs.submit(() -> {
+                    barrier.await();
+                    for (int i = 0; i < FACT_NR; i++) {
+                        ksession.insert(offset + i);
+                        // all the threads insert also the same instance, that has to be inserted only once
+                        ksession.insert(shared);
+                    }
+                    return true;
+                });
+            }
+            for (int t = 0; t < THREAD_NR; t++) {
+                assertThat(ecs.take().get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ksession.getFactCount()).isEqualTo(THREAD_NR * FACT_NR + 1);
+        ksession.fireAllRules();
+        assertThat(list).hasSize(THREAD_NR * FACT_NR + 1);
+        ksession.dispose();
+    }
+
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    @Timeout(40000)
+    public void testConcurrentInsertsWhileEnablingTMS(KieBaseTestConfiguration kieBaseTestConfiguration) throws Exception {
+        // the logical insert enables the TMS for the Integer type while the other threads insert Integers without locking
+        final String drl =
+                "rule R when\n" +
+                "  String( this == \"go\" )\n" +
+                "then\n" +
+                "  insertLogical( Integer.valueOf(-1) );\n" +
+                "end\n";
+
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, drl);
+
+        final int THREAD_NR = 4;
+        final int FACT_NR = 2000;
+        for (int loop = 0; loop < 10; loop++) {
+            KieSessionConfiguration conf = KieServices.get().newKieSessionConfiguration();
+            conf.setOption(ConcurrentObjectStoreOption.YES);
+            KieSession ksession = kbase.newKieSession(conf, null);
+
+            final Integer[][] facts = new Integer[THREAD_NR][FACT_NR];
+            for (int t = 0; t < THREAD_NR; t++) {
+                for (int i = 0; i < FACT_NR; i++) {
+                    facts[t][i] = Integer.valueOf(1000 + t * FACT_NR + i);
+                }
+            }
+
+            final ExecutorService executor = Executors.newFixedThreadPool(THREAD_NR);
+            try {
+                final CyclicBarrier barrier = new CyclicBarrier(THREAD_NR + 1);
+                final CompletionService<Boolean> ecs = new ExecutorCompletionService<>(executor);
+                for (int t = 0; t < THREAD_NR; t++) {
+                    final Integer[] threadFacts = facts[t];
+                    ecs.submit(() -> {
+                        barrier.await();
+                        for (Integer fact : threadFacts) {
+                            ksession.insert(fact);
+                        }
+                        return true;
+                    });
+                }
+                barrier.await();
+                ksession.insert("go");
+                ksession.fireAllRules();
+                for (int t = 0; t < THREAD_NR; t++) {
+                    assertThat(ecs.take().get()).isTrue();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            // inserting again the same objects, now going through the TMS, returns their stated handles
+            for (Integer[] threadFacts : facts) {
+                for (Integer fact : threadFacts) {
+                    FactHandle fh = ksession.getFactHandle(fact);
+                    assertThat(ksession.insert(fact)).isSameAs(fh);
+                }
+            }
+            assertThat(ksession.getFactCount()).isEqualTo(THREAD_NR * FACT_NR + 2);
+            ksession.dispose();
+        }
+    }
+
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    @Timeout(40000)
+    public void testFireUntilHaltWithLockFreePropagationList(KieBaseTestConfiguration kieBaseTestConfiguration) throws Exception {
+        final String drl =
+                "global java.util.List list;\n" +
+                "rule R when\n" +
+                "  $i: Integer()\n" +
+                "then\n" +
+                "  list.add($i);\n" +
+                "end\n";
+
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, drl);
+        for (PropagationListWaitStrategyOption waitStrategy : new PropagationListWaitStrategyOption[] { PropagationListWaitStrategyOption.SPIN_PARK, PropagationListWaitStrategyOption.PARK }) {
+            KieSessionConfiguration conf = KieServices.get().newKieSessionConfiguration();
+            conf.setOption(waitStrategy);
+            KieSession ksession = kbase.newKieSession(conf, null);
+            final List<Integer> list = Collections.synchronizedList(new ArrayList<>());
+            ksession.setGlobal("list", list);
+
+            final int THREAD_NR = 4;
+            final int FACT_NR = 2500;
+            final ExecutorService executor = Executors.newFixedThreadPool(THREAD_NR + 1);
+            try {
+                executor.execute(ksession::fireUntilHalt);
+                final CyclicBarrier barrier = new CyclicBarrier(THREAD_NR);
+                final CompletionService<Boolean> ecs = new ExecutorCompletionService<>(executor);
+                for (int t = 0; t < THREAD_NR; t++) {
+                    final int offset = t * FACT_NR;
+                    ecs.submit(() -> {
+                        barrier.await();
+                        for (int i = 0; i < FACT_NR; i++) {
+                            ksession.insert(offset + i);
+                            if (i % 500 == 0) {
+                                // gives the firing thread the chance to come to rest and park
+                                Thread.sleep(5L);
+                            }
+                        }
+                        return true;
+                    });
+                }
+                for (int t = 0; t < THREAD_NR; t++) {
+                    assertThat(ecs.take().get()).isTrue();
+                }
+
+                while (list.size() < THREAD_NR * FACT_NR) {
+                    Thread.sleep(10L);
+                }
+                assertThat(list).hasSize(THREAD_NR * FACT_NR);
+            } finally {
+                ksession.halt();
+                ksession.dispose();
+                executor.shutdownNow();
+            }
+        }
+    }
+
     public class SlowBean {
 
         private final int id;
@@ -19,6 +19,7 @@
 package org.drools.mvel.integrationtests.session;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -34,6 +35,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.kie.api.KieBase;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -129,4 +131,52 @@ public class InsertTest {
         ksession.fireAllRules();
         assertThat(list.size()).isEqualTo(1);
     }
+
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    public void testInsertAll(KieBaseTestConfiguration kieBaseTestConfiguration) {
+        String drl =
+                "package test\n" +
+                "import org.drools.mvel.compiler.Person\n" +
+                "import org.drools.mvel.compiler.Pet\n" +
+                "global java.util.List list\n" +
+                "rule R when\n" +
+                "  $person : Person()\n" +
+                "  Pet( ownerName == $person.name )\n" +
+                "then\n" +
+                "  list.add( $person.getName() );\n" +
+                "end\n";
+
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, drl);
+        KieSession ksession = kbase.newKieSession();
+        final List<String> list = new ArrayList<>();
+        ksession.setGlobal("list", list);
+
+        final Person toni = new Person("Toni");
+        final List<Object> facts = Arrays.asList(toni, new Pet("Toni"), new Person("Mark"), new Pet("Mark"), null, toni);
+        final List<FactHandle> handles = ksession.insertAll(facts);
+
+        assertThat(handles).hasSize(6);
+        assertThat(handles.get(4)).isNull();
+        assertThat(handles.get(5)).isSameAs(handles.get(0));
+        assertThat(ksession.getObject(handles.get(2)).toString()).isEqualTo(new Person("Mark").toString());
+        assertThat(ksession.getFactCount()).isEqualTo(4);
+
+        assertThat(ksession.fireAllRules()).isEqualTo(2);
+
+        // the rules fire in the same order as with single inserts
+        KieSession ksession2 = kbase.newKieSession();
+        final List<String> list2 = new ArrayList<>();
+        ksession2.setGlobal("list", list2);
+        for (Object fact : facts) {
+            if (fact != null) {
+                ksession2.insert(fact);
+            }
+        }
+        ksession2.fireAllRules();
+        assertThat(list).isEqualTo(list2);
+
+        ksession.dispose();
+        ksession2.dispose();
+    }
 }
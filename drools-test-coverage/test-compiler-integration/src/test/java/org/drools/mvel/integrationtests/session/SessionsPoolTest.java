@@ -29,8 +29,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import org.drools.core.common.EventSupport;
+import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.event.DefaultAgendaEventListener;
 import org.drools.core.event.DefaultRuleRuntimeEventListener;
+import org.drools.core.reteoo.PathMemory;
+import org.drools.core.reteoo.TerminalNode;
 import org.drools.mvel.compiler.FactA;
 import org.drools.mvel.compiler.FactB;
 import org.drools.mvel.compiler.FactC;
@@ -53,6 +56,7 @@ import org.kie.api.runtime.KieSession;
 import org.kie.api.runtime.KieSessionsPool;
 import org.kie.api.runtime.StatelessKieSession;
 import org.kie.internal.command.CommandFactory;
+import org.kie.internal.conf.SessionsPoolWarmUpOption;
 import org.kie.internal.event.rule.RuleEventListener;
 import org.kie.internal.event.rule.RuleEventManager;
 
@@ -288,6 +292,65 @@ public class SessionsPoolTest {
         pool.shutdown();
     }
 
+    @ParameterizedTest(name = "KieBase type={0}")
+    @MethodSource("parameters")
+    public void testWarmUpWithReferenceFacts(KieBaseTestConfiguration kieBaseTestConfiguration) {
+        String drl =
+                "global java.util.List list\n" +
+                "rule R1 when\n" +
+                "  String()\n" +
+                "  $i : Integer()\n" +
+                "  not Boolean()\n" +
+                "then\n" +
+                "  list.add(\"R1:\" + $i);\n" +
+                "end\n" +
+                "\n" +
+                "rule R2 when \n" +
+                "  String()\n" +
+                "  $i : Integer()\n" +
+                "then\n" +
+                "  list.add(\"R2:\" + $i);\n" +
+                "end\n";
+
+        final KieModule kieModule = KieUtil.getKieModuleFromDrls("test", kieBaseTestConfiguration, drl);
+
+        System.setProperty(SessionsPoolWarmUpOption.PROPERTY_NAME, "true");
+        try {
+            KieContainer kcontainer = KieServices.get().newKieContainer(kieModule.getReleaseId());
+            KieContainerSessionsPool pool = kcontainer.newKieSessionsPool( 1 );
+            pool.setReferenceFacts( List.of( 42 ) );
+
+            for (int i = 0; i < 2; i++) {
+                KieSession ksession = pool.newKieSession();
+                assertThat(ksession.getFactCount()).isEqualTo(1);
+                assertAllSegmentMemoriesCreated( ksession );
+
+                List<String> list = new ArrayList<>();
+                ksession.setGlobal( "list", list );
+                ksession.insert( "test" );
+                ksession.fireAllRules();
+                assertThat(list).containsExactlyInAnyOrder("R1:42", "R2:42");
+
+                ksession.dispose();
+            }
+
+            pool.shutdown();
+        } finally {
+            System.clearProperty(SessionsPoolWarmUpOption.PROPERTY_NAME);
+        }
+    }
+
+    private void assertAllSegmentMemoriesCreated( KieSession ksession ) {
+        InternalWorkingMemory wm = (InternalWorkingMemory) ksession;
+        for (TerminalNode[] terminalNodes : wm.getKnowledgeBase().getReteooBuilder().getTerminalNodes().values()) {
+            for (TerminalNode terminalNode : terminalNodes) {
+                PathMemory pmem = (PathMemory) wm.getNodeMemories().peekNodeMemory( terminalNode );
+                assertThat(pmem).isNotNull();
+                assertThat(pmem.getSegmentMemories()).doesNotContainNull();
+            }
+        }
+    }
+
     @ParameterizedTest(name = "KieBase type={0}")
     @MethodSource("parameters")
     public void testSegmentMemoriesResetWithNotNodeInTheMiddle(KieBaseTestConfiguration kieBaseTestConfiguration) {
@@ -35,6 +35,7 @@ import org.drools.core.common.TruthMaintenanceSystem;
 import org.drools.core.reteoo.ObjectTypeConf;
 import org.drools.core.reteoo.Tuple;
 import org.drools.core.rule.consequence.InternalMatch;
+import org.drools.core.util.EqualityIndex;
 import org.drools.core.util.LinkedList;
 import org.drools.tms.agenda.TruthMaintenanceSystemInternalMatch;
 import org.drools.tms.beliefsystem.BeliefSet;
@@ -42,7 +43,6 @@ import org.drools.tms.beliefsystem.BeliefSystem;
 import org.drools.tms.beliefsystem.BeliefSystemMode;
 import org.drools.tms.beliefsystem.ModedAssertion;
 import org.drools.tms.beliefsystem.jtms.JTMSBeliefSetImpl;
-import org.drools.tms.util.CustomKeyTransformerHashMap;
 import org.kie.api.runtime.rule.FactHandle;
 
 public class TruthMaintenanceSystemImpl implements TruthMaintenanceSystem {
@@ -64,34 +64,11 @@ public class TruthMaintenanceSystemImpl implements TruthMaintenanceSystem {
 
         this.typeConfReg = ep.getObjectTypeConfigurationRegistry();
 
-        this.equalityKeyMap = new CustomKeyTransformerHashMap<>(EqualityKeyPlaceholder::transformEqualityKey);
+        this.equalityKeyMap = new EqualityIndex<>();
 
         this.defaultBeliefSystem = BeliefSystemFactory.createBeliefSystem(ep.getReteEvaluator().getRuleSessionConfiguration().getBeliefSystemType(), ep, this);
     }
 
-    private static class EqualityKeyPlaceholder {
-        private final Object object;
-
-        private EqualityKeyPlaceholder(final Object object) {
-            this.object = object;
-        }
-
-        private static Object transformEqualityKey(Object o) {
-            return o instanceof EqualityKey ? o : new EqualityKeyPlaceholder(o);
-        }
-
-        @Override
-        public int hashCode() {
-            return object.hashCode();
-        }
-
-        @Override
-        public boolean equals(Object other) {
-            // notice it switches it to always use b, the EqualityKey.
-            return this == other || other.equals( object );
-        }
-    }
-
     @Override
     public int getEqualityKeysSize() {
         return equalityKeyMap.size();
@@ -114,6 +91,16 @@ public class TruthMaintenanceSystemImpl implements TruthMaintenanceSystem {
 
     @Override
     public InternalFactHandle insert(Object object, Object tmsValue, InternalMatch internalMatch) {
+        // the stated inserts of the other threads also access the equality keys while holding the entry point lock
+        ep.lock();
+        try {
+            return internalInsert(object, tmsValue, internalMatch);
+        } finally {
+            ep.unlock();
+        }
+    }
+
+    private InternalFactHandle internalInsert(Object object, Object tmsValue, InternalMatch internalMatch) {
         ObjectTypeConf typeConf = typeConfReg.getOrCreateObjectTypeConf( ep.getEntryPoint(), object );
         if ( !typeConf.isTMSEnabled()) {
             enableTMS(object, typeConf);
@@ -258,20 +245,27 @@ public class TruthMaintenanceSystemImpl implements TruthMaintenanceSystem {
      * @param conf the type's configuration.
      */
     private void enableTMS(Object object, ObjectTypeConf conf) {
-        Iterator<InternalFactHandle> it = ep.getObjectStore().iterateFactHandles(ClassAwareObjectStore.getActualClass(object));
+        // Enable TMS for this type before walking the object store: a handle concurrently added without
+        // taking the entry point lock is either found here or sees TMS enabled and gets its own key afterwards.
+        conf.enableTMS();
 
+        Iterator<InternalFactHandle> it = ep.getObjectStore().iterateFactHandles(ClassAwareObjectStore.getActualClass(object));
         while (it.hasNext()) {
             InternalFactHandle handle = it.next();
-            if (handle != null && handle.getEqualityKey() == null) {
-                EqualityKey key = new TruthMaintenanceSystemEqualityKey(handle);
-                handle.setEqualityKey(key);
-                key.setStatus(EqualityKey.STATED);
-                put(key);
+            if (handle != null) {
+                addStatedHandle(handle);
             }
         }
+    }
 
-        // Enable TMS for this type.
-        conf.enableTMS();
+    @Override
+    public void addStatedHandle(InternalFactHandle handle) {
+        if (handle.getEqualityKey() == null) {
+            EqualityKey key = new TruthMaintenanceSystemEqualityKey(handle);
+            handle.setEqualityKey(key);
+            key.setStatus(EqualityKey.STATED);
+            put(key);
+        }
     }
 
     @Override
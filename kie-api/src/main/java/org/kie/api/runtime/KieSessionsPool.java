@@ -18,6 +18,8 @@
  */
 package org.kie.api.runtime;
 
+import java.util.Collection;
+
 import org.kie.api.command.Command;
 
 /**
@@ -63,6 +65,15 @@ public interface KieSessionsPool {
      */
     StatelessKieSession newStatelessKieSession( KieSessionConfiguration conf );
 
+    /**
+     * Sets the facts inserted in the pooled sessions before handing them out.
+     * They are inserted again each time a session is reset when released, so it is not necessary
+     * to insert this reference state on each request. It affects the sessions created or released after this call.
+     *
+     * @param referenceFacts the facts inserted in every session of this pool
+     */
+    void setReferenceFacts( Collection<?> referenceFacts );
+
     /**
      * Shutdown this pool and clean up all the resources
      */
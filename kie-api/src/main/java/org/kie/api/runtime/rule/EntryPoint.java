@@ -18,7 +18,9 @@
  */
 package org.kie.api.runtime.rule;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.kie.api.runtime.ClassObjectFilter;
@@ -65,6 +67,24 @@ public interface EntryPoint {
      */
     FactHandle insert(Object object);
 
+    /**
+     * Inserts all the given facts into this entry point. The engine can propagate the whole collection
+     * through the network at once, so this is faster than inserting the facts one by one when loading
+     * large amounts of them.
+     *
+     * @param objects
+     *        the facts to be inserted
+     *
+     * @return the fact handles created for the given facts, in the same order
+     */
+    default List<FactHandle> insertAll(Collection<?> objects) {
+        List<FactHandle> handles = new ArrayList<>(objects.size());
+        for (Object object : objects) {
+            handles.add(insert(object));
+        }
+        return handles;
+    }
+
     /**
      * Retracts the fact for which the given FactHandle was assigned.
      *
@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.conf.SingleValueRuleBaseOption;
+
+/**
+ * An Enum for the AgendaGroupQueue option.
+ *
+ * drools.agendaGroupQueue = &lt;priority|salienceFifo|salienceLifo&gt;
+ *
+ * With priority the rules of an agenda group are kept in a priority queue ordered by salience and load order.
+ * The salience modes keep a bucket per salience value instead, rules with the same salience are fired in the
+ * order they have been activated (salienceFifo) or in the reverse order (salienceLifo). An agenda group using
+ * a salience mode falls back to the priority queue when it meets a rule with dynamic salience.
+ *
+ * DEFAULT = priority
+ */
+public enum AgendaGroupQueueOption implements SingleValueRuleBaseOption {
+
+    PRIORITY("priority"),
+    SALIENCE_FIFO("salienceFifo"),
+    SALIENCE_LIFO("salienceLifo");
+
+    /**
+     * The property name for the agenda group queue option
+     */
+    public static final String PROPERTY_NAME = "drools.agendaGroupQueue";
+
+    public static OptionKey<AgendaGroupQueueOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    private String             string;
+
+    AgendaGroupQueueOption(String mode) {
+        this.string = mode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public String getValue() {
+        return string;
+    }
+
+    public boolean isSalienceBuckets() {
+        return this != PRIORITY;
+    }
+
+    public String toString() {
+        return "AgendaGroupQueueOption( "+string+ " )";
+    }
+
+    public String toExternalForm() {
+        return this.string;
+    }
+
+    public static AgendaGroupQueueOption determineAgendaGroupQueue(String mode) {
+        for (AgendaGroupQueueOption option : values()) {
+            if (option.getValue().equalsIgnoreCase(mode)) {
+                return option;
+            }
+        }
+        throw new IllegalArgumentException( "Illegal enum value '" + mode + "' for AgendaGroupQueue" );
+    }
+
+}
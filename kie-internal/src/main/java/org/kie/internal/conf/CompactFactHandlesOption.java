@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.conf.SingleValueRuleBaseOption;
+
+/**
+ * An Enum for CompactFactHandles option. When enabled the handles of the facts inserted in the sessions of a
+ * non partitioned kbase keep the heads and tails of their linked tuples in their own fields, instead of
+ * allocating a separate linked tuples structure for each fact, reducing the memory retained by each handle.
+ * Events and the facts of kbases using traits still use their own handles.
+ *
+ * drools.compactFactHandles = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum CompactFactHandlesOption implements SingleValueRuleBaseOption {
+
+    YES(true),
+    NO(false);
+
+    /**
+     * The property name for the compact fact handles option
+     */
+    public static final String PROPERTY_NAME = "drools.compactFactHandles";
+
+    public static OptionKey<SingleValueRuleBaseOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    private boolean value;
+
+    CompactFactHandlesOption( final boolean value ) {
+        this.value = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isCompactFactHandles() {
+        return this.value;
+    }
+
+}
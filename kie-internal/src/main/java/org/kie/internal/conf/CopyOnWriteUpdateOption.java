@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.conf.SingleValueRuleBaseOption;
+
+/**
+ * An Enum for CopyOnWriteUpdate option. When enabled a KieContainer update of a kbase having live sessions
+ * builds a new snapshot of the kbase, used by the sessions created afterwards, so that they don't wait for
+ * the existing ones. The previous snapshots are still updated, the ones with running sessions at the next
+ * safe point of those sessions.
+ *
+ * drools.copyOnWriteUpdate = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum CopyOnWriteUpdateOption implements SingleValueRuleBaseOption {
+
+    YES(true),
+    NO(false);
+
+    /**
+     * The property name for the copy on write update option
+     */
+    public static final String PROPERTY_NAME = "drools.copyOnWriteUpdate";
+
+    public static OptionKey<SingleValueRuleBaseOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    private boolean value;
+
+    CopyOnWriteUpdateOption( final boolean value ) {
+        this.value = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isCopyOnWriteUpdate() {
+        return this.value;
+    }
+
+}
@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.conf.SingleValueRuleBaseOption;
+
+/**
+ * An Enum for LazyAccumulate option. When enabled the accumulate and groupBy nodes don't recalculate from scratch
+ * the result of an accumulation whose functions can't be reversed each time one of its matches is removed or
+ * modified: the accumulation is only marked as dirty and it is recalculated once, when its result is about to be
+ * propagated during the evaluation of the rule. It is ignored by sequential kbases.
+ *
+ * drools.lazyAccumulate = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum LazyAccumulateOption implements SingleValueRuleBaseOption {
+
+    YES(true),
+    NO(false);
+
+    /**
+     * The property name for the lazy accumulate option
+     */
+    public static final String PROPERTY_NAME = "drools.lazyAccumulate";
+
+    public static OptionKey<SingleValueRuleBaseOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    private boolean value;
+
+    LazyAccumulateOption( final boolean value ) {
+        this.value = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isLazyAccumulate() {
+        return this.value;
+    }
+
+}
@@ -24,13 +24,16 @@ import org.kie.api.conf.SingleValueRuleBaseOption;
 /**
  * Determines is the engine should evaluate rules and execute their consequences sequentially or in parallel.
  *
- * drools.parallelExecution = &lt;sequential|parallel_evaluation|fully_parallel&gt;
+ * drools.parallelExecution = &lt;sequential|parallel_evaluation|parallel_segment_evaluation|fully_parallel&gt;
+ *
+ * PARALLEL_SEGMENT_EVALUATION also evaluates in parallel the rules belonging to the same partition,
+ * as long as their paths don't share any segment.
  *
  * DEFAULT = SEQUENTIAL
  */
 public enum ParallelExecutionOption implements SingleValueRuleBaseOption {
 
-    SEQUENTIAL, PARALLEL_EVALUATION, FULLY_PARALLEL;
+    SEQUENTIAL, PARALLEL_EVALUATION, PARALLEL_SEGMENT_EVALUATION, FULLY_PARALLEL;
 
     public static final String PROPERTY_NAME = "drools.parallelExecution";
 
@@ -48,6 +51,9 @@ public enum ParallelExecutionOption implements SingleValueRuleBaseOption {
         if ("parallel_evaluation".equalsIgnoreCase(value)) {
             return PARALLEL_EVALUATION;
         }
+        if ("parallel_segment_evaluation".equalsIgnoreCase(value)) {
+            return PARALLEL_SEGMENT_EVALUATION;
+        }
         if ("fully_parallel".equalsIgnoreCase(value)) {
             return FULLY_PARALLEL;
         }
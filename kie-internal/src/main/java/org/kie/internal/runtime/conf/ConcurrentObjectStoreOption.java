@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.runtime.conf.SingleValueRuleRuntimeOption;
+
+/**
+ * An option to keep the facts of the entry points of a thread safe session in an object store supporting concurrent
+ * access, instead of serializing all the insertions into an entry point through a single lock. Facts of different
+ * classes are stored and looked up independently, so many threads can insert into the same entry point at the same
+ * time. It is ignored by the sessions that are not thread safe.
+ *
+ * drools.concurrentObjectStore = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum ConcurrentObjectStoreOption implements SingleValueRuleRuntimeOption {
+
+    YES(true),
+    NO(false);
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name for the concurrent object store configuration
+     */
+    public static final String PROPERTY_NAME = "drools.concurrentObjectStore";
+
+    public static OptionKey<ConcurrentObjectStoreOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    private final boolean concurrentObjectStore;
+
+    ConcurrentObjectStoreOption( final boolean concurrentObjectStore ) {
+        this.concurrentObjectStore = concurrentObjectStore;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isConcurrentObjectStore() {
+        return concurrentObjectStore;
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.runtime.conf.SingleValueRuleRuntimeOption;
+
+/**
+ * An enum to configure how a thread safe session queues the propagations coming from other threads, and how the
+ * thread running fireUntilHalt waits for them when there is nothing else to do.
+ *
+ * The "MONITOR" strategy guards the propagation list with its monitor and waits on it. The "SPIN_PARK" and "PARK"
+ * strategies use a lock-free multi-producer/single-consumer list, so inserting threads never contend on a lock:
+ * the former lets the firing thread busy spin for a short while before parking, reacting faster to bursts of
+ * inserts at the price of some CPU, while the latter parks it immediately.
+ *
+ * drools.propagationList.waitStrategy = &lt;monitor|spinPark|park&gt;
+ *
+ * DEFAULT = monitor
+ */
+public enum PropagationListWaitStrategyOption implements SingleValueRuleRuntimeOption {
+
+    MONITOR("monitor"),
+    SPIN_PARK("spinPark"),
+    PARK("park");
+
+    /**
+     * The property name for the propagation list wait strategy configuration
+     */
+    public static final String PROPERTY_NAME = "drools.propagationList.waitStrategy";
+
+    public static OptionKey<PropagationListWaitStrategyOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    private final String option;
+
+    PropagationListWaitStrategyOption(String option) {
+        this.option = option;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public String getAsString() {
+        return option;
+    }
+
+    public boolean isLockFree() {
+        return this != MONITOR;
+    }
+
+    public String toString() {
+        return "PropagationListWaitStrategyOption( " + option + " )";
+    }
+
+    public static PropagationListWaitStrategyOption determineWaitStrategy(String option) {
+        for (PropagationListWaitStrategyOption strategy : values()) {
+            if (strategy.getAsString().equalsIgnoreCase(option)) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException( "Illegal enum value '" + option + "' for PropagationListWaitStrategyOption" );
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.runtime.conf.SingleValueRuleRuntimeOption;
+
+/**
+ * An option to schedule the jobs of the realtime clock, like the expiration of events and the timers of the rules,
+ * on a hierarchical timing wheel instead of a priority queue. The value is the duration in milliseconds of a tick
+ * of the wheel: scheduling and cancelling a job take constant time, and all the jobs due within the same tick are
+ * executed together, so they can be propagated in a single batch. A job is never executed before its fire time,
+ * but it can be delayed up to the duration of a tick. A value of 0 disables the timing wheel. The pseudo clock
+ * ignores this option.
+ *
+ * drools.timingWheelTick = &lt;0...n&gt;
+ *
+ * DEFAULT = 0
+ */
+public class TimingWheelOption implements SingleValueRuleRuntimeOption {
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name for the timing wheel tick configuration
+     */
+    public static final String PROPERTY_NAME = "drools.timingWheelTick";
+
+    public static OptionKey<TimingWheelOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    public static final int DEFAULT_VALUE = 0;
+
+    /**
+     * the duration of a tick in milliseconds
+     */
+    private final int tick;
+
+    /**
+     * Private constructor to enforce the use of the factory method
+     * @param tick
+     */
+    private TimingWheelOption( int tick ) {
+        this.tick = tick;
+    }
+
+    /**
+     * This is a factory method for this timing wheel configuration.
+     * The factory method is a best practice for the case where the
+     * actual object construction is changed in the future.
+     *
+     * @param tick the duration of a tick of the timing wheel in milliseconds, 0 to disable it
+     *
+     * @return the actual type safe timing wheel configuration.
+     */
+    public static TimingWheelOption get( int tick ) {
+        return new TimingWheelOption( tick );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    /**
+     * Returns the duration of a tick of the timing wheel in milliseconds
+     *
+     * @return
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + tick;
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if ( this == obj ) { return true; }
+        if ( obj == null ) { return false; }
+        if ( getClass() != obj.getClass() ) { return false; }
+        TimingWheelOption other = (TimingWheelOption) obj;
+        if ( tick != other.tick ) {
+            return false;
+        }
+        return true;
+    }
+
+}